@@ -0,0 +1,135 @@
+package org.wordpress.android.datasets
+
+import android.database.sqlite.SQLiteDatabase
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.models.Note
+import org.wordpress.android.models.NotesFilter
+import org.wordpress.android.ui.notifications.adapters.NotesAdapter
+import kotlin.random.Random
+
+private const val TAG = "NotificationsTableBenchmark"
+private const val ROUNDS = 20
+private const val NUM_STORED_NOTES = 5000
+private const val NUM_VISIBLE_NOTES = 10
+
+/**
+ * Stores 5,000 notes and, for each filter, shows the latest ones the way the list did before the fields had their
+ * own columns - parsing the json of every row then filtering - and with the SQL filter, which only parses the rows
+ * it returns. Logs how long each takes.
+ */
+@RunWith(AndroidJUnit4::class)
+class NotificationsTableBenchmarkTest {
+    private lateinit var db: SQLiteDatabase
+
+    private val types = listOf(
+            Note.NOTE_COMMENT_TYPE,
+            Note.NOTE_LIKE_TYPE,
+            Note.NOTE_COMMENT_LIKE_TYPE,
+            Note.NOTE_FOLLOW_TYPE,
+            Note.NOTE_MATCHER_TYPE,
+            Note.NOTE_NEW_POST_TYPE
+    )
+
+    @Before
+    fun setUp() {
+        db = SQLiteDatabase.create(null)
+        NotificationsTable.createTables(db)
+        NotificationsTable.createIndexes(db)
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun compareTimeToShowTheLatestNotesParsingEveryRowAndParsingTheVisibleRows() {
+        NotificationsTable.saveNotes(db, createNotes(Random(4), NUM_STORED_NOTES), true)
+        assertEquals(NotificationsTable.NOTES_TO_RETRIEVE, getLatestNotesParsingAll().size)
+
+        for (filter in NotesFilter.values()) {
+            val parseAllMillis = measure {
+                val notes = getLatestNotesParsingAll()
+                val filtered = ArrayList<Note>()
+                NotesAdapter.buildFilteredNotesList(filtered, notes, filter)
+                filtered.take(NUM_VISIBLE_NOTES).forEach { it.formattedSubjectText() }
+            }
+            val parseVisibleMillis = measure {
+                val filtered = NotificationsTable.getLatestNotes(db, filter, NotificationsTable.NOTES_TO_RETRIEVE)
+                filtered.take(NUM_VISIBLE_NOTES).forEach { it.formattedSubjectText() }
+            }
+
+            Log.i(TAG, "$NUM_STORED_NOTES stored notes, $filter: parsing every row %.2f ms, ".format(parseAllMillis) +
+                    "parsing the visible rows %.2f ms".format(parseVisibleMillis))
+        }
+    }
+
+    /*
+     * how the list was loaded before the fields had their own columns - the json of each of the latest notes
+     * was parsed, and the notes were filtered after that
+     */
+    private fun getLatestNotesParsingAll(): List<Note> {
+        val notes = ArrayList<Note>()
+        db.query("tbl_notifications", arrayOf("note_id", "raw_note_data"), null, null, null, null,
+                "timestamp DESC", NotificationsTable.NOTES_TO_RETRIEVE.toString()).use { cursor ->
+            while (cursor.moveToNext()) {
+                notes.add(Note(cursor.getString(0), JSONObject(cursor.getString(1))))
+            }
+        }
+        return notes
+    }
+
+    private fun Note.formattedSubjectText() = subject?.optString("text")
+
+    private fun measure(showNotes: () -> Unit): Double {
+        // warm up before timing
+        repeat(ROUNDS) { showNotes() }
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { showNotes() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0 / ROUNDS
+    }
+
+    /*
+     * notes with random types and read states, and unique timestamps in random order
+     */
+    private fun createNotes(random: Random, numNotes: Int): List<Note> {
+        val seconds = (1..numNotes).map { it * 61 }.shuffled(random)
+        return (1..numNotes).map { id -> createNote(random, id, seconds[id - 1]) }
+    }
+
+    private fun createNote(random: Random, id: Int, seconds: Int): Note {
+        val type = types[random.nextInt(types.size)]
+        val ids = JSONObject().put("site", 100 + id % 7).put("post", 200 + id)
+        if (type != Note.NOTE_MATCHER_TYPE || random.nextBoolean()) {
+            ids.put("comment", 300 + id)
+        }
+        val json = JSONObject()
+                .put("id", id)
+                .put("type", type)
+                .put("timestamp", "2020-01-%02dT%02d:%02d:%02d+00:00".format(
+                        1 + seconds / 86400, seconds / 3600 % 24, seconds / 60 % 60, seconds % 60))
+                .put("read", random.nextInt(2))
+                .put("note_hash", "hash-$id")
+                .put("icon", "https://example.gravatar.com/avatar/$id")
+                .put("meta", JSONObject().put("ids", ids))
+                .put("subject", JSONArray().put(JSONObject()
+                        .put("text", "Someone commented on Post number $id")
+                        .put("ranges", JSONArray().put(JSONObject().put("type", "user")
+                                .put("indices", JSONArray().put(0).put(7))))))
+                .put("body", JSONArray()
+                        .put(JSONObject().put("type", "user").put("text", "Someone $id"))
+                        .put(JSONObject().put("type", "comment")
+                                .put("text", "This is the text of comment $id. ".repeat(5))))
+        return Note(id.toString(), json)
+    }
+}
@@ -0,0 +1,108 @@
+package org.wordpress.android.datasets
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.models.ReaderPost
+import org.wordpress.android.models.ReaderPostList
+import org.wordpress.android.models.ReaderTag
+import org.wordpress.android.models.ReaderTagType
+import org.wordpress.android.ui.reader.ReaderConstants
+
+private const val TAG = "ReaderPostPagingBenchmark"
+private const val NUM_POSTS = ReaderConstants.READER_MAX_POSTS_TO_DISPLAY
+private const val PAGE_SIZE = ReaderConstants.READER_MAX_POSTS_TO_REQUEST
+private const val ROUNDS = 10
+
+/**
+ * Seeds a 200-post stream and compares loading its first page, which is all ReaderPostAdapter needs before
+ * the list is first drawn, with loading the whole stream as the adapter used to. Also checks that paging
+ * through the stream returns the same posts in the same order as loading it in one go.
+ */
+@RunWith(AndroidJUnit4::class)
+class ReaderPostPagingBenchmarkTest {
+    private val tag = ReaderTag("paging", "paging", "paging", null, ReaderTagType.FOLLOWED)
+
+    @Before
+    fun setUp() {
+        ReaderDatabase.reset(false)
+        val posts = ReaderPostList()
+        for (i in 0 until NUM_POSTS) {
+            posts.add(createPost(i))
+        }
+        ReaderPostTable.addOrUpdatePosts(tag, posts)
+    }
+
+    @After
+    fun tearDown() {
+        ReaderDatabase.reset(false)
+    }
+
+    @Test
+    fun pagesMatchFullStream() {
+        val allPosts = ReaderPostTable.getPostsWithTag(tag, NUM_POSTS, true)
+        val pagedPosts = ReaderPostList()
+        var page = ReaderPostTable.getPostsWithTag(tag, PAGE_SIZE, true)
+        while (page.isNotEmpty()) {
+            pagedPosts.addAll(page)
+            page = ReaderPostTable.getPostsWithTagAfter(tag, page[page.size - 1], PAGE_SIZE, true)
+        }
+
+        assertEquals(NUM_POSTS, allPosts.size)
+        assertEquals(allPosts.map { it.pseudoId }, pagedPosts.map { it.pseudoId })
+    }
+
+    @Test
+    fun compareFirstPageWithFullStream() {
+        val fullLoad = measure(NUM_POSTS)
+        val firstPage = measure(PAGE_SIZE)
+
+        Log.i(TAG, "loading all $NUM_POSTS posts: $fullLoad")
+        Log.i(TAG, "loading the first $PAGE_SIZE posts: $firstPage")
+    }
+
+    private fun measure(numPosts: Int): String {
+        // warm up
+        ReaderPostTable.getPostsWithTag(tag, numPosts, true)
+
+        val start = SystemClock.elapsedRealtime()
+        repeat(ROUNDS) {
+            assertEquals(numPosts, ReaderPostTable.getPostsWithTag(tag, numPosts, true).size)
+        }
+        val millis = (SystemClock.elapsedRealtime() - start) / ROUNDS
+
+        // retained heap is the difference in used memory while the loaded posts are held
+        val heapBefore = usedHeap()
+        val posts = ReaderPostTable.getPostsWithTag(tag, numPosts, true)
+        val retainedBytes = usedHeap() - heapBefore
+        assertEquals(numPosts, posts.size)
+
+        return "$millis ms, ${retainedBytes / 1024} KB retained"
+    }
+
+    private fun usedHeap(): Long {
+        val runtime = Runtime.getRuntime()
+        runtime.gc()
+        runtime.runFinalization()
+        runtime.gc()
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+
+    private fun createPost(index: Int) = ReaderPost().apply {
+        postId = index.toLong()
+        blogId = (index % 10).toLong()
+        pseudoId = "pseudo-$index"
+        title = "Post $index"
+        text = "<p>" + "Lorem ipsum dolor sit amet $index ".repeat(64) + "</p>"
+        excerpt = "Excerpt for post $index"
+        // several posts share each date so paging has to fall back on the blog and post ids
+        datePublished = "2020-01-%02dT00:00:00+00:00".format(1 + index / 8)
+        dateTagged = datePublished
+        numLikes = index % 7
+    }
+}
@@ -0,0 +1,97 @@
+package org.wordpress.android.datasets
+
+import android.database.DatabaseUtils
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.models.ReaderPost
+import org.wordpress.android.models.ReaderPostList
+import org.wordpress.android.models.ReaderTag
+import org.wordpress.android.models.ReaderTagType
+
+private const val TAG = "ReaderPostTableBenchmark"
+private const val NUM_TAGS = 50
+private const val NUM_UNIQUE_POSTS = 2_000
+private const val STREAMS_PER_POST = 5
+private const val POSTS_PER_TAG = NUM_UNIQUE_POSTS * STREAMS_PER_POST / NUM_TAGS
+private const val TEXT_LENGTH = 8 * 1024
+
+/**
+ * Seeds the reader database with 10k rows (2k posts, each in 5 of 50 tags) and logs how much post body
+ * is stored compared with one copy per row, along with how long it takes to read a stream.
+ */
+@RunWith(AndroidJUnit4::class)
+class ReaderPostTableBenchmarkTest {
+    private val tags = (0 until NUM_TAGS).map {
+        ReaderTag("tag-$it", "tag-$it", "tag-$it", null, ReaderTagType.FOLLOWED)
+    }
+
+    @Before
+    fun setUp() {
+        ReaderDatabase.reset(false)
+    }
+
+    @After
+    fun tearDown() {
+        ReaderDatabase.reset(false)
+    }
+
+    @Test
+    fun seedAndReadStreams() {
+        val seedStart = SystemClock.elapsedRealtime()
+        tags.forEachIndexed { tagIndex, tag ->
+            val posts = ReaderPostList()
+            for (i in 0 until POSTS_PER_TAG) {
+                // each post lands in STREAMS_PER_POST different tags
+                posts.add(createPost((tagIndex * POSTS_PER_TAG + i) % NUM_UNIQUE_POSTS))
+            }
+            ReaderPostTable.addOrUpdatePosts(tag, posts)
+        }
+        val seedMillis = SystemClock.elapsedRealtime() - seedStart
+
+        val db = ReaderDatabase.getReadableDb()
+        val numRows = DatabaseUtils.longForQuery(db, "SELECT count(*) FROM tbl_posts", null)
+        val numBodies = DatabaseUtils.longForQuery(db, "SELECT count(*) FROM tbl_post_content", null)
+        val storedBodyBytes = DatabaseUtils.longForQuery(db,
+                "SELECT sum(length(text) + length(attachments_json) + length(discover_json)) FROM tbl_post_content",
+                null)
+        val pageSize = DatabaseUtils.longForQuery(db, "PRAGMA page_size", null)
+        val pageCount = DatabaseUtils.longForQuery(db, "PRAGMA page_count", null)
+
+        assertEquals(NUM_UNIQUE_POSTS * STREAMS_PER_POST.toLong(), numRows)
+        assertEquals(NUM_UNIQUE_POSTS.toLong(), numBodies)
+
+        val listMillis = timeStreamReads(excludeTextColumn = true)
+        val fullMillis = timeStreamReads(excludeTextColumn = false)
+
+        Log.i(TAG, "seeded $numRows rows in $seedMillis ms, database is ${pageSize * pageCount / 1024} KB")
+        Log.i(TAG, "$numBodies bodies stored (${storedBodyBytes / 1024} KB), " +
+                "one per row would be ${storedBodyBytes * numRows / numBodies / 1024} KB")
+        Log.i(TAG, "reading all $NUM_TAGS streams took $listMillis ms without text, $fullMillis ms with text")
+    }
+
+    private fun timeStreamReads(excludeTextColumn: Boolean): Long {
+        val start = SystemClock.elapsedRealtime()
+        tags.forEach {
+            val posts = ReaderPostTable.getPostsWithTag(it, 0, excludeTextColumn)
+            assertEquals(POSTS_PER_TAG, posts.size)
+        }
+        return SystemClock.elapsedRealtime() - start
+    }
+
+    private fun createPost(index: Int) = ReaderPost().apply {
+        postId = index.toLong()
+        blogId = (index % 100).toLong()
+        pseudoId = "pseudo-$index"
+        title = "Post $index"
+        text = "<p>" + "Lorem ipsum dolor sit amet $index ".repeat(TEXT_LENGTH / 32) + "</p>"
+        attachmentsJson = "{\"$index\":{\"URL\":\"https://example.com/$index.jpg\",\"width\":800,\"height\":600}}"
+        datePublished = "2020-01-01T00:00:00+00:00"
+        numLikes = index % 7
+    }
+}
@@ -0,0 +1,117 @@
+package org.wordpress.android.models
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.ui.notifications.adapters.NotesAdapter
+import org.wordpress.android.util.JSONUtils
+import java.util.Collections
+import kotlin.random.Random
+
+private const val TAG = "NoteBenchmark"
+private const val ROUNDS = 50
+
+/**
+ * Sorts 200 and 2,000 notes and builds the list for every filter, once with the fields [Note] decodes up front and
+ * once querying each note's json as the list did before, and logs how long each takes.
+ */
+@RunWith(AndroidJUnit4::class)
+class NoteBenchmarkTest {
+    private val types = listOf(
+            Note.NOTE_COMMENT_TYPE,
+            Note.NOTE_LIKE_TYPE,
+            Note.NOTE_COMMENT_LIKE_TYPE,
+            Note.NOTE_FOLLOW_TYPE,
+            Note.NOTE_MATCHER_TYPE,
+            Note.NOTE_NEW_POST_TYPE
+    )
+
+    @Test
+    fun compareTimeToSortAndFilterWithDecodedFieldsAndWithTheJson() {
+        for (numNotes in listOf(200, 2000)) {
+            val notes = createNotes(Random(numNotes), numNotes)
+            val sorted = ArrayList(notes)
+            Collections.sort(sorted, Note.TimeStampComparator())
+            assertEquals(sortByJson(notes).map { it.id }, sorted.map { it.id })
+
+            val decodedMicros = measure {
+                val sortedNotes = ArrayList(notes)
+                Collections.sort(sortedNotes, Note.TimeStampComparator())
+                val filtered = ArrayList<Note>()
+                for (filter in NotesFilter.values()) {
+                    NotesAdapter.buildFilteredNotesList(filtered, sortedNotes, filter)
+                }
+            }
+            val jsonMicros = measure {
+                val sortedNotes = sortByJson(notes)
+                for (filter in NotesFilter.values()) {
+                    filterByJson(sortedNotes, filter)
+                }
+            }
+
+            Log.i(TAG, "$numNotes notes, sort + filter with decoded fields: %.1f µs".format(decodedMicros))
+            Log.i(TAG, "$numNotes notes, sort + filter querying the json: %.1f µs".format(jsonMicros))
+        }
+    }
+
+    private fun measure(sortAndFilter: () -> Unit): Double {
+        // warm up before timing
+        repeat(ROUNDS) { sortAndFilter() }
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { sortAndFilter() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1000.0 / ROUNDS
+    }
+
+    /*
+     * how the list was sorted and filtered before the fields were decoded - each comparison and filter
+     * check queries the note's json again
+     */
+    private fun sortByJson(notes: List<Note>) = notes.sortedWith(Comparator { a, b ->
+        JSONUtils.queryJSON(b.json, "timestamp", "").compareTo(JSONUtils.queryJSON(a.json, "timestamp", ""))
+    })
+
+    private fun filterByJson(notes: List<Note>, filter: NotesFilter) = notes.filter {
+        val type = JSONUtils.queryJSON(it.json, "type", Note.NOTE_UNKNOWN_TYPE)
+        when (filter) {
+            NotesFilter.FILTER_ALL -> true
+            NotesFilter.FILTER_COMMENT -> type == Note.NOTE_COMMENT_TYPE ||
+                    (type == Note.NOTE_MATCHER_TYPE && JSONUtils.queryJSON(it.json, "meta.ids.comment", -1) != -1)
+            NotesFilter.FILTER_FOLLOW -> type == Note.NOTE_FOLLOW_TYPE
+            NotesFilter.FILTER_LIKE -> type == Note.NOTE_LIKE_TYPE || type == Note.NOTE_COMMENT_LIKE_TYPE
+            NotesFilter.FILTER_UNREAD -> JSONUtils.queryJSON(it.json, "read", 0) != 1
+        }
+    }
+
+    /*
+     * notes with random types, read states and timestamps, in random order
+     */
+    private fun createNotes(random: Random, numNotes: Int): List<Note> {
+        return (1..numNotes).map { id ->
+            val timestamp = "2020-%02d-%02dT%02d:%02d:00+00:00".format(
+                    1 + id / 1000 % 12, 1 + id / 40 % 25, id / 20 % 2 * 12 + id % 12, id % 60
+            )
+            val type = types[random.nextInt(types.size)]
+            val json = JSONObject()
+                    .put("id", id)
+                    .put("type", type)
+                    .put("timestamp", timestamp)
+                    .put("read", if (random.nextBoolean()) 1 else 0)
+                    .put("title", "Note $id")
+                    .put("meta", JSONObject().put("ids", JSONObject()
+                            .put("site", 100 + id)
+                            .put("post", 200 + id)
+                            .put("comment", 300 + id)))
+                    .put("subject", JSONArray().put(JSONObject().put("text", "Someone did something $id")))
+            if (type == Note.NOTE_MATCHER_TYPE && random.nextBoolean()) {
+                json.getJSONObject("meta").getJSONObject("ids").remove("comment")
+            }
+            Note(id.toString(), json)
+        }.shuffled(random)
+    }
+}
@@ -0,0 +1,89 @@
+package org.wordpress.android.models
+
+import android.os.Debug
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.ByteArrayInputStream
+import java.io.InputStreamReader
+
+private const val TAG = "ReaderPostJsonBenchmark"
+private const val ROUNDS = 20
+
+/**
+ * Parses pages of 20 and 100 read/ endpoint posts with the JSONObject parser and with the streaming parser, and
+ * logs the time and the bytes allocated per post for each. Both start from the raw response body, since that's
+ * what the request hands over.
+ */
+@RunWith(AndroidJUnit4::class)
+class ReaderPostJsonBenchmarkTest {
+    @Test
+    fun compareTimeAndAllocationsPerPost() {
+        for (numPosts in listOf(20, 100)) {
+            val body = createResponse(numPosts).toByteArray(Charsets.UTF_8)
+            val dom = measure(numPosts) { ReaderPostList.fromJson(JSONObject(String(body, Charsets.UTF_8))) }
+            val streamed = measure(numPosts) {
+                ReaderPostList.fromJson(InputStreamReader(ByteArrayInputStream(body), Charsets.UTF_8))
+            }
+
+            Log.i(TAG, "$numPosts posts (${body.size / 1024} KB), JSONObject: $dom")
+            Log.i(TAG, "$numPosts posts (${body.size / 1024} KB), streaming: $streamed")
+        }
+    }
+
+    @Suppress("DEPRECATION")
+    private fun measure(numPosts: Int, parse: () -> ReaderPostList): String {
+        // warm up
+        repeat(ROUNDS) { parse() }
+
+        Debug.startAllocCounting()
+        Debug.resetThreadAllocSize()
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { assertEquals(numPosts, parse().size) }
+        val elapsedNanos = SystemClock.elapsedRealtimeNanos() - start
+        val allocatedBytes = Debug.getThreadAllocSize()
+        Debug.stopAllocCounting()
+
+        val parsedPosts = numPosts * ROUNDS
+        return "%.1f µs per post, %d bytes allocated per post".format(
+                elapsedNanos / 1000.0 / parsedPosts, allocatedBytes / parsedPosts)
+    }
+
+    /*
+     * a page of read/ endpoint posts shaped like a real response - tags are left empty since resolving them
+     * requires the reader database
+     */
+    private fun createResponse(numPosts: Int): String {
+        val paragraph = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit &amp; more.</p>\\n"
+        val posts = (1..numPosts).joinToString(",") { i ->
+            val image = """<img src=\"https://example.com/$i.jpg\" width=\"800\" height=\"600\">"""
+            // only some posts are from discover
+            val discover = if (i % 4 == 0) """{"permalink":"https://example.com/d/$i","blog_id":$i}""" else "null"
+            """{"ID":$i,"site_ID":${1000 + i},"pseudo_ID":"pseudo-$i","feed_ID":${2000 + i},"feed_item_ID":$i,
+                |"author":{"ID":$i,"login":"author$i","name":"Author &amp; $i","first_name":"First",
+                |"URL":"https://author$i.example.com","avatar_URL":"https://example.com/avatar/$i","has_avatar":true,
+                |"site_ID":${1000 + i}},"date":"2020-07-13T10:00:00+00:00","modified":"2020-07-13T10:00:00+00:00",
+                |"title":"Post &#8220;$i&#8221;","URL":"https://site$i.example.com/post-$i",
+                |"short_URL":"https://wp.me/p$i","content":"${paragraph.repeat(30)}$image",
+                |"excerpt":"<p>Excerpt for post $i</p>","site_URL":"https://site$i.example.com","site_name":"Site $i",
+                |"site_is_private":false,"site_is_atomic":false,"is_jetpack":false,"like_count":${i % 9},"i_like":false,
+                |"is_following":true,"is_external":false,"is_seen":${i % 2 == 0},"use_excerpt":false,
+                |"discussion":{"comments_open":true,"comment_status":"open","pings_open":true,"comment_count":${i % 5}},
+                |"featured_image":"","format":"standard","tags":{},"categories":{"News":{"ID":1,"name":"News"}},
+                |"attachments":{"$i":{"ID":$i,"URL":"https://example.com/$i.jpg","mime_type":"image/jpeg","width":800,
+                |"height":600,"exif":{"aperture":"2.8","focal_length":"4.15","iso":"100"}}},
+                |"metadata":[{"id":"$i","key":"geo_public","value":"0"}],
+                |"meta":{"links":{"self":"https://public-api.wordpress.com/rest/v1.2/sites/${1000 + i}/posts/$i"},
+                |"data":{"site":{"ID":${1000 + i},"name":"Site $i","URL":"https://site$i.example.com",
+                |"is_private":false,"jetpack":false,"organization_id":0,"icon":{"img":"https://example.com/icon/$i"}}}},
+                |"discover_metadata":$discover,
+                |"railcar":{"railcar":"rc$i","fetch_algo":"read:search","fetch_position":$i,"fetch_lang":"en",
+                |"rec_blog_id":${1000 + i},"rec_post_id":$i,"score":0.75}}""".trimMargin()
+        }
+        return """{"found":$numPosts,"posts":[$posts],"next_page_handle":"abc"}"""
+    }
+}
@@ -0,0 +1,164 @@
+package org.wordpress.android.networking
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.squareup.okhttp.mockwebserver.Dispatcher
+import com.squareup.okhttp.mockwebserver.MockResponse
+import com.squareup.okhttp.mockwebserver.MockWebServer
+import com.squareup.okhttp.mockwebserver.RecordedRequest
+import com.squareup.okhttp.mockwebserver.SocketPolicy
+import okhttp3.OkHttpClient
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.fluxc.model.MediaModel
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.IOException
+import kotlin.random.Random
+
+private const val FILE_SIZE = 1024 * 1024 + 123
+private const val PATCH_SIZE = 256 * 1024L
+
+@RunWith(AndroidJUnit4::class)
+class ResumableMediaUploadTest {
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+    private val client = OkHttpClient.Builder().retryOnConnectionFailure(false).build()
+    private val server = MockWebServer()
+    private val dispatcher = TusDispatcher()
+
+    private lateinit var file: File
+    private lateinit var fileContent: ByteArray
+    private lateinit var media: MediaModel
+    private lateinit var creationUrl: String
+
+    @Before
+    fun setUp() {
+        fileContent = Random(42).nextBytes(FILE_SIZE)
+        file = File(context.cacheDir, "resumable-upload.bin")
+        file.writeBytes(fileContent)
+        media = MediaModel().apply {
+            id = 42
+            filePath = file.absolutePath
+        }
+        MediaUploadCheckpoints(context).clear(media)
+
+        server.setDispatcher(dispatcher)
+        server.start()
+        creationUrl = server.url("/files/").toString()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        MediaUploadCheckpoints(context).clear(media)
+        file.delete()
+    }
+
+    @Test
+    fun anUploadInterruptedMidStreamResumesFromTheOffsetTheServerStored() {
+        dispatcher.failPatchNumber = 3
+        val upload = ResumableMediaUpload(client, MediaUploadCheckpoints(context), creationUrl, PATCH_SIZE, 3)
+
+        upload.upload(media)
+
+        assertArrayEquals(fileContent, dispatcher.storedBytes())
+        assertEquals(1, dispatcher.numCreated)
+        assertEquals(1, dispatcher.numOffsetRequests)
+        // the failed PATCH left half of its bytes on the server, so the next one starts after them
+        assertEquals(2 * PATCH_SIZE + PATCH_SIZE / 2, dispatcher.patchOffsets[3])
+        // only the half which was lost is sent twice
+        assertEquals(FILE_SIZE + PATCH_SIZE / 2, dispatcher.bytesReceived)
+        assertNull(MediaUploadCheckpoints(context).get(media, file))
+    }
+
+    @Test
+    fun anUploadContinuesAfterTheProcessIsKilled() {
+        dispatcher.failPatchNumber = 2
+        val firstUpload = ResumableMediaUpload(client, MediaUploadCheckpoints(context), creationUrl, PATCH_SIZE, 1)
+        val firstAttempt = runCatching { firstUpload.upload(media) }
+        assertTrue(firstAttempt.exceptionOrNull() is IOException)
+
+        // a new instance reads the checkpoint saved by the first one, as it would after a restart
+        val checkpoint = MediaUploadCheckpoints(context).get(media, file)
+        assertEquals(PATCH_SIZE, checkpoint?.offset)
+        val secondUpload = ResumableMediaUpload(client, MediaUploadCheckpoints(context), creationUrl, PATCH_SIZE, 1)
+        secondUpload.upload(media)
+
+        assertArrayEquals(fileContent, dispatcher.storedBytes())
+        assertEquals(1, dispatcher.numCreated)
+        assertEquals(1, dispatcher.numOffsetRequests)
+        assertEquals(FILE_SIZE + PATCH_SIZE / 2, dispatcher.bytesReceived)
+    }
+
+    @Test
+    fun aNewUploadIsCreatedWhenTheServerNoLongerHasTheOldOne() {
+        MediaUploadCheckpoints(context).save(media, file, server.url("/files/expired").toString(), PATCH_SIZE)
+        val upload = ResumableMediaUpload(client, MediaUploadCheckpoints(context), creationUrl, PATCH_SIZE, 1)
+
+        upload.upload(media)
+
+        assertArrayEquals(fileContent, dispatcher.storedBytes())
+        assertEquals(1, dispatcher.numCreated)
+        assertEquals(FILE_SIZE.toLong(), dispatcher.bytesReceived)
+    }
+
+    /**
+     * A minimal tus server holding one upload, which drops the connection during the PATCH numbered
+     * [failPatchNumber] after storing the first half of what it received.
+     */
+    private class TusDispatcher : Dispatcher() {
+        var failPatchNumber = -1
+        var numCreated = 0
+        var numOffsetRequests = 0
+        var bytesReceived = 0L
+        val patchOffsets = mutableListOf<Long>()
+
+        private val stored = ByteArrayOutputStream()
+
+        @Synchronized
+        fun storedBytes(): ByteArray = stored.toByteArray()
+
+        @Synchronized
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            return when (request.method) {
+                "POST" -> {
+                    numCreated++
+                    stored.reset()
+                    MockResponse().setResponseCode(201).setHeader("Location", "/files/upload-1")
+                }
+                "HEAD" -> {
+                    numOffsetRequests++
+                    if (request.path == "/files/upload-1") {
+                        MockResponse().setHeader("Upload-Offset", stored.size())
+                    } else {
+                        MockResponse().setResponseCode(404)
+                    }
+                }
+                "PATCH" -> {
+                    val offset = request.getHeader("Upload-Offset").toLong()
+                    val body = request.body.readByteArray()
+                    patchOffsets.add(offset)
+                    bytesReceived += body.size
+                    when {
+                        offset != stored.size().toLong() -> MockResponse().setResponseCode(409)
+                        patchOffsets.size == failPatchNumber -> {
+                            stored.write(body, 0, body.size / 2)
+                            MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST)
+                        }
+                        else -> {
+                            stored.write(body)
+                            MockResponse().setResponseCode(204).setHeader("Upload-Offset", stored.size())
+                        }
+                    }
+                }
+                else -> MockResponse().setResponseCode(405)
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.wordpress.android.ui.notifications.utils
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.gson.Gson
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.fluxc.tools.FormattableContentMapper
+import org.wordpress.android.models.Note
+
+private const val TAG = "NotificationsSpanCacheBenchmark"
+private const val ROUNDS = 20
+private const val NUM_FLING_NOTES = 500
+
+/**
+ * Binds the subject of every row during a fling down 500 notes and back up again, once formatting each subject as
+ * the list did before and once through [NotificationsSpanCache], and logs the time per bind of each as a proxy for
+ * the work added to each frame, along with the cache's hits and misses.
+ */
+@RunWith(AndroidJUnit4::class)
+class NotificationsSpanCacheBenchmarkTest {
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+    private val notificationsUtilsWrapper = NotificationsUtilsWrapper(FormattableContentMapper(Gson()))
+
+    @Test
+    fun compareTimeToBindRowsDuringAFling() {
+        val notes = (1..NUM_FLING_NOTES).map { createNote(it) }
+        // a fling down the list and back up again, which binds each row twice
+        val fling = notes + notes.asReversed()
+        val spanCache = NotificationsSpanCache(notificationsUtilsWrapper)
+
+        val uncachedMicros = measure {
+            fling.forEach { note ->
+                val subject = note.getFormattedSubject(notificationsUtilsWrapper)
+                subject.subSequence(0, subject.trimEnd().length)
+            }
+        }
+        val cachedMicros = measure {
+            fling.forEach { spanCache.getFormattedSubject(it, context) }
+        }
+        assertEquals("Someone commented on Post number 1", spanCache.getFormattedSubject(notes[0], context).toString())
+
+        Log.i(TAG, "fling over $NUM_FLING_NOTES notes, formatting each subject: %.2f µs per bind".format(
+                uncachedMicros))
+        Log.i(TAG, "fling over $NUM_FLING_NOTES notes, using the span cache: %.2f µs per bind".format(cachedMicros))
+        Log.i(TAG, "span cache hits: ${spanCache.hitCount()}, misses: ${spanCache.missCount()}")
+    }
+
+    private fun measure(fling: () -> Unit): Double {
+        // warm up before timing
+        repeat(ROUNDS) { fling() }
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { fling() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1000.0 / ROUNDS / (NUM_FLING_NOTES * 2)
+    }
+
+    private fun createNote(id: Int): Note {
+        val json = JSONObject()
+                .put("id", id)
+                .put("type", Note.NOTE_COMMENT_TYPE)
+                .put("timestamp", "2020-01-01T00:00:00+00:00")
+                .put("note_hash", "hash-$id")
+                .put("subject", JSONArray().put(JSONObject()
+                        .put("text", "Someone commented on Post number $id")
+                        .put("ranges", JSONArray().put(JSONObject().put("type", "user")
+                                .put("indices", JSONArray().put(0).put(7))))))
+        return Note(id.toString(), json)
+    }
+}
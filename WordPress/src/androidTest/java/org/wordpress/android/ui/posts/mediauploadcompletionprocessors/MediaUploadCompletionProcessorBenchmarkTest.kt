@@ -0,0 +1,131 @@
+package org.wordpress.android.ui.posts.mediauploadcompletionprocessors
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.util.helpers.MediaFile
+import java.util.regex.Pattern
+
+private const val TAG = "MediaUploadCompletionBenchmark"
+private const val TARGET_POST_LENGTH = 1024 * 1024
+private const val WARM_UP_ROUNDS = 2
+private const val ROUNDS = 5
+
+private const val SITE_URL = "https://wordpress.org"
+private const val LOCAL_MEDIA_ID = "112"
+private const val REMOTE_MEDIA_ID = "97629"
+private const val REMOTE_IMAGE_URL = "https://example.files.wordpress.com/2019/11/image.jpg"
+
+/**
+ * Replaces a local image block near the end of a ~1 MB post with the single-pass
+ * [MediaUploadCompletionProcessor.processContent] and with the recursive implementation it replaced, and logs how
+ * long each takes.
+ */
+@RunWith(AndroidJUnit4::class)
+class MediaUploadCompletionProcessorBenchmarkTest {
+    private val mediaFile: MediaFile = mock()
+    private lateinit var processor: MediaUploadCompletionProcessor
+
+    @Before
+    fun setUp() {
+        whenever(mediaFile.mediaId).thenReturn(REMOTE_MEDIA_ID)
+        whenever(mediaFile.fileURL).thenReturn(REMOTE_IMAGE_URL)
+        whenever(mediaFile.getAttachmentPageURL(any())).thenReturn("$SITE_URL?p=$REMOTE_MEDIA_ID")
+        processor = MediaUploadCompletionProcessor(LOCAL_MEDIA_ID, mediaFile, SITE_URL)
+    }
+
+    @Test
+    fun compareSinglePassWithRecursiveProcessing() {
+        val post = buildPost()
+        val expected = processor.processContent(post)
+        assertEquals(expected, legacyProcessContent(post))
+
+        val singlePassMillis = measure { processor.processContent(post) }
+        val recursiveMillis = measure { legacyProcessContent(post) }
+
+        Log.i(TAG, "processContent on ${post.length / 1024} KB: single pass %.1f ms, recursive %.1f ms".format(
+                singlePassMillis, recursiveMillis))
+    }
+
+    private fun measure(process: () -> String): Double {
+        repeat(WARM_UP_ROUNDS) { process() }
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { process() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0 / ROUNDS
+    }
+
+    /*
+     * a post of already uploaded media blocks with the local image block near the end, so every block has to be
+     * walked before it's found
+     */
+    private fun buildPost() = buildString {
+        val filler = paragraphBlock() + imageBlock(REMOTE_MEDIA_ID, REMOTE_IMAGE_URL) + videoBlock()
+        while (length < TARGET_POST_LENGTH) {
+            append(filler)
+        }
+        append(imageBlock(LOCAL_MEDIA_ID, "file://image.png"))
+        append(paragraphBlock())
+    }
+
+    private fun paragraphBlock() = """<!-- wp:paragraph {"align":"center"} -->
+<p class="has-text-align-center"><em>Gutenberg is available as a plugin today.</em></p>
+<!-- /wp:paragraph -->
+"""
+
+    private fun imageBlock(id: String, url: String) = """<!-- wp:image {"id":$id,"align":"full"} -->
+<figure class="wp-block-image alignfull">
+  <img src="$url" alt="" class="wp-image-$id">
+  <figcaption><em>Gutenberg</em> on web</figcaption>
+</figure>
+<!-- /wp:image -->
+"""
+
+    private fun videoBlock() = """<!-- wp:video {"id":$REMOTE_MEDIA_ID} -->
+<figure class="wp-block-video"><video controls src="https://videos.files.wordpress.com/video.mp4"></video>
+  <figcaption>Videos too!</figcaption>
+</figure>
+<!-- /wp:video -->
+"""
+
+    /**
+     * The recursive implementation that [MediaUploadCompletionProcessor.processContent] replaced - it compiled a
+     * boundary pattern for every block and copied the rest of the post on every call. Each block it finds is handed
+     * to processContent() on its own, which processes it the same way the old block processor lookup did.
+     */
+    private fun legacyProcessContent(content: String): String {
+        val headerMatcher = MediaUploadCompletionProcessorPatterns.PATTERN_BLOCK_HEADER.matcher(content)
+        var positionBlockEnd = content.length
+
+        if (!headerMatcher.find()) {
+            return content
+        }
+
+        val positionBlockStart = headerMatcher.start()
+        val blockType = headerMatcher.group(1)
+        val blockBoundaryMatcher = Pattern.compile(
+                String.format(MediaUploadCompletionProcessorPatterns.PATTERN_TEMPLATE_BLOCK_BOUNDARY, blockType),
+                Pattern.DOTALL
+        ).matcher(content.substring(headerMatcher.end()))
+
+        var nestLevel = 1
+        while (0 < nestLevel && blockBoundaryMatcher.find()) {
+            if (blockBoundaryMatcher.group(1) == "/") {
+                positionBlockEnd = headerMatcher.end() + blockBoundaryMatcher.end()
+                nestLevel--
+            } else {
+                nestLevel++
+            }
+        }
+
+        return content.substring(0, positionBlockStart) +
+                processor.processContent(content.substring(positionBlockStart, positionBlockEnd)) +
+                legacyProcessContent(content.substring(positionBlockEnd))
+    }
+}
@@ -0,0 +1,76 @@
+package org.wordpress.android.ui.reader.utils
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+private const val TAG = "ImageSizeMapBenchmark"
+private const val ROUNDS = 200
+
+/**
+ * Gets the image sizes of galleries of 10 and 100 images from the attachments json, as before the sizes were
+ * stored, and from the stored encoding, and logs how long each takes along with the size of each input.
+ */
+@RunWith(AndroidJUnit4::class)
+class ImageSizeMapBenchmarkTest {
+    @Test
+    fun compareTimeToGetGallerySizesFromJsonAndFromTheEncoding() {
+        for (numImages in listOf(10, 100)) {
+            val content = createContent(numImages)
+            val json = createAttachmentsJson(numImages)
+            val bytes = ImageSizeMap(content, json).toBytes()
+            assertEquals(numImages, ImageSizeMap.fromBytes(bytes)?.size)
+
+            val fromJson = measure { ImageSizeMap(content, json) }
+            val fromBytes = measure { ImageSizeMap.fromBytes(bytes)!! }
+
+            Log.i(TAG, "$numImages images, json: %.1f µs for ${json.length} chars".format(fromJson))
+            Log.i(TAG, "$numImages images, encoded: %.1f µs for ${bytes.size} bytes".format(fromBytes))
+        }
+    }
+
+    private fun measure(getSizes: () -> ImageSizeMap): Double {
+        // warm up before timing
+        repeat(ROUNDS) { getSizes() }
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { getSizes() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1000.0 / ROUNDS
+    }
+
+    private fun createContent(numImages: Int) = (1..numImages).joinToString("") {
+        """<img src="https://example.files.wordpress.com/2020/01/image-$it.jpg?w=300">"""
+    }
+
+    /*
+     * the attachments section of the post endpoints, which has several fields besides the size
+     */
+    private fun createAttachmentsJson(numImages: Int): String {
+        val json = JSONObject()
+        for (i in 1..numImages) {
+            json.put(
+                    (1000 + i).toString(), JSONObject()
+                    .put("ID", 1000 + i)
+                    .put("URL", "https://example.files.wordpress.com/2020/01/image-$i.jpg")
+                    .put("guid", "http://example.files.wordpress.com/2020/01/image-$i.jpg")
+                    .put("date", "2020-01-01T00:00:00+00:00")
+                    .put("post_ID", 1)
+                    .put("author_ID", 1)
+                    .put("file", "image-$i.jpg")
+                    .put("mime_type", "image/jpeg")
+                    .put("extension", "jpg")
+                    .put("title", "Image $i")
+                    .put("caption", "")
+                    .put("description", "")
+                    .put("alt", "")
+                    .put("height", 600 + i)
+                    .put("width", 800 + i)
+            )
+        }
+        return json.toString()
+    }
+}
@@ -0,0 +1,99 @@
+package org.wordpress.android.ui.reader.utils
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.wordpress.android.models.ReaderComment
+import org.wordpress.android.models.ReaderCommentList
+import kotlin.random.Random
+
+private const val TAG = "ReaderCommentLevelerBenchmark"
+private const val ROUNDS = 3
+
+/**
+ * Levels random threads of 100, 1k and 10k comments with [ReaderCommentLeveler] and with the level-by-level
+ * leveler it replaced, and logs how long each takes.
+ */
+@RunWith(AndroidJUnit4::class)
+class ReaderCommentLevelerBenchmarkTest {
+    @Test
+    fun compareTimeWithTheLevelByLevelLeveler() {
+        val random = Random(7)
+        for (numComments in listOf(100, 1_000, 10_000)) {
+            val comments = createRandomThread(random, numComments)
+            assertEquals(levelByLevel(comments).size, ReaderCommentLeveler(comments).createLevelList().size)
+
+            val levelByLevelMillis = measure { levelByLevel(comments) }
+            val indexedMillis = measure { ReaderCommentLeveler(comments).createLevelList() }
+
+            Log.i(TAG, "$numComments comments: level-by-level %.2f ms, indexed %.2f ms".format(
+                    levelByLevelMillis, indexedMillis))
+        }
+    }
+
+    private fun measure(createLevelList: () -> ReaderCommentList): Double {
+        // warm up before timing
+        createLevelList()
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        repeat(ROUNDS) { createLevelList() }
+        return (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0 / ROUNDS
+    }
+
+    /*
+     * each comment replies to a random earlier comment, or is a root comment, with a few orphans
+     */
+    private fun createRandomThread(random: Random, numComments: Int): ReaderCommentList {
+        val comments = ReaderCommentList()
+        for (id in 1L..numComments) {
+            val parentId = when (random.nextInt(10)) {
+                0, 1, 2 -> 0L
+                3 -> id + numComments
+                else -> if (id > 1) random.nextLong(1, id) else 0L
+            }
+            comments.add(ReaderComment().apply {
+                commentId = id
+                this.parentId = parentId
+            })
+        }
+        comments.shuffle(random)
+        return comments
+    }
+
+    /*
+     * the leveler ReaderCommentLeveler replaced, which inserts the replies to each level of comments below their
+     * parents until there are none left
+     */
+    private fun levelByLevel(comments: ReaderCommentList): ReaderCommentList {
+        val result = ReaderCommentList()
+        for (comment in comments) {
+            comment.level = 0
+            if (comment.parentId == 0L) {
+                result.add(comment)
+            }
+        }
+
+        var level = 0
+        do {
+            var hasChanges = false
+            var index = 0
+            while (index < result.size) {
+                val parent = result[index]
+                if (parent.level == level) {
+                    val children = comments.filter { it.parentId == parent.commentId }
+                    children.forEach { it.level = level + 1 }
+                    result.addAll(index + 1, children)
+                    hasChanges = hasChanges || children.isNotEmpty()
+                    index += children.size
+                }
+                index++
+            }
+            level++
+        } while (hasChanges)
+
+        return result
+    }
+}
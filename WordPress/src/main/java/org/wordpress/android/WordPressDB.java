@@ -22,7 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 public class WordPressDB {
-    private static final int DATABASE_VERSION = 67;
+    private static final int DATABASE_VERSION = 69;
 
 
     // Warning renaming DATABASE_NAME could break previous App backups (see: xml/backup_scheme.xml)
@@ -48,6 +48,8 @@ public class WordPressDB {
         mDb.execSQL(CREATE_TABLE_QUICKPRESS_SHORTCUTS);
         SiteSettingsTable.createTable(mDb);
         UserSuggestionTable.createTables(mDb);
+        // the notifications indexes are created when the upgrade below resets the table, which new installs
+        // fall through to as well
         NotificationsTable.createTables(mDb);
 
         // Update tables for new installs and app updates
@@ -175,6 +177,13 @@ public class WordPressDB {
                 // add Jetpack search site setting
                 mDb.execSQL(SiteSettingsModel.ADD_JETPACK_SEARCH_SUPPORTED);
                 mDb.execSQL(SiteSettingsModel.ADD_JETPACK_SEARCH_ENABLED);
+            case 67:
+                // add note hash and read columns to the notifications table for the delta sync - the table
+                // only caches the latest notes, so it's recreated and filled by the next full sync
+                NotificationsTable.reset(mDb);
+            case 68:
+                // add site, post and comment id columns and indexes for filtering to the notifications table
+                NotificationsTable.reset(mDb);
         }
         mDb.setVersion(DATABASE_VERSION);
     }
@@ -10,11 +10,16 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesFilter;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.SqlUtils;
+import org.wordpress.android.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,10 +49,29 @@ public class NotificationsTable {
                    + "type TEXT,"
                    + "raw_note_data TEXT,"
                    + "timestamp INTEGER,"
+                   + "note_hash TEXT,"
+                   + "is_read INTEGER DEFAULT 0,"
+                   + "site_id INTEGER DEFAULT 0,"
+                   + "post_id INTEGER DEFAULT 0,"
+                   + "comment_id INTEGER DEFAULT 0,"
                    + " UNIQUE (note_id) ON CONFLICT REPLACE"
                    + ")");
     }
 
+    /*
+     * the list shows the latest notes, either all of them or those matching a filter on the read state or
+     * the type, so each of these is indexed along with the timestamp. These aren't created with the table
+     * since an older version of it, without these columns, remains until WordPressDB's upgrade resets it.
+     */
+    public static void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_timestamp ON " + NOTIFICATIONS_TABLE
+                   + " (timestamp)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_read ON " + NOTIFICATIONS_TABLE
+                   + " (is_read, timestamp)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_type ON " + NOTIFICATIONS_TABLE
+                   + " (type, timestamp)");
+    }
+
     private static void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS " + NOTIFICATIONS_TABLE);
     }
@@ -57,36 +81,85 @@ public class NotificationsTable {
     }
 
     public static ArrayList<Note> getLatestNotes(int limit) {
-        Cursor cursor = getDb().query(NOTIFICATIONS_TABLE, new String[]{"note_id", "raw_note_data"},
-                                      null, null, null, null, "timestamp DESC", "" + limit);
-        ArrayList<Note> notes = new ArrayList<Note>();
-        while (cursor.moveToNext()) {
-            String noteId = cursor.getString(0);
-            String rawNoteData = cursor.getString(1);
-            try {
-                Note note = new Note(noteId, new JSONObject(rawNoteData));
-                notes.add(note);
-            } catch (JSONException e) {
-                AppLog.e(AppLog.T.DB, "Can't parse notification with noteId:" + noteId + ", exception:" + e);
+        return getLatestNotes(getDb(), NotesFilter.FILTER_ALL, limit);
+    }
+
+    public static ArrayList<Note> getLatestNotes(NotesFilter filter) {
+        return getLatestNotes(getDb(), filter, NOTES_TO_RETRIEVE);
+    }
+
+    /*
+     * the notes are filtered by their columns and created from them, so the json of each note is only
+     * parsed if it's shown
+     */
+    static ArrayList<Note> getLatestNotes(SQLiteDatabase db, NotesFilter filter, int limit) {
+        Cursor cursor = db.rawQuery(getLatestNotesSql(filter, limit), null);
+        ArrayList<Note> notes = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                notes.add(new Note(
+                        cursor.getString(0),
+                        cursor.getString(1),
+                        cursor.getString(2),
+                        cursor.getLong(3),
+                        cursor.getInt(4),
+                        cursor.getInt(5),
+                        cursor.getLong(6),
+                        cursor.getString(7),
+                        SqlUtils.sqlToBool(cursor.getInt(8))));
             }
+        } finally {
+            SqlUtils.closeCursor(cursor);
         }
-        cursor.close();
         return notes;
     }
 
-    private static boolean putNote(Note note, boolean checkBeforeInsert) {
+    static String getLatestNotesSql(NotesFilter filter, int limit) {
+        String selection = getFilterSelection(filter);
+        return "SELECT note_id, raw_note_data, type, timestamp, site_id, post_id, comment_id, note_hash, is_read"
+               + " FROM " + NOTIFICATIONS_TABLE
+               + (selection != null ? " WHERE " + selection : "")
+               + " ORDER BY timestamp DESC LIMIT " + limit;
+    }
+
+    /*
+     * matches the filters applied by NotesAdapter.buildFilteredNotesList()
+     */
+    private static String getFilterSelection(NotesFilter filter) {
+        switch (filter) {
+            case FILTER_COMMENT:
+                return "(type='" + Note.NOTE_COMMENT_TYPE + "'"
+                       + " OR (type='" + Note.NOTE_MATCHER_TYPE + "' AND comment_id > 0))";
+            case FILTER_FOLLOW:
+                return "type='" + Note.NOTE_FOLLOW_TYPE + "'";
+            case FILTER_LIKE:
+                return "type IN ('" + Note.NOTE_LIKE_TYPE + "','" + Note.NOTE_COMMENT_LIKE_TYPE + "')";
+            case FILTER_UNREAD:
+                return "is_read=0";
+            case FILTER_ALL:
+            default:
+                return null;
+        }
+    }
+
+    private static boolean putNote(SQLiteDatabase db, Note note, boolean checkBeforeInsert) {
         String rawNote = prepareNote(note.getId(), note.getJSON().toString());
 
         ContentValues values = new ContentValues();
         values.put("type", note.getType());
         values.put("timestamp", note.getTimestamp());
         values.put("raw_note_data", rawNote);
+        values.put("note_hash", note.getNoteHash());
+        values.put("is_read", SqlUtils.boolToSql(!note.isUnread()));
+        values.put("site_id", note.getSiteId());
+        values.put("post_id", note.getPostId());
+        values.put("comment_id", note.getCommentId());
 
         long result;
-        if (checkBeforeInsert && isNoteAvailable(note.getId())) {
+        if (checkBeforeInsert && isNoteAvailable(db, note.getId())) {
             // Update
             String[] args = {note.getId()};
-            result = getDb().update(
+            result = db.update(
                     NOTIFICATIONS_TABLE,
                     values,
                     "note_id=?",
@@ -95,7 +168,7 @@ public class NotificationsTable {
         } else {
             // insert
             values.put("note_id", note.getId());
-            result = getDb().insertWithOnConflict(NOTIFICATIONS_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            result = db.insertWithOnConflict(NOTIFICATIONS_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
             if (result == -1) {
                 AppLog.e(AppLog.T.DB, "An error occurred while saving the note into the DB - note_id:" + note.getId());
             }
@@ -123,28 +196,99 @@ public class NotificationsTable {
     }
 
     public static void saveNotes(List<Note> notes, boolean clearBeforeSaving) {
-        getDb().beginTransaction();
+        saveNotes(getDb(), notes, clearBeforeSaving);
+    }
+
+    static void saveNotes(SQLiteDatabase db, List<Note> notes, boolean clearBeforeSaving) {
+        db.beginTransaction();
         try {
             if (clearBeforeSaving) {
-                clearNotes();
+                db.delete(NOTIFICATIONS_TABLE, null, null);
             }
 
             for (Note note : notes) {
                 // No need to check if the row already exists if we've just dropped the table.
-                putNote(note, !clearBeforeSaving);
+                putNote(db, note, !clearBeforeSaving);
             }
 
-            getDb().setTransactionSuccessful();
+            db.setTransactionSuccessful();
         } finally {
-            getDb().endTransaction();
+            db.endTransaction();
         }
     }
 
+    /*
+     * hash and read state of a stored note, which the delta sync compares with the server's to find the notes
+     * which changed without parsing the stored json
+     */
+    public static class NoteSyncState {
+        public final String noteHash;
+        public final boolean isRead;
+
+        public NoteSyncState(String noteHash, boolean isRead) {
+            this.noteHash = noteHash;
+            this.isRead = isRead;
+        }
+    }
+
+    public static Map<String, NoteSyncState> getNoteSyncStates() {
+        Map<String, NoteSyncState> states = new HashMap<>();
+        Cursor cursor = getDb().rawQuery("SELECT note_id, note_hash, is_read FROM " + NOTIFICATIONS_TABLE, null);
+        try {
+            while (cursor.moveToNext()) {
+                states.put(cursor.getString(0),
+                        new NoteSyncState(StringUtils.notNullStr(cursor.getString(1)), cursor.getInt(2) != 0));
+            }
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
+        return states;
+    }
+
+    public static int getNoteCount() {
+        return SqlUtils.getRowCount(getDb(), NOTIFICATIONS_TABLE);
+    }
+
+    /*
+     * applies a delta sync in a single transaction - changed notes are upserted, notes which were only read
+     * elsewhere have their read flag set, and notes the server no longer returns are deleted. Returns the
+     * number of rows written.
+     */
+    public static int updateNotes(List<Note> changedNotes, Collection<String> readNoteIds,
+                                  Collection<String> deletedNoteIds) {
+        int numRows = 0;
+        SQLiteDatabase db = getDb();
+        db.beginTransaction();
+        try {
+            for (Note note : changedNotes) {
+                if (putNote(db, note, true)) {
+                    numRows++;
+                }
+            }
+            for (String noteId : readNoteIds) {
+                Note note = getNoteById(noteId);
+                if (note != null && note.isUnread()) {
+                    note.setRead();
+                    if (putNote(db, note, true)) {
+                        numRows++;
+                    }
+                }
+            }
+            for (String noteId : deletedNoteIds) {
+                numRows += db.delete(NOTIFICATIONS_TABLE, "note_id=?", new String[]{noteId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return numRows;
+    }
+
     public static boolean saveNote(Note note) {
         getDb().beginTransaction();
         boolean saved = false;
         try {
-            saved = putNote(note, true);
+            saved = putNote(getDb(), note, true);
             getDb().setTransactionSuccessful();
         } finally {
             getDb().endTransaction();
@@ -152,14 +296,14 @@ public class NotificationsTable {
         return saved;
     }
 
-    private static boolean isNoteAvailable(String noteID) {
+    private static boolean isNoteAvailable(SQLiteDatabase db, String noteID) {
         if (TextUtils.isEmpty(noteID)) {
             AppLog.e(AppLog.T.DB, "Asking for a note with null Id. Really?" + noteID);
             return false;
         }
 
         String[] args = {noteID};
-        return SqlUtils.boolForQuery(getDb(),
+        return SqlUtils.boolForQuery(db,
                                      "SELECT 1 FROM " + NOTIFICATIONS_TABLE + " WHERE note_id=?1",
                                      args);
     }
@@ -207,19 +351,19 @@ public class NotificationsTable {
         }
     }
 
-    private static void clearNotes() {
-        getDb().delete(NOTIFICATIONS_TABLE, null, null);
-    }
-
     /*
      * drop & recreate notifications table
      */
     public static void reset() {
-        SQLiteDatabase db = getDb();
+        reset(getDb());
+    }
+
+    public static void reset(SQLiteDatabase db) {
         db.beginTransaction();
         try {
             dropTables(db);
             createTables(db);
+            createIndexes(db);
             db.setTransactionSuccessful();
         } finally {
             db.endTransaction();
@@ -6,6 +6,8 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 import android.text.TextUtils;
 
+import androidx.annotation.NonNull;
+
 import org.wordpress.android.models.ReaderBlog;
 import org.wordpress.android.models.ReaderBlogList;
 import org.wordpress.android.models.ReaderUrlList;
@@ -198,6 +200,40 @@ public class ReaderBlogTable {
         }
     }
 
+    /*
+     * applies the changes found by diffing the local followed blogs with the ones from the
+     * read/following/mine endpoint - only the blogs which changed are written, rather than
+     * rewriting every followed blog as setFollowedBlogs() does
+     */
+    public static void updateFollowedBlogs(@NonNull ReaderBlogList additionsAndChanges,
+                                           @NonNull ReaderBlogList unfollowedBlogs) {
+        if (additionsAndChanges.isEmpty() && unfollowedBlogs.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        db.beginTransaction();
+        SQLiteStatement stmt = db.compileStatement("UPDATE tbl_blog_info SET is_following=0 WHERE blog_id=?");
+        try {
+            for (ReaderBlog blog : unfollowedBlogs) {
+                stmt.bindLong(1, blog.blogId);
+                stmt.execute();
+            }
+            for (ReaderBlog blog : additionsAndChanges) {
+                addOrUpdateBlog(blog);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+            db.endTransaction();
+        }
+    }
+
+    public static int getNumFollowedBlogs() {
+        return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(),
+                "SELECT COUNT(*) FROM tbl_blog_info WHERE is_following!=0", null);
+    }
+
     /*
      * return list of URLs of followed blogs
      */
@@ -5,6 +5,8 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
+import androidx.annotation.Nullable;
+
 import org.wordpress.android.models.ReaderComment;
 import org.wordpress.android.models.ReaderCommentList;
 import org.wordpress.android.models.ReaderPost;
@@ -53,10 +55,32 @@ public class ReaderCommentTable {
                    + " page_number INTEGER DEFAULT 0,"
                    + " PRIMARY KEY (blog_id, post_id, comment_id))");
         db.execSQL("CREATE INDEX idx_page_number ON tbl_comments(page_number)");
+        createPostIndex(db);
+        createThreadsTable(db);
+    }
+
+    /*
+     * comments are read per post a page at a time, see getCommentsForPost()
+     */
+    protected static void createPostIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_comments_post_page ON tbl_comments(blog_id, post_id, page_number, timestamp,"
+                   + " comment_id)");
+    }
+
+    /*
+     * the comment threads the user has viewed - the most recently viewed ones are kept in full by purge()
+     */
+    protected static void createThreadsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE tbl_comment_threads ("
+                   + " blog_id INTEGER DEFAULT 0,"
+                   + " post_id INTEGER DEFAULT 0,"
+                   + " date_viewed INTEGER DEFAULT 0,"
+                   + " PRIMARY KEY (blog_id, post_id))");
     }
 
     protected static void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS tbl_comments");
+        db.execSQL("DROP TABLE IF EXISTS tbl_comment_threads");
     }
 
     protected static void reset(SQLiteDatabase db) {
@@ -64,16 +88,36 @@ public class ReaderCommentTable {
         createTables(db);
     }
 
-    protected static int purge(SQLiteDatabase db) {
+    protected static int purge(SQLiteDatabase db, int maxThreadsToKeep) {
         // purge comments attached to posts that no longer exist
         int numDeleted = db.delete("tbl_comments", "post_id NOT IN (SELECT DISTINCT post_id FROM tbl_posts)", null);
 
-        // purge all but the first page of comments
-        numDeleted += db.delete("tbl_comments", "page_number != 1", null);
+        // forget all but the most recently viewed threads
+        db.delete("tbl_comment_threads",
+                "rowid NOT IN (SELECT rowid FROM tbl_comment_threads ORDER BY date_viewed DESC LIMIT "
+                + maxThreadsToKeep + ")", null);
+
+        // purge all but the first page of comments, except on the threads which were viewed most recently
+        numDeleted += db.delete("tbl_comments",
+                "page_number != 1 AND NOT EXISTS (SELECT 1 FROM tbl_comment_threads"
+                + " WHERE tbl_comment_threads.blog_id=tbl_comments.blog_id"
+                + " AND tbl_comment_threads.post_id=tbl_comments.post_id)", null);
 
         return numDeleted;
     }
 
+    /*
+     * records that the comments on the passed post were viewed so purge() keeps all of them
+     */
+    public static void setThreadViewed(long blogId, long postId) {
+        ContentValues values = new ContentValues();
+        values.put("blog_id", blogId);
+        values.put("post_id", postId);
+        values.put("date_viewed", System.currentTimeMillis());
+        ReaderDatabase.getWritableDb().insertWithOnConflict("tbl_comment_threads", null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
     public static boolean isEmpty() {
         return (getNumComments() == 0);
     }
@@ -128,14 +172,28 @@ public class ReaderCommentTable {
                                     "SELECT count(*) FROM tbl_comments WHERE blog_id=? AND post_id=?", args);
     }
 
-    public static ReaderCommentList getCommentsForPost(ReaderPost post) {
-        if (post == null) {
-            return new ReaderCommentList();
-        }
+    /*
+     * comments are paged by a (page_number, timestamp, comment_id) keyset rather than an offset, so each
+     * page starts where the last one ended without skipping over the rows before it - page_number comes
+     * first since a page of comments from the server holds whole threads, so it can contain replies which
+     * are older than comments in earlier pages
+     */
+    static final String COMMENTS_FOR_POST_SQL =
+            "SELECT * FROM tbl_comments WHERE blog_id=? AND post_id=? AND page_number >= ?"
+            + " AND (page_number > ? OR timestamp > ? OR (timestamp = ? AND comment_id > ?))"
+            + " ORDER BY page_number, timestamp, comment_id LIMIT ?";
 
-        String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
-        Cursor c = ReaderDatabase.getReadableDb().rawQuery(
-                "SELECT * FROM tbl_comments WHERE blog_id=? AND post_id=? ORDER BY timestamp", args);
+    /*
+     * returns up to maxComments comments on the passed post which come after the passed one, or the first
+     * comments if it's null
+     */
+    public static ReaderCommentList getCommentsForPost(long blogId,
+                                                      long postId,
+                                                      @Nullable ReaderComment afterComment,
+                                                      int maxComments) {
+        long start = ReaderDatabaseStats.start();
+        String[] args = getCommentsForPostArgs(blogId, postId, afterComment, maxComments);
+        Cursor c = ReaderDatabase.getReadableDb().rawQuery(COMMENTS_FOR_POST_SQL, args);
         try {
             ReaderCommentList comments = new ReaderCommentList();
             if (c.moveToFirst()) {
@@ -146,9 +204,21 @@ public class ReaderCommentTable {
             return comments;
         } finally {
             SqlUtils.closeCursor(c);
+            ReaderDatabaseStats.record("tbl_comments", ReaderDatabaseStats.Operation.READ, start);
         }
     }
 
+    static String[] getCommentsForPostArgs(long blogId,
+                                           long postId,
+                                           @Nullable ReaderComment afterComment,
+                                           int maxComments) {
+        String afterPage = afterComment != null ? Integer.toString(afterComment.pageNumber) : "-1";
+        String afterTimestamp = afterComment != null ? Long.toString(afterComment.timestamp) : "0";
+        String afterId = afterComment != null ? Long.toString(afterComment.commentId) : "0";
+        return new String[]{Long.toString(blogId), Long.toString(postId), afterPage, afterPage, afterTimestamp,
+                afterTimestamp, afterId, Integer.toString(maxComments)};
+    }
+
     public static void addOrUpdateComment(ReaderComment comment) {
         if (comment == null) {
             return;
@@ -163,6 +233,7 @@ public class ReaderCommentTable {
             return;
         }
 
+        long start = ReaderDatabaseStats.start();
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
         db.beginTransaction();
         SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_comments (" + COLUMN_NAMES + ") "
@@ -193,7 +264,9 @@ public class ReaderCommentTable {
         } finally {
             db.endTransaction();
             SqlUtils.closeStatement(stmt);
+            ReaderDatabaseStats.record("tbl_comments", ReaderDatabaseStats.Operation.WRITE, start);
         }
+        ReaderDatabase.onWriteTransactionFinished();
     }
 
     public static ReaderComment getComment(long blogId, long postId, long commentId) {
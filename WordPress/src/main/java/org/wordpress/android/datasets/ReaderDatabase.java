@@ -1,17 +1,23 @@
 package org.wordpress.android.datasets;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
 import org.greenrobot.eventbus.EventBus;
+import org.wordpress.android.BuildConfig;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.models.ReaderTagList;
 import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.ui.reader.ReaderConstants;
+import org.wordpress.android.ui.reader.ReaderPostRenderCache;
 import org.wordpress.android.ui.reader.repository.ReaderRepositoryEvent.ReaderPostTableActionEnded;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.SqlUtils;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -19,13 +25,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * database for all reader information
  */
 public class ReaderDatabase extends SQLiteOpenHelper {
     protected static final String DB_NAME = "wpreader.db";
-    private static final int DB_VERSION = 150;
+    private static final int DB_VERSION = 156;
     private static final int DB_LAST_VERSION_WITHOUT_MIGRATION_SCRIPT = 136; // do not change this value
 
     /*
@@ -109,14 +116,68 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      * 148 - added tbl_posts.is_seen
      * 149 - added tbl_posts.is_seen_supported that will be false for posts created before 2020-07-13
      * 150 - added tbl_posts.author_blog_id and tbl_posts.author_blog_url
+     * 151 - added tbl_posts.content_hash and tbl_posts.meta_hash
+     * 152 - moved tbl_posts.text, attachments_json and discover_json to tbl_post_content
+     * 153 - replaced the single column tbl_posts indexes with per-stream indexes, indexed tbl_comments by post
+     * 154 - added tbl_post_content columns for the featured image/video found by ReaderPostEnricher
+     * 155 - added tbl_comment_threads, replaced the tbl_comments post index with one for paging comments
+     * 156 - added tbl_post_content.attachment_sizes
      */
 
+    /**
+     * Settings used to open wpreader.db. The UI reads from the reader tables on the main thread while the
+     * update services write large transactions in the background, so by default the database uses write-ahead
+     * logging (readers aren't blocked by a writer), synchronous=NORMAL (safe with WAL, one fewer fsync per
+     * commit), a larger prepared statement cache for the frequently repeated queries, and a passive WAL
+     * checkpoint after every checkpointInterval write transactions so the log doesn't keep growing between
+     * SQLite's automatic checkpoints.
+     */
+    public static class Profile {
+        public static final Profile DEFAULT = new Profile(true, "NORMAL", 50, 20);
+        // the settings used before write-ahead logging was enabled
+        public static final Profile LEGACY = new Profile(false, "FULL", 0, 0);
+
+        private final boolean mWriteAheadLogging;
+        private final String mSynchronous;
+        private final int mStatementCacheSize;
+        private final int mCheckpointInterval;
+
+        /**
+         * @param writeAheadLogging  whether to open the database in WAL mode
+         * @param synchronous        value for PRAGMA synchronous (OFF, NORMAL or FULL)
+         * @param statementCacheSize number of prepared statements cached per connection (max 100), 0 for the default
+         * @param checkpointInterval number of write transactions between WAL checkpoints, 0 to leave this to SQLite
+         */
+        public Profile(boolean writeAheadLogging, String synchronous, int statementCacheSize, int checkpointInterval) {
+            mWriteAheadLogging = writeAheadLogging;
+            mSynchronous = synchronous;
+            mStatementCacheSize = Math.min(statementCacheSize, SQLiteDatabase.MAX_SQL_CACHE_SIZE);
+            mCheckpointInterval = checkpointInterval;
+        }
+    }
+
+    private static Profile sProfile = Profile.DEFAULT;
+    private static final AtomicInteger WRITES_SINCE_CHECKPOINT = new AtomicInteger();
+
     /*
      * database singleton
      */
     private static ReaderDatabase mReaderDb;
     private static final Object DB_LOCK = new Object();
 
+    /*
+     * sets the profile used to open the database - has no effect once the database is open
+     */
+    public static void setProfile(Profile profile) {
+        synchronized (DB_LOCK) {
+            if (mReaderDb != null) {
+                AppLog.w(T.READER, "reader database > profile must be set before the database is opened");
+                return;
+            }
+            sProfile = profile;
+        }
+    }
+
     public static ReaderDatabase getDatabase() {
         if (mReaderDb == null) {
             synchronized (DB_LOCK) {
@@ -139,9 +200,48 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         return getDatabase().getWritableDatabase();
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        if (sProfile.mStatementCacheSize > 0) {
+            db.setMaxSqlCacheSize(sProfile.mStatementCacheSize);
+        }
+        db.execSQL("PRAGMA synchronous=" + sProfile.mSynchronous);
+    }
+
+    /*
+     * called by the reader tables after each write transaction completes - runs a passive checkpoint every
+     * Profile.checkpointInterval writes, which copies what it can from the WAL into the database without
+     * waiting on readers
+     */
+    static void onWriteTransactionFinished() {
+        if (!sProfile.mWriteAheadLogging || sProfile.mCheckpointInterval <= 0
+            || WRITES_SINCE_CHECKPOINT.incrementAndGet() < sProfile.mCheckpointInterval) {
+            return;
+        }
+        SQLiteDatabase db = getWritableDb();
+        if (db.inTransaction()) {
+            // try again after the enclosing transaction
+            return;
+        }
+        WRITES_SINCE_CHECKPOINT.set(0);
+        Cursor c = db.rawQuery("PRAGMA wal_checkpoint(PASSIVE)", null);
+        try {
+            if (c.moveToFirst()) {
+                AppLog.d(T.READER, String.format(Locale.ENGLISH,
+                        "reader database > checkpointed %d of %d wal pages", c.getInt(2), c.getInt(1)));
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
     @Override
     public void onOpen(SQLiteDatabase db) {
         super.onOpen(db);
+        if (BuildConfig.DEBUG) {
+            ReaderQueryPlanAudit.logFullTableScans(db);
+        }
         // copyDatabase(db);
         // getDatabase().reset(db);
     }
@@ -150,6 +250,9 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      * resets (clears) the reader database
      */
     public static void reset(boolean retainBookmarkedPosts) {
+        ReaderPostEnricher.cancelAll();
+        ReaderPostRenderCache.getInstance().clear();
+
         // note that we must call getWritableDb() before getDatabase() in case the database
         // object hasn't been created yet
         SQLiteDatabase db = getWritableDb();
@@ -175,6 +278,7 @@ public class ReaderDatabase extends SQLiteOpenHelper {
 
     public ReaderDatabase(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
+        setWriteAheadLoggingEnabled(sProfile.mWriteAheadLogging);
     }
 
     @Override
@@ -240,6 +344,37 @@ public class ReaderDatabase extends SQLiteOpenHelper {
                 db.execSQL("ALTER TABLE tbl_posts ADD author_blog_id INTEGER;");
                 db.execSQL("ALTER TABLE tbl_posts ADD author_blog_url TEXT;");
                 currentVersion++;
+            case 150:
+                db.execSQL("ALTER TABLE tbl_posts ADD content_hash INTEGER;");
+                db.execSQL("ALTER TABLE tbl_posts ADD meta_hash INTEGER;");
+                currentVersion++;
+            case 151:
+                // the old columns are emptied rather than dropped since SQLite can't drop columns here
+                ReaderPostTable.createContentTable(db);
+                db.execSQL("INSERT OR IGNORE INTO tbl_post_content (pseudo_id, text, attachments_json, discover_json)"
+                           + " SELECT pseudo_id, text, attachments_json, discover_json FROM tbl_posts;");
+                db.execSQL("UPDATE tbl_posts SET text=NULL, attachments_json=NULL, discover_json=NULL,"
+                           + " content_hash=0;");
+                currentVersion++;
+            case 152:
+                db.execSQL("DROP INDEX IF EXISTS idx_posts_date_published;");
+                db.execSQL("DROP INDEX IF EXISTS idx_posts_date_tagged;");
+                db.execSQL("DROP INDEX IF EXISTS idx_posts_tag_name;");
+                ReaderPostTable.createStreamIndexes(db);
+                // the comment index as it was in this version, it's replaced by the one created in 154
+                db.execSQL("CREATE INDEX idx_comments_post_timestamp ON tbl_comments(blog_id, post_id, timestamp)");
+                currentVersion++;
+            case 153:
+                ReaderPostTable.addContentScanColumns(db);
+                currentVersion++;
+            case 154:
+                db.execSQL("DROP INDEX IF EXISTS idx_comments_post_timestamp;");
+                ReaderCommentTable.createPostIndex(db);
+                ReaderCommentTable.createThreadsTable(db);
+                currentVersion++;
+            case 155:
+                ReaderPostTable.addAttachmentSizesColumn(db);
+                currentVersion++;
         }
         if (currentVersion != newVersion) {
             throw new RuntimeException(
@@ -308,7 +443,8 @@ public class ReaderDatabase extends SQLiteOpenHelper {
                 AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d total posts purged", numPostsDeleted));
 
                 // purge unattached comments
-                int numCommentsDeleted = ReaderCommentTable.purge(db);
+                int numCommentsDeleted =
+                        ReaderCommentTable.purge(db, ReaderConstants.READER_MAX_COMMENT_THREADS_TO_KEEP);
                 if (numCommentsDeleted > 0) {
                     AppLog.i(T.READER, String.format(Locale.ENGLISH, "%d comments purged", numCommentsDeleted));
                 }
@@ -332,15 +468,18 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         } finally {
             db.endTransaction();
         }
+        onWriteTransactionFinished();
+        ReaderDatabaseStats.log();
+        ReaderWorkScheduler.logStats();
     }
 
     public static void purgeAsync() {
-        new Thread() {
+        ReaderWorkScheduler.write(new Runnable() {
             @Override
             public void run() {
                 purge();
             }
-        }.start();
+        });
     }
 
     /*
@@ -0,0 +1,120 @@
+package org.wordpress.android.datasets;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms for reads and writes of the reader tables, so the effect of database changes can be
+ * measured on a real device. Timings are grouped by table and operation (ex: "tbl_posts read") into buckets
+ * whose upper bounds double from 1 ms to 512 ms, plus one bucket for anything slower.
+ */
+public class ReaderDatabaseStats {
+    static final int NUM_BUCKETS = 11;
+
+    public enum Operation {
+        READ,
+        WRITE
+    }
+
+    private static final Map<String, Histogram> HISTOGRAMS = new TreeMap<>();
+
+    private ReaderDatabaseStats() {
+        throw new AssertionError();
+    }
+
+    /*
+     * returns the start time to pass to record()
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void record(@NonNull String table, @NonNull Operation operation, long startNanos) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        String key = table + " " + operation.name().toLowerCase(Locale.ROOT);
+        synchronized (HISTOGRAMS) {
+            Histogram histogram = HISTOGRAMS.get(key);
+            if (histogram == null) {
+                histogram = new Histogram();
+                HISTOGRAMS.put(key, histogram);
+            }
+            histogram.add(elapsedMillis);
+        }
+    }
+
+    /*
+     * returns the bucket counts for the passed table and operation, or null if nothing was recorded
+     */
+    @Nullable
+    public static long[] getBucketCounts(@NonNull String table, @NonNull Operation operation) {
+        String key = table + " " + operation.name().toLowerCase(Locale.ROOT);
+        synchronized (HISTOGRAMS) {
+            Histogram histogram = HISTOGRAMS.get(key);
+            return histogram != null ? histogram.mCounts.clone() : null;
+        }
+    }
+
+    /*
+     * writes all histograms to the log, ex: "tbl_posts read: <1ms=120 <2ms=14 <4ms=3 (137 total, max 3 ms)"
+     */
+    public static void log() {
+        synchronized (HISTOGRAMS) {
+            for (Map.Entry<String, Histogram> entry : HISTOGRAMS.entrySet()) {
+                AppLog.i(T.READER, entry.getKey() + ": " + entry.getValue());
+            }
+        }
+    }
+
+    static void reset() {
+        synchronized (HISTOGRAMS) {
+            HISTOGRAMS.clear();
+        }
+    }
+
+    static int getBucketIndex(long elapsedMillis) {
+        int index = 0;
+        long upperBound = 1;
+        while (index < NUM_BUCKETS - 1 && elapsedMillis >= upperBound) {
+            upperBound <<= 1;
+            index++;
+        }
+        return index;
+    }
+
+    private static class Histogram {
+        private final long[] mCounts = new long[NUM_BUCKETS];
+        private long mTotal;
+        private long mMaxMillis;
+
+        void add(long elapsedMillis) {
+            mCounts[getBucketIndex(elapsedMillis)]++;
+            mTotal++;
+            mMaxMillis = Math.max(mMaxMillis, elapsedMillis);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                if (mCounts[i] == 0) {
+                    continue;
+                }
+                if (i < NUM_BUCKETS - 1) {
+                    sb.append("<").append(1L << i).append("ms=");
+                } else {
+                    sb.append(">=").append(1L << (i - 1)).append("ms=");
+                }
+                sb.append(mCounts[i]).append(" ");
+            }
+            return sb.append(String.format(Locale.ENGLISH, "(%d total, max %d ms)", mTotal, mMaxMillis)).toString();
+        }
+    }
+}
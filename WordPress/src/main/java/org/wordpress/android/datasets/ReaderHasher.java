@@ -0,0 +1,50 @@
+package org.wordpress.android.datasets;
+
+import androidx.annotation.Nullable;
+
+/**
+ * 64-bit FNV-1a hash used to tell whether reader data has changed without comparing it field by field - a
+ * 32-bit String.hashCode() would make it too likely that a change is missed. ReaderPostTable uses it to skip
+ * writing posts which haven't changed, and ReaderUpdateLogic to skip syncing tag and blog lists which are
+ * the same as the last ones it saved.
+ */
+public class ReaderHasher {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long mHash = OFFSET_BASIS;
+
+    public ReaderHasher add(long value) {
+        for (int i = 0; i < 8; i++) {
+            mHash = (mHash ^ (value & 0xff)) * PRIME;
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    public ReaderHasher add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    public ReaderHasher add(boolean value) {
+        return add(value ? 1L : 0L);
+    }
+
+    public ReaderHasher add(@Nullable String value) {
+        if (value == null) {
+            return add(-1L);
+        }
+        // the length separates adjacent strings, so "ab" + "c" doesn't hash the same as "a" + "bc"
+        add(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            mHash = (mHash ^ (ch & 0xff)) * PRIME;
+            mHash = (mHash ^ (ch >>> 8)) * PRIME;
+        }
+        return this;
+    }
+
+    public long get() {
+        return mHash;
+    }
+}
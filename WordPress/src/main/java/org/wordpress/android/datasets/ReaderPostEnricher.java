@@ -0,0 +1,194 @@
+package org.wordpress.android.datasets;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.greenrobot.eventbus.EventBus;
+import org.wordpress.android.models.ReaderCardType;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.ui.reader.ReaderConstants;
+import org.wordpress.android.ui.reader.ReaderEvents;
+import org.wordpress.android.ui.reader.repository.ReaderRepositoryEvent.ReaderPostTableActionEnded;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
+import org.wordpress.android.ui.reader.utils.ImageSizeMap;
+import org.wordpress.android.ui.reader.utils.ReaderIframeScanner;
+import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scans the content of saved reader posts which don't have a featured image for one (or for a featured
+ * video), then stores what it finds along with the card type that depends on it. This used to happen
+ * while parsing every post in the network response - it's now done after ReaderPostTable.addOrUpdatePosts()
+ * on ReaderWorkScheduler's parse lane, and only for posts whose body hasn't already been scanned.
+ */
+public class ReaderPostEnricher {
+    // incremented by cancelAll() so scans which are already running stop at the next post
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    // posts which are queued or being scanned, so a post saved to several streams is only scanned once
+    private static final Set<String> PENDING =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * A post to scan - holds a copy of just the fields the scan reads and writes, so the caller's post
+     * isn't shared with the scanning thread.
+     */
+    static class ScanRequest {
+        private final ReaderPost mPost = new ReaderPost();
+        private final long mBodyHash;
+        private final long mScanHash;
+
+        ScanRequest(@NonNull ReaderPost post, long bodyHash, long scanHash) {
+            mPost.setPseudoId(post.getPseudoId());
+            mPost.setText(post.getText());
+            // the attachments are needed to look up their sizes, see ReaderPostTable.getAttachmentSizes()
+            mPost.setAttachmentsJson(post.getAttachmentsJson());
+            mPost.setExcerpt(post.getExcerpt());
+            mPost.setFeaturedImage(post.getFeaturedImage());
+            mPost.setFeaturedVideo(post.getFeaturedVideo());
+            mPost.isPrivate = post.isPrivate;
+            mBodyHash = bodyHash;
+            mScanHash = scanHash;
+        }
+
+        ReaderPost getPost() {
+            return mPost;
+        }
+
+        long getBodyHash() {
+            return mBodyHash;
+        }
+
+        long getScanHash() {
+            return mScanHash;
+        }
+
+        private String getKey() {
+            return mPost.getPseudoId() + ":" + mScanHash;
+        }
+    }
+
+    private ReaderPostEnricher() {
+        throw new AssertionError();
+    }
+
+    /*
+     * queues the passed posts to be scanned - called by ReaderPostTable once they've been saved
+     */
+    static void enrich(@NonNull List<ScanRequest> requests) {
+        final List<ScanRequest> newRequests = new ArrayList<>();
+        for (ScanRequest request : requests) {
+            if (PENDING.add(request.getKey())) {
+                newRequests.add(request);
+            }
+        }
+        if (newRequests.isEmpty()) {
+            return;
+        }
+
+        final int generation = GENERATION.get();
+        ReaderWorkScheduler.parse(new Runnable() {
+            @Override
+            public void run() {
+                // the scan runs on the parse lane, and what it finds is saved on the writer lane
+                boolean isSaveQueued = false;
+                try {
+                    if (scan(newRequests, generation)) {
+                        ReaderWorkScheduler.write(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    save(newRequests, generation);
+                                } finally {
+                                    removePending(newRequests);
+                                }
+                            }
+                        });
+                        isSaveQueued = true;
+                    }
+                } finally {
+                    if (!isSaveQueued) {
+                        removePending(newRequests);
+                    }
+                }
+            }
+        });
+    }
+
+    /*
+     * stops queued and running scans - used when the reader database is reset
+     */
+    public static void cancelAll() {
+        GENERATION.incrementAndGet();
+        PENDING.clear();
+    }
+
+    private static void removePending(@NonNull List<ScanRequest> requests) {
+        for (ScanRequest request : requests) {
+            PENDING.remove(request.getKey());
+        }
+    }
+
+    /*
+     * scans the passed posts - returns false if the scan was stopped by cancelAll()
+     */
+    private static boolean scan(List<ScanRequest> requests, int generation) {
+        for (ScanRequest request : requests) {
+            if (generation != GENERATION.get()) {
+                return false;
+            }
+            scanContent(request.getPost());
+        }
+        return generation == GENERATION.get();
+    }
+
+    private static void save(List<ScanRequest> requests, int generation) {
+        if (generation != GENERATION.get()) {
+            return;
+        }
+
+        int numUpdated = ReaderPostTable.setContentScans(requests);
+        AppLog.d(T.READER, "reader post enricher > scanned " + requests.size() + " posts, updated "
+                           + numUpdated + " rows");
+        if (numUpdated > 0) {
+            EventBus.getDefault().post(ReaderPostTableActionEnded.INSTANCE);
+            EventBus.getDefault().post(new ReaderEvents.PostsEnriched());
+        }
+    }
+
+    /*
+     * assigns the featured image or video found in the passed post's content, and the card type which
+     * depends on them
+     */
+    static void scanContent(@NonNull ReaderPost post) {
+        boolean needsImageSizes = !post.hasFeaturedImage() && post.hasImages();
+        scanContent(post, needsImageSizes ? ReaderPostTable.getAttachmentSizes(post) : null);
+    }
+
+    static void scanContent(@NonNull ReaderPost post, @Nullable ImageSizeMap attachmentSizes) {
+        // if the post doesn't have a featured image but it contains an IMG tag, check whether
+        // we can find a suitable image from the content
+        if (!post.hasFeaturedImage() && post.hasImages()) {
+            post.setFeaturedImage(new ReaderImageScanner(post.getText(), post.isPrivate)
+                    .getLargestImage(ReaderConstants.MIN_FEATURED_IMAGE_WIDTH, attachmentSizes));
+        }
+
+        // if there's no featured image or featured video and the post contains an iframe, scan
+        // the content for a suitable featured video
+        if (!post.hasFeaturedImage()
+            && !post.hasFeaturedVideo()
+            && post.getText().contains("<iframe")) {
+            post.setFeaturedVideo(new ReaderIframeScanner(post.getText()).getFirstUsableVideo());
+        }
+
+        post.setCardType(ReaderCardType.fromReaderPost(post));
+    }
+}
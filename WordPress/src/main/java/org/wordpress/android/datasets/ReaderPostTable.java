@@ -9,6 +9,7 @@ import android.util.Pair;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
 
 import org.greenrobot.eventbus.EventBus;
 import org.wordpress.android.R;
@@ -24,11 +25,14 @@ import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
 import org.wordpress.android.ui.reader.repository.ReaderRepositoryEvent.ReaderPostTableActionEnded;
+import org.wordpress.android.ui.reader.utils.ImageSizeMap;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.SqlUtils;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +44,10 @@ import java.util.Objects;
  * stored here with an empty tag_name.
  */
 public class ReaderPostTable {
+    /*
+     * columns stored in tbl_posts - the post body (text, attachments and discover json) is the same in every
+     * stream a post appears in, so it's stored once per pseudo_id in tbl_post_content
+     */
     private static final String COLUMN_NAMES =
             "post_id," // 1
             + "blog_id," // 2
@@ -50,71 +58,15 @@ public class ReaderPostTable {
             + "author_first_name," // 7
             + "author_id," // 8
             + "title," // 9
-            + "text," // 10
-            + "excerpt," // 11
-            + "format," // 12
-            + "url," // 13
-            + "short_url," // 14
-            + "blog_name," // 15
-            + "blog_url," // 16
-            + "blog_image_url," // 17
-            + "featured_image," // 18
-            + "featured_video," // 19
-            + "post_avatar," // 20
-            + "score," // 21
-            + "date_published," // 22
-            + "date_liked," // 23
-            + "date_tagged," // 24
-            + "num_replies," // 25
-            + "num_likes," // 26
-            + "is_liked," // 27
-            + "is_followed," // 28
-            + "is_comments_open," // 29
-            + "is_external," // 30
-            + "is_private," // 31
-            + "is_videopress," // 32
-            + "is_jetpack," // 33
-            + "primary_tag," // 34
-            + "secondary_tag," // 35
-            + "attachments_json," // 36
-            + "discover_json," // 37
-            + "xpost_post_id," // 38
-            + "xpost_blog_id," // 39
-            + "railcar_json," // 40
-            + "tag_name," // 41
-            + "tag_type," // 42
-            + "has_gap_marker," // 43
-            + "card_type," // 44
-            + "use_excerpt," // 45
-            + "is_bookmarked," // 46
-            + "is_private_atomic," // 47
-            + "tags," // 48
-            + "organization_id," // 49
-            + "is_seen," // 50
-            + "is_seen_supported," // 51
-            + "author_blog_id," // 52
-            + "author_blog_url"; // 53
-
-    // used when querying multiple rows and skipping text column
-    private static final String COLUMN_NAMES_NO_TEXT =
-            "post_id," // 1
-            + "blog_id," // 2
-            + "feed_id," // 3
-            + "feed_item_id," // 4
-            + "author_id," // 5
-            + "pseudo_id," // 6
-            + "author_name," // 7
-            + "author_first_name," // 8
-            + "blog_name," // 9
-            + "blog_url," // 10
-            + "blog_image_url," // 11
-            + "excerpt," // 12
-            + "format," // 13
-            + "featured_image," // 14
-            + "featured_video," // 15
-            + "title," // 16
-            + "url," // 17
-            + "short_url," // 18
+            + "excerpt," // 10
+            + "format," // 11
+            + "url," // 12
+            + "short_url," // 13
+            + "blog_name," // 14
+            + "blog_url," // 15
+            + "blog_image_url," // 16
+            + "featured_image," // 17
+            + "featured_video," // 18
             + "post_avatar," // 19
             + "score," // 20
             + "date_published," // 21
@@ -131,24 +83,48 @@ public class ReaderPostTable {
             + "is_jetpack," // 32
             + "primary_tag," // 33
             + "secondary_tag," // 34
-            + "attachments_json," // 35
-            + "discover_json," // 36
-            + "xpost_post_id," // 37
-            + "xpost_blog_id," // 38
-            + "railcar_json," // 39
-            + "tag_name," // 40
-            + "tag_type," // 41
-            + "has_gap_marker," // 42
-            + "card_type," // 43
-            + "use_excerpt," // 44
-            + "is_bookmarked," // 45
-            + "is_private_atomic," // 46
-            + "tags," // 47
-            + "organization_id," // 48
-            + "is_seen," // 49
-            + "is_seen_supported," // 50
-            + "author_blog_id," // 51
-            + "author_blog_url"; // 52
+            + "xpost_post_id," // 35
+            + "xpost_blog_id," // 36
+            + "railcar_json," // 37
+            + "tag_name," // 38
+            + "tag_type," // 39
+            + "has_gap_marker," // 40
+            + "card_type," // 41
+            + "use_excerpt," // 42
+            + "is_bookmarked," // 43
+            + "is_private_atomic," // 44
+            + "tags," // 45
+            + "organization_id," // 46
+            + "is_seen," // 47
+            + "is_seen_supported," // 48
+            + "author_blog_id," // 49
+            + "author_blog_url"; // 50
+
+    private static final String POSTS_WITH_CONTENT =
+            "tbl_posts LEFT JOIN tbl_post_content ON tbl_post_content.pseudo_id = tbl_posts.pseudo_id";
+
+    // used when querying multiple rows and skipping text column
+    private static final String COLUMN_NAMES_NO_TEXT = getTableColumnNames()
+            + ",tbl_post_content.attachments_json AS attachments_json"
+            + ",tbl_post_content.discover_json AS discover_json";
+
+    private static final String COLUMN_NAMES_WITH_TEXT = COLUMN_NAMES_NO_TEXT
+            + ",tbl_post_content.text AS text";
+
+    /*
+     * tbl_posts columns qualified with the table name - databases upgraded from before tbl_post_content
+     * still have the old (now empty) body columns in tbl_posts, so they must not be selected by name alone
+     */
+    private static String getTableColumnNames() {
+        StringBuilder columns = new StringBuilder();
+        for (String column : COLUMN_NAMES.split(",")) {
+            if (columns.length() > 0) {
+                columns.append(",");
+            }
+            columns.append("tbl_posts.").append(column);
+        }
+        return columns.toString();
+    }
 
     protected static void createTables(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE tbl_posts ("
@@ -161,7 +137,6 @@ public class ReaderPostTable {
                    + " author_first_name TEXT,"
                    + " author_id INTEGER DEFAULT 0,"
                    + " title  TEXT,"
-                   + " text TEXT,"
                    + " excerpt TEXT,"
                    + " format TEXT,"
                    + " url TEXT,"
@@ -187,8 +162,6 @@ public class ReaderPostTable {
                    + " is_jetpack INTEGER DEFAULT 0,"
                    + " primary_tag TEXT,"
                    + " secondary_tag TEXT,"
-                   + " attachments_json TEXT,"
-                   + " discover_json TEXT,"
                    + " xpost_post_id INTEGER DEFAULT 0,"
                    + " xpost_blog_id INTEGER DEFAULT 0,"
                    + " railcar_json TEXT,"
@@ -205,17 +178,75 @@ public class ReaderPostTable {
                    + " is_seen_supported INTEGER DEFAULT 0,"
                    + " author_blog_id INTEGER DEFAULT 0,"
                    + " author_blog_url TEXT,"
+                   + " content_hash INTEGER DEFAULT 0,"
+                   + " meta_hash INTEGER DEFAULT 0,"
                    + " PRIMARY KEY (pseudo_id, tag_name, tag_type)"
                    + ")");
 
         db.execSQL("CREATE INDEX idx_posts_post_id_blog_id ON tbl_posts(post_id, blog_id)");
-        db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)");
-        db.execSQL("CREATE INDEX idx_posts_date_tagged ON tbl_posts(date_tagged)");
-        db.execSQL("CREATE INDEX idx_posts_tag_name ON tbl_posts(tag_name)");
+        createStreamIndexes(db);
+
+        createContentTable(db);
+        addContentScanColumns(db);
+        addAttachmentSizesColumn(db);
+    }
+
+    /*
+     * streams are always filtered by tag_name + tag_type and sorted by the column returned by
+     * getSortColumnForTag(), so there's one index per sort column - blog_id and post_id are included
+     * so getBlogIdPostIdsWithTag() is answered from the index alone. Blog and feed streams are
+     * stored with an empty tag_name and filtered by blog_id or feed_id instead.
+     */
+    protected static void createStreamIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_posts_tag_date_published"
+                   + " ON tbl_posts(tag_name, tag_type, date_published, blog_id, post_id)");
+        db.execSQL("CREATE INDEX idx_posts_tag_date_liked"
+                   + " ON tbl_posts(tag_name, tag_type, date_liked, blog_id, post_id)");
+        db.execSQL("CREATE INDEX idx_posts_tag_date_tagged"
+                   + " ON tbl_posts(tag_name, tag_type, date_tagged, blog_id, post_id)");
+        db.execSQL("CREATE INDEX idx_posts_tag_score"
+                   + " ON tbl_posts(tag_name, tag_type, score, blog_id, post_id)");
+        db.execSQL("CREATE INDEX idx_posts_blog_id ON tbl_posts(blog_id, tag_name, date_published)");
+        db.execSQL("CREATE INDEX idx_posts_feed_id ON tbl_posts(feed_id, tag_name, date_published)");
+    }
+
+    /*
+     * tbl_post_content holds the body of each post once, no matter how many streams it's in - rows are
+     * shared by all tbl_posts rows with the same pseudo_id and removed by purge() once none are left
+     */
+    protected static void createContentTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE tbl_post_content ("
+                   + " pseudo_id TEXT PRIMARY KEY,"
+                   + " text TEXT,"
+                   + " attachments_json TEXT,"
+                   + " discover_json TEXT,"
+                   + " body_hash INTEGER DEFAULT 0"
+                   + ")");
+    }
+
+    /*
+     * results of scanning the body for a featured image/video - see ReaderPostEnricher. These are stored
+     * with the body so they can be reused by every stream the post is in, and are reset whenever the body
+     * is replaced since INSERT OR REPLACE writes a new row.
+     */
+    protected static void addContentScanColumns(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE tbl_post_content ADD scan_hash INTEGER DEFAULT 0");
+        db.execSQL("ALTER TABLE tbl_post_content ADD scanned_image TEXT");
+        db.execSQL("ALTER TABLE tbl_post_content ADD scanned_video TEXT");
+        db.execSQL("ALTER TABLE tbl_post_content ADD scanned_card_type TEXT");
+    }
+
+    /*
+     * sizes of the images in the body found in attachments_json, encoded by ImageSizeMap.toBytes() when
+     * the body is written - see getAttachmentSizes()
+     */
+    protected static void addAttachmentSizesColumn(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE tbl_post_content ADD attachment_sizes BLOB");
     }
 
     protected static void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS tbl_posts");
+        db.execSQL("DROP TABLE IF EXISTS tbl_post_content");
     }
 
     protected static void reset(SQLiteDatabase db) {
@@ -241,9 +272,20 @@ public class ReaderPostTable {
 
         // delete search results
         numDeleted += purgeSearchResults(db);
+
+        // delete post bodies which are no longer referenced by any stream
+        int numContentDeleted = purgeUnreferencedContent(db);
+        if (numContentDeleted > 0) {
+            AppLog.d(AppLog.T.READER, String.format(Locale.ENGLISH,
+                    "reader post table > purged %d unreferenced post bodies", numContentDeleted));
+        }
         return numDeleted;
     }
 
+    private static int purgeUnreferencedContent(SQLiteDatabase db) {
+        return db.delete("tbl_post_content", "pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_posts)", null);
+    }
+
     /**
      * When the user unbookmarks a post, we keep the row in the database, but we just change the is_bookmarked flag
      * to false, so we can show "undo" items in the saved posts list. This method purges database from such rows.
@@ -275,18 +317,24 @@ public class ReaderPostTable {
         if (numPosts <= MAX_POSTS_PER_TAG) {
             return 0;
         }
-        String tagName = tag.getTagSlug();
-        String tagType = Integer.toString(tag.tagType.toInt());
-        String[] args = {tagName, tagType, tagName, tagType, Integer.toString(MAX_POSTS_PER_TAG)};
-        String where = "tag_name=? AND tag_type=? AND pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_posts WHERE "
-                       + "tag_name=? AND tag_type=? ORDER BY " + getSortColumnForTag(tag) + " DESC LIMIT ?)";
-        int numDeleted = db.delete("tbl_posts", where, args);
+        int numDeleted = db.delete("tbl_posts", getPurgePostsForTagWhere(tag), getPurgePostsForTagArgs(tag));
         AppLog.d(AppLog.T.READER,
                 String.format(Locale.ENGLISH, "reader post table > purged %d posts in tag %s", numDeleted,
                         tag.getTagNameForLog()));
         return numDeleted;
     }
 
+    static String getPurgePostsForTagWhere(ReaderTag tag) {
+        return "tag_name=? AND tag_type=? AND pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_posts WHERE "
+               + "tag_name=? AND tag_type=? ORDER BY " + getSortColumnForTag(tag) + " DESC LIMIT ?)";
+    }
+
+    static String[] getPurgePostsForTagArgs(ReaderTag tag) {
+        String tagName = tag.getTagSlug();
+        String tagType = Integer.toString(tag.tagType.toInt());
+        return new String[]{tagName, tagType, tagName, tagType, Integer.toString(MAX_POSTS_PER_TAG)};
+    }
+
     /*
      * purge all posts that were retained from previous searches
      */
@@ -328,7 +376,6 @@ public class ReaderPostTable {
         // necessary because a post can exist multiple times in the table with different tags
         ContentValues values = new ContentValues();
         values.put("title", post.getTitle());
-        values.put("text", post.getText());
         values.put("excerpt", post.getExcerpt());
         values.put("num_replies", post.numReplies);
         values.put("num_likes", post.numLikes);
@@ -336,6 +383,7 @@ public class ReaderPostTable {
         values.put("is_followed", post.isFollowedByCurrentUser);
         values.put("is_comments_open", post.isCommentsOpen);
         values.put("use_excerpt", post.useExcerpt);
+        values.putAll(getClearedHashValues());
         ReaderDatabase.getWritableDb().update(
                 "tbl_posts", values, "pseudo_id=?", new String[]{post.getPseudoId()});
 
@@ -370,8 +418,8 @@ public class ReaderPostTable {
 
     @Nullable
     private static ReaderPost getPost(String where, String[] args, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql = "SELECT " + columns + " FROM tbl_posts WHERE " + where + " LIMIT 1";
+        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : COLUMN_NAMES_WITH_TEXT);
+        String sql = "SELECT " + columns + " FROM " + POSTS_WITH_CONTENT + " WHERE " + where + " LIMIT 1";
 
         Cursor c = ReaderDatabase.getReadableDb().rawQuery(sql, args);
         try {
@@ -401,7 +449,8 @@ public class ReaderPostTable {
     public static String getPostText(long blogId, long postId) {
         String[] args = {Long.toString(blogId), Long.toString(postId)};
         return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(),
-                "SELECT text FROM tbl_posts WHERE blog_id=? AND post_id=?",
+                "SELECT text FROM tbl_post_content WHERE pseudo_id IN"
+                + " (SELECT pseudo_id FROM tbl_posts WHERE blog_id=? AND post_id=?) LIMIT 1",
                 args);
     }
 
@@ -535,6 +584,7 @@ public class ReaderPostTable {
 
     private static void update(long blogId, long postId, ContentValues values) {
         String[] args = {Long.toString(blogId), Long.toString(postId)};
+        values.putAll(getClearedHashValues());
         ReaderDatabase.getWritableDb().update(
                 "tbl_posts",
                 values,
@@ -565,7 +615,7 @@ public class ReaderPostTable {
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
         db.beginTransaction();
         try {
-            String sql = "UPDATE tbl_posts SET is_seen=" + SqlUtils.boolToSql(isSeen)
+            String sql = "UPDATE tbl_posts SET is_seen=" + SqlUtils.boolToSql(isSeen) + ", " + CLEAR_HASHES_SQL
                          + " WHERE blog_id=? AND post_id=?";
             db.execSQL(sql, new String[]{Long.toString(post.blogId), Long.toString(post.postId)});
 
@@ -631,7 +681,7 @@ public class ReaderPostTable {
      */
     public static void updateFollowedStatus() {
         SQLiteStatement statement = ReaderDatabase.getWritableDb().compileStatement(
-                "UPDATE tbl_posts SET is_followed = 0"
+                "UPDATE tbl_posts SET is_followed = 0, " + CLEAR_HASHES_SQL
                 + " WHERE is_followed != 0"
                 + " AND blog_id NOT IN (SELECT DISTINCT blog_id FROM tbl_blog_info WHERE is_followed != 0)");
         try {
@@ -654,13 +704,16 @@ public class ReaderPostTable {
             return "";
         }
 
+        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
+        return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(), getOldestDateWithTagSql(tag), args);
+    }
+
+    static String getOldestDateWithTagSql(ReaderTag tag) {
         // date field depends on the tag
         String dateColumn = getSortColumnForTag(tag);
-        String sql = "SELECT " + dateColumn + " FROM tbl_posts"
-                     + " WHERE tag_name=? AND tag_type=?"
-                     + " ORDER BY " + dateColumn + " LIMIT 1";
-        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        return SqlUtils.stringForQuery(ReaderDatabase.getReadableDb(), sql, args);
+        return "SELECT " + dateColumn + " FROM tbl_posts"
+               + " WHERE tag_name=? AND tag_type=?"
+               + " ORDER BY " + dateColumn + " LIMIT 1";
     }
 
     /*
@@ -694,14 +747,16 @@ public class ReaderPostTable {
     /*
      * returns the blogId/postId of the post with the passed tag that has a gap marker, or null if none exists
      */
+    static final String GAP_MARKER_SQL =
+            "SELECT blog_id, post_id FROM tbl_posts WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
+
     public static ReaderBlogIdPostId getGapMarkerIdsForTag(final ReaderTag tag) {
         if (tag == null) {
             return null;
         }
 
         String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        String sql = "SELECT blog_id, post_id FROM tbl_posts WHERE has_gap_marker!=0 AND tag_name=? AND tag_type=?";
-        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, args);
+        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(GAP_MARKER_SQL, args);
         try {
             if (cursor.moveToFirst()) {
                 long blogId = cursor.getLong(0);
@@ -805,11 +860,11 @@ public class ReaderPostTable {
         try {
             if (blogId != 0) {
                 String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
-                             + " WHERE blog_id=?";
+                             + ", " + CLEAR_HASHES_SQL + " WHERE blog_id=?";
                 db.execSQL(sql, new String[]{Long.toString(blogId)});
             } else {
                 String sql = "UPDATE tbl_posts SET is_followed=" + SqlUtils.boolToSql(isFollowed)
-                             + " WHERE feed_id=?";
+                             + ", " + CLEAR_HASHES_SQL + " WHERE feed_id=?";
                 db.execSQL(sql, new String[]{Long.toString(feedId)});
             }
 
@@ -844,6 +899,12 @@ public class ReaderPostTable {
      */
     private static final int MAX_TEXT_LEN = (1024 * 1024) / 2;
 
+    // parsed attachment sizes of the posts rendered or scanned most recently, keyed by pseudo_id - entries
+    // are replaced whenever the body of the post is written
+    private static final int MAX_CACHED_ATTACHMENT_SIZES = 50;
+    private static final LruCache<String, ImageSizeMap> ATTACHMENT_SIZES_CACHE =
+            new LruCache<>(MAX_CACHED_ATTACHMENT_SIZES);
+
     private static String maxText(final ReaderPost post) {
         if (post.getText().length() <= MAX_TEXT_LEN) {
             return post.getText();
@@ -862,20 +923,125 @@ public class ReaderPostTable {
         }
     }
 
-    public static void addOrUpdatePosts(final ReaderTag tag, ReaderPostList posts) {
+    /*
+     * rows changed outside of addOrUpdatePosts() must have their hashes cleared, otherwise a later
+     * server copy of the post that matches the old hashes would be skipped and the local change kept
+     */
+    private static final String CLEAR_HASHES_SQL = "content_hash=0, meta_hash=0";
+
+    private static ContentValues getClearedHashValues() {
+        ContentValues values = new ContentValues();
+        values.put("content_hash", 0);
+        values.put("meta_hash", 0);
+        return values;
+    }
+
+    /**
+     * Columns which change frequently without the post itself being edited (counts, flags, dates and the railcar).
+     * When only these differ from the stored row, addOrUpdatePosts() updates just these columns.
+     */
+    private static final String UPDATE_META_SQL =
+            "UPDATE tbl_posts SET"
+            + " score=?1,"
+            + " date_liked=?2,"
+            + " date_tagged=?3,"
+            + " num_replies=?4,"
+            + " num_likes=?5,"
+            + " is_liked=?6,"
+            + " is_followed=?7,"
+            + " is_comments_open=?8,"
+            + " is_bookmarked=?9,"
+            + " is_seen=?10,"
+            + " is_seen_supported=?11,"
+            + " railcar_json=?12,"
+            + " meta_hash=?13"
+            + " WHERE pseudo_id=?14 AND tag_name=?15 AND tag_type=?16";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tbl_posts ("
+            + COLUMN_NAMES
+            + ",content_hash,meta_hash"
+            + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,"
+            + "?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42,?43,?44,?45,?46,?47,"
+            + "?48,?49,?50,?51,?52)";
+
+    // binds the same parameters as INSERT_SQL, but leaves the primary key and has_gap_marker alone
+    private static final String UPDATE_SQL = buildUpdateSql();
+
+    private static final String INSERT_CONTENT_SQL =
+            "INSERT OR REPLACE INTO tbl_post_content"
+            + " (pseudo_id,text,attachments_json,discover_json,body_hash,attachment_sizes)"
+            + " VALUES (?1,?2,?3,?4,?5,?6)";
+
+    private static String buildUpdateSql() {
+        StringBuilder sql = new StringBuilder("UPDATE tbl_posts SET ");
+        String[] columns = COLUMN_NAMES.split(",");
+        for (int i = 0; i < columns.length; i++) {
+            switch (columns[i]) {
+                case "pseudo_id":
+                case "tag_name":
+                case "tag_type":
+                case "has_gap_marker":
+                    break;
+                default:
+                    sql.append(columns[i]).append("=?").append(i + 1).append(",");
+                    break;
+            }
+        }
+        return sql.append("content_hash=?51,meta_hash=?52 WHERE pseudo_id=?5 AND tag_name=?38 AND tag_type=?39")
+                  .toString();
+    }
+
+    /**
+     * Number of rows written by addOrUpdatePosts() - callers can use this to skip refreshing the UI when
+     * nothing was actually written.
+     */
+    public static class UpsertResult {
+        public final int numInserted;
+        public final int numUpdated;
+        public final int numSkipped;
+
+        UpsertResult(int numInserted, int numUpdated, int numSkipped) {
+            this.numInserted = numInserted;
+            this.numUpdated = numUpdated;
+            this.numSkipped = numSkipped;
+        }
+
+        public boolean hasChanges() {
+            return numInserted > 0 || numUpdated > 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH, "%d inserted, %d updated, %d skipped",
+                    numInserted, numUpdated, numSkipped);
+        }
+    }
+
+    /**
+     * Inserts new posts and updates existing ones. Each post is hashed and compared with the hashes stored
+     * for its row, so unchanged rows are skipped, rows where only the counts/flags changed get a small
+     * update, and the full row is only written when the post changed. The body is written to tbl_post_content
+     * only when it differs from the one stored for the post, so it isn't duplicated across streams.
+     */
+    public static UpsertResult addOrUpdatePosts(final ReaderTag tag, ReaderPostList posts) {
         if (posts == null || posts.size() == 0) {
-            return;
+            return new UpsertResult(0, 0, 0);
         }
 
         updateIsBookmarkedField(posts);
 
+        long start = ReaderDatabaseStats.start();
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        SQLiteStatement stmtPosts = db.compileStatement(
-                "INSERT OR REPLACE INTO tbl_posts ("
-                + COLUMN_NAMES
-                + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,"
-                + "?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42,?43,?44, ?45, ?46, ?47,"
-                + "?48,?49,?50,?51,?52,?53)");
+        SQLiteStatement stmtInsert = db.compileStatement(INSERT_SQL);
+        SQLiteStatement stmtUpdate = db.compileStatement(UPDATE_SQL);
+        SQLiteStatement stmtUpdateMeta = db.compileStatement(UPDATE_META_SQL);
+        SQLiteStatement stmtInsertContent = db.compileStatement(INSERT_CONTENT_SQL);
+
+        int numInserted = 0;
+        int numUpdated = 0;
+        int numSkipped = 0;
+        List<ReaderPostEnricher.ScanRequest> scanRequests = new ArrayList<>();
 
         db.beginTransaction();
         try {
@@ -885,71 +1051,378 @@ public class ReaderPostTable {
             ReaderBlogIdPostId postWithGapMarker = getGapMarkerIdsForTag(tag);
 
             for (ReaderPost post : posts) {
-                // keep the gapMarker flag
-                boolean hasGapMarker = postWithGapMarker != null && postWithGapMarker.getPostId() == post.postId
-                                       && postWithGapMarker.getBlogId() == post.blogId;
-                stmtPosts.bindLong(1, post.postId);
-                stmtPosts.bindLong(2, post.blogId);
-                stmtPosts.bindLong(3, post.feedId);
-                stmtPosts.bindLong(4, post.feedItemId);
-                stmtPosts.bindString(5, post.getPseudoId());
-                stmtPosts.bindString(6, post.getAuthorName());
-                stmtPosts.bindString(7, post.getAuthorFirstName());
-                stmtPosts.bindLong(8, post.authorId);
-                stmtPosts.bindString(9, post.getTitle());
-                stmtPosts.bindString(10, maxText(post));
-                stmtPosts.bindString(11, post.getExcerpt());
-                stmtPosts.bindString(12, post.getFormat());
-                stmtPosts.bindString(13, post.getUrl());
-                stmtPosts.bindString(14, post.getShortUrl());
-                stmtPosts.bindString(15, post.getBlogName());
-                stmtPosts.bindString(16, post.getBlogUrl());
-                stmtPosts.bindString(17, post.getBlogImageUrl());
-                stmtPosts.bindString(18, post.getFeaturedImage());
-                stmtPosts.bindString(19, post.getFeaturedVideo());
-                stmtPosts.bindString(20, post.getPostAvatar());
-                stmtPosts.bindDouble(21, post.score);
-                stmtPosts.bindString(22, post.getDatePublished());
-                stmtPosts.bindString(23, post.getDateLiked());
-                stmtPosts.bindString(24, post.getDateTagged());
-                stmtPosts.bindLong(25, post.numReplies);
-                stmtPosts.bindLong(26, post.numLikes);
-                stmtPosts.bindLong(27, SqlUtils.boolToSql(post.isLikedByCurrentUser));
-                stmtPosts.bindLong(28, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
-                stmtPosts.bindLong(29, SqlUtils.boolToSql(post.isCommentsOpen));
-                stmtPosts.bindLong(30, SqlUtils.boolToSql(post.isExternal));
-                stmtPosts.bindLong(31, SqlUtils.boolToSql(post.isPrivate));
-                stmtPosts.bindLong(32, SqlUtils.boolToSql(post.isVideoPress));
-                stmtPosts.bindLong(33, SqlUtils.boolToSql(post.isJetpack));
-                stmtPosts.bindString(34, post.getPrimaryTag());
-                stmtPosts.bindString(35, post.getSecondaryTag());
-                stmtPosts.bindString(36, post.getAttachmentsJson());
-                stmtPosts.bindString(37, post.getDiscoverJson());
-                stmtPosts.bindLong(38, post.xpostPostId);
-                stmtPosts.bindLong(39, post.xpostBlogId);
-                stmtPosts.bindString(40, post.getRailcarJson());
-                stmtPosts.bindString(41, tagName);
-                stmtPosts.bindLong(42, tagType);
-                stmtPosts.bindLong(43, SqlUtils.boolToSql(hasGapMarker));
-                stmtPosts.bindString(44, ReaderCardType.toString(post.getCardType()));
-                stmtPosts.bindLong(45, SqlUtils.boolToSql(post.useExcerpt));
-                stmtPosts.bindLong(46, SqlUtils.boolToSql(post.isBookmarked));
-                stmtPosts.bindLong(47, SqlUtils.boolToSql(post.isPrivateAtomic));
-                stmtPosts.bindString(48, ReaderUtils.getCommaSeparatedTagSlugs(post.getTags()));
-                stmtPosts.bindLong(49, post.organizationId);
-                stmtPosts.bindLong(50, SqlUtils.boolToSql(post.isSeen));
-                stmtPosts.bindLong(51, SqlUtils.boolToSql(post.isSeenSupported));
-                stmtPosts.bindLong(52, post.authorBlogId);
-                stmtPosts.bindString(53, post.getAuthorBlogUrl());
-                stmtPosts.execute();
+                long bodyHash = getBodyHash(post);
+                long contentHash = getContentHash(post, bodyHash);
+                long metaHash = getMetaHash(post);
+                long[] existingHashes = getStoredHashes(db, post.getPseudoId(), tagName, tagType);
+
+                if (existingHashes == null || existingHashes[0] != contentHash) {
+                    addOrUpdateContent(db, stmtInsertContent, post, bodyHash);
+                    // the hashes above don't include the scan results, so rows keep them when skipped
+                    if (post.needsContentScan()) {
+                        long scanHash = getScanHash(post, bodyHash);
+                        if (!assignStoredContentScan(db, post, scanHash)) {
+                            scanRequests.add(new ReaderPostEnricher.ScanRequest(post, bodyHash, scanHash));
+                        }
+                    }
+                }
+
+                if (existingHashes == null) {
+                    // keep the gapMarker flag
+                    boolean hasGapMarker = postWithGapMarker != null && postWithGapMarker.getPostId() == post.postId
+                                           && postWithGapMarker.getBlogId() == post.blogId;
+                    bindPost(stmtInsert, post, tagName, tagType, hasGapMarker, contentHash, metaHash);
+                    stmtInsert.executeInsert();
+                    numInserted++;
+                } else if (existingHashes[0] != contentHash) {
+                    bindPost(stmtUpdate, post, tagName, tagType, false, contentHash, metaHash);
+                    stmtUpdate.executeUpdateDelete();
+                    numUpdated++;
+                } else if (existingHashes[1] != metaHash) {
+                    bindPostMeta(stmtUpdateMeta, post, tagName, tagType, metaHash);
+                    stmtUpdateMeta.executeUpdateDelete();
+                    numUpdated++;
+                } else {
+                    numSkipped++;
+                }
             }
 
             db.setTransactionSuccessful();
-            EventBus.getDefault().post(ReaderPostTableActionEnded.INSTANCE);
+            if (numInserted > 0 || numUpdated > 0) {
+                EventBus.getDefault().post(ReaderPostTableActionEnded.INSTANCE);
+            }
         } finally {
             db.endTransaction();
+            SqlUtils.closeStatement(stmtInsert);
+            SqlUtils.closeStatement(stmtUpdate);
+            SqlUtils.closeStatement(stmtUpdateMeta);
+            SqlUtils.closeStatement(stmtInsertContent);
+            ReaderDatabaseStats.record("tbl_posts", ReaderDatabaseStats.Operation.WRITE, start);
+        }
+        ReaderDatabase.onWriteTransactionFinished();
+        ReaderPostEnricher.enrich(scanRequests);
+
+        UpsertResult result = new UpsertResult(numInserted, numUpdated, numSkipped);
+        AppLog.d(AppLog.T.READER, "reader post table > addOrUpdatePosts " + result);
+        return result;
+    }
+
+    /*
+     * returns the content and meta hashes stored for the passed post row, or null if the row doesn't exist -
+     * rows written before the hashes were added have null hashes, which read as 0 and are rewritten
+     */
+    @Nullable
+    private static long[] getStoredHashes(SQLiteDatabase db, String pseudoId, String tagName, int tagType) {
+        String[] args = {pseudoId, tagName, Integer.toString(tagType)};
+        Cursor c = db.rawQuery(
+                "SELECT content_hash, meta_hash FROM tbl_posts WHERE pseudo_id=? AND tag_name=? AND tag_type=?",
+                args);
+        try {
+            if (!c.moveToFirst()) {
+                return null;
+            }
+            return new long[]{c.getLong(0), c.getLong(1)};
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
+    /*
+     * writes the body of the passed post to tbl_post_content unless the same body is already stored there,
+     * which is the case when the post has already been saved in another stream
+     */
+    private static void addOrUpdateContent(SQLiteDatabase db, SQLiteStatement stmt, ReaderPost post, long bodyHash) {
+        String[] args = {post.getPseudoId()};
+        long storedHash = SqlUtils.longForQuery(db, "SELECT body_hash FROM tbl_post_content WHERE pseudo_id=?", args);
+        if (storedHash == bodyHash) {
+            return;
+        }
+        String text = maxText(post);
+        ImageSizeMap attachmentSizes = new ImageSizeMap(text, post.getAttachmentsJson());
+        stmt.clearBindings();
+        stmt.bindString(1, post.getPseudoId());
+        stmt.bindString(2, text);
+        stmt.bindString(3, post.getAttachmentsJson());
+        stmt.bindString(4, post.getDiscoverJson());
+        stmt.bindLong(5, bodyHash);
+        stmt.bindBlob(6, attachmentSizes.toBytes());
+        stmt.execute();
+        ATTACHMENT_SIZES_CACHE.put(post.getPseudoId(), attachmentSizes);
+    }
+
+    /*
+     * returns the sizes of the images in the passed post's attachments, so they can be looked up without
+     * parsing attachments_json - they're read from an in-memory LRU, or failing that from the sizes stored
+     * with the body. They're only created from the json if the post hasn't been stored since the
+     * column was added (or at all). Reads the db, so shouldn't be called on the main thread.
+     */
+    @NonNull
+    public static ImageSizeMap getAttachmentSizes(@NonNull ReaderPost post) {
+        if (!ImageSizeMap.hasAttachments(post.getAttachmentsJson())) {
+            return new ImageSizeMap(post.getText(), post.getAttachmentsJson());
+        }
+
+        ImageSizeMap attachmentSizes = ATTACHMENT_SIZES_CACHE.get(post.getPseudoId());
+        if (attachmentSizes != null) {
+            return attachmentSizes;
+        }
+
+        long start = ReaderDatabaseStats.start();
+        Cursor c = ReaderDatabase.getReadableDb().rawQuery(
+                "SELECT attachment_sizes FROM tbl_post_content WHERE pseudo_id=?", new String[]{post.getPseudoId()});
+        try {
+            if (c.moveToFirst()) {
+                attachmentSizes = ImageSizeMap.fromBytes(c.getBlob(0));
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+            ReaderDatabaseStats.record("tbl_post_content", ReaderDatabaseStats.Operation.READ, start);
+        }
+
+        if (attachmentSizes == null) {
+            attachmentSizes = new ImageSizeMap(post.getText(), post.getAttachmentsJson());
+        }
+        ATTACHMENT_SIZES_CACHE.put(post.getPseudoId(), attachmentSizes);
+        return attachmentSizes;
+    }
+
+    /*
+     * assigns the featured image, featured video and card type found by an earlier scan of the same body
+     * to the passed post - returns false if the body hasn't been scanned yet
+     */
+    private static boolean assignStoredContentScan(SQLiteDatabase db, ReaderPost post, long scanHash) {
+        String[] args = {post.getPseudoId(), Long.toString(scanHash)};
+        Cursor c = db.rawQuery("SELECT scanned_image, scanned_video, scanned_card_type FROM tbl_post_content"
+                               + " WHERE pseudo_id=? AND scan_hash=?", args);
+        try {
+            if (!c.moveToFirst()) {
+                return false;
+            }
+            post.setFeaturedImage(c.getString(0));
+            post.setFeaturedVideo(c.getString(1));
+            post.setCardType(ReaderCardType.fromString(c.getString(2)));
+            return true;
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
+    /*
+     * saves the results of ReaderPostEnricher scans with the post bodies and copies them to every row of
+     * each post which doesn't have a featured image yet. The row hashes are left alone so the server copy
+     * of the post, which doesn't include these results, still matches the row. Scans of a body which has
+     * since been replaced are dropped. Returns the number of tbl_posts rows updated.
+     */
+    static int setContentScans(List<ReaderPostEnricher.ScanRequest> requests) {
+        long start = ReaderDatabaseStats.start();
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        SQLiteStatement stmtContent = db.compileStatement(
+                "UPDATE tbl_post_content SET scan_hash=?1, scanned_image=?2, scanned_video=?3, scanned_card_type=?4"
+                + " WHERE pseudo_id=?5 AND body_hash=?6");
+        SQLiteStatement stmtPosts = db.compileStatement(
+                "UPDATE tbl_posts SET featured_image=?1, featured_video=?2, card_type=?3"
+                + " WHERE pseudo_id=?4 AND IFNULL(featured_image, '')=''");
+        int numUpdated = 0;
+
+        db.beginTransaction();
+        try {
+            for (ReaderPostEnricher.ScanRequest request : requests) {
+                ReaderPost post = request.getPost();
+                String cardType = ReaderCardType.toString(post.getCardType());
+
+                stmtContent.clearBindings();
+                stmtContent.bindLong(1, request.getScanHash());
+                stmtContent.bindString(2, post.getFeaturedImage());
+                stmtContent.bindString(3, post.getFeaturedVideo());
+                stmtContent.bindString(4, cardType);
+                stmtContent.bindString(5, post.getPseudoId());
+                stmtContent.bindLong(6, request.getBodyHash());
+                if (stmtContent.executeUpdateDelete() == 0) {
+                    continue;
+                }
+
+                stmtPosts.clearBindings();
+                stmtPosts.bindString(1, post.getFeaturedImage());
+                stmtPosts.bindString(2, post.getFeaturedVideo());
+                stmtPosts.bindString(3, cardType);
+                stmtPosts.bindString(4, post.getPseudoId());
+                numUpdated += stmtPosts.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            SqlUtils.closeStatement(stmtContent);
             SqlUtils.closeStatement(stmtPosts);
+            ReaderDatabaseStats.record("tbl_post_content", ReaderDatabaseStats.Operation.WRITE, start);
+        }
+        ReaderDatabase.onWriteTransactionFinished();
+        return numUpdated;
+    }
+
+    private static void bindPost(SQLiteStatement stmt, ReaderPost post, String tagName, int tagType,
+                                 boolean hasGapMarker, long contentHash, long metaHash) {
+        stmt.clearBindings();
+        stmt.bindLong(1, post.postId);
+        stmt.bindLong(2, post.blogId);
+        stmt.bindLong(3, post.feedId);
+        stmt.bindLong(4, post.feedItemId);
+        stmt.bindString(5, post.getPseudoId());
+        stmt.bindString(6, post.getAuthorName());
+        stmt.bindString(7, post.getAuthorFirstName());
+        stmt.bindLong(8, post.authorId);
+        stmt.bindString(9, post.getTitle());
+        stmt.bindString(10, post.getExcerpt());
+        stmt.bindString(11, post.getFormat());
+        stmt.bindString(12, post.getUrl());
+        stmt.bindString(13, post.getShortUrl());
+        stmt.bindString(14, post.getBlogName());
+        stmt.bindString(15, post.getBlogUrl());
+        stmt.bindString(16, post.getBlogImageUrl());
+        stmt.bindString(17, post.getFeaturedImage());
+        stmt.bindString(18, post.getFeaturedVideo());
+        stmt.bindString(19, post.getPostAvatar());
+        stmt.bindDouble(20, post.score);
+        stmt.bindString(21, post.getDatePublished());
+        stmt.bindString(22, post.getDateLiked());
+        stmt.bindString(23, post.getDateTagged());
+        stmt.bindLong(24, post.numReplies);
+        stmt.bindLong(25, post.numLikes);
+        stmt.bindLong(26, SqlUtils.boolToSql(post.isLikedByCurrentUser));
+        stmt.bindLong(27, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
+        stmt.bindLong(28, SqlUtils.boolToSql(post.isCommentsOpen));
+        stmt.bindLong(29, SqlUtils.boolToSql(post.isExternal));
+        stmt.bindLong(30, SqlUtils.boolToSql(post.isPrivate));
+        stmt.bindLong(31, SqlUtils.boolToSql(post.isVideoPress));
+        stmt.bindLong(32, SqlUtils.boolToSql(post.isJetpack));
+        stmt.bindString(33, post.getPrimaryTag());
+        stmt.bindString(34, post.getSecondaryTag());
+        stmt.bindLong(35, post.xpostPostId);
+        stmt.bindLong(36, post.xpostBlogId);
+        stmt.bindString(37, post.getRailcarJson());
+        stmt.bindString(38, tagName);
+        stmt.bindLong(39, tagType);
+        stmt.bindLong(40, SqlUtils.boolToSql(hasGapMarker));
+        stmt.bindString(41, ReaderCardType.toString(post.getCardType()));
+        stmt.bindLong(42, SqlUtils.boolToSql(post.useExcerpt));
+        stmt.bindLong(43, SqlUtils.boolToSql(post.isBookmarked));
+        stmt.bindLong(44, SqlUtils.boolToSql(post.isPrivateAtomic));
+        stmt.bindString(45, ReaderUtils.getCommaSeparatedTagSlugs(post.getTags()));
+        stmt.bindLong(46, post.organizationId);
+        stmt.bindLong(47, SqlUtils.boolToSql(post.isSeen));
+        stmt.bindLong(48, SqlUtils.boolToSql(post.isSeenSupported));
+        stmt.bindLong(49, post.authorBlogId);
+        stmt.bindString(50, post.getAuthorBlogUrl());
+        stmt.bindLong(51, contentHash);
+        stmt.bindLong(52, metaHash);
+    }
+
+    private static void bindPostMeta(SQLiteStatement stmt, ReaderPost post, String tagName, int tagType,
+                                     long metaHash) {
+        stmt.clearBindings();
+        stmt.bindDouble(1, post.score);
+        stmt.bindString(2, post.getDateLiked());
+        stmt.bindString(3, post.getDateTagged());
+        stmt.bindLong(4, post.numReplies);
+        stmt.bindLong(5, post.numLikes);
+        stmt.bindLong(6, SqlUtils.boolToSql(post.isLikedByCurrentUser));
+        stmt.bindLong(7, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
+        stmt.bindLong(8, SqlUtils.boolToSql(post.isCommentsOpen));
+        stmt.bindLong(9, SqlUtils.boolToSql(post.isBookmarked));
+        stmt.bindLong(10, SqlUtils.boolToSql(post.isSeen));
+        stmt.bindLong(11, SqlUtils.boolToSql(post.isSeenSupported));
+        stmt.bindString(12, post.getRailcarJson());
+        stmt.bindLong(13, metaHash);
+        stmt.bindString(14, post.getPseudoId());
+        stmt.bindString(15, tagName);
+        stmt.bindLong(16, tagType);
+    }
+
+    /*
+     * hash of the columns stored in tbl_post_content - the raw text is hashed rather than what's actually
+     * stored, so maxText() is only called for bodies that get written
+     */
+    private static long getBodyHash(ReaderPost post) {
+        return new ReaderHasher()
+                .add(post.getText())
+                .add(post.getAttachmentsJson())
+                .add(post.getDiscoverJson())
+                .get();
+    }
+
+    /*
+     * identifies the input to a content scan - the image scanner also depends on whether the blog is private
+     */
+    private static long getScanHash(ReaderPost post, long bodyHash) {
+        return new ReaderHasher()
+                .add(bodyHash)
+                .add(post.isPrivate)
+                .get();
+    }
+
+    /*
+     * hash of every column which isn't covered by getMetaHash(), including the body - the tags are hashed
+     * one by one so the tag slug string is only built for rows that get written
+     */
+    private static long getContentHash(ReaderPost post, long bodyHash) {
+        ReaderHasher hasher = new ReaderHasher();
+        hasher.add(bodyHash)
+              .add(post.postId)
+              .add(post.blogId)
+              .add(post.feedId)
+              .add(post.feedItemId)
+              .add(post.getAuthorName())
+              .add(post.getAuthorFirstName())
+              .add(post.authorId)
+              .add(post.getTitle())
+              .add(post.getExcerpt())
+              .add(post.getFormat())
+              .add(post.getUrl())
+              .add(post.getShortUrl())
+              .add(post.getBlogName())
+              .add(post.getBlogUrl())
+              .add(post.getBlogImageUrl())
+              .add(post.getFeaturedImage())
+              .add(post.getFeaturedVideo())
+              .add(post.getPostAvatar())
+              .add(post.getDatePublished())
+              .add(post.isExternal)
+              .add(post.isPrivate)
+              .add(post.isVideoPress)
+              .add(post.isJetpack)
+              .add(post.getPrimaryTag())
+              .add(post.getSecondaryTag())
+              .add(post.xpostPostId)
+              .add(post.xpostBlogId)
+              .add(post.getCardType().ordinal())
+              .add(post.useExcerpt)
+              .add(post.isPrivateAtomic)
+              .add(post.organizationId)
+              .add(post.authorBlogId)
+              .add(post.getAuthorBlogUrl());
+        for (ReaderTag tag : post.getTags()) {
+            hasher.add(tag.getTagSlug());
         }
+        return hasher.get();
+    }
+
+    /*
+     * hash of the columns written by UPDATE_META_SQL
+     */
+    private static long getMetaHash(ReaderPost post) {
+        return new ReaderHasher()
+                .add(post.score)
+                .add(post.getDateLiked())
+                .add(post.getDateTagged())
+                .add(post.numReplies)
+                .add(post.numLikes)
+                .add(post.isLikedByCurrentUser)
+                .add(post.isFollowedByCurrentUser)
+                .add(post.isCommentsOpen)
+                .add(post.isBookmarked)
+                .add(post.isSeen)
+                .add(post.isSeenSupported)
+                .add(post.getRailcarJson())
+                .get();
     }
 
     public static ReaderPostList getPostsWithTag(ReaderTag tag, int maxPosts, boolean excludeTextColumn) {
@@ -957,8 +1430,31 @@ public class ReaderPostTable {
             return new ReaderPostList();
         }
 
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql = "SELECT " + columns + " FROM tbl_posts WHERE tag_name=? AND tag_type=?";
+        String sql = getPostsWithTagSql(tag, maxPosts, excludeTextColumn);
+        long start = ReaderDatabaseStats.start();
+        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, getTagArgs(tag, maxPosts));
+        try {
+            return getPostListFromCursor(cursor);
+        } finally {
+            SqlUtils.closeCursor(cursor);
+            ReaderDatabaseStats.record("tbl_posts", ReaderDatabaseStats.Operation.READ, start);
+        }
+    }
+
+    static String getPostsWithTagSql(ReaderTag tag, int maxPosts, boolean excludeTextColumn) {
+        return getPostsWithTagSql(tag, maxPosts, excludeTextColumn, false);
+    }
+
+    /*
+     * the sort column is followed by blog_id and post_id so posts with the same sort value are always in the
+     * same order, which getPostsWithTagAfter() relies on - the stream indexes cover all three columns
+     */
+    private static String getPostsWithTagSql(ReaderTag tag, int maxPosts, boolean excludeTextColumn,
+                                             boolean afterPost) {
+        // the text is only read from tbl_post_content when it's asked for
+        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : COLUMN_NAMES_WITH_TEXT);
+        String sortColumn = getSortColumnForTag(tag);
+        String sql = "SELECT " + columns + " FROM " + POSTS_WITH_CONTENT + " WHERE tag_name=?1 AND tag_type=?2";
 
         if (tag.tagType == ReaderTagType.DEFAULT) {
             // skip posts that are no longer liked if this is "Posts I Like", skip posts that are no
@@ -970,30 +1466,94 @@ public class ReaderPostTable {
             }
         }
 
-        sql += " ORDER BY " + getSortColumnForTag(tag) + " DESC";
+        if (afterPost) {
+            sql += " AND (" + sortColumn + " < ?3 OR (" + sortColumn + " = ?3"
+                   + " AND (tbl_posts.blog_id < ?4 OR (tbl_posts.blog_id = ?4 AND tbl_posts.post_id < ?5))))";
+        }
+
+        sql += " ORDER BY " + sortColumn + " DESC, tbl_posts.blog_id DESC, tbl_posts.post_id DESC";
 
         if (maxPosts > 0) {
-            sql += " LIMIT " + maxPosts;
+            sql += " LIMIT ?";
         }
+        return sql;
+    }
 
-        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, args);
+    /*
+     * returns the next page of posts with the passed tag - the ones which come after the passed post
+     * in the stream's sort order
+     */
+    public static ReaderPostList getPostsWithTagAfter(ReaderTag tag, @NonNull ReaderPost afterPost, int maxPosts,
+                                                      boolean excludeTextColumn) {
+        if (tag == null) {
+            return new ReaderPostList();
+        }
+
+        String sortValue = getSortValueForTag(tag, afterPost);
+        if (sortValue == null) {
+            // posts without a score are stored with a null score and sorted last, so there's no way to
+            // page past them
+            return new ReaderPostList();
+        }
+
+        String sql = getPostsWithTagAfterSql(tag, excludeTextColumn);
+        long start = ReaderDatabaseStats.start();
+        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, getTagArgsAfter(tag, afterPost, maxPosts));
         try {
             return getPostListFromCursor(cursor);
         } finally {
             SqlUtils.closeCursor(cursor);
+            ReaderDatabaseStats.record("tbl_posts", ReaderDatabaseStats.Operation.READ, start);
         }
     }
 
-    public static ReaderPostList getPostsInBlog(long blogId, int maxPosts, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql =
-                "SELECT " + columns + " FROM tbl_posts WHERE blog_id=? AND tag_name='' ORDER BY date_published DESC";
+    static String getPostsWithTagAfterSql(ReaderTag tag, boolean excludeTextColumn) {
+        return getPostsWithTagSql(tag, 1, excludeTextColumn, true);
+    }
+
+    static String[] getTagArgsAfter(ReaderTag tag, @NonNull ReaderPost afterPost, int maxPosts) {
+        return new String[]{
+                tag.getTagSlug(),
+                Integer.toString(tag.tagType.toInt()),
+                getSortValueForTag(tag, afterPost),
+                Long.toString(afterPost.blogId),
+                Long.toString(afterPost.postId),
+                Integer.toString(maxPosts)
+        };
+    }
 
+    /*
+     * returns the passed post's value of the column returned by getSortColumnForTag()
+     */
+    @Nullable
+    private static String getSortValueForTag(ReaderTag tag, ReaderPost post) {
+        switch (getSortColumnForTag(tag)) {
+            case "date_liked":
+                return post.getDateLiked();
+            case "date_tagged":
+                return post.getDateTagged();
+            case "score":
+                return Double.isNaN(post.score) ? null : Double.toString(post.score);
+            default:
+                return post.getDatePublished();
+        }
+    }
+
+    /*
+     * the limit is bound rather than appended to the sql so queries for the same stream share one
+     * cached statement
+     */
+    static String[] getTagArgs(ReaderTag tag, int maxPosts) {
+        String tagName = tag.getTagSlug();
+        String tagType = Integer.toString(tag.tagType.toInt());
         if (maxPosts > 0) {
-            sql += " LIMIT " + maxPosts;
+            return new String[]{tagName, tagType, Integer.toString(maxPosts)};
         }
+        return new String[]{tagName, tagType};
+    }
 
+    public static ReaderPostList getPostsInBlog(long blogId, int maxPosts, boolean excludeTextColumn) {
+        String sql = getPostsInBlogSql(maxPosts, excludeTextColumn);
         Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, new String[]{Long.toString(blogId)});
         try {
             return getPostListFromCursor(cursor);
@@ -1002,8 +1562,19 @@ public class ReaderPostTable {
         }
     }
 
+    static String getPostsInBlogSql(int maxPosts, boolean excludeTextColumn) {
+        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : COLUMN_NAMES_WITH_TEXT);
+        String sql = "SELECT " + columns + " FROM " + POSTS_WITH_CONTENT
+                     + " WHERE blog_id=? AND tag_name='' ORDER BY date_published DESC";
+
+        if (maxPosts > 0) {
+            sql += " LIMIT " + maxPosts;
+        }
+        return sql;
+    }
+
     public static Map<Pair<String, ReaderTagType>, ReaderPostList> getTagPostMap(long blogId) {
-        String sql = "SELECT * FROM tbl_posts WHERE blog_id=?";
+        String sql = "SELECT " + COLUMN_NAMES_WITH_TEXT + " FROM " + POSTS_WITH_CONTENT + " WHERE blog_id=?";
         Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, new String[]{Long.toString(blogId)});
         try {
             return getTagPostMapFromCursor(cursor);
@@ -1013,14 +1584,7 @@ public class ReaderPostTable {
     }
 
     public static ReaderPostList getPostsInFeed(long feedId, int maxPosts, boolean excludeTextColumn) {
-        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : "*");
-        String sql =
-                "SELECT " + columns + " FROM tbl_posts WHERE feed_id=? AND tag_name='' ORDER BY date_published DESC";
-
-        if (maxPosts > 0) {
-            sql += " LIMIT " + maxPosts;
-        }
-
+        String sql = getPostsInFeedSql(maxPosts, excludeTextColumn);
         Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, new String[]{Long.toString(feedId)});
         try {
             return getPostListFromCursor(cursor);
@@ -1029,6 +1593,17 @@ public class ReaderPostTable {
         }
     }
 
+    static String getPostsInFeedSql(int maxPosts, boolean excludeTextColumn) {
+        String columns = (excludeTextColumn ? COLUMN_NAMES_NO_TEXT : COLUMN_NAMES_WITH_TEXT);
+        String sql = "SELECT " + columns + " FROM " + POSTS_WITH_CONTENT
+                     + " WHERE feed_id=? AND tag_name='' ORDER BY date_published DESC";
+
+        if (maxPosts > 0) {
+            sql += " LIMIT " + maxPosts;
+        }
+        return sql;
+    }
+
     /*
      * same as getPostsWithTag() but only returns the blogId/postId pairs
      */
@@ -1037,6 +1612,15 @@ public class ReaderPostTable {
             return new ReaderBlogIdPostIdList();
         }
 
+        long start = ReaderDatabaseStats.start();
+        try {
+            return getBlogIdPostIds(getBlogIdPostIdsWithTagSql(tag, maxPosts), getTagArgs(tag, maxPosts));
+        } finally {
+            ReaderDatabaseStats.record("tbl_posts", ReaderDatabaseStats.Operation.READ, start);
+        }
+    }
+
+    static String getBlogIdPostIdsWithTagSql(ReaderTag tag, int maxPosts) {
         String sql = "SELECT blog_id, post_id FROM tbl_posts WHERE tag_name=? AND tag_type=?";
 
         if (tag.tagType == ReaderTagType.DEFAULT) {
@@ -1050,11 +1634,9 @@ public class ReaderPostTable {
         sql += " ORDER BY " + getSortColumnForTag(tag) + " DESC";
 
         if (maxPosts > 0) {
-            sql += " LIMIT " + maxPosts;
+            sql += " LIMIT ?";
         }
-
-        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
-        return getBlogIdPostIds(sql, args);
+        return sql;
     }
 
     private static ReaderBlogIdPostIdList getBlogIdPostIdsWithTagType(ReaderTagType tagType, int maxPosts) {
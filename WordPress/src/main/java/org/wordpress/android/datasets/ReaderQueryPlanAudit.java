@@ -0,0 +1,138 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over the frequently used reader queries and reports any which scan a whole table
+ * rather than searching an index. Used in debug builds when the database is opened, and by a unit test so
+ * a missing index fails the build. New hot queries should be registered in getRegisteredQueries().
+ */
+public class ReaderQueryPlanAudit {
+    private static final int SAMPLE_MAX_ROWS = 20;
+    private static final String SAMPLE_ID = "1";
+
+    static class Query {
+        final String mName;
+        final String mSql;
+        final String[] mArgs;
+
+        Query(String name, String sql, String[] args) {
+            mName = name;
+            mSql = sql;
+            mArgs = args;
+        }
+    }
+
+    private ReaderQueryPlanAudit() {
+        throw new AssertionError();
+    }
+
+    static List<Query> getRegisteredQueries() {
+        List<Query> queries = new ArrayList<>();
+
+        // one tag for each sort column returned by ReaderPostTable.getSortColumnForTag()
+        ReaderTag[] tags = {
+                new ReaderTag("following", "following", "following", ReaderTag.FOLLOWING_PATH, ReaderTagType.DEFAULT),
+                new ReaderTag("liked", "liked", "liked", ReaderTag.LIKED_PATH, ReaderTagType.DEFAULT),
+                new ReaderTag("tag", "tag", "tag", "/read/tags/tag/posts", ReaderTagType.FOLLOWED),
+                new ReaderTag("search", "search", "search", null, ReaderTagType.SEARCH)
+        };
+        ReaderPost samplePost = createSamplePost();
+        for (ReaderTag tag : tags) {
+            String name = tag.getTagSlug();
+            String[] args = ReaderPostTable.getTagArgs(tag, SAMPLE_MAX_ROWS);
+            queries.add(new Query("getPostsWithTag " + name,
+                    ReaderPostTable.getPostsWithTagSql(tag, SAMPLE_MAX_ROWS, true), args));
+            queries.add(new Query("getPostsWithTagAfter " + name,
+                    ReaderPostTable.getPostsWithTagAfterSql(tag, true),
+                    ReaderPostTable.getTagArgsAfter(tag, samplePost, SAMPLE_MAX_ROWS)));
+            queries.add(new Query("getBlogIdPostIdsWithTag " + name,
+                    ReaderPostTable.getBlogIdPostIdsWithTagSql(tag, SAMPLE_MAX_ROWS), args));
+            queries.add(new Query("getOldestDateWithTag " + name,
+                    ReaderPostTable.getOldestDateWithTagSql(tag), ReaderPostTable.getTagArgs(tag, 0)));
+            queries.add(new Query("getGapMarkerIdsForTag " + name,
+                    ReaderPostTable.GAP_MARKER_SQL, ReaderPostTable.getTagArgs(tag, 0)));
+            queries.add(new Query("purgePostsForTag " + name,
+                    "SELECT 1 FROM tbl_posts WHERE " + ReaderPostTable.getPurgePostsForTagWhere(tag),
+                    ReaderPostTable.getPurgePostsForTagArgs(tag)));
+        }
+
+        queries.add(new Query("getPostsInBlog",
+                ReaderPostTable.getPostsInBlogSql(SAMPLE_MAX_ROWS, true), new String[]{SAMPLE_ID}));
+        queries.add(new Query("getPostsInFeed",
+                ReaderPostTable.getPostsInFeedSql(SAMPLE_MAX_ROWS, true), new String[]{SAMPLE_ID}));
+        queries.add(new Query("getCommentsForPost",
+                ReaderCommentTable.COMMENTS_FOR_POST_SQL,
+                ReaderCommentTable.getCommentsForPostArgs(1, 1, null, SAMPLE_MAX_ROWS)));
+
+        return queries;
+    }
+
+    /*
+     * the last post of a page, used as the starting point of getPostsWithTagAfter()
+     */
+    private static ReaderPost createSamplePost() {
+        ReaderPost post = new ReaderPost();
+        post.blogId = 1;
+        post.postId = 1;
+        post.score = 1;
+        post.setDatePublished("2020-01-01T00:00:00+00:00");
+        post.setDateLiked("2020-01-01T00:00:00+00:00");
+        post.setDateTagged("2020-01-01T00:00:00+00:00");
+        return post;
+    }
+
+    /*
+     * returns a description of each registered query step which scans a whole table
+     */
+    @NonNull
+    static List<String> findFullTableScans(@NonNull SQLiteDatabase db) {
+        List<String> fullScans = new ArrayList<>();
+        for (Query query : getRegisteredQueries()) {
+            Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + query.mSql, query.mArgs);
+            try {
+                int idxDetail = c.getColumnIndex("detail");
+                while (c.moveToNext()) {
+                    String detail = c.getString(idxDetail);
+                    if (isFullTableScan(detail)) {
+                        fullScans.add(query.mName + ": " + detail);
+                    }
+                }
+            } finally {
+                SqlUtils.closeCursor(c);
+            }
+        }
+        return fullScans;
+    }
+
+    /*
+     * older SQLite versions describe a full scan as "SCAN TABLE tbl_posts", newer ones as "SCAN tbl_posts" -
+     * scans of an index ("SCAN TABLE tbl_posts USING INDEX ...") are fine
+     */
+    static boolean isFullTableScan(String detail) {
+        return detail != null && detail.startsWith("SCAN ") && !detail.contains(" USING ");
+    }
+
+    public static void logFullTableScans(@NonNull SQLiteDatabase db) {
+        List<String> fullScans = findFullTableScans(db);
+        for (String fullScan : fullScans) {
+            AppLog.w(T.READER, "reader query plan > full table scan in " + fullScan);
+        }
+        AppLog.d(T.READER, String.format(Locale.ENGLISH, "reader query plan > %d queries checked, %d full scans",
+                getRegisteredQueries().size(), fullScans.size()));
+    }
+}
@@ -6,6 +6,7 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 import android.text.TextUtils;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.wordpress.android.models.ReaderTag;
@@ -95,6 +96,30 @@ public class ReaderTagTable {
         }
     }
 
+    /*
+     * applies the changes found by diffing the local tags with the server tags - unlike replaceTags() this
+     * leaves tags which haven't changed alone, so they keep the date they were last updated
+     */
+    public static void updateTags(@NonNull ReaderTagList additionsAndChanges, @NonNull ReaderTagList deletions) {
+        if (additionsAndChanges.isEmpty() && deletions.isEmpty()) {
+            return;
+        }
+
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        db.beginTransaction();
+        try {
+            deleteTags(deletions);
+            addOrUpdateTags(additionsAndChanges);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public static int getTagCount() {
+        return (int) SqlUtils.getRowCount(ReaderDatabase.getReadableDb(), "tbl_tags");
+    }
+
     public static void addOrUpdateTag(ReaderTag tag) {
         if (tag == null) {
             return;
@@ -249,7 +274,7 @@ public class ReaderTagTable {
         }
     }
 
-    static ReaderTagList getAllTags() {
+    public static ReaderTagList getAllTags() {
         Cursor c = ReaderDatabase.getReadableDb().rawQuery("SELECT * FROM tbl_tags ORDER BY tag_slug", null);
         try {
             ReaderTagList tagList = new ReaderTagList();
@@ -50,12 +50,92 @@ public class Note {
     private static final String ACTION_KEY_LIKE = "like-comment";
 
     private JSONObject mActions;
+    private JSONArray mBody;
     private JSONObject mNoteJSON;
+    // json of a note created from the columns of a stored note, which isn't parsed until it's needed
+    private String mRawNoteData;
     private final String mKey;
+    private volatile Fields mFields;
 
     private final Object mSyncLock = new Object();
     private String mLocalStatus;
 
+    /*
+     * fields which the notification list sorts, filters and groups by, decoded from the json once when the
+     * note is created so they don't have to be queried from the json (and the timestamp parsed) on every call.
+     * Stored notes have these fields in their own columns, so they're created without parsing the json.
+     */
+    private static final class Fields {
+        private static final int FLAG_READ = 1;
+        private static final int FLAG_COMMENT = 1 << 1;
+        private static final int FLAG_FOLLOW = 1 << 2;
+        private static final int FLAG_LIKE = 1 << 3;
+
+        private final String mType;
+        private final long mTimestamp;
+        private final int mSiteId;
+        private final int mPostId;
+        private final long mCommentId;
+        private final String mNoteHash;
+        private final int mFlags;
+
+        private Fields(Fields fields, int flags) {
+            mType = fields.mType;
+            mTimestamp = fields.mTimestamp;
+            mSiteId = fields.mSiteId;
+            mPostId = fields.mPostId;
+            mCommentId = fields.mCommentId;
+            mNoteHash = fields.mNoteHash;
+            mFlags = flags;
+        }
+
+        private Fields(String type, long timestamp, int siteId, int postId, long commentId, String noteHash,
+                       boolean isRead) {
+            mType = type != null ? type : NOTE_UNKNOWN_TYPE;
+            mTimestamp = timestamp;
+            mSiteId = siteId;
+            mPostId = postId;
+            mCommentId = commentId;
+            mNoteHash = StringUtils.notNullStr(noteHash);
+
+            int flags = isRead ? FLAG_READ : 0;
+            // automattcher notes are about a comment when they have a comment id - the stored notes are
+            // filtered by the same rule (see NotificationsTable)
+            if (mType.equals(NOTE_COMMENT_TYPE) || (mType.equals(NOTE_MATCHER_TYPE) && commentId > 0)) {
+                flags |= FLAG_COMMENT;
+            }
+            if (mType.equals(NOTE_FOLLOW_TYPE)) {
+                flags |= FLAG_FOLLOW;
+            }
+            if (mType.equals(NOTE_LIKE_TYPE) || mType.equals(NOTE_COMMENT_LIKE_TYPE)) {
+                flags |= FLAG_LIKE;
+            }
+            mFlags = flags;
+        }
+
+        private Fields(JSONObject json, JSONObject ids) {
+            this(JSONUtils.queryJSON(json, "type", NOTE_UNKNOWN_TYPE),
+                    DateTimeUtils.timestampFromIso8601(JSONUtils.queryJSON(json, "timestamp", "")),
+                    ids.optInt("site", 0),
+                    ids.optInt("post", 0),
+                    ids.optLong("comment", 0),
+                    json.optString("note_hash", ""),
+                    json.optInt("read", 0) == 1);
+        }
+
+        private static Fields fromJSON(JSONObject json) {
+            return new Fields(json, JSONUtils.queryJSON(json, "meta.ids", new JSONObject()));
+        }
+
+        private boolean hasFlag(int flag) {
+            return (mFlags & flag) != 0;
+        }
+
+        private Fields withRead() {
+            return hasFlag(FLAG_READ) ? this : new Fields(this, mFlags | FLAG_READ);
+        }
+    }
+
     public enum EnabledActions {
         ACTION_REPLY,
         ACTION_APPROVE,
@@ -75,15 +155,48 @@ public class Note {
     public Note(String key, JSONObject noteJSON) {
         mKey = key;
         mNoteJSON = noteJSON;
+        mFields = Fields.fromJSON(getJSON());
     }
 
     public Note(JSONObject noteJSON) {
         mNoteJSON = noteJSON;
         mKey = mNoteJSON.optString("id", "");
+        mFields = Fields.fromJSON(noteJSON);
+    }
+
+    /*
+     * creates a note from the columns of a stored note - the json is only parsed when something other than
+     * the stored fields is asked for, so a list of notes can be loaded without parsing the rows which
+     * aren't shown
+     */
+    public Note(String key, String rawNoteData, String type, long timestamp, int siteId, int postId,
+                long commentId, String noteHash, boolean isRead) {
+        mKey = key;
+        mRawNoteData = rawNoteData;
+        mFields = new Fields(type, timestamp, siteId, postId, commentId, noteHash, isRead);
+    }
+
+    /*
+     * must be called holding mSyncLock
+     */
+    private JSONObject getNoteJSON() {
+        if (mNoteJSON == null && mRawNoteData != null) {
+            try {
+                mNoteJSON = new JSONObject(mRawNoteData);
+            } catch (JSONException e) {
+                AppLog.e(AppLog.T.NOTIFS, "Can't parse notification with noteId:" + mKey, e);
+                mNoteJSON = new JSONObject();
+            }
+            mRawNoteData = null;
+        }
+        return mNoteJSON;
     }
 
     public JSONObject getJSON() {
-        return mNoteJSON != null ? mNoteJSON : new JSONObject();
+        synchronized (mSyncLock) {
+            JSONObject noteJSON = getNoteJSON();
+            return noteJSON != null ? noteJSON : new JSONObject();
+        }
     }
 
     public String getId() {
@@ -91,7 +204,7 @@ public class Note {
     }
 
     public String getType() {
-        return queryJSON("type", NOTE_UNKNOWN_TYPE);
+        return mFields.mType;
     }
 
     private Boolean isType(String type) {
@@ -99,10 +212,7 @@ public class Note {
     }
 
     public Boolean isCommentType() {
-        synchronized (mSyncLock) {
-            return (isAutomattcherType() && JSONUtils.queryJSON(mNoteJSON, "meta.ids.comment", -1) != -1)
-                   || isType(NOTE_COMMENT_TYPE);
-        }
+        return mFields.hasFlag(Fields.FLAG_COMMENT);
     }
 
     public Boolean isAutomattcherType() {
@@ -114,11 +224,11 @@ public class Note {
     }
 
     public Boolean isFollowType() {
-        return isType(NOTE_FOLLOW_TYPE);
+        return mFields.hasFlag(Fields.FLAG_FOLLOW);
     }
 
     public Boolean isLikeType() {
-        return isPostLikeType() || isCommentLikeType();
+        return mFields.hasFlag(Fields.FLAG_LIKE);
     }
 
     public Boolean isPostLikeType() {
@@ -189,7 +299,7 @@ public class Note {
     public JSONObject getSubject() {
         try {
             synchronized (mSyncLock) {
-                JSONArray subjectArray = mNoteJSON.getJSONArray("subject");
+                JSONArray subjectArray = getNoteJSON().getJSONArray("subject");
                 if (subjectArray.length() > 0) {
                     return subjectArray.getJSONObject(0);
                 }
@@ -215,7 +325,7 @@ public class Note {
 
     public String getCommentSubject() {
         synchronized (mSyncLock) {
-            JSONArray subjectArray = mNoteJSON.optJSONArray("subject");
+            JSONArray subjectArray = getNoteJSON().optJSONArray("subject");
             if (subjectArray != null) {
                 String commentSubject = JSONUtils.queryJSON(subjectArray, "subject[1].text", "");
 
@@ -277,7 +387,7 @@ public class Note {
     public static class TimeStampComparator implements Comparator<Note> {
         @Override
         public int compare(Note a, Note b) {
-            return b.getTimestampString().compareTo(a.getTimestampString());
+            return Long.compare(b.getTimestamp(), a.getTimestamp());
         }
     }
 
@@ -289,12 +399,15 @@ public class Note {
     }
 
     private Boolean isRead() {
-        return queryJSON("read", 0) == 1;
+        return mFields.hasFlag(Fields.FLAG_READ);
     }
 
     public void setRead() {
         try {
-            mNoteJSON.putOpt("read", 1);
+            synchronized (mSyncLock) {
+                getNoteJSON().putOpt("read", 1);
+            }
+            mFields = mFields.withRead();
         } catch (JSONException e) {
             AppLog.e(AppLog.T.NOTIFS, "Failed to set 'read' property", e);
         }
@@ -304,20 +417,27 @@ public class Note {
      * Get the timestamp provided by the API for the note
      */
     public long getTimestamp() {
-        return DateTimeUtils.timestampFromIso8601(getTimestampString());
+        return mFields.mTimestamp;
     }
 
     public String getTimestampString() {
         return queryJSON("timestamp", "");
     }
 
+    /*
+     * the body is only needed by the detail view and the comment helpers, so unlike the fields it's
+     * looked up the first time it's asked for
+     */
     public JSONArray getBody() {
-        try {
-            synchronized (mSyncLock) {
-                return mNoteJSON.getJSONArray("body");
+        synchronized (mSyncLock) {
+            if (mBody == null) {
+                JSONObject noteJSON = getNoteJSON();
+                mBody = noteJSON != null ? noteJSON.optJSONArray("body") : null;
+                if (mBody == null) {
+                    return new JSONArray();
+                }
             }
-        } catch (JSONException e) {
-            return new JSONArray();
+            return mBody;
         }
     }
 
@@ -382,15 +502,15 @@ public class Note {
     }
 
     public int getSiteId() {
-        return queryJSON("meta.ids.site", 0);
+        return mFields.mSiteId;
     }
 
     public int getPostId() {
-        return queryJSON("meta.ids.post", 0);
+        return mFields.mPostId;
     }
 
     public long getCommentId() {
-        return queryJSON("meta.ids.comment", 0);
+        return mFields.mCommentId;
     }
 
     public long getParentCommentId() {
@@ -402,10 +522,11 @@ public class Note {
      */
     private <U> U queryJSON(String query, U defaultObject) {
         synchronized (mSyncLock) {
-            if (mNoteJSON == null) {
+            JSONObject noteJSON = getNoteJSON();
+            if (noteJSON == null) {
                 return defaultObject;
             }
-            return JSONUtils.queryJSON(mNoteJSON, query, defaultObject);
+            return JSONUtils.queryJSON(noteJSON, query, defaultObject);
         }
     }
 
@@ -483,13 +604,20 @@ public class Note {
         return !(jsonActions == null || jsonActions.length() == 0) && jsonActions.optBoolean(ACTION_KEY_LIKE);
     }
 
+    /*
+     * hash the server returns for the note when it's requested, which changes whenever the note does
+     */
+    public String getNoteHash() {
+        return mFields.mNoteHash;
+    }
+
     public String getUrl() {
         return queryJSON("url", "");
     }
 
     public JSONArray getHeader() {
         synchronized (mSyncLock) {
-            return mNoteJSON.optJSONArray("header");
+            return getNoteJSON().optJSONArray("header");
         }
     }
 
@@ -0,0 +1,29 @@
+package org.wordpress.android.models;
+
+/**
+ * The filters of the notifications list, which NotificationsTable applies when it loads the notes
+ */
+public enum NotesFilter {
+    FILTER_ALL,
+    FILTER_COMMENT,
+    FILTER_FOLLOW,
+    FILTER_LIKE,
+    FILTER_UNREAD;
+
+    public String toString() {
+        switch (this) {
+            case FILTER_ALL:
+                return "all";
+            case FILTER_COMMENT:
+                return "comment";
+            case FILTER_FOLLOW:
+                return "follow";
+            case FILTER_LIKE:
+                return "like";
+            case FILTER_UNREAD:
+                return "unread";
+            default:
+                return "all";
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 public class ReaderBlogList extends ArrayList<ReaderBlog> {
     @Override
@@ -36,13 +38,12 @@ public class ReaderBlogList extends ArrayList<ReaderBlog> {
         return blogs;
     }
 
-    private int indexOfBlogId(long blogId) {
-        for (int i = 0; i < size(); i++) {
-            if (this.get(i).blogId == blogId) {
-                return i;
-            }
+    private Map<Long, ReaderBlog> getBlogsById() {
+        Map<Long, ReaderBlog> blogs = new HashMap<>(size());
+        for (ReaderBlog blog : this) {
+            blogs.put(blog.blogId, blog);
         }
-        return -1;
+        return blogs;
     }
 
     public boolean isSameList(ReaderBlogList blogs) {
@@ -50,13 +51,10 @@ public class ReaderBlogList extends ArrayList<ReaderBlog> {
             return false;
         }
 
+        Map<Long, ReaderBlog> thisBlogs = getBlogsById();
         for (ReaderBlog blogInfo : blogs) {
-            int index = indexOfBlogId(blogInfo.blogId);
-            if (index == -1) {
-                return false;
-            }
-            ReaderBlog thisInfo = this.get(index);
-            if (!thisInfo.isSameAs(blogInfo)) {
+            ReaderBlog thisInfo = thisBlogs.get(blogInfo.blogId);
+            if (thisInfo == null || !thisInfo.isSameAs(blogInfo)) {
                 return false;
             }
         }
@@ -75,12 +73,44 @@ public class ReaderBlogList extends ArrayList<ReaderBlog> {
             return false;
         }
 
+        Map<Long, ReaderBlog> thisBlogs = getBlogsById();
         for (ReaderBlog blogInfo : blogs) {
-            if (indexOfBlogId(blogInfo.blogId) == -1) {
+            if (!thisBlogs.containsKey(blogInfo.blogId)) {
                 return false;
             }
         }
 
         return true;
     }
+
+    /*
+     * returns the blogs in the passed list which aren't in this list, or which have changed
+     */
+    @NonNull
+    public ReaderBlogList getAdditionsAndChanges(@NonNull ReaderBlogList blogs) {
+        ReaderBlogList changes = new ReaderBlogList();
+        Map<Long, ReaderBlog> thisBlogs = getBlogsById();
+        for (ReaderBlog blogInfo : blogs) {
+            ReaderBlog thisInfo = thisBlogs.get(blogInfo.blogId);
+            if (thisInfo == null || !thisInfo.isSameAs(blogInfo)) {
+                changes.add(blogInfo);
+            }
+        }
+        return changes;
+    }
+
+    /*
+     * returns the blogs in this list which aren't in the passed list
+     */
+    @NonNull
+    public ReaderBlogList getDeletions(@NonNull ReaderBlogList blogs) {
+        ReaderBlogList deletions = new ReaderBlogList();
+        Map<Long, ReaderBlog> otherBlogs = blogs.getBlogsById();
+        for (ReaderBlog thisInfo : this) {
+            if (!otherBlogs.containsKey(thisInfo.blogId)) {
+                deletions.add(thisInfo);
+            }
+        }
+        return deletions;
+    }
 }
@@ -2,14 +2,16 @@ package org.wordpress.android.models;
 
 import android.text.TextUtils;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.ui.Organization;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
-import org.wordpress.android.ui.reader.utils.ReaderIframeScanner;
-import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.DateTimeUtilsWrapper;
@@ -19,6 +21,8 @@ import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.UrlUtils;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.text.BreakIterator;
 import java.util.Iterator;
 
@@ -145,16 +149,6 @@ public class ReaderPost {
         // "score" only exists for search results
         post.score = json.optDouble("score");
 
-        // if the post is untitled, make up a title from the excerpt
-        if (!post.hasTitle() && post.hasExcerpt()) {
-            post.mTitle = extractTitle(post.mExcerpt, 50);
-        }
-
-        // remove html from title (rare, but does happen)
-        if (post.hasTitle() && post.mTitle.contains("<") && post.mTitle.contains(">")) {
-            post.mTitle = HtmlUtils.stripHtml(post.mTitle);
-        }
-
         // parse the tags section
         assignTagsFromJson(post, json.optJSONObject("tags"));
 
@@ -199,34 +193,656 @@ public class ReaderPost {
             }
         }
 
-        // if the post doesn't have a featured image but it contains an IMG tag, check whether
-        // we can find a suitable image from the content
-        if (!post.hasFeaturedImage() && post.hasImages()) {
-            post.mFeaturedImage = new ReaderImageScanner(post.mText, post.isPrivate)
-                    .getLargestImage(ReaderConstants.MIN_FEATURED_IMAGE_WIDTH);
-        }
-
-        // if there's no featured image or featured video and the post contains an iframe, scan
-        // the content for a suitable featured video
-        if (!post.hasFeaturedImage()
-            && !post.hasFeaturedVideo()
-            && post.getText().contains("<iframe")) {
-            post.setFeaturedVideo(new ReaderIframeScanner(post.getText()).getFirstUsableVideo());
-        }
-
         // "railcar" data - currently used in search streams, used by TrainTracks
         JSONObject jsonRailcar = json.optJSONObject("railcar");
         if (jsonRailcar != null) {
             post.setRailcarJson(jsonRailcar.toString());
         }
 
+        post.assignDerivedFields();
+
+        return post;
+    }
+
+    /*
+     * fills in the fields which depend on others once the post has been parsed - shared by the
+     * JSONObject and streaming parsers so they always produce the same post. Scanning the content
+     * for a featured image or video is left to ReaderPostEnricher once the post has been saved.
+     */
+    private void assignDerivedFields() {
+        // if the post is untitled, make up a title from the excerpt
+        if (!hasTitle() && hasExcerpt()) {
+            mTitle = extractTitle(mExcerpt, 50);
+        }
+
+        // remove html from title (rare, but does happen)
+        if (hasTitle() && mTitle.contains("<") && mTitle.contains(">")) {
+            mTitle = HtmlUtils.stripHtml(mTitle);
+        }
+
         // set the card type last since it depends on information contained in the post - note
-        // that this is stored in the post table rather than calculated on-the-fly
-        post.setCardType(ReaderCardType.fromReaderPost(post));
+        // that this is stored in the post table rather than calculated on-the-fly. Posts which
+        // need their content scanned get their card type when they're scanned.
+        if (!needsContentScan()) {
+            setCardType(ReaderCardType.fromReaderPost(this));
+        }
+    }
+
+    /*
+     * returns true if the post has no featured image but its content may contain one, or may contain
+     * a featured video - ReaderPostEnricher scans the content for these
+     */
+    public boolean needsContentScan() {
+        return !hasFeaturedImage()
+               && (hasImages() || (!hasFeaturedVideo() && getText().contains("<iframe")));
+    }
+
+    /*
+     * streaming counterpart to fromJson(JSONObject) which reads the post straight from the response
+     * rather than from a JSONObject tree - nested objects which are stored as JSON (attachments,
+     * discover_metadata, railcar) are copied token by token into their strings. Keys can appear in
+     * any order, so values which depend on others are resolved once the whole post has been read.
+     */
+    public static ReaderPost fromJson(JsonReader reader) throws IOException {
+        ReaderPost post = new ReaderPost();
+        String pseudoId = null;
+        String globalId = "";
+        boolean hasDiscussion = false;
+        boolean commentsOpen = false;
+        int commentCount = 0;
+        String siteUrl = "";
+        String authorUrl = null;
+        StreamedSite site = null;
+        String featuredMediaUri = null;
+
+        // "score" only exists for search results
+        post.score = Double.NaN;
+
+        // missing strings are empty rather than null, as with fromJson(JSONObject)
+        post.mExcerpt = "";
+        post.mText = "";
+        post.mTitle = "";
+        post.mFormat = "";
+        post.mUrl = "";
+        post.mShortUrl = "";
+        post.mFeaturedImage = "";
+        post.mBlogName = "";
+        post.mDatePublished = "";
+        post.mDateLiked = "";
+        post.mDateTagged = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case ReaderConstants.POST_ID:
+                    post.postId = nextLong(reader);
+                    break;
+                case ReaderConstants.POST_SITE_ID:
+                    post.blogId = nextLong(reader);
+                    break;
+                case "feed_ID":
+                    post.feedId = nextLong(reader);
+                    break;
+                case "feed_item_ID":
+                    post.feedItemId = nextLong(reader);
+                    break;
+                case ReaderConstants.POST_PSEUDO_ID:
+                    pseudoId = nextString(reader); // read/ endpoint
+                    break;
+                case "global_ID":
+                    globalId = nextString(reader); // sites/ endpoint
+                    break;
+                case "excerpt":
+                    // remove HTML from the excerpt
+                    post.mExcerpt = HtmlUtils.fastStripHtml(nextString(reader)).trim();
+                    break;
+                case "content":
+                    post.mText = nextString(reader);
+                    break;
+                case "title":
+                    post.mTitle = HtmlUtils.fastUnescapeHtml(nextString(reader));
+                    break;
+                case "format":
+                    post.mFormat = nextString(reader);
+                    break;
+                case "URL":
+                    post.mUrl = nextString(reader);
+                    break;
+                case "short_URL":
+                    post.mShortUrl = nextString(reader);
+                    break;
+                case "site_URL":
+                    siteUrl = nextString(reader);
+                    break;
+                case "like_count":
+                    post.numLikes = (int) nextLong(reader);
+                    break;
+                case "i_like":
+                    post.isLikedByCurrentUser = nextBool(reader);
+                    break;
+                case "is_following":
+                    post.isFollowedByCurrentUser = nextBool(reader);
+                    break;
+                case "is_external":
+                    post.isExternal = nextBool(reader);
+                    break;
+                case "site_is_private":
+                    post.isPrivate = nextBool(reader);
+                    break;
+                case "site_is_atomic":
+                    post.isPrivateAtomic = nextBool(reader);
+                    break;
+                case "is_jetpack":
+                    post.isJetpack = nextBool(reader);
+                    break;
+                case "use_excerpt":
+                    post.useExcerpt = nextBool(reader);
+                    break;
+                case "is_seen":
+                    post.isSeen = nextBool(reader);
+                    post.isSeenSupported = true;
+                    break;
+                case "comments_open":
+                    commentsOpen = nextBool(reader);
+                    break;
+                case "comment_count":
+                    commentCount = (int) nextLong(reader);
+                    break;
+                case "discussion":
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        hasDiscussion = true;
+                        assignDiscussionFromJson(post, reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "author":
+                    authorUrl = assignAuthorFromJson(post, reader);
+                    break;
+                case "featured_image":
+                    post.mFeaturedImage = nextString(reader);
+                    break;
+                case "featured_media":
+                    featuredMediaUri = nextFeaturedMediaImage(reader);
+                    break;
+                case "site_name":
+                    post.mBlogName = HtmlUtils.fastUnescapeHtml(nextString(reader));
+                    break;
+                case "date":
+                    post.mDatePublished = nextString(reader);
+                    break;
+                case "date_liked":
+                    post.mDateLiked = nextString(reader);
+                    break;
+                case "tagged_on":
+                    post.mDateTagged = nextString(reader);
+                    break;
+                case "score":
+                    post.score = nextDouble(reader);
+                    break;
+                case "tags":
+                    assignTagsFromJson(post, reader);
+                    break;
+                case "attachments":
+                    String attachments = nextObjectJson(reader);
+                    if (attachments != null && !attachments.equals("{}")) {
+                        post.mAttachmentsJson = attachments;
+                    }
+                    break;
+                case "meta":
+                    site = nextSiteMeta(reader);
+                    break;
+                case "discover_metadata":
+                    String discover = nextObjectJson(reader);
+                    if (discover != null) {
+                        post.setDiscoverJson(discover);
+                    }
+                    break;
+                case "metadata":
+                    assignXpostIdsFromJson(post, reader);
+                    break;
+                case "railcar":
+                    String railcar = nextObjectJson(reader);
+                    if (railcar != null) {
+                        post.setRailcarJson(railcar);
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        post.mPseudoId = pseudoId != null ? pseudoId : globalId;
+
+        if (!hasDiscussion) {
+            post.isCommentsOpen = commentsOpen;
+            post.numReplies = commentCount;
+        }
+
+        // site_URL doesn't exist for /sites/ endpoints, so get it from the author
+        post.setBlogUrl(siteUrl);
+        if (TextUtils.isEmpty(post.mBlogUrl) && authorUrl != null) {
+            post.setBlogUrl(authorUrl);
+        }
+
+        // site metadata - returned when ?meta=site was added to the request
+        if (site != null) {
+            post.blogId = site.mId;
+            post.mBlogName = site.mName;
+            post.setBlogUrl(site.mUrl);
+            post.isPrivate = site.mIsPrivate;
+            if (site.mIconUrl != null) {
+                post.mBlogImageUrl = site.mIconUrl;
+            }
+            post.isJetpack = site.mIsJetpack;
+            post.organizationId = site.mOrganizationId;
+        }
+
+        // if there's no featured image, check if featured media has been set to an image
+        if (!post.hasFeaturedImage() && featuredMediaUri != null) {
+            post.mFeaturedImage = featuredMediaUri;
+        }
+
+        post.assignDerivedFields();
 
         return post;
     }
 
+    private static void assignDiscussionFromJson(ReaderPost post, JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "comments_open":
+                    post.isCommentsOpen = nextBool(reader);
+                    break;
+                case "comment_count":
+                    post.numReplies = (int) nextLong(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    /*
+     * streaming counterpart to assignAuthorFromJson(ReaderPost, JSONObject) - returns the author's
+     * URL, which is used as the blog URL when the post doesn't have one
+     */
+    private static String assignAuthorFromJson(ReaderPost post, JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        boolean hasAvatar = true;
+        String avatarUrl = "";
+        String url = "";
+        post.mAuthorName = "";
+        post.mAuthorFirstName = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    post.mAuthorName = HtmlUtils.fastUnescapeHtml(nextString(reader));
+                    break;
+                case "first_name":
+                    post.mAuthorFirstName = HtmlUtils.fastUnescapeHtml(nextString(reader));
+                    break;
+                case "ID":
+                    post.authorId = nextLong(reader);
+                    break;
+                case "site_ID":
+                    post.authorBlogId = nextLong(reader);
+                    break;
+                case "has_avatar":
+                    // v1.2 endpoint contains a "has_avatar" boolean which tells us whether the author
+                    // has a valid avatar - if this field exists and is set to false, skip setting
+                    // the avatar URL
+                    hasAvatar = nextString(reader).equalsIgnoreCase("true");
+                    break;
+                case "avatar_URL":
+                    avatarUrl = nextString(reader);
+                    break;
+                case "URL":
+                    url = nextString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (hasAvatar) {
+            post.mPostAvatar = avatarUrl;
+        }
+        post.setAuthorBlogUrl(url);
+        return url;
+    }
+
+    private static void assignTagsFromJson(ReaderPost post, JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+
+        PostTags postTags = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String slug = "";
+            int postCount = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "slug":
+                        slug = nextString(reader);
+                        break;
+                    case "post_count":
+                        postCount = (int) nextLong(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            if (postTags == null) {
+                postTags = new PostTags();
+            }
+            postTags.add(slug, postCount);
+        }
+        reader.endObject();
+
+        if (postTags != null) {
+            postTags.assignTo(post);
+        }
+    }
+
+    private static void assignXpostIdsFromJson(ReaderPost post, JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+
+        boolean found = false;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (found || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String metaKey = "";
+            String value = "";
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "key":
+                        metaKey = nextString(reader);
+                        break;
+                    case "value":
+                        value = nextString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            if (metaKey.equals("xpost_origin") && value.contains(":")) {
+                String[] valuePair = value.split(":");
+                if (valuePair.length == 2) {
+                    post.xpostBlogId = StringUtils.stringToLong(valuePair[0]);
+                    post.xpostPostId = StringUtils.stringToLong(valuePair[1]);
+                    found = true;
+                }
+            }
+        }
+        reader.endArray();
+    }
+
+    /*
+     * returns the uri of the post's featured media if it's an image
+     */
+    private static String nextFeaturedMediaImage(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        String type = "";
+        String uri = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "type":
+                    type = nextString(reader);
+                    break;
+                case "uri":
+                    uri = nextString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return type.equals("image") ? uri : null;
+    }
+
+    /*
+     * site metadata from the post's "meta/data/site" object
+     */
+    private static class StreamedSite {
+        private int mId;
+        private String mName = "";
+        private String mUrl = "";
+        private String mIconUrl;
+        private boolean mIsPrivate;
+        private boolean mIsJetpack;
+        private int mOrganizationId;
+    }
+
+    /*
+     * reads the post's "meta" object and returns the site it contains, or null if there isn't one
+     */
+    private static StreamedSite nextSiteMeta(JsonReader reader) throws IOException {
+        StreamedSite site = null;
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("data") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("site") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                site = new StreamedSite();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "ID":
+                            site.mId = (int) nextLong(reader);
+                            break;
+                        case "name":
+                            site.mName = nextString(reader);
+                            break;
+                        case "URL":
+                            site.mUrl = nextString(reader);
+                            break;
+                        case "is_private":
+                            site.mIsPrivate = nextBool(reader);
+                            break;
+                        case "icon":
+                            site.mIconUrl = nextSiteIconUrl(reader);
+                            break;
+                        // TODO: as of 29-Sept-2014, this is broken - endpoint returns false when it should be true
+                        case "jetpack":
+                            site.mIsJetpack = nextBool(reader);
+                            break;
+                        case "organization_id":
+                            site.mOrganizationId = (int) nextLong(reader);
+                            break;
+                        default:
+                            reader.skipValue();
+                            break;
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return site;
+    }
+
+    private static String nextSiteIconUrl(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String iconUrl = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("img")) {
+                iconUrl = nextString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return iconUrl;
+    }
+
+    /*
+     * the following read the next value the same way JSONUtils reads a value from a JSONObject, so
+     * numbers and booleans sent as strings (and vice versa) are handled as before, and null or
+     * missing strings become empty strings
+     */
+    private static String nextString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                String value = reader.nextString();
+                return value.equals("null") ? "" : value;
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return "";
+        }
+    }
+
+    private static long nextLong(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            reader.skipValue();
+            return 0;
+        }
+        String value = reader.nextString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(value);
+            } catch (NumberFormatException e2) {
+                return 0;
+            }
+        }
+    }
+
+    private static double nextDouble(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            reader.skipValue();
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(reader.nextString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean nextBool(JsonReader reader) throws IOException {
+        String value = nextString(reader);
+        return !value.isEmpty()
+               && !value.equals("0")
+               && !value.equalsIgnoreCase("false")
+               && !value.equalsIgnoreCase("no");
+    }
+
+    /*
+     * copies the next value to a JSON string if it's an object, otherwise skips it and returns null
+     */
+    private static String nextObjectJson(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        copyValue(reader, writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    private static void copyValue(JsonReader reader, JsonWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copyValue(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copyValue(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+            case NUMBER:
+                // written as-is rather than converted, so the number keeps its original form
+                writer.jsonValue(reader.nextString());
+                break;
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+
     public boolean hasImages() {
         return hasText() && mText.contains("<img ");
     }
@@ -312,38 +928,48 @@ public class ReaderPost {
             return;
         }
 
-        // most popular tag & second most popular tag, based on usage count on this blog
-        String mostPopularTag = null;
-        String nextMostPopularTag = null;
-        int popularCount = 0;
-
-        ReaderTagList tags = new ReaderTagList();
+        PostTags postTags = new PostTags();
         while (it.hasNext()) {
             JSONObject jsonThisTag = jsonTags.optJSONObject(it.next());
-            String thisTagName = UrlUtils.urlDecode(JSONUtils.getString(jsonThisTag, "slug"));
+            postTags.add(JSONUtils.getString(jsonThisTag, "slug"), jsonThisTag.optInt("post_count"));
+        }
+        postTags.assignTo(post);
+    }
 
-            ReaderTag tag = ReaderUtils.getTagFromTagName(thisTagName, ReaderTagType.DEFAULT);
-            tags.add(tag);
+    /*
+     * collects a post's tags along with its most popular & second most popular tag, based on
+     * usage count on the post's blog
+     */
+    private static class PostTags {
+        private final ReaderTagList mTags = new ReaderTagList();
+        private String mMostPopularTag;
+        private String mNextMostPopularTag;
+        private int mPopularCount;
+
+        void add(String slug, int postCount) {
+            String thisTagName = UrlUtils.urlDecode(slug);
+            mTags.add(ReaderUtils.getTagFromTagName(thisTagName, ReaderTagType.DEFAULT));
 
             // if the number of posts on this blog that use this tag is higher than previous,
             // set this as the most popular tag, and set the second most popular tag to
             // the current most popular tag
-            int postCount = jsonThisTag.optInt("post_count");
-            if (postCount > popularCount) {
-                nextMostPopularTag = mostPopularTag;
-                mostPopularTag = thisTagName;
-                popularCount = postCount;
-            } else if (nextMostPopularTag == null) {
-                nextMostPopularTag = thisTagName;
+            if (postCount > mPopularCount) {
+                mNextMostPopularTag = mMostPopularTag;
+                mMostPopularTag = thisTagName;
+                mPopularCount = postCount;
+            } else if (mNextMostPopularTag == null) {
+                mNextMostPopularTag = thisTagName;
             }
         }
 
-        // don't set primary tag if one is already set
-        if (!post.hasPrimaryTag()) {
-            post.setPrimaryTag(mostPopularTag);
+        void assignTo(ReaderPost post) {
+            // don't set primary tag if one is already set
+            if (!post.hasPrimaryTag()) {
+                post.setPrimaryTag(mMostPopularTag);
+            }
+            post.setSecondaryTag(mNextMostPopularTag);
+            post.setTags(mTags);
         }
-        post.setSecondaryTag(nextMostPopularTag);
-        post.setTags(tags);
     }
 
     /*
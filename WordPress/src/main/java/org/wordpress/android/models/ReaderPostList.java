@@ -1,9 +1,16 @@
 package org.wordpress.android.models;
 
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 
 public class ReaderPostList extends ArrayList<ReaderPost> {
@@ -23,6 +30,39 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
         return posts;
     }
 
+    /*
+     * streaming counterpart to fromJson(JSONObject) for read/ and sites/ post responses - posts are
+     * decoded one at a time as the response is read, without building a JSONObject tree for the page.
+     * The passed reader isn't closed.
+     */
+    public static ReaderPostList fromJson(Reader in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("null json post list");
+        }
+
+        ReaderPostList posts = new ReaderPostList();
+        JsonReader reader = new JsonReader(in);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("posts") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    posts.add(ReaderPost.fromJson(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+
+        return posts;
+    }
+
     @Override
     public Object clone() {
         return super.clone();
@@ -80,6 +120,8 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
      * Also compares the bookmark flag that is not yet implemented on server
      * We might want to use original isSameList when bookmarked flag will be implemented on server side and Post model
      * updated.
+     * The featured image/video and card type are also compared since ReaderPostEnricher may fill them in after the
+     * post is first shown.
      */
     public boolean isSameListWithBookmark(ReaderPostList posts) {
         if (posts == null || posts.size() != this.size()) {
@@ -93,9 +135,7 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
                 return false;
             }
 
-            ReaderPost postInsideList = this.get(index);
-
-            if (!post.isSamePost(postInsideList) || post.isBookmarked != postInsideList.isBookmarked) {
+            if (!isSamePostWithBookmark(post, this.get(index))) {
                 return false;
             }
         }
@@ -103,6 +143,17 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
         return true;
     }
 
+    /*
+     * compares a single post the same way as isSameListWithBookmark() - also used when diffing lists of posts
+     */
+    public static boolean isSamePostWithBookmark(@NonNull ReaderPost post, @NonNull ReaderPost otherPost) {
+        return post.isSamePost(otherPost)
+               && post.isBookmarked == otherPost.isBookmarked
+               && post.getFeaturedImage().equals(otherPost.getFeaturedImage())
+               && post.getFeaturedVideo().equals(otherPost.getFeaturedVideo())
+               && post.getCardType() == otherPost.getCardType();
+    }
+
     /*
      * returns posts in this list which are in the passed blog
      */
@@ -1,6 +1,13 @@
 package org.wordpress.android.models;
 
+import androidx.annotation.NonNull;
+
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class ReaderTagList extends ArrayList<ReaderTag> {
     public int indexOfTagName(String tagName) {
@@ -17,32 +24,19 @@ public class ReaderTagList extends ArrayList<ReaderTag> {
         return -1;
     }
 
-    private int indexOfTag(ReaderTag tag) {
-        if (tag == null || isEmpty()) {
-            return -1;
-        }
-
-        for (int i = 0; i < this.size(); i++) {
-            if (ReaderTag.isSameTag(tag, this.get(i))) {
-                return i;
-            }
-        }
-
-        return -1;
-    }
-
     public boolean isSameList(ReaderTagList otherList) {
         if (otherList == null || otherList.size() != this.size()) {
             return false;
         }
 
+        Map<String, ReaderTag> thisTags = getTagsByKey();
         for (ReaderTag otherTag : otherList) {
-            int i = this.indexOfTag(otherTag);
-            if (i == -1) {
+            ReaderTag thisTag = thisTags.get(getDiffKey(otherTag));
+            if (thisTag == null) {
                 return false;
-            } else if (!otherTag.getEndpoint().equals(this.get(i).getEndpoint())) {
+            } else if (!otherTag.getEndpoint().equals(thisTag.getEndpoint())) {
                 return false;
-            } else if (!otherTag.getTagTitle().equals(this.get(i).getTagTitle())) {
+            } else if (!otherTag.getTagTitle().equals(thisTag.getTagTitle())) {
                 return false;
             }
         }
@@ -59,8 +53,12 @@ public class ReaderTagList extends ArrayList<ReaderTag> {
             return deletions;
         }
 
+        Set<String> otherKeys = new HashSet<>(otherList.size());
+        for (ReaderTag otherTag : otherList) {
+            otherKeys.add(getDiffKey(otherTag));
+        }
         for (ReaderTag thisTag : this) {
-            if (otherList.indexOfTag(thisTag) == -1) {
+            if (!otherKeys.contains(getDiffKey(thisTag))) {
                 deletions.add(thisTag);
             }
         }
@@ -68,6 +66,41 @@ public class ReaderTagList extends ArrayList<ReaderTag> {
         return deletions;
     }
 
+    /*
+     * returns a list of tags in the passed list which aren't in this list, or whose display name, title or
+     * endpoint differ from the ones in this list
+     */
+    @NonNull
+    public ReaderTagList getAdditionsAndChanges(@NonNull ReaderTagList otherList) {
+        ReaderTagList changes = new ReaderTagList();
+        Map<String, ReaderTag> thisTags = getTagsByKey();
+        for (ReaderTag otherTag : otherList) {
+            ReaderTag thisTag = thisTags.get(getDiffKey(otherTag));
+            if (thisTag == null
+                || !otherTag.getTagDisplayName().equals(thisTag.getTagDisplayName())
+                || !otherTag.getTagTitle().equals(thisTag.getTagTitle())
+                || !otherTag.getEndpoint().equals(thisTag.getEndpoint())) {
+                changes.add(otherTag);
+            }
+        }
+        return changes;
+    }
+
+    /*
+     * tags are matched the same way as ReaderTag.isSameTag(), which ignores the case of the slug
+     */
+    private static String getDiffKey(@NonNull ReaderTag tag) {
+        return tag.tagType.toInt() + ":" + tag.getTagSlug().toLowerCase(Locale.ROOT);
+    }
+
+    private Map<String, ReaderTag> getTagsByKey() {
+        Map<String, ReaderTag> tags = new HashMap<>(size());
+        for (ReaderTag tag : this) {
+            tags.put(getDiffKey(tag), tag);
+        }
+        return tags;
+    }
+
     public boolean containsFollowingTag() {
         boolean containsFollowing = false;
 
@@ -0,0 +1,150 @@
+package org.wordpress.android.networking;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.internal.Util;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * A {@link RequestBody} for uploading large files. The file is memory-mapped region by region and each region is
+ * written to the sink in one bulk call, so there is no per-chunk read syscall and no intermediate heap buffer. If the
+ * file can't be mapped, it falls back to large buffered writes.<br>
+ * <br>
+ * OkHttp's sink is not a channel to the socket, so a true sendfile ({@link FileChannel#transferTo}) isn't possible
+ * here; one copy into Okio's segments remains. Progress is reported at a bounded rate rather than per write.
+ */
+public class FileRequestBody extends RequestBody {
+    static final long REGION_SIZE = 4 * 1024 * 1024;
+    static final long FALLBACK_WRITE_SIZE = 256 * 1024;
+    static final long MIN_PROGRESS_INTERVAL_MS = 250;
+
+    public interface ProgressListener {
+        /**
+         * Called at most every {@link #MIN_PROGRESS_INTERVAL_MS} milliseconds, and once when the whole file is written.
+         */
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    private final File mFile;
+    private final MediaType mMediaType;
+    @Nullable private final ProgressListener mProgressListener;
+
+    public FileRequestBody(@NonNull File file, @Nullable MediaType mediaType,
+                           @Nullable ProgressListener progressListener) {
+        mFile = file;
+        mMediaType = mediaType;
+        mProgressListener = progressListener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return mFile.length();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        FileInputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(mFile);
+            FileChannel channel = inputStream.getChannel();
+            ProgressThrottle progress = new ProgressThrottle(channel.size());
+
+            long position = 0;
+            // the size is checked before mapping each region, so a file which shrinks while it's being sent ends
+            // the body rather than mapping past its end
+            long size;
+            while (position < (size = channel.size())) {
+                long regionSize = Math.min(REGION_SIZE, size - position);
+                MappedByteBuffer region = mapRegion(channel, position, regionSize);
+                if (region == null) {
+                    // mapping isn't available for this file, continue with buffered writes
+                    channel.position(position);
+                    position = writeBuffered(sink, Okio.source(inputStream), position, progress);
+                    break;
+                }
+                while (region.hasRemaining()) {
+                    sink.write(region);
+                }
+                sink.emitCompleteSegments();
+                position += regionSize;
+                progress.update(position);
+            }
+            progress.finish(position);
+        } finally {
+            Util.closeQuietly(inputStream);
+        }
+    }
+
+    /*
+     * writes the rest of the file in large buffered writes, reading until the end of the file, and returns the
+     * position it ended at
+     */
+    private static long writeBuffered(BufferedSink sink, Source source, long position,
+                                      ProgressThrottle progress) throws IOException {
+        long bytesRead;
+        while ((bytesRead = source.read(sink.buffer(), FALLBACK_WRITE_SIZE)) != -1) {
+            sink.emitCompleteSegments();
+            position += bytesRead;
+            progress.update(position);
+        }
+        return position;
+    }
+
+    private static @Nullable MappedByteBuffer mapRegion(FileChannel channel, long position, long size) {
+        try {
+            return channel.map(MapMode.READ_ONLY, position, size);
+        } catch (IOException | UnsupportedOperationException e) {
+            AppLog.w(T.API, "FileRequestBody > Unable to map file region, falling back to buffered writes: " + e);
+            return null;
+        }
+    }
+
+    private class ProgressThrottle {
+        private final long mContentLength;
+        private long mLastReportedAt;
+        private long mLastReportedBytes = -1;
+
+        ProgressThrottle(long contentLength) {
+            mContentLength = contentLength;
+        }
+
+        void update(long bytesWritten) {
+            long now = System.currentTimeMillis();
+            if (mProgressListener != null && now - mLastReportedAt >= MIN_PROGRESS_INTERVAL_MS) {
+                report(now, bytesWritten);
+            }
+        }
+
+        void finish(long bytesWritten) {
+            if (mProgressListener != null && bytesWritten != mLastReportedBytes) {
+                report(System.currentTimeMillis(), bytesWritten);
+            }
+        }
+
+        private void report(long now, long bytesWritten) {
+            mLastReportedAt = now;
+            mLastReportedBytes = bytesWritten;
+            mProgressListener.onProgress(bytesWritten, mContentLength);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.ConnectionPool;
 import okhttp3.Interceptor;
+import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -61,12 +62,20 @@ public class GravatarApi {
     }
 
     public static Request prepareGravatarUpload(String email, File file) {
+        FileRequestBody fileBody = new FileRequestBody(file, MediaType.parse("multipart/form-data"),
+                new FileRequestBody.ProgressListener() {
+                    @Override
+                    public void onProgress(long bytesWritten, long contentLength) {
+                        AppLog.d(AppLog.T.API, "Gravatar upload > " + bytesWritten + " of " + contentLength
+                                               + " bytes sent");
+                    }
+                });
         return new Request.Builder()
                 .url(API_BASE_URL + "upload-image")
                 .post(new MultipartBody.Builder()
                               .setType(MultipartBody.FORM)
                               .addFormDataPart("account", email)
-                              .addFormDataPart("filedata", file.getName(), new StreamingRequest(file))
+                              .addFormDataPart("filedata", file.getName(), fileBody)
                               .build())
                 .build();
     }
@@ -0,0 +1,110 @@
+package org.wordpress.android.networking;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+
+/**
+ * Remembers, per media, where its resumable upload was created and how many bytes of it the server has acknowledged,
+ * so the upload can continue after a network error or after the app's process was killed. A checkpoint only applies
+ * to the file it was saved for - if the file was replaced or edited since, the upload starts over.
+ */
+public class MediaUploadCheckpoints {
+    private static final String PREFS_NAME = "media_upload_checkpoints";
+
+    private static final String KEY_UPLOAD_URL = "upload_url";
+    private static final String KEY_OFFSET = "offset";
+    private static final String KEY_FILE_PATH = "file_path";
+    private static final String KEY_FILE_LENGTH = "file_length";
+    private static final String KEY_FILE_MODIFIED = "file_modified";
+
+    private final SharedPreferences mPrefs;
+
+    public MediaUploadCheckpoints(@NonNull Context context) {
+        mPrefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static class Checkpoint {
+        private final String mUploadUrl;
+        private final long mOffset;
+
+        Checkpoint(@NonNull String uploadUrl, long offset) {
+            mUploadUrl = uploadUrl;
+            mOffset = offset;
+        }
+
+        @NonNull
+        public String getUploadUrl() {
+            return mUploadUrl;
+        }
+
+        public long getOffset() {
+            return mOffset;
+        }
+    }
+
+    /*
+     * returns the checkpoint saved for the media, or null if there isn't one or it was saved for another version of
+     * the file
+     */
+    @Nullable
+    public Checkpoint get(@NonNull MediaModel media, @NonNull File file) {
+        String json = mPrefs.getString(getKey(media), null);
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            JSONObject checkpoint = new JSONObject(json);
+            if (!file.getAbsolutePath().equals(checkpoint.getString(KEY_FILE_PATH))
+                || file.length() != checkpoint.getLong(KEY_FILE_LENGTH)
+                || file.lastModified() != checkpoint.getLong(KEY_FILE_MODIFIED)) {
+                return null;
+            }
+            return new Checkpoint(checkpoint.getString(KEY_UPLOAD_URL), checkpoint.getLong(KEY_OFFSET));
+        } catch (JSONException e) {
+            AppLog.e(T.MEDIA, e);
+            return null;
+        }
+    }
+
+    /*
+     * saves the offset the server acknowledged - this writes synchronously so the checkpoint survives the process
+     * being killed straight after, which means it must be called on a background thread
+     */
+    @SuppressLint("ApplySharedPref")
+    public void save(@NonNull MediaModel media, @NonNull File file, @NonNull String uploadUrl, long offset) {
+        try {
+            JSONObject checkpoint = new JSONObject()
+                    .put(KEY_UPLOAD_URL, uploadUrl)
+                    .put(KEY_OFFSET, offset)
+                    .put(KEY_FILE_PATH, file.getAbsolutePath())
+                    .put(KEY_FILE_LENGTH, file.length())
+                    .put(KEY_FILE_MODIFIED, file.lastModified());
+            mPrefs.edit().putString(getKey(media), checkpoint.toString()).commit();
+        } catch (JSONException e) {
+            AppLog.e(T.MEDIA, e);
+        }
+    }
+
+    @SuppressLint("ApplySharedPref")
+    public void clear(@NonNull MediaModel media) {
+        mPrefs.edit().remove(getKey(media)).commit();
+    }
+
+    @NonNull
+    private static String getKey(@NonNull MediaModel media) {
+        return String.valueOf(media.getId());
+    }
+}
@@ -0,0 +1,189 @@
+package org.wordpress.android.networking;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.networking.MediaUploadCheckpoints.Checkpoint;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Uploads a media file to an endpoint which accepts partial uploads, using the tus protocol
+ * (https://tus.io/protocols/resumable-upload.html). The upload is created with a POST, and the file is then sent in
+ * PATCH requests of up to {@link #DEFAULT_PATCH_SIZE} bytes, each starting at the offset the server reports.<br>
+ * <br>
+ * The offset only ever comes from the server's Upload-Offset header, never from how many bytes were written to the
+ * socket, and it's saved in {@link MediaUploadCheckpoints} after every PATCH. After a network error - or on the next
+ * attempt once the process was killed - the server is asked how much it has stored and the upload continues from
+ * there, so a video which fails at 95% doesn't start again from the beginning.
+ */
+public class ResumableMediaUpload {
+    static final long DEFAULT_PATCH_SIZE = 4 * 1024 * 1024;
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final MediaType OFFSET_OCTET_STREAM = MediaType.parse("application/offset+octet-stream");
+
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String HEADER_TUS_RESUMABLE = "Tus-Resumable";
+    private static final String HEADER_UPLOAD_LENGTH = "Upload-Length";
+    private static final String HEADER_UPLOAD_OFFSET = "Upload-Offset";
+    private static final String HEADER_LOCATION = "Location";
+
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_GONE = 410;
+
+    private final OkHttpClient mClient;
+    private final MediaUploadCheckpoints mCheckpoints;
+    private final String mCreationUrl;
+    private final long mPatchSize;
+    private final int mMaxAttempts;
+
+    public ResumableMediaUpload(@NonNull OkHttpClient client, @NonNull MediaUploadCheckpoints checkpoints,
+                                @NonNull String creationUrl) {
+        this(client, checkpoints, creationUrl, DEFAULT_PATCH_SIZE, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    ResumableMediaUpload(@NonNull OkHttpClient client, @NonNull MediaUploadCheckpoints checkpoints,
+                         @NonNull String creationUrl, long patchSize, int maxAttempts) {
+        mClient = client;
+        mCheckpoints = checkpoints;
+        mCreationUrl = creationUrl;
+        mPatchSize = patchSize;
+        mMaxAttempts = maxAttempts;
+    }
+
+    /**
+     * Uploads the media's file, continuing an earlier upload of the same file if there is one, and returns the url
+     * of the completed upload. This makes blocking network requests so it must be called on a background thread.
+     */
+    @NonNull
+    public String upload(@NonNull MediaModel media) throws IOException {
+        File file = new File(media.getFilePath());
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= mMaxAttempts; attempt++) {
+            try {
+                String uploadUrl = sendFile(media, file);
+                mCheckpoints.clear(media);
+                return uploadUrl;
+            } catch (IOException e) {
+                AppLog.w(T.MEDIA, "ResumableMediaUpload > attempt " + attempt + " for media " + media.getId()
+                                  + " failed: " + e);
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError : new IOException("No upload attempts were made");
+    }
+
+    @NonNull
+    private String sendFile(@NonNull MediaModel media, @NonNull File file) throws IOException {
+        long length = file.length();
+        String uploadUrl = null;
+        long offset = -1;
+
+        Checkpoint checkpoint = mCheckpoints.get(media, file);
+        if (checkpoint != null) {
+            uploadUrl = checkpoint.getUploadUrl();
+            offset = getServerOffset(uploadUrl);
+            if (offset >= 0) {
+                AppLog.i(T.MEDIA, "ResumableMediaUpload > resuming media " + media.getId() + " at " + offset
+                                  + " of " + length + " bytes");
+            }
+        }
+        if (offset < 0) {
+            // there's no earlier upload of this file or the server no longer has it, so start a new one
+            uploadUrl = createUpload(length);
+            offset = 0;
+            mCheckpoints.save(media, file, uploadUrl, offset);
+        }
+
+        while (offset < length) {
+            long acknowledgedOffset = sendPatch(uploadUrl, file, offset);
+            if (acknowledgedOffset <= offset) {
+                throw new IOException("Upload made no progress at offset " + offset);
+            }
+            offset = acknowledgedOffset;
+            mCheckpoints.save(media, file, uploadUrl, offset);
+        }
+        return uploadUrl;
+    }
+
+    @NonNull
+    private String createUpload(long length) throws IOException {
+        Request request = new Request.Builder()
+                .url(mCreationUrl)
+                .header(HEADER_TUS_RESUMABLE, TUS_VERSION)
+                .header(HEADER_UPLOAD_LENGTH, String.valueOf(length))
+                .post(RequestBody.create(null, new byte[0]))
+                .build();
+        Response response = mClient.newCall(request).execute();
+        try {
+            String location = response.header(HEADER_LOCATION);
+            HttpUrl uploadUrl = location != null ? response.request().url().resolve(location) : null;
+            if (!response.isSuccessful() || uploadUrl == null) {
+                throw new IOException("Unable to create upload, response " + response.code());
+            }
+            return uploadUrl.toString();
+        } finally {
+            response.close();
+        }
+    }
+
+    /*
+     * returns how many bytes of the upload the server has stored, or -1 if it no longer has the upload
+     */
+    private long getServerOffset(@NonNull String uploadUrl) throws IOException {
+        Request request = new Request.Builder()
+                .url(uploadUrl)
+                .header(HEADER_TUS_RESUMABLE, TUS_VERSION)
+                .head()
+                .build();
+        Response response = mClient.newCall(request).execute();
+        try {
+            if (response.code() == HTTP_NOT_FOUND || response.code() == HTTP_GONE) {
+                return -1;
+            }
+            return getUploadOffset(response);
+        } finally {
+            response.close();
+        }
+    }
+
+    /*
+     * sends the next part of the file and returns the offset the server acknowledged
+     */
+    private long sendPatch(@NonNull String uploadUrl, @NonNull File file, long offset) throws IOException {
+        Request request = new Request.Builder()
+                .url(uploadUrl)
+                .header(HEADER_TUS_RESUMABLE, TUS_VERSION)
+                .header(HEADER_UPLOAD_OFFSET, String.valueOf(offset))
+                .patch(new StreamingRequest(file, offset, mPatchSize, OFFSET_OCTET_STREAM))
+                .build();
+        Response response = mClient.newCall(request).execute();
+        try {
+            return getUploadOffset(response);
+        } finally {
+            response.close();
+        }
+    }
+
+    private static long getUploadOffset(@NonNull Response response) throws IOException {
+        String offset = response.header(HEADER_UPLOAD_OFFSET);
+        if (!response.isSuccessful() || offset == null) {
+            throw new IOException("Unexpected upload response " + response.code());
+        }
+        try {
+            return Long.parseLong(offset);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + HEADER_UPLOAD_OFFSET + " " + offset);
+        }
+    }
+}
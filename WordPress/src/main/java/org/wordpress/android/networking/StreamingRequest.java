@@ -1,41 +1,107 @@
 package org.wordpress.android.networking;
 
+import androidx.annotation.NonNull;
+
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.internal.Util;
+import okio.Buffer;
 import okio.BufferedSink;
 import okio.Okio;
 import okio.Source;
 
 public class StreamingRequest extends RequestBody {
-    public static final int CHUNK_SIZE = 2048;
+    /**
+     * Size of the first chunk read from the file. Each chunk that is written out successfully doubles the size of the
+     * next one, up to {@link #MAX_CHUNK_SIZE}, so small files go out quickly and large ones in few writes.
+     */
+    public static final int CHUNK_SIZE = 8 * 1024;
+    public static final int MAX_CHUNK_SIZE = 256 * 1024;
+
+    private static final MediaType MULTIPART_FORM_DATA = MediaType.parse("multipart/form-data");
 
     private final File mFile;
+    private final long mOffset;
+    private final long mMaxByteCount;
+    private final MediaType mMediaType;
 
     public StreamingRequest(File file) {
+        this(file, 0, Long.MAX_VALUE, MULTIPART_FORM_DATA);
+    }
+
+    /**
+     * Streams part of the file, which {@link ResumableMediaUpload} uses to continue an upload from the offset the
+     * server has acknowledged.
+     *
+     * @param file The file to stream
+     * @param offset The number of bytes at the beginning of the file which are skipped
+     * @param maxByteCount The most bytes to send after the offset
+     * @param mediaType The content type of the body
+     */
+    public StreamingRequest(File file, long offset, long maxByteCount, @NonNull MediaType mediaType) {
         mFile = file;
+        mOffset = Math.max(0, offset);
+        mMaxByteCount = maxByteCount;
+        mMediaType = mediaType;
     }
 
     @Override
     public MediaType contentType() {
-        return MediaType.parse("multipart/form-data");
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return mFile.exists() ? Math.min(mMaxByteCount, Math.max(0, mFile.length() - mOffset)) : -1;
     }
 
     @Override
     public void writeTo(BufferedSink sink) throws IOException {
-        Source source = null;
+        InputStream inputStream = null;
         try {
-            source = Okio.source(mFile);
+            inputStream = new FileInputStream(mFile);
+            skipFully(inputStream, mOffset);
 
-            while (source.read(sink.buffer(), CHUNK_SIZE) != -1) {
-                sink.flush();
+            Source source = Okio.source(inputStream);
+            Buffer buffer = sink.buffer();
+            long remaining = mMaxByteCount;
+            long chunkSize = CHUNK_SIZE;
+            boolean isEndOfFile = false;
+            // read until the end of the file rather than up to its length, so a file which shrinks while it's
+            // being sent ends the body instead of failing the read
+            while (remaining > 0 && !isEndOfFile) {
+                long chunkRemaining = Math.min(chunkSize, remaining);
+                while (chunkRemaining > 0) {
+                    long bytesRead = source.read(buffer, chunkRemaining);
+                    if (bytesRead == -1) {
+                        isEndOfFile = true;
+                        break;
+                    }
+                    chunkRemaining -= bytesRead;
+                    remaining -= bytesRead;
+                }
+                // hand complete segments to the transport without forcing a flush of partial ones
+                sink.emitCompleteSegments();
+                chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
             }
         } finally {
-            Util.closeQuietly(source);
+            Util.closeQuietly(inputStream);
         }
     }
-};
 
+    private static void skipFully(InputStream inputStream, long byteCount) throws IOException {
+        long skipped = 0;
+        while (skipped < byteCount) {
+            long count = inputStream.skip(byteCount - skipped);
+            if (count <= 0) {
+                break;
+            }
+            skipped += count;
+        }
+    }
+}
@@ -43,12 +43,17 @@ import org.wordpress.android.util.StringUtils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -72,6 +77,9 @@ public class GCMMessageHandler {
 
     private static final int MAX_INBOX_ITEMS = 5;
 
+    // note pushes which follow a shown push within this long are held and shown together
+    private static final long PUSH_BATCH_WINDOW_MS = 500;
+
     private static final String PUSH_ARG_TYPE = "type";
     private static final String PUSH_ARG_USER = "user";
     private static final String PUSH_ARG_TITLE = "title";
@@ -99,6 +107,9 @@ public class GCMMessageHandler {
 
     private final ArrayMap<Integer, Bundle> mActiveNotificationsMap;
     private final NotificationHelper mNotificationHelper;
+    private final NotificationPushCoalescer<Bundle> mPushCoalescer = new NotificationPushCoalescer<>();
+    private final ScheduledExecutorService mPushBatchExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger mGroupNotificationRebuilds = new AtomicInteger();
 
     @Inject
     GCMMessageHandler(SystemNotificationsTracker systemNotificationsTracker) {
@@ -106,6 +117,63 @@ public class GCMMessageHandler {
         mNotificationHelper = new NotificationHelper(this, systemNotificationsTracker);
     }
 
+    /*
+     * shows a note push right away when it's the first of a window, otherwise queues it to be shown with the
+     * other pushes which arrive before the window ends
+     */
+    private void addPushToBatch(Context context, String noteId, Bundle data) {
+        if (mPushCoalescer.add(noteId, data)) {
+            // the service which received the push may be gone by the time the window ends
+            Context appContext = context.getApplicationContext();
+            showPushBatch(appContext, Collections.singletonMap(noteId, data));
+            schedulePushWindowEnd(appContext);
+        }
+    }
+
+    private void schedulePushWindowEnd(final Context context) {
+        mPushBatchExecutor.schedule(() -> endPushWindow(context), PUSH_BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void endPushWindow(Context context) {
+        // pushes change the active notifications while holding the same lock
+        synchronized (GCMMessageService.class) {
+            Map<String, Bundle> batch = mPushCoalescer.endWindow();
+            if (!batch.isEmpty()) {
+                showPushBatch(context, batch);
+                // pushes arriving straight after a batch are held for another window
+                schedulePushWindowEnd(context);
+            }
+        }
+    }
+
+    private void showPushBatch(Context context, Map<String, Bundle> batch) {
+        mNotificationHelper.showNotificationsForPushBatch(context, batch);
+        AppLog.i(T.NOTIFS, "Showed a batch of " + batch.size() + " notes, "
+                           + getPushesReceivedCount() + " pushes received, "
+                           + getGroupNotificationRebuildCount() + " group notifications built");
+    }
+
+    /*
+     * number of note pushes received, which is more than the number of group notifications built when pushes
+     * arrive in bursts
+     */
+    public int getPushesReceivedCount() {
+        return mPushCoalescer.getPushesReceived();
+    }
+
+    public int getGroupNotificationRebuildCount() {
+        return mGroupNotificationRebuilds.get();
+    }
+
+    private synchronized int getPushIdForNoteId(String noteId) {
+        for (Entry<Integer, Bundle> row : mActiveNotificationsMap.entrySet()) {
+            if (row.getValue().getString(PUSH_ARG_NOTE_ID, "").equals(noteId)) {
+                return row.getKey();
+            }
+        }
+        return 0;
+    }
+
     synchronized void rebuildAndUpdateNotificationsOnSystemBarForThisNote(Context context,
                                                                           String noteId) {
         if (mActiveNotificationsMap.size() > 0) {
@@ -351,18 +419,9 @@ public class GCMMessageHandler {
 
             // Try to build the note object from the PN payload, and save it to the DB.
             NotificationsUtils.buildNoteObjectFromBundleAndSaveIt(data);
-            EventBus.getDefault().post(new NotificationEvents.NotificationsChanged(true));
-            // Always do this, since a note can be updated on the server after a PN is sent
-            NotificationsActions.downloadNoteAndUpdateDB(wpcomNoteID, null, null);
 
             String noteType = StringUtils.notNullStr(data.getString(PUSH_ARG_TYPE));
 
-            String title = StringEscapeUtils.unescapeHtml4(data.getString(PUSH_ARG_TITLE));
-            if (title == null) {
-                title = context.getString(R.string.app_name);
-            }
-            String message = StringEscapeUtils.unescapeHtml4(data.getString(PUSH_ARG_MSG));
-
             /*
              * if this has the same note_id as the previous notification, and the previous notification
              * was received within the last second, then skip showing it - this handles duplicate
@@ -423,15 +482,47 @@ public class GCMMessageHandler {
                 AnalyticsTracker.flush();
             }
 
-            // Build the new notification, add group to support wearable stacking
-            NotificationCompat.Builder builder = getNotificationBuilder(context, title, message);
-            Bitmap largeIconBitmap =
-                    getLargeIconBitmap(context, data.getString("icon"), shouldCircularizeNoteIcon(noteType));
-            if (largeIconBitmap != null) {
-                builder.setLargeIcon(largeIconBitmap);
+            // The notification is shown right away, or with the other pushes which follow it within the batch window
+            mGCMMessageHandler.addPushToBatch(context, wpcomNoteID, data);
+        }
+
+        private void showNotificationsForPushBatch(Context context, Map<String, Bundle> batch) {
+            EventBus.getDefault().post(new NotificationEvents.NotificationsChanged(true));
+            // Always do this, since a note can be updated on the server after a PN is sent
+            NotificationsActions.downloadNotesAndUpdateDB(new ArrayList<>(batch.keySet()));
+
+            // skip the notes whose notifications were dismissed or cleared after their push arrived
+            Map<Integer, Bundle> activePushes = new LinkedHashMap<>();
+            for (Entry<String, Bundle> push : batch.entrySet()) {
+                int pushId = mGCMMessageHandler.getPushIdForNoteId(push.getKey());
+                if (pushId != 0) {
+                    activePushes.put(pushId, push.getValue());
+                }
             }
 
-            showSingleNotificationForBuilder(context, builder, noteType, wpcomNoteID, pushId, true);
+            NotificationCompat.Builder builder = null;
+            String wpcomNoteID = null;
+            String message = null;
+            int numShown = 0;
+            for (Entry<Integer, Bundle> push : activePushes.entrySet()) {
+                Bundle data = push.getValue();
+                wpcomNoteID = data.getString(PUSH_ARG_NOTE_ID, "");
+                String noteType = StringUtils.notNullStr(data.getString(PUSH_ARG_TYPE));
+                String title = getNotificationTitleOrAppNameFromBundle(context, data);
+                message = StringEscapeUtils.unescapeHtml4(data.getString(PUSH_ARG_MSG));
+
+                // Build the new notification, add group to support wearable stacking
+                builder = getNotificationBuilder(context, title, message);
+                Bitmap largeIconBitmap =
+                        getLargeIconBitmap(context, data.getString("icon"), shouldCircularizeNoteIcon(noteType));
+                if (largeIconBitmap != null) {
+                    builder.setLargeIcon(largeIconBitmap);
+                }
+
+                // Only play the sound once per batch, for its latest note
+                boolean notifyUser = ++numShown == activePushes.size();
+                showSingleNotificationForBuilder(context, builder, noteType, wpcomNoteID, push.getKey(), notifyUser);
+            }
 
             // Also add a group summary notification, which is required for non-wearable devices
             // Do not need to play the sound again. We've already played it in the individual builder.
@@ -626,6 +717,7 @@ public class GCMMessageHandler {
             if (builder == null || context == null) {
                 return;
             }
+            mGCMMessageHandler.mGroupNotificationRebuilds.incrementAndGet();
 
             // using a copy of the map to avoid concurrency problems
             ArrayMap<Integer, Bundle> tmpMap = new ArrayMap<>(mGCMMessageHandler.mActiveNotificationsMap);
@@ -0,0 +1,60 @@
+package org.wordpress.android.push;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the note pushes which follow one another within a short window so they can be shown together.
+ *
+ * A burst of likes or comments on a popular post used to rebuild the group notification and request the
+ * note once per push. The first push of a window is shown straight away, so a lone push is never delayed or
+ * lost if the process is killed before the window ends. The pushes which follow it are queued by note id
+ * here - a later push for the same note replaces the earlier one and moves to the end - and the queue is
+ * drained when the window ends.
+ */
+class NotificationPushCoalescer<T> {
+    private final LinkedHashMap<String, T> mPendingPushes = new LinkedHashMap<>();
+    private boolean mIsWindowOpen;
+    private int mPushesReceived;
+    private int mBatchesDrained;
+
+    /**
+     * Returns true when no window is open, in which case the push isn't queued - the caller has to show it
+     * right away and call {@link #endWindow()} once the window it opens is over. Otherwise the push is queued
+     * to be shown when the window ends.
+     */
+    synchronized boolean add(String noteId, T push) {
+        mPushesReceived++;
+        if (!mIsWindowOpen) {
+            mIsWindowOpen = true;
+            return true;
+        }
+        mPendingPushes.remove(noteId);
+        mPendingPushes.put(noteId, push);
+        return false;
+    }
+
+    /**
+     * Returns the pushes queued during the window in the order they arrived, one per note id. When there are
+     * any, the window stays open for the pushes which arrive while they're shown, and the caller has to call
+     * this again once it's over - otherwise the window is closed and the next push is shown right away.
+     */
+    synchronized Map<String, T> endWindow() {
+        Map<String, T> batch = new LinkedHashMap<>(mPendingPushes);
+        mPendingPushes.clear();
+        if (batch.isEmpty()) {
+            mIsWindowOpen = false;
+        } else {
+            mBatchesDrained++;
+        }
+        return batch;
+    }
+
+    synchronized int getPushesReceived() {
+        return mPushesReceived;
+    }
+
+    synchronized int getBatchesDrained() {
+        return mBatchesDrained;
+    }
+}
@@ -25,6 +25,12 @@ import org.wordpress.android.analytics.AnalyticsTracker.NOTIFICATIONS_SELECTED_F
 import org.wordpress.android.analytics.AnalyticsTracker.Stat.NOTIFICATION_TAPPED_SEGMENTED_CONTROL
 import org.wordpress.android.databinding.NotificationsListFragmentBinding
 import org.wordpress.android.fluxc.store.AccountStore
+import org.wordpress.android.models.NotesFilter
+import org.wordpress.android.models.NotesFilter.FILTER_ALL
+import org.wordpress.android.models.NotesFilter.FILTER_COMMENT
+import org.wordpress.android.models.NotesFilter.FILTER_FOLLOW
+import org.wordpress.android.models.NotesFilter.FILTER_LIKE
+import org.wordpress.android.models.NotesFilter.FILTER_UNREAD
 import org.wordpress.android.ui.ActivityLauncher
 import org.wordpress.android.ui.JetpackConnectionSource.NOTIFICATIONS
 import org.wordpress.android.ui.JetpackConnectionWebViewActivity
@@ -33,12 +39,6 @@ import org.wordpress.android.ui.ScrollableViewInitializedListener
 import org.wordpress.android.ui.WPWebViewActivity
 import org.wordpress.android.ui.main.WPMainActivity
 import org.wordpress.android.ui.notifications.NotificationEvents.NotificationsUnseenStatus
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_ALL
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_COMMENT
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_FOLLOW
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_LIKE
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_UNREAD
 import org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter
 import org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter.IS_TAPPED_ON_NOTIFICATION
 import org.wordpress.android.ui.stats.StatsConnectJetpackActivity
@@ -261,7 +261,7 @@ class NotificationsListFragment : Fragment(R.layout.notifications_list_fragment)
             noteId: String?,
             shouldShowKeyboard: Boolean,
             replyText: String?,
-            filter: FILTERS?,
+            filter: NotesFilter?,
             isTappedFromPushNotification: Boolean
         ) {
             if (noteId == null || activity == null) {
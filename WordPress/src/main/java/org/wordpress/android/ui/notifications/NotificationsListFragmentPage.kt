@@ -24,6 +24,12 @@ import org.wordpress.android.datasets.NotificationsTable
 import org.wordpress.android.fluxc.model.CommentStatus
 import org.wordpress.android.fluxc.model.SiteModel
 import org.wordpress.android.fluxc.store.AccountStore
+import org.wordpress.android.models.NotesFilter
+import org.wordpress.android.models.NotesFilter.FILTER_ALL
+import org.wordpress.android.models.NotesFilter.FILTER_COMMENT
+import org.wordpress.android.models.NotesFilter.FILTER_FOLLOW
+import org.wordpress.android.models.NotesFilter.FILTER_LIKE
+import org.wordpress.android.models.NotesFilter.FILTER_UNREAD
 import org.wordpress.android.push.GCMMessageHandler
 import org.wordpress.android.ui.ActivityLauncher
 import org.wordpress.android.ui.PagePostCreationSourcesDetail.POST_FROM_NOTIFS_EMPTY_VIEW
@@ -38,12 +44,6 @@ import org.wordpress.android.ui.notifications.NotificationEvents.NotificationsRe
 import org.wordpress.android.ui.notifications.NotificationEvents.NotificationsUnseenStatus
 import org.wordpress.android.ui.notifications.adapters.NotesAdapter
 import org.wordpress.android.ui.notifications.adapters.NotesAdapter.DataLoadedListener
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_ALL
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_COMMENT
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_FOLLOW
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_LIKE
-import org.wordpress.android.ui.notifications.adapters.NotesAdapter.FILTERS.FILTER_UNREAD
 import org.wordpress.android.ui.notifications.services.NotificationsUpdateServiceStarter
 import org.wordpress.android.ui.notifications.utils.NotificationsActions
 import org.wordpress.android.util.AniUtils
@@ -438,7 +438,8 @@ class NotificationsListFragmentPage : ViewPagerFragment(R.layout.notifications_l
             return
         }
         swipeToRefreshHelper?.isRefreshing = false
-        notesAdapter!!.addAll(event.notes, true)
+        // reload in the background, which also formats the subjects of the first notes before they're shown
+        notesAdapter!!.reloadNotesFromDBAsync()
     }
 
     @Subscribe(threadMode = MAIN)
@@ -483,7 +484,7 @@ class NotificationsListFragmentPage : ViewPagerFragment(R.layout.notifications_l
             noteId: String?,
             shouldShowKeyboard: Boolean,
             replyText: String?,
-            filter: FILTERS?,
+            filter: NotesFilter?,
             isTappedFromPushNotification: Boolean
         ) {
             if (noteId == null || activity == null || activity.isFinishing) {
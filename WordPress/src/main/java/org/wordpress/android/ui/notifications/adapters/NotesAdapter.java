@@ -22,11 +22,12 @@ import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.NotificationsTable;
 import org.wordpress.android.fluxc.model.CommentStatus;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.models.NotesFilter;
 import org.wordpress.android.models.NoticonUtils;
 import org.wordpress.android.ui.comments.CommentUtils;
 import org.wordpress.android.ui.notifications.NotificationsListFragmentPage.OnNoteClickListener;
 import org.wordpress.android.ui.notifications.blocks.NoteBlockClickableSpan;
-import org.wordpress.android.ui.notifications.utils.NotificationsUtilsWrapper;
+import org.wordpress.android.ui.notifications.utils.NotificationsSpanCache;
 import org.wordpress.android.util.ContextExtensionsKt;
 import org.wordpress.android.util.GravatarUtils;
 import org.wordpress.android.util.RtlUtils;
@@ -41,6 +42,11 @@ import java.util.List;
 import javax.inject.Inject;
 
 public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHolder> {
+    // number of notes whose subjects are formatted in the background when the notes are loaded, which is
+    // more than fit on the first screen
+    private static final int NUM_NOTES_TO_PRELOAD = 15;
+
+    private final Context mContext;
     private final int mAvatarSz;
     private final int mColorUnread;
     private final int mTextIndentSize;
@@ -50,35 +56,10 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     private final ArrayList<Note> mNotes = new ArrayList<>();
     private final ArrayList<Note> mFilteredNotes = new ArrayList<>();
     @Inject protected ImageManager mImageManager;
-    @Inject protected NotificationsUtilsWrapper mNotificationsUtilsWrapper;
     @Inject protected NoticonUtils mNoticonUtils;
+    @Inject protected NotificationsSpanCache mNotificationsSpanCache;
 
-    public enum FILTERS {
-        FILTER_ALL,
-        FILTER_COMMENT,
-        FILTER_FOLLOW,
-        FILTER_LIKE,
-        FILTER_UNREAD;
-
-        public String toString() {
-            switch (this) {
-                case FILTER_ALL:
-                    return "all";
-                case FILTER_COMMENT:
-                    return "comment";
-                case FILTER_FOLLOW:
-                    return "follow";
-                case FILTER_LIKE:
-                    return "like";
-                case FILTER_UNREAD:
-                    return "unread";
-                default:
-                    return "all";
-            }
-        }
-    }
-
-    private FILTERS mCurrentFilter = FILTERS.FILTER_ALL;
+    private NotesFilter mCurrentFilter = NotesFilter.FILTER_ALL;
     private ReloadNotesFromDBTask mReloadNotesFromDBTask;
 
     public interface DataLoadedListener {
@@ -94,6 +75,7 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     public NotesAdapter(Context context, DataLoadedListener dataLoadedListener, OnLoadMoreListener onLoadMoreListener) {
         super();
         ((WordPress) context.getApplicationContext()).component().inject(this);
+        mContext = context;
         mDataLoadedListener = dataLoadedListener;
         mOnLoadMoreListener = onLoadMoreListener;
 
@@ -110,11 +92,11 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
         mTextIndentSize = context.getResources().getDimensionPixelSize(R.dimen.notifications_text_indent_sz);
     }
 
-    public void setFilter(FILTERS newFilter) {
+    public void setFilter(NotesFilter newFilter) {
         mCurrentFilter = newFilter;
     }
 
-    public FILTERS getCurrentFilter() {
+    public NotesFilter getCurrentFilter() {
         return mCurrentFilter;
     }
 
@@ -147,9 +129,9 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
 
     // Instead of building the filtered notes list dynamically, create it once and re-use it.
     // Otherwise it's re-created so many times during layout.
-    public static void buildFilteredNotesList(ArrayList<Note> filteredNotes, ArrayList<Note> notes, FILTERS filter) {
+    public static void buildFilteredNotesList(ArrayList<Note> filteredNotes, ArrayList<Note> notes, NotesFilter filter) {
         filteredNotes.clear();
-        if (notes.isEmpty() || filter == FILTERS.FILTER_ALL) {
+        if (notes.isEmpty() || filter == NotesFilter.FILTER_ALL) {
             filteredNotes.addAll(notes);
             return;
         }
@@ -251,11 +233,10 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
             commentStatus = CommentStatus.fromString(note.getLocalStatus());
         }
 
-        // Subject is stored in db as html to preserve text formatting
-        Spanned noteSubjectSpanned = note.getFormattedSubject(mNotificationsUtilsWrapper);
-        // Trim the '\n\n' added by Html.fromHtml()
-        noteSubjectSpanned =
-                (Spanned) noteSubjectSpanned.subSequence(0, TextUtils.getTrimmedLength(noteSubjectSpanned));
+        // Subject is stored in db as html to preserve text formatting, the cache trims the '\n\n' added by
+        // Html.fromHtml()
+        Spanned noteSubjectSpanned =
+                mNotificationsSpanCache.getFormattedSubject(note, noteViewHolder.mContentView.getContext());
 
         NoteBlockClickableSpan[] spans =
                 noteSubjectSpanned.getSpans(0, noteSubjectSpanned.length(), NoteBlockClickableSpan.class);
@@ -359,7 +340,10 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.NoteViewHold
     private class ReloadNotesFromDBTask extends AsyncTask<Void, Void, ArrayList<Note>> {
         @Override
         protected ArrayList<Note> doInBackground(Void... voids) {
-            return NotificationsTable.getLatestNotes();
+            ArrayList<Note> notes = NotificationsTable.getLatestNotes(mCurrentFilter);
+            // format the subjects of the first screen here rather than while the list is first laid out
+            mNotificationsSpanCache.preloadFormattedSubjects(notes, mContext, NUM_NOTES_TO_PRELOAD);
+            return notes;
         }
 
         @Override
@@ -53,8 +53,8 @@ public class FooterNoteBlock extends NoteBlock {
         final FooterNoteBlockHolder noteBlockHolder = (FooterNoteBlockHolder) view.getTag();
 
         // Note text
-        if (!TextUtils.isEmpty(getNoteText())) {
-            Spannable spannable = getNoteText();
+        Spannable spannable = getNoteText();
+        if (!TextUtils.isEmpty(spannable)) {
             NoteBlockClickableSpan[] spans = spannable.getSpans(0, spannable.length(), NoteBlockClickableSpan.class);
             for (NoteBlockClickableSpan span : spans) {
                 span.enableColors(view.getContext());
@@ -87,7 +87,7 @@ public class FooterNoteBlock extends NoteBlock {
     }
 
     @Override
-    Spannable getNoteText() {
+    Spannable buildNoteText() {
         return mNotificationsUtilsWrapper.getSpannableContentForRanges(getNoteData(), null,
                 getOnNoteBlockTextClickListener(), true);
     }
@@ -20,7 +20,7 @@ class GeneratedNoteBlock(
     val clickListener: OnNoteBlockTextClickListener,
     private val pingbackUrl: String
 ) : NoteBlock(FormattableContent(), imageManager, notificationsUtilsWrapper, clickListener) {
-    override fun getNoteText(): Spannable {
+    override fun buildNoteText(): Spannable {
         val spannableStringBuilder = SpannableStringBuilder(text)
 
         // Process Ranges to add links and text formatting
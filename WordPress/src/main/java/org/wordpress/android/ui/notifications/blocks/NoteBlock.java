@@ -4,6 +4,7 @@ import android.graphics.drawable.Drawable;
 import android.media.MediaPlayer;
 import android.net.Uri;
 import android.text.Spannable;
+import android.text.SpannableStringBuilder;
 import android.text.TextUtils;
 import android.text.style.TypefaceSpan;
 import android.view.Gravity;
@@ -50,6 +51,7 @@ public class NoteBlock {
     private boolean mIsPingback;
     private boolean mHasAnimatedBadge;
     private boolean mIsViewMilestone;
+    private Spannable mNoteText;
 
     public interface OnNoteBlockTextClickListener {
         void onNoteBlockTextClicked(NoteBlockClickableSpan clickedSpan);
@@ -82,7 +84,18 @@ public class NoteBlock {
         return mNoteData;
     }
 
+    /*
+     * the text is built from the block's ranges the first time it's needed rather than each time the block is
+     * bound - a copy is returned since callers may add spans to it
+     */
     Spannable getNoteText() {
+        if (mNoteText == null) {
+            mNoteText = buildNoteText();
+        }
+        return new SpannableStringBuilder(mNoteText);
+    }
+
+    Spannable buildNoteText() {
         return mNotificationsUtilsWrapper.getSpannableContentForRanges(mNoteData, null,
                 mOnNoteBlockTextClickListener, false);
     }
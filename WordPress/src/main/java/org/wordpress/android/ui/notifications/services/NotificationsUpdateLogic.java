@@ -7,24 +7,34 @@ import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
 import org.greenrobot.eventbus.EventBus;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.NotificationsTable;
+import org.wordpress.android.datasets.NotificationsTable.NoteSyncState;
 import org.wordpress.android.models.Note;
 import org.wordpress.android.networking.RestClientUtils;
 import org.wordpress.android.ui.notifications.NotificationEvents;
 import org.wordpress.android.ui.notifications.utils.NotificationsActions;
 import org.wordpress.android.ui.notifications.utils.NotificationsUtils;
+import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class NotificationsUpdateLogic {
+    // the note hash is requested with the notes so the next sync can tell which of them changed
+    private static final String NOTE_FIELDS = RestClientUtils.NOTIFICATION_FIELDS + ",note_hash";
+    private static final String SYNC_STATE_FIELDS = "id,read,note_hash";
+    private static final String NUM_NOTE_ITEMS = "20";
+
     private ServiceCompletionListener mCompletionListener;
     private Object mListenerCompanion;
 
@@ -46,15 +56,156 @@ public class NotificationsUpdateLogic {
         mRunning = true;
         mNoteId = noteId;
         mIsStartedByTappingOnNotification = isStartedByTappingOnNotification;
+
+        // the stored notes are only synced as a delta when they were synced in full for the current locale,
+        // otherwise they're all requested again and the table is replaced
+        boolean isSyncedForLocale = getLocaleParam().equals(AppPrefs.getNotificationsSyncLocale());
+        if (isSyncedForLocale && NotificationsTable.getNoteCount() > 0) {
+            requestSyncStates();
+        } else {
+            Map<String, String> params = getNoteParams();
+            params.put("number", String.valueOf(NotificationsTable.NOTES_TO_RETRIEVE));
+            RestListener listener = new RestListener();
+            WordPress.getRestClientUtilsV1_1().getNotifications(params, listener, listener);
+        }
+    }
+
+    private String getLocaleParam() {
+        return TextUtils.isEmpty(mLocale) ? "" : mLocale.toLowerCase(Locale.ENGLISH);
+    }
+
+    private Map<String, String> getNoteParams() {
         Map<String, String> params = new HashMap<>();
-        params.put("number", "200");
-        params.put("num_note_items", "20");
-        params.put("fields", RestClientUtils.NOTIFICATION_FIELDS);
+        params.put("num_note_items", NUM_NOTE_ITEMS);
+        params.put("fields", NOTE_FIELDS);
         if (!TextUtils.isEmpty(mLocale)) {
-            params.put("locale", mLocale.toLowerCase(Locale.ENGLISH));
+            params.put("locale", getLocaleParam());
+        }
+        return params;
+    }
+
+    /*
+     * first step of a delta sync - requests just the id, read state and hash of the latest notes, which is
+     * a small fraction of the notes themselves, and compares them with the stored notes
+     */
+    private void requestSyncStates() {
+        Map<String, String> params = new HashMap<>();
+        params.put("number", String.valueOf(NotificationsTable.NOTES_TO_RETRIEVE));
+        params.put("fields", SYNC_STATE_FIELDS);
+        WordPress.getRestClientUtilsV1_1().getNotifications(params, new RestRequest.Listener() {
+            @Override
+            public void onResponse(JSONObject response) {
+                try {
+                    NotesDelta delta = NotesDelta.fromSyncStates(response, NotificationsTable.getNoteSyncStates());
+                    if (mIsStartedByTappingOnNotification && mNoteId != null) {
+                        delta.mReadNoteIds.add(mNoteId);
+                    }
+                    if (delta.mChangedNoteIds.isEmpty()) {
+                        applyDelta(delta, new ArrayList<Note>(0));
+                    } else {
+                        requestChangedNotes(delta);
+                    }
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response", e);
+                    EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError());
+                    completed();
+                }
+            }
+        }, new RestRequest.ErrorListener() {
+            @Override
+            public void onErrorResponse(VolleyError volleyError) {
+                logVolleyErrorDetails(volleyError);
+                EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError(volleyError));
+                completed();
+            }
+        });
+    }
+
+    /*
+     * second step of a delta sync - requests the notes which are new or changed in a single request
+     */
+    private void requestChangedNotes(final NotesDelta delta) {
+        Map<String, String> params = getNoteParams();
+        params.put("ids", TextUtils.join(",", delta.mChangedNoteIds));
+        params.put("number", String.valueOf(delta.mChangedNoteIds.size()));
+        WordPress.getRestClientUtilsV1_1().getNotifications(params, new RestRequest.Listener() {
+            @Override
+            public void onResponse(JSONObject response) {
+                try {
+                    List<Note> notes = response != null
+                            ? NotificationsActions.parseNotes(response) : new ArrayList<Note>(0);
+                    applyDelta(delta, notes);
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response", e);
+                    EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError());
+                    completed();
+                }
+            }
+        }, new RestRequest.ErrorListener() {
+            @Override
+            public void onErrorResponse(VolleyError volleyError) {
+                logVolleyErrorDetails(volleyError);
+                EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshError(volleyError));
+                completed();
+            }
+        });
+    }
+
+    private void applyDelta(NotesDelta delta, List<Note> changedNotes) {
+        if (mIsStartedByTappingOnNotification && mNoteId != null) {
+            setNoteRead(mNoteId, changedNotes);
+        }
+        int numRows = NotificationsTable.updateNotes(changedNotes, delta.mReadNoteIds, delta.mDeletedNoteIds);
+        AppLog.i(AppLog.T.NOTIFS, "notifications update service > delta sync, " + changedNotes.size()
+                                  + " notes fetched, " + numRows + " rows written");
+        EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshCompleted(
+                NotificationsTable.getLatestNotes()));
+        completed();
+    }
+
+    /*
+     * differences between the stored notes and the ids, read states and hashes of the latest notes on
+     * the server - notes which are new or whose hash changed (or which were marked unread) have to be
+     * requested, notes which were only read elsewhere can be marked read locally, and stored notes which
+     * are no longer among the latest are deleted, as they would be by a full sync
+     */
+    static class NotesDelta {
+        final List<String> mChangedNoteIds = new ArrayList<>();
+        final Set<String> mReadNoteIds = new HashSet<>();
+        final List<String> mDeletedNoteIds = new ArrayList<>();
+
+        static NotesDelta fromSyncStates(JSONObject response, Map<String, NoteSyncState> storedStates)
+                throws JSONException {
+            if (response == null) {
+                throw new JSONException("Did not receive any notes");
+            }
+
+            NotesDelta delta = new NotesDelta();
+            Set<String> remoteNoteIds = new HashSet<>();
+            JSONArray jsonNotes = response.getJSONArray("notes");
+            for (int i = 0; i < jsonNotes.length(); i++) {
+                JSONObject jsonNote = jsonNotes.getJSONObject(i);
+                String noteId = jsonNote.optString("id");
+                String noteHash = jsonNote.optString("note_hash");
+                boolean isRead = jsonNote.optInt("read") == 1;
+                remoteNoteIds.add(noteId);
+
+                NoteSyncState storedState = storedStates.get(noteId);
+                if (storedState == null || TextUtils.isEmpty(noteHash) || !noteHash.equals(storedState.noteHash)
+                    || (storedState.isRead && !isRead)) {
+                    delta.mChangedNoteIds.add(noteId);
+                } else if (isRead && !storedState.isRead) {
+                    delta.mReadNoteIds.add(noteId);
+                }
+            }
+
+            for (String noteId : storedStates.keySet()) {
+                if (!remoteNoteIds.contains(noteId)) {
+                    delta.mDeletedNoteIds.add(noteId);
+                }
+            }
+            return delta;
         }
-        RestListener listener = new RestListener();
-        WordPress.getRestClientUtilsV1_1().getNotifications(params, listener, listener);
     }
 
     private class RestListener implements RestRequest.Listener, RestRequest.ErrorListener {
@@ -75,6 +226,9 @@ public class NotificationsUpdateLogic {
                         setNoteRead(mNoteId, notes);
                     }
                     NotificationsTable.saveNotes(notes, true);
+                    AppPrefs.setNotificationsSyncLocale(getLocaleParam());
+                    AppLog.i(AppLog.T.NOTIFS, "notifications update service > full sync, "
+                                              + notes.size() + " rows written");
                     EventBus.getDefault().post(new NotificationEvents.NotificationsRefreshCompleted(notes));
                 } catch (JSONException e) {
                     AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response", e);
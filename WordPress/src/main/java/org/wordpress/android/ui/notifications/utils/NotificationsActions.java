@@ -1,5 +1,7 @@
 package org.wordpress.android.ui.notifications.utils;
 
+import android.text.TextUtils;
+
 import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
@@ -10,11 +12,16 @@ import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.NotificationsTable;
 import org.wordpress.android.models.Note;
+import org.wordpress.android.networking.RestClientUtils;
 import org.wordpress.android.ui.notifications.NotificationEvents;
 import org.wordpress.android.util.AppLog;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NotificationsActions {
     // Get the latest note from the local DB and send its timestamp to the server.
@@ -80,6 +87,49 @@ public class NotificationsActions {
         }
     }
 
+    /*
+     * downloads several notes in a single request and saves them in a single transaction - used when a burst
+     * of push notifications arrives rather than requesting each of their notes
+     */
+    public static void downloadNotesAndUpdateDB(final Collection<String> noteIds) {
+        if (noteIds.isEmpty()) {
+            return;
+        }
+        Map<String, String> params = new HashMap<>();
+        params.put("ids", TextUtils.join(",", noteIds));
+        params.put("number", String.valueOf(noteIds.size()));
+        params.put("fields", RestClientUtils.NOTIFICATION_FIELDS + ",note_hash");
+        WordPress.getRestClientUtilsV1_1().getNotifications(params, new RestRequest.Listener() {
+            @Override
+            public void onResponse(JSONObject response) {
+                if (response == null) {
+                    AppLog.w(AppLog.T.NOTIFS, "Success, but did not receive any notes");
+                    return;
+                }
+                try {
+                    List<Note> notes = NotificationsActions.parseNotes(response);
+                    int numRows = NotificationsTable.updateNotes(notes, Collections.<String>emptyList(),
+                            Collections.<String>emptyList());
+                    AppLog.i(AppLog.T.NOTIFS, "Downloaded " + notes.size() + " of " + noteIds.size()
+                                              + " notes, " + numRows + " rows written");
+                    boolean hasUnreadNotes = false;
+                    for (Note note : notes) {
+                        hasUnreadNotes |= note.isUnread();
+                    }
+                    EventBus.getDefault().post(new NotificationEvents.NotificationsChanged(hasUnreadNotes));
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.NOTIFS, "Success, but can't parse the response for the note_ids " + noteIds,
+                            e);
+                }
+            }
+        }, new RestRequest.ErrorListener() {
+            @Override
+            public void onErrorResponse(VolleyError error) {
+                AppLog.e(AppLog.T.NOTIFS, "Error retrieving notes with IDs " + noteIds, error);
+            }
+        });
+    }
+
     public static void downloadNoteAndUpdateDB(final String noteID, final RestRequest.Listener respoListener,
                                                final RestRequest.ErrorListener errorListener) {
         WordPress.getRestClientUtilsV1_1().getNotification(
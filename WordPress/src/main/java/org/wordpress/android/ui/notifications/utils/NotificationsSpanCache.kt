@@ -0,0 +1,55 @@
+package org.wordpress.android.ui.notifications.utils
+
+import android.content.Context
+import android.content.res.Configuration
+import android.text.Spanned
+import android.text.TextUtils
+import androidx.collection.LruCache
+import org.wordpress.android.models.Note
+import javax.inject.Inject
+import javax.inject.Singleton
+
+private const val MAX_CACHED_SUBJECTS = 300
+
+/**
+ * Cache of the formatted subjects shown in the notifications list.
+ *
+ * Formatting a subject maps its json ranges to spans, which used to happen every time a row was bound. The
+ * subjects are keyed by the note's id, timestamp and hash, so a note which changes is formatted again, and
+ * by the night mode and font scale, so the spans of one theme are never colored for another.
+ */
+@Singleton
+class NotificationsSpanCache @Inject constructor(private val notificationsUtilsWrapper: NotificationsUtilsWrapper) {
+    private val subjects = LruCache<String, Spanned>(MAX_CACHED_SUBJECTS)
+
+    /**
+     * Returns the note's subject with the trailing whitespace added by the formatting trimmed
+     */
+    fun getFormattedSubject(note: Note, context: Context): Spanned {
+        val key = getKey(note, context)
+        subjects.get(key)?.let { return it }
+
+        val subject = note.getFormattedSubject(notificationsUtilsWrapper)
+        val trimmed = subject.subSequence(0, TextUtils.getTrimmedLength(subject)) as Spanned
+        subjects.put(key, trimmed)
+        return trimmed
+    }
+
+    /**
+     * Formats the subjects of the first notes in a list before they're shown - called off the main thread
+     * after the notes are loaded
+     */
+    fun preloadFormattedSubjects(notes: List<Note>, context: Context, numNotes: Int) {
+        notes.take(numNotes).forEach { getFormattedSubject(it, context) }
+    }
+
+    fun hitCount() = subjects.hitCount()
+
+    fun missCount() = subjects.missCount()
+
+    private fun getKey(note: Note, context: Context): String {
+        val configuration = context.resources.configuration
+        val nightMode = configuration.uiMode and Configuration.UI_MODE_NIGHT_MASK
+        return "${note.id}:${note.timestamp}:${note.noteHash}:$nightMode:${configuration.fontScale}"
+    }
+}
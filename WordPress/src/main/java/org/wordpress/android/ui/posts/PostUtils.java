@@ -441,6 +441,15 @@ public class PostUtils {
         return postContent;
     }
 
+    public static String replaceMediaFilesWithUrlsInGutenbergPost(@NonNull String postContent,
+                                                                  Map<String, MediaFile> mediaFiles, String siteUrl) {
+        if (mediaFiles != null && !mediaFiles.isEmpty() && contentContainsGutenbergBlocks(postContent)) {
+            MediaUploadCompletionProcessor processor = new MediaUploadCompletionProcessor(mediaFiles, siteUrl);
+            postContent = processor.processContent(postContent);
+        }
+        return postContent;
+    }
+
     public static boolean isMediaInGutenbergPostBody(@NonNull String postContent,
                                             String localMediaId) {
         List<String> patterns = new ArrayList<>();
@@ -18,6 +18,16 @@ class AudioBlockProcessor(localId: String?, mediaFile: MediaFile?) : BlockProces
         return false
     }
 
+    override fun supportsBlockContentPatcher() = true
+
+    override fun processBlockContentPatcher(patcher: BlockContentPatcher): Boolean {
+        for (tag in patcher.tags(AUDIO_TAG)) {
+            // replaces the src attribute's local url with the remote counterpart.
+            tag.attr(SRC_ATTRIBUTE, mRemoteUrl)
+        }
+        return true
+    }
+
     override fun processBlockJsonAttributes(jsonAttributes: JsonObject?): Boolean {
         val id = jsonAttributes?.get(ID_ATTRIBUTE)
 
@@ -0,0 +1,369 @@
+package org.wordpress.android.ui.posts.mediauploadcompletionprocessors;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A zero-DOM alternative to parsing block html content into a Jsoup {@link org.jsoup.nodes.Document}, for the simple
+ * shapes the block editor produces for media blocks. The content is tokenized once and the start tags are kept as
+ * light-weight {@link StartTag} objects whose attributes can be patched in place.<br>
+ * <br>
+ * {@link #parse(String)} only accepts content for which patching the source yields exactly what Jsoup would have
+ * serialized with {@link BlockProcessor#OUTPUT_SETTINGS} (e.g. well-nested lowercase tags, double-quoted attribute
+ * values, no character references) and returns null otherwise, so that callers can fall back to Jsoup.
+ */
+final class BlockContentPatcher {
+    private static final Set<String> SUPPORTED_TAGS = new HashSet<>(Arrays.asList(
+            "a", "audio", "b", "br", "cite", "code", "div", "em", "figcaption", "figure", "i", "img", "mark", "p",
+            "s", "source", "span", "strong", "sub", "sup", "track", "u", "video"));
+
+    private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList("br", "img", "source", "track"));
+
+    /**
+     * Tags that make Jsoup implicitly close an open paragraph, which would restructure the document
+     */
+    private static final Set<String> PARAGRAPH_CLOSING_TAGS = new HashSet<>(Arrays.asList(
+            "div", "figcaption", "figure", "p"));
+
+    /**
+     * Attributes that Jsoup collapses to their name when empty or equal to their name
+     */
+    private static final Set<String> BOOLEAN_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "allowfullscreen", "async", "autofocus", "checked", "compact", "declare", "default", "defer", "disabled",
+            "formnovalidate", "hidden", "inert", "ismap", "itemscope", "multiple", "muted", "nohref", "noresize",
+            "noshade", "novalidate", "nowrap", "open", "readonly", "required", "reversed", "seamless", "selected",
+            "sortable", "truespeed", "typemustmatch"));
+
+    private static final Pattern PATTERN_CLASS_SPLIT = Pattern.compile("\\s+");
+
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+
+    private final String mContent;
+    private final List<StartTag> mStartTags;
+
+    private BlockContentPatcher(String content, List<StartTag> startTags) {
+        mContent = content;
+        mStartTags = startTags;
+    }
+
+    /**
+     * Tokenizes block html content.
+     *
+     * @param content The raw block html content
+     * @return A patcher for the content, or null if the content has a shape that Jsoup would normalize or restructure
+     */
+    static @Nullable BlockContentPatcher parse(@NonNull String content) {
+        final int length = content.length();
+
+        // Jsoup drops whitespace preceding the body content
+        if (length > 0 && Character.isWhitespace(content.charAt(0))) {
+            return null;
+        }
+
+        List<StartTag> startTags = new ArrayList<>();
+        Deque<String> openTags = new ArrayDeque<>();
+        int position = 0;
+
+        while (position < length) {
+            int tagStart = content.indexOf('<', position);
+            int textEnd = tagStart < 0 ? length : tagStart;
+
+            if (!isVerbatimText(content, position, textEnd)) {
+                return null;
+            }
+
+            if (tagStart < 0) {
+                break;
+            }
+
+            if (content.startsWith(COMMENT_START, tagStart)) {
+                int commentEnd = content.indexOf(COMMENT_END, tagStart + COMMENT_START.length());
+                if (commentEnd < 0 || !isVerbatimComment(content.substring(tagStart + COMMENT_START.length(),
+                        commentEnd))) {
+                    return null;
+                }
+                position = commentEnd + COMMENT_END.length();
+            } else if (content.startsWith("</", tagStart)) {
+                int tagEnd = content.indexOf('>', tagStart);
+                if (tagEnd < 0 || openTags.isEmpty() || !content.substring(tagStart + 2, tagEnd)
+                                                                .equals(openTags.pop())) {
+                    return null;
+                }
+                position = tagEnd + 1;
+            } else {
+                StartTag startTag = StartTag.parse(content, tagStart);
+                if (startTag == null
+                    || (PARAGRAPH_CLOSING_TAGS.contains(startTag.mName) && openTags.contains("p"))
+                    || ("a".equals(startTag.mName) && openTags.contains("a"))) {
+                    return null;
+                }
+                if (!VOID_TAGS.contains(startTag.mName)) {
+                    openTags.push(startTag.mName);
+                }
+                startTags.add(startTag);
+                position = startTag.mEnd;
+            }
+        }
+
+        if (!openTags.isEmpty()) {
+            return null;
+        }
+
+        return new BlockContentPatcher(content, startTags);
+    }
+
+    /**
+     * @param name The tag name
+     * @return The first start tag with the given name in document order, or null if there is none
+     */
+    @Nullable StartTag firstTag(String name) {
+        for (StartTag startTag : mStartTags) {
+            if (startTag.mName.equals(name)) {
+                return startTag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name The tag name
+     * @return All start tags with the given name in document order
+     */
+    @NonNull List<StartTag> tags(String name) {
+        List<StartTag> tags = new ArrayList<>();
+        for (StartTag startTag : mStartTags) {
+            if (startTag.mName.equals(name)) {
+                tags.add(startTag);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * @return The content with all attribute changes applied; untouched parts of the content are copied verbatim
+     */
+    @NonNull String html() {
+        StringBuilder html = null;
+        int position = 0;
+
+        for (StartTag startTag : mStartTags) {
+            if (startTag.mModified) {
+                if (html == null) {
+                    html = new StringBuilder(mContent.length() + 64);
+                }
+                html.append(mContent, position, startTag.mStart);
+                startTag.appendHtml(html);
+                position = startTag.mEnd;
+            }
+        }
+
+        if (html == null) {
+            return mContent;
+        }
+
+        return html.append(mContent, position, mContent.length()).toString();
+    }
+
+    private static boolean isVerbatimText(String content, int start, int end) {
+        for (int i = start; i < end; i++) {
+            switch (content.charAt(i)) {
+                case '&':
+                case '>':
+                case '\u00A0':
+                case '\r':
+                case '\0':
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVerbatimComment(String data) {
+        return !data.contains("--") && !data.startsWith(">") && !data.startsWith("->") && !data.endsWith("-");
+    }
+
+    private static boolean isVerbatimAttributeValue(String value) {
+        return value.indexOf('&') < 0 && value.indexOf('\u00A0') < 0 && value.indexOf('\r') < 0
+               && value.indexOf('\0') < 0;
+    }
+
+    private static boolean isNameStart(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isNamePart(char c) {
+        return isNameStart(c) || (c >= '0' && c <= '9') || c == '-' || c == '_' || c == ':' || c == '.';
+    }
+
+    private static int scanName(String content, int start, boolean isTagName) {
+        int position = start;
+        if (position >= content.length() || !isNameStart(content.charAt(position))) {
+            return start;
+        }
+        position++;
+        while (position < content.length()) {
+            char c = content.charAt(position);
+            if (isTagName ? (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') : isNamePart(c)) {
+                position++;
+            } else {
+                break;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * A start tag in the content, with its attributes in source order. A null attribute value denotes an attribute
+     * written without a value (e.g. {@code controls}).
+     */
+    static final class StartTag {
+        final String mName;
+        private final int mStart;
+        private final int mEnd;
+        private final Map<String, String> mAttributes;
+        private boolean mModified;
+
+        private StartTag(String name, int start, int end, Map<String, String> attributes) {
+            mName = name;
+            mStart = start;
+            mEnd = end;
+            mAttributes = attributes;
+        }
+
+        private static @Nullable StartTag parse(String content, int start) {
+            final int length = content.length();
+            int nameEnd = scanName(content, start + 1, true);
+            String name = content.substring(start + 1, nameEnd);
+            if (!SUPPORTED_TAGS.contains(name)) {
+                return null;
+            }
+
+            Map<String, String> attributes = new LinkedHashMap<>();
+            int position = nameEnd;
+
+            while (position < length) {
+                char c = content.charAt(position);
+                if (c == '>') {
+                    return new StartTag(name, start, position + 1, attributes);
+                } else if (c != ' ') {
+                    return null;
+                }
+
+                int keyStart = position + 1;
+                int keyEnd = scanName(content, keyStart, false);
+                String key = content.substring(keyStart, keyEnd);
+                if (key.isEmpty() || attributes.containsKey(key)) {
+                    return null;
+                }
+
+                String value = null;
+                position = keyEnd;
+                if (position < length && content.charAt(position) == '=') {
+                    if (position + 1 >= length || content.charAt(position + 1) != '"') {
+                        return null;
+                    }
+                    int valueEnd = content.indexOf('"', position + 2);
+                    if (valueEnd < 0) {
+                        return null;
+                    }
+                    value = content.substring(position + 2, valueEnd);
+                    if (!isVerbatimAttributeValue(value)
+                        || (BOOLEAN_ATTRIBUTES.contains(key) && (value.isEmpty() || value.equalsIgnoreCase(key)))) {
+                        return null;
+                    }
+                    position = valueEnd + 1;
+                }
+                attributes.put(key, value);
+            }
+
+            return null;
+        }
+
+        /**
+         * Sets an attribute value, keeping its position if present or appending it otherwise (like
+         * {@link org.jsoup.nodes.Element#attr(String, String)}).
+         */
+        void attr(String key, String value) {
+            mAttributes.put(key, value);
+            mModified = true;
+        }
+
+        /**
+         * Removes a class name, with the same normalization as {@link org.jsoup.nodes.Element#removeClass(String)}.
+         */
+        void removeClass(String className) {
+            Set<String> classNames = classNames();
+            classNames.remove(className);
+            attr("class", StringUtils.join(classNames, " "));
+        }
+
+        /**
+         * Adds a class name, with the same normalization as {@link org.jsoup.nodes.Element#addClass(String)}.
+         */
+        void addClass(String className) {
+            Set<String> classNames = classNames();
+            classNames.add(className);
+            attr("class", StringUtils.join(classNames, " "));
+        }
+
+        private Set<String> classNames() {
+            String classAttribute = mAttributes.get("class");
+            if (classAttribute == null) {
+                return new LinkedHashSet<>();
+            }
+            Set<String> classNames = new LinkedHashSet<>();
+            Collections.addAll(classNames, PATTERN_CLASS_SPLIT.split(classAttribute.trim()));
+            classNames.remove("");
+            return classNames;
+        }
+
+        private void appendHtml(StringBuilder html) {
+            html.append('<').append(mName);
+            for (Entry<String, String> attribute : mAttributes.entrySet()) {
+                html.append(' ').append(attribute.getKey());
+                if (attribute.getValue() != null) {
+                    html.append("=\"");
+                    appendEscapedAttributeValue(html, attribute.getValue());
+                    html.append('"');
+                }
+            }
+            html.append('>');
+        }
+
+        private static void appendEscapedAttributeValue(StringBuilder html, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        html.append("&amp;");
+                        break;
+                    case '"':
+                        html.append("&quot;");
+                        break;
+                    case '\u00A0':
+                        html.append("&nbsp;");
+                        break;
+                    default:
+                        html.append(c);
+                }
+            }
+        }
+    }
+}
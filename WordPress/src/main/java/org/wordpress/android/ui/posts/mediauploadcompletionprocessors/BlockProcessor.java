@@ -33,7 +33,7 @@ public abstract class BlockProcessor {
 
     private String mBlockName;
     private JsonObject mJsonAttributes;
-    private Document mBlockContentDocument;
+    private String mBlockContent;
     private String mClosingComment;
 
 
@@ -67,13 +67,13 @@ public abstract class BlockProcessor {
         if (capturesFound) {
             mBlockName = captures.group(1);
             mJsonAttributes = parseJson(captures.group(2));
-            mBlockContentDocument = parseHTML(captures.group(3));
+            mBlockContent = captures.group(3);
             mClosingComment = captures.group(4);
             return true;
         } else {
             mBlockName = null;
             mJsonAttributes = null;
-            mBlockContentDocument = null;
+            mBlockContent = null;
             mClosingComment = null;
             return false;
         }
@@ -89,7 +89,8 @@ public abstract class BlockProcessor {
     String processBlock(String block) {
         if (splitBlock(block)) {
             if (processBlockJsonAttributes(mJsonAttributes)) {
-                if (processBlockContentDocument(mBlockContentDocument)) {
+                String processedBlockContent = processBlockContent(mBlockContent);
+                if (processedBlockContent != null) {
                     // return injected block
                     return new StringBuilder()
                             .append("<!-- wp:")
@@ -97,7 +98,7 @@ public abstract class BlockProcessor {
                             .append(" ")
                             .append(mJsonAttributes) // json parser output
                             .append(" -->\n")
-                            .append(mBlockContentDocument.body().html()) // HTML parser output
+                            .append(processedBlockContent) // patcher or HTML parser output
                             .append(mClosingComment)
                             .toString();
                 }
@@ -109,6 +110,50 @@ public abstract class BlockProcessor {
         return block;
     }
 
+    /**
+     * Makes the replacements in the html content of a block, patching the content in place when the concrete
+     * implementation supports it and the content has a shape the {@link BlockContentPatcher} can handle, and
+     * falling back to a full Jsoup {@link Document} otherwise.
+     *
+     * @param blockContent The raw block html content
+     * @return The processed html content, or null if the block contents should not be replaced
+     */
+    private String processBlockContent(String blockContent) {
+        BlockContentPatcher patcher = supportsBlockContentPatcher() ? BlockContentPatcher.parse(blockContent) : null;
+
+        if (patcher != null) {
+            return processBlockContentPatcher(patcher) ? patcher.html() : null;
+        }
+
+        Document document = parseHTML(blockContent);
+        return processBlockContentDocument(document) ? document.body().html() : null;
+    }
+
+    /**
+     * Concrete implementations that override {@link #processBlockContentPatcher(BlockContentPatcher)} must also
+     * override this method to return true. The default implementation always uses the Jsoup {@link Document}.
+     *
+     * @return A boolean value indicating whether or not this processor can work on a {@link BlockContentPatcher}
+     */
+    boolean supportsBlockContentPatcher() {
+        return false;
+    }
+
+    /**
+     * Zero-DOM counterpart of {@link #processBlockContentDocument(Document)}: concrete implementations can override
+     * this method to make the same replacements on the start tags of a {@link BlockContentPatcher}, which is mutated in
+     * place. This is only called when {@link #supportsBlockContentPatcher()} returns true.<br>
+     * <br>
+     * This method should return true to indicate success. Returning false will result in the block contents being
+     * unmodified.
+     *
+     * @param patcher The patcher to be mutated to make the necessary replacements
+     * @return A boolean value indicating whether or not the block contents should be replaced
+     */
+    boolean processBlockContentPatcher(BlockContentPatcher patcher) {
+        return false;
+    }
+
     /**
      * All concrete implementations must implement this method for the particular block type. The document represents
      * the html contents of the block to be processed, and is to be mutated in place.<br>
@@ -22,6 +22,16 @@ class FileBlockProcessor(localId: String?, mediaFile: MediaFile?) : BlockProcess
         return false
     }
 
+    override fun supportsBlockContentPatcher() = true
+
+    override fun processBlockContentPatcher(patcher: BlockContentPatcher): Boolean {
+        for (target in patcher.tags(HYPERLINK_TAG)) {
+            // replaces the href attribute's local url with the remote counterpart.
+            target.attr(HREF_ATTRIBUTE, mRemoteUrl)
+        }
+        return true
+    }
+
     override fun processBlockJsonAttributes(jsonAttributes: JsonObject?): Boolean {
         val id = jsonAttributes?.get(ID_ATTRIBUTE)
 
@@ -31,6 +31,24 @@ public class ImageBlockProcessor extends BlockProcessor {
         return false;
     }
 
+    @Override boolean supportsBlockContentPatcher() {
+        return true;
+    }
+
+    @Override boolean processBlockContentPatcher(BlockContentPatcher patcher) {
+        BlockContentPatcher.StartTag targetImg = patcher.firstTag("img");
+
+        if (targetImg != null) {
+            targetImg.attr("src", mRemoteUrl);
+            targetImg.removeClass("wp-image-" + mLocalId);
+            targetImg.addClass("wp-image-" + mRemoteId);
+
+            return true;
+        }
+
+        return false;
+    }
+
     @Override boolean processBlockJsonAttributes(JsonObject jsonAttributes) {
         JsonElement id = jsonAttributes.get("id");
         if (id != null && !id.isJsonNull() && id.getAsString().equals(mLocalId)) {
@@ -9,6 +9,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.wordpress.android.ui.posts.mediauploadcompletionprocessors.MediaUploadCompletionProcessorPatterns.PATTERN_BLOCK_PREFIX;
+import static org.wordpress.android.ui.posts.mediauploadcompletionprocessors.MediaUploadCompletionProcessorPatterns.PATTERN_TEMPLATE_BLOCK_BOUNDARY;
 
 enum MediaBlockType {
     IMAGE("image"),
@@ -38,9 +39,11 @@ enum MediaBlockType {
     }
 
     private final String mName;
+    private final Pattern mBlockBoundaryPattern;
 
     MediaBlockType(String name) {
         mName = name;
+        mBlockBoundaryPattern = Pattern.compile(String.format(PATTERN_TEMPLATE_BLOCK_BOUNDARY, name), Pattern.DOTALL);
     }
 
     public String toString() {
@@ -51,6 +54,14 @@ enum MediaBlockType {
         return MAP.get(blockType);
     }
 
+    /**
+     * @return A {@link Pattern} matching the opening and closing comments of this block type, compiled once from
+     * {@link MediaUploadCompletionProcessorPatterns#PATTERN_TEMPLATE_BLOCK_BOUNDARY}
+     */
+    Pattern getBlockBoundaryPattern() {
+        return mBlockBoundaryPattern;
+    }
+
     /**
      * @return A string with the enumerated media block types separated by the pipe character (useful for creating a
      * regex capturing group pattern)
@@ -44,6 +44,32 @@ public class MediaTextBlockProcessor extends BlockProcessor {
         return false;
     }
 
+    @Override boolean supportsBlockContentPatcher() {
+        return true;
+    }
+
+    @Override boolean processBlockContentPatcher(BlockContentPatcher patcher) {
+        BlockContentPatcher.StartTag targetImg = patcher.firstTag("img");
+
+        if (targetImg != null) {
+            targetImg.attr("src", mRemoteUrl);
+            targetImg.removeClass("wp-image-" + mLocalId);
+            targetImg.addClass("wp-image-" + mRemoteId);
+
+            return true;
+        } else {
+            BlockContentPatcher.StartTag targetVideo = patcher.firstTag("video");
+
+            if (targetVideo != null) {
+                targetVideo.attr("src", mRemoteUrl);
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override boolean processBlockJsonAttributes(JsonObject jsonAttributes) {
         JsonElement id = jsonAttributes.get("mediaId");
         if (id != null && !id.isJsonNull() && id.getAsString().equals(mLocalId)) {
@@ -2,14 +2,16 @@ package org.wordpress.android.ui.posts.mediauploadcompletionprocessors;
 
 import org.wordpress.android.util.helpers.MediaFile;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static org.wordpress.android.ui.posts.mediauploadcompletionprocessors.MediaUploadCompletionProcessorPatterns.PATTERN_BLOCK_HEADER;
-import static org.wordpress.android.ui.posts.mediauploadcompletionprocessors.MediaUploadCompletionProcessorPatterns.PATTERN_TEMPLATE_BLOCK_BOUNDARY;
 
 public class MediaUploadCompletionProcessor {
-    private final BlockProcessorFactory mBlockProcessorFactory;
+    private final Map<String, BlockProcessorFactory> mBlockProcessorFactories;
 
     /**
      * Processor used for replacing local media id(s) and url(s) with their remote counterparts after an upload has
@@ -20,62 +22,108 @@ public class MediaUploadCompletionProcessor {
      * @param siteUrl The site url - used to generate the attachmentPage url
      */
     public MediaUploadCompletionProcessor(String localId, MediaFile mediaFile, String siteUrl) {
-        mBlockProcessorFactory = new BlockProcessorFactory(this)
-                .init(localId, mediaFile, siteUrl);
+        this(Collections.singletonMap(localId, mediaFile), siteUrl);
+    }
+
+    /**
+     * Processor used for replacing the local ids and urls of several completed uploads with their remote counterparts
+     * in a single traversal of the content.
+     *
+     * @param mediaFiles The mediaFiles containing the remote ids and remote urls, keyed by the local media id that
+     *                   needs replacement
+     * @param siteUrl The site url - used to generate the attachmentPage url
+     */
+    public MediaUploadCompletionProcessor(Map<String, MediaFile> mediaFiles, String siteUrl) {
+        mBlockProcessorFactories = new LinkedHashMap<>();
+        for (Entry<String, MediaFile> entry : mediaFiles.entrySet()) {
+            mBlockProcessorFactories.put(entry.getKey(), new BlockProcessorFactory(this)
+                    .init(entry.getKey(), entry.getValue(), siteUrl));
+        }
     }
 
     /**
      * Processes content to replace the local ids and local urls of media with remote ids and remote urls. This method
-     * delineates block boundaries for media-containing blocks and delegates further processing via itself and / or
-     * {@link #processBlock(String)}, via direct and mutual recursion, respectively.
+     * walks the content once, delineating block boundaries for media-containing blocks and delegating further
+     * processing to {@link #processBlock(String)}. Text between media blocks is copied as-is into a single output
+     * buffer, so the cost of a call is linear in the length of the content.
      *
      * @param content The content to be processed
      * @return A string containing the processed content, or the original content if no match was found
      */
     public String processContent(String content) {
         Matcher headerMatcher = PATTERN_BLOCK_HEADER.matcher(content);
+        StringBuilder result = null;
+        int position = 0;
 
-        int positionBlockStart, positionBlockEnd = content.length();
+        while (position < content.length() && headerMatcher.find(position)) {
+            int positionBlockStart = headerMatcher.start();
+            int positionBlockEnd = findBlockEnd(content, headerMatcher.end(), headerMatcher.group(1));
 
-        if (headerMatcher.find()) {
-            positionBlockStart = headerMatcher.start();
-            String blockType = headerMatcher.group(1);
-            Matcher blockBoundaryMatcher = Pattern.compile(String.format(PATTERN_TEMPLATE_BLOCK_BOUNDARY, blockType),
-                    Pattern.DOTALL).matcher(content.substring(headerMatcher.end()));
-
-            int nestLevel = 1;
-
-            while (0 < nestLevel && blockBoundaryMatcher.find()) {
-                if (blockBoundaryMatcher.group(1).equals("/")) {
-                    positionBlockEnd = headerMatcher.end() + blockBoundaryMatcher.end();
-                    nestLevel--;
-                } else {
-                    nestLevel++;
-                }
+            if (result == null) {
+                result = new StringBuilder(content.length() + content.length() / 8);
             }
 
-            return new StringBuilder()
-                    .append(content.substring(0, positionBlockStart))
-                    .append(processBlock(content.substring(positionBlockStart, positionBlockEnd)))
-                    .append(processContent(content.substring(positionBlockEnd)))
-                    .toString();
-        } else {
+            result.append(content, position, positionBlockStart)
+                  .append(processBlock(content.substring(positionBlockStart, positionBlockEnd)));
+            position = positionBlockEnd;
+        }
+
+        if (result == null) {
             return content;
         }
+
+        return result.append(content, position, content.length()).toString();
+    }
+
+    /**
+     * Finds the end of the block whose header ends at the given position, taking nested blocks of the same type into
+     * account.
+     *
+     * @param content The content being processed
+     * @param positionHeaderEnd The index just past the block header
+     * @param blockType The block type captured from the header
+     * @return The index just past the matching closing comment, or the length of the content if the block is not
+     * properly closed
+     */
+    private static int findBlockEnd(String content, int positionHeaderEnd, String blockType) {
+        Matcher blockBoundaryMatcher = MediaBlockType.fromString(blockType).getBlockBoundaryPattern().matcher(content);
+        blockBoundaryMatcher.region(positionHeaderEnd, content.length());
+
+        int positionBlockEnd = content.length();
+        int nestLevel = 1;
+
+        while (0 < nestLevel && blockBoundaryMatcher.find()) {
+            if (blockBoundaryMatcher.group(1).equals("/")) {
+                positionBlockEnd = blockBoundaryMatcher.end();
+                nestLevel--;
+            } else {
+                nestLevel++;
+            }
+        }
+
+        return positionBlockEnd;
     }
 
     /**
-     * Processes a media block returning a raw content replacement string
+     * Processes a media block returning a raw content replacement string. Each local id is only handed to its block
+     * processor when it occurs in the block, so blocks unrelated to the completed uploads are never parsed.
      *
      * @param block The raw block contents
      * @return A string containing content with ids and urls replaced
      */
     private String processBlock(String block) {
         final MediaBlockType blockType = MediaBlockType.detectBlockType(block);
-        final BlockProcessor blockProcessor = mBlockProcessorFactory.getProcessorForMediaBlockType(blockType);
 
-        if (blockProcessor != null) {
-            return blockProcessor.processBlock(block);
+        for (Entry<String, BlockProcessorFactory> entry : mBlockProcessorFactories.entrySet()) {
+            if (!block.contains(entry.getKey())) {
+                continue;
+            }
+
+            final BlockProcessor blockProcessor = entry.getValue().getProcessorForMediaBlockType(blockType);
+
+            if (blockProcessor != null) {
+                block = blockProcessor.processBlock(block);
+            }
         }
 
         return block;
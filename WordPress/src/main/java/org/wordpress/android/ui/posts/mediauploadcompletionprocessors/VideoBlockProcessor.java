@@ -28,6 +28,22 @@ public class VideoBlockProcessor extends BlockProcessor {
         return false;
     }
 
+    @Override boolean supportsBlockContentPatcher() {
+        return true;
+    }
+
+    @Override boolean processBlockContentPatcher(BlockContentPatcher patcher) {
+        BlockContentPatcher.StartTag targetVideo = patcher.firstTag("video");
+
+        if (targetVideo != null) {
+            targetVideo.attr("src", mRemoteUrl);
+
+            return true;
+        }
+
+        return false;
+    }
+
     @Override boolean processBlockJsonAttributes(JsonObject jsonAttributes) {
         JsonElement id = jsonAttributes.get("id");
         if (id != null && !id.isJsonNull() && id.getAsString().equals(mLocalId)) {
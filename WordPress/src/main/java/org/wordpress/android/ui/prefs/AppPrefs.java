@@ -53,6 +53,9 @@ public class AppPrefs {
         LAST_ACTIVITY_STR,
 
         READER_TAGS_UPDATE_TIMESTAMP,
+        // hashes of the last tag and followed blog lists the reader synced, used to skip unchanged lists
+        READER_TAGS_HASH,
+        READER_FOLLOWED_BLOGS_HASH,
         // last selected tag in the reader
         READER_TAG_NAME,
         READER_TAG_TYPE,
@@ -94,6 +97,9 @@ public class AppPrefs {
         // local time of the last push notification received
         PUSH_NOTIFICATIONS_LAST_NOTE_TIME,
 
+        // locale of the last full notifications sync, the notes are only synced as a delta while it's unchanged
+        NOTIFICATIONS_SYNC_LOCALE,
+
         // local IDs of sites recently chosen in the site picker
         RECENTLY_PICKED_SITE_IDS,
 
@@ -608,6 +614,14 @@ public class AppPrefs {
         setLong(DeletablePrefKey.PUSH_NOTIFICATIONS_LAST_NOTE_ID, time);
     }
 
+    public static String getNotificationsSyncLocale() {
+        return getString(DeletablePrefKey.NOTIFICATIONS_SYNC_LOCALE);
+    }
+
+    public static void setNotificationsSyncLocale(String locale) {
+        setString(DeletablePrefKey.NOTIFICATIONS_SYNC_LOCALE, locale);
+    }
+
     public static boolean isNotificationsSwipeToNavigateShown() {
         return getBoolean(UndeletablePrefKey.SWIPE_TO_NAVIGATE_NOTIFICATIONS, false);
     }
@@ -1145,6 +1159,22 @@ public class AppPrefs {
         setLong(DeletablePrefKey.READER_TAGS_UPDATE_TIMESTAMP, timestamp);
     }
 
+    public static long getReaderTagsHash() {
+        return getLong(DeletablePrefKey.READER_TAGS_HASH, 0);
+    }
+
+    public static void setReaderTagsHash(long hash) {
+        setLong(DeletablePrefKey.READER_TAGS_HASH, hash);
+    }
+
+    public static long getReaderFollowedBlogsHash() {
+        return getLong(DeletablePrefKey.READER_FOLLOWED_BLOGS_HASH, 0);
+    }
+
+    public static void setReaderFollowedBlogsHash(long hash) {
+        setLong(DeletablePrefKey.READER_FOLLOWED_BLOGS_HASH, hash);
+    }
+
     public static long getReaderCssUpdatedTimestamp() {
         return getLong(DeletablePrefKey.READER_CSS_UPDATED_TIMESTAMP, 0);
     }
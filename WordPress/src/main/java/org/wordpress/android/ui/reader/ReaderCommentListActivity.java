@@ -110,6 +110,7 @@ public class ReaderCommentListActivity extends LocaleAwareActivity implements On
     private ViewGroup mCommentBox;
 
     private boolean mIsUpdatingComments;
+    private boolean mIsUpdatingNextPage;
     private boolean mHasUpdatedComments;
     private boolean mIsSubmittingComment;
     private boolean mUpdateOnResume;
@@ -672,9 +673,16 @@ public class ReaderCommentListActivity extends LocaleAwareActivity implements On
         mHasUpdatedComments = true;
         hideProgress();
 
+        boolean wasNextPage = mIsUpdatingNextPage;
+        mIsUpdatingNextPage = false;
         if (event.getResult().isNewOrChanged()) {
             mRestorePosition = getCurrentPosition();
-            refreshComments();
+            if (wasNextPage) {
+                // only the next page of comments was added, so they're threaded into the existing ones
+                getCommentAdapter().loadMoreComments();
+            } else {
+                refreshComments();
+            }
         } else {
             checkEmptyView();
         }
@@ -700,6 +708,7 @@ public class ReaderCommentListActivity extends LocaleAwareActivity implements On
         if (showProgress) {
             showProgress();
         }
+        mIsUpdatingNextPage = requestNextPage;
         ReaderCommentService.startService(this, mPost.blogId, mPost.postId, requestNextPage);
     }
 
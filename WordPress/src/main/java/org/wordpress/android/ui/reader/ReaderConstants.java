@@ -13,6 +13,13 @@ public class ReaderConstants {
     // max # top-level comments to request when updating comments
     public static final int READER_MAX_COMMENTS_TO_REQUEST = 20;
 
+    // max # comments to read from the db at a time when showing comments
+    public static final int READER_MAX_COMMENTS_TO_LOAD = 200;
+
+    // max # recently viewed comment threads which keep all their comments when the db is purged - all
+    // but the first page of comments is purged from other threads
+    public static final int READER_MAX_COMMENT_THREADS_TO_KEEP = 10;
+
     public static final int READER_MAX_USERS_TO_DISPLAY = 500; // max # users to show in ReaderUserListActivity
     public static final long READER_AUTO_UPDATE_DELAY_MINUTES = 10; // 10 minute delay between automatic updates
     public static final int READER_MAX_RECOMMENDED_TO_REQUEST = 20; // max # of recommended blogs to request
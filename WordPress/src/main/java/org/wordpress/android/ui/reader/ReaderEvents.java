@@ -89,6 +89,12 @@ public class ReaderEvents {
     public static class SinglePostDownloaded {
     }
 
+    /*
+     * posted when ReaderPostEnricher has found featured images/videos for saved posts
+     */
+    public static class PostsEnriched {
+    }
+
     public static class UpdatePostsStarted {
         private final ReaderTag mReaderTag;
         private final ReaderPostServiceStarter.UpdateAction mAction;
@@ -2235,6 +2235,16 @@ public class ReaderPostListFragment extends ViewPagerFragment
         }
     }
 
+    @SuppressWarnings("unused")
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onEventMainThread(ReaderEvents.PostsEnriched event) {
+        // redraw the posts which now have a featured image or video - unlike refreshPosts() this
+        // leaves the "new posts" bar alone
+        if (isAdded() && hasPostAdapter()) {
+            getPostAdapter().refresh();
+        }
+    }
+
     /*
      * get latest posts for this tag from the server
      */
@@ -145,6 +145,7 @@ public class ReaderPostPagerActivity extends LocaleAwareActivity {
     @Inject SeenUnseenWithCounterFeatureConfig mSeenUnseenWithCounterFeatureConfig;
     @Inject UrlUtilsWrapper mUrlUtilsWrapper;
     @Inject DeepLinkTrackingUtils mDeepLinkTrackingUtils;
+    @Inject ReaderCssProvider mReaderCssProvider;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -226,6 +227,7 @@ public class ReaderPostPagerActivity extends LocaleAwareActivity {
                 }
 
                 mLastSelectedPosition = position;
+                preRenderAdjacentPosts(position);
             }
         });
 
@@ -638,6 +640,19 @@ public class ReaderPostPagerActivity extends LocaleAwareActivity {
         trackPost(idPair.getBlogId(), idPair.getPostId());
     }
 
+    /*
+     * render the posts either side of the passed position in the background, so they're shown
+     * straight away when the user swipes to them
+     */
+    private void preRenderAdjacentPosts(int position) {
+        for (int adjacentPosition : new int[]{position - 1, position + 1}) {
+            ReaderBlogIdPostId idPair = getAdapterBlogIdPostIdAtPosition(adjacentPosition);
+            if (idPair != null) {
+                ReaderPostRenderer.preRender(this, idPair.getBlogId(), idPair.getPostId(), mReaderCssProvider);
+            }
+        }
+    }
+
     /*
      * perform analytics tracking and bump the page view for the post
      */
@@ -703,9 +718,11 @@ public class ReaderPostPagerActivity extends LocaleAwareActivity {
                     if (adapter.isValidPosition(newPosition)) {
                         mViewPager.setCurrentItem(newPosition);
                         trackPostAtPositionIfNeeded(newPosition);
+                        preRenderAdjacentPosts(newPosition);
                     } else if (adapter.isValidPosition(currentPosition)) {
                         mViewPager.setCurrentItem(currentPosition);
                         trackPostAtPositionIfNeeded(currentPosition);
+                        preRenderAdjacentPosts(currentPosition);
                     }
 
                     // let the user know they can swipe between posts
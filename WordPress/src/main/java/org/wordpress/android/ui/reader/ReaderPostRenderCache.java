@@ -0,0 +1,258 @@
+package org.wordpress.android.ui.reader;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+import org.wordpress.android.WordPress;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches the HTML built by ReaderPostRenderer so a post which has already been rendered - or pre-rendered
+ * by the pager - is shown without rendering it again. Entries are keyed by everything the HTML depends on
+ * (see ReaderPostRenderer.getCacheKey()), so an edited post or a change of display width or theme simply
+ * misses the cache. HTML is held in an LRU bounded in bytes, backed by an optional LRU on disk which keeps
+ * rendered posts across process restarts.
+ */
+public class ReaderPostRenderCache {
+    private static final int MAX_MEMORY_BYTES = 4 * 1024 * 1024;
+    private static final long MAX_DISK_BYTES = 20 * 1024 * 1024;
+    private static final String DISK_DIR_NAME = "reader_render";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static ReaderPostRenderCache sInstance;
+
+    private final LruCache<String, String> mMemoryCache;
+    @Nullable private final File mDiskDir;
+    private final long mMaxDiskBytes;
+    private final Executor mDiskExecutor;
+
+    public static synchronized ReaderPostRenderCache getInstance() {
+        if (sInstance == null) {
+            int maxMemoryBytes = (int) Math.min(MAX_MEMORY_BYTES, Runtime.getRuntime().maxMemory() / 32);
+            File cacheDir = WordPress.getContext().getCacheDir();
+            File diskDir = cacheDir != null ? new File(cacheDir, DISK_DIR_NAME) : null;
+            sInstance = new ReaderPostRenderCache(maxMemoryBytes, diskDir, MAX_DISK_BYTES,
+                    ReaderWorkScheduler.newExecutor("ReaderPostRenderCache", 1));
+        }
+        return sInstance;
+    }
+
+    /*
+     * passing a null diskDir disables the disk cache - diskExecutor runs the disk work started from the
+     * main thread, which is only clearing the cache
+     */
+    ReaderPostRenderCache(int maxMemoryBytes, @Nullable File diskDir, long maxDiskBytes,
+                          @NonNull Executor diskExecutor) {
+        mMemoryCache = new LruCache<String, String>(maxMemoryBytes) {
+            @Override
+            protected int sizeOf(@NonNull String key, @NonNull String html) {
+                // strings are stored as UTF-16
+                return (key.length() + html.length()) * 2;
+            }
+        };
+        mDiskDir = diskDir;
+        mMaxDiskBytes = maxDiskBytes;
+        mDiskExecutor = diskExecutor;
+    }
+
+    /*
+     * returns the cached HTML from memory, without touching the disk so it's safe to call on the main thread
+     */
+    @Nullable
+    String getFromMemory(@NonNull String key) {
+        return mMemoryCache.get(key);
+    }
+
+    /*
+     * returns the cached HTML from memory or, failing that, from disk - must be called on a background thread
+     */
+    @Nullable
+    String get(@NonNull String key) {
+        String html = mMemoryCache.get(key);
+        if (html == null) {
+            html = readFromDisk(key);
+            if (html != null) {
+                mMemoryCache.put(key, html);
+            }
+        }
+        return html;
+    }
+
+    /*
+     * must be called on a background thread since it writes to disk
+     */
+    void put(@NonNull String key, @NonNull String html) {
+        mMemoryCache.put(key, html);
+        writeToDisk(key, html);
+    }
+
+    /*
+     * evicts the memory cache right away and deletes the disk cache in the background, since this is called
+     * on the main thread when the reader database is reset (ex: on logout)
+     */
+    public void clear() {
+        mMemoryCache.evictAll();
+        if (mDiskDir != null) {
+            mDiskExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    clearDisk();
+                }
+            });
+        }
+    }
+
+    private synchronized void clearDisk() {
+        File[] files = listDiskFiles();
+        for (File file : files) {
+            if (!file.delete()) {
+                AppLog.w(T.READER, "reader render cache > failed to delete " + file.getName());
+            }
+        }
+    }
+
+    /*
+     * keys are too long to use as file names, so the file is named after the key's hash and the key itself
+     * is written on the first line - that's checked when reading so a hash collision is just a miss
+     */
+    @Nullable
+    private File getDiskFile(@NonNull String key) {
+        if (mDiskDir == null) {
+            return null;
+        }
+        return new File(mDiskDir, Integer.toHexString(key.hashCode()) + "-" + key.length() + ".html");
+    }
+
+    /*
+     * disk access is synchronized since renders run on more than one thread
+     */
+    @Nullable
+    private synchronized String readFromDisk(@NonNull String key) {
+        File file = getDiskFile(key);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF8));
+            if (!key.equals(reader.readLine())) {
+                return null;
+            }
+            StringBuilder html = new StringBuilder((int) file.length());
+            char[] buffer = new char[8192];
+            int numRead;
+            while ((numRead = reader.read(buffer)) != -1) {
+                html.append(buffer, 0, numRead);
+            }
+            // the disk cache is trimmed by last modified date, so this marks the file as recently used
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                AppLog.d(T.READER, "reader render cache > unable to touch " + file.getName());
+            }
+            return html.toString();
+        } catch (IOException e) {
+            AppLog.e(T.READER, e);
+            return null;
+        } finally {
+            close(reader);
+        }
+    }
+
+    private synchronized void writeToDisk(@NonNull String key, @NonNull String html) {
+        File file = getDiskFile(key);
+        if (file == null || (!mDiskDir.exists() && !mDiskDir.mkdirs())) {
+            return;
+        }
+
+        // write to a temporary file first so a partly written file is never read
+        File tempFile = new File(mDiskDir, file.getName() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(tempFile), UTF8);
+            writer.write(key);
+            writer.write('\n');
+            writer.write(html);
+            writer.close();
+            writer = null;
+            if (!tempFile.renameTo(file)) {
+                AppLog.w(T.READER, "reader render cache > failed to write " + file.getName());
+                tempFile.delete();
+                return;
+            }
+        } catch (IOException e) {
+            AppLog.e(T.READER, e);
+            tempFile.delete();
+            return;
+        } finally {
+            close(writer);
+        }
+
+        trimDisk();
+    }
+
+    /*
+     * deletes the least recently used files once the disk cache is over its limit
+     */
+    private void trimDisk() {
+        File[] files = listDiskFiles();
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= mMaxDiskBytes) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+
+        // trim to three quarters of the limit so this doesn't run again after every write
+        long targetBytes = mMaxDiskBytes * 3 / 4;
+        for (File file : files) {
+            if (totalBytes <= targetBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    @NonNull
+    private File[] listDiskFiles() {
+        File[] files = mDiskDir != null ? mDiskDir.listFiles() : null;
+        return files != null ? files : new File[0];
+    }
+
+    private static void close(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                AppLog.e(T.READER, e);
+            }
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package org.wordpress.android.ui.reader;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.net.Uri;
 import android.os.Handler;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostDiscoverData;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.ui.reader.utils.ImageSizeMap;
 import org.wordpress.android.ui.reader.utils.ImageSizeMap.ImageSize;
-import org.wordpress.android.ui.reader.utils.ReaderEmbedScanner;
+import org.wordpress.android.ui.reader.utils.ReaderHtmlRewriter;
 import org.wordpress.android.ui.reader.utils.ReaderHtmlUtils;
-import org.wordpress.android.ui.reader.utils.ReaderIframeScanner;
-import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderWebView;
 import org.wordpress.android.util.AppLog;
@@ -21,11 +25,10 @@ import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.StringUtils;
 
 import java.lang.ref.WeakReference;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.regex.Pattern;
 
 /**
@@ -36,18 +39,30 @@ import java.util.regex.Pattern;
  * important to note that displayed images rely on dp rather than px sizes due to the
  * fact that WebView "converts CSS pixel values to density-independent pixel values"
  * http://developer.android.com/guide/webapps/targeting.html
+ * <p>
+ * rendered HTML is cached in ReaderPostRenderCache, and ReaderPostPagerActivity pre-renders the posts
+ * either side of the current one so they show straight away when the user swipes to them
  */
 public class ReaderPostRenderer {
+    private static final Pattern TILED_GALLERY_PATTERN = Pattern.compile("tiled-gallery[\\s\"']");
+
+    private static final int NUM_RENDER_THREADS = 2;
+
+    // shared by all renderers so pre-rendering several posts doesn't start a thread for each of them - this
+    // is separate from ReaderWorkScheduler's lanes so a post being shown isn't queued behind a sync
+    private static final ThreadPoolExecutor RENDER_EXECUTOR =
+            ReaderWorkScheduler.newExecutor("ReaderPostRenderer", NUM_RENDER_THREADS);
+
     private final ReaderResourceVars mResourceVars;
     private final ReaderPost mPost;
     private final int mMinFullSizeWidthDp;
     private final int mMinMidSizeWidthDp;
-    private final WeakReference<ReaderWebView> mWeakWebView;
+    @Nullable private final WeakReference<ReaderWebView> mWeakWebView;
+    private final String mCssUrl;
 
-    private StringBuilder mRenderBuilder;
     private String mRenderedHtml;
+    private String mCacheKey;
     private ImageSizeMap mAttachmentSizes;
-    private ReaderCssProvider mCssProvider;
 
     @SuppressLint("SetJavaScriptEnabled")
     public ReaderPostRenderer(ReaderWebView webView, ReaderPost post, ReaderCssProvider cssProvider) {
@@ -61,7 +76,7 @@ public class ReaderPostRenderer {
         mPost = post;
         mWeakWebView = new WeakReference<>(webView);
         mResourceVars = new ReaderResourceVars(webView.getContext());
-        mCssProvider = cssProvider;
+        mCssUrl = cssProvider.getCssUrl();
 
         mMinFullSizeWidthDp = pxToDp(mResourceVars.mFullSizeImageWidthPx / 3);
         mMinMidSizeWidthDp = mMinFullSizeWidthDp / 2;
@@ -71,32 +86,42 @@ public class ReaderPostRenderer {
         webView.getSettings().setJavaScriptEnabled(true);
     }
 
+    /*
+     * used when pre-rendering, which builds and caches the HTML without displaying it
+     */
+    private ReaderPostRenderer(@NonNull ReaderPost post, @NonNull ReaderResourceVars resourceVars,
+                               @NonNull String cssUrl) {
+        mPost = post;
+        mWeakWebView = null;
+        mResourceVars = resourceVars;
+        mCssUrl = cssUrl;
+
+        mMinFullSizeWidthDp = pxToDp(mResourceVars.mFullSizeImageWidthPx / 3);
+        mMinMidSizeWidthDp = mMinFullSizeWidthDp / 2;
+    }
+
     public void beginRender() {
-        final Handler handler = new Handler();
-        mRenderBuilder = new StringBuilder(getPostContent());
+        final String cacheKey = getCacheKey();
+        final ReaderPostRenderCache cache = ReaderPostRenderCache.getInstance();
 
-        new Thread() {
+        // show the post straight away if it's already been rendered
+        String cachedHtml = cache.getFromMemory(cacheKey);
+        if (cachedHtml != null) {
+            renderHtmlContent(cachedHtml);
+            return;
+        }
+
+        final Handler handler = new Handler();
+        RENDER_EXECUTOR.execute(new Runnable() {
             @Override
             public void run() {
-                final boolean hasTiledGallery = hasTiledGallery(mRenderBuilder.toString());
-
-                if (!(hasTiledGallery && mResourceVars.mIsWideDisplay)) {
-                    resizeImages();
+                String html = cache.get(cacheKey);
+                if (html == null) {
+                    html = renderHtml();
+                    cache.put(cacheKey, html);
                 }
 
-                resizeIframes();
-
-                // Get the set of JS scripts to inject in our Webview to support some specific Embeds.
-                Set<String> jsToInject = injectJSForSpecificEmbedSupport();
-
-                final String htmlContent =
-                        formatPostContentForWebView(
-                                mRenderBuilder.toString(),
-                                jsToInject,
-                                hasTiledGallery,
-                                mResourceVars.mIsWideDisplay);
-
-                mRenderBuilder = null;
+                final String htmlContent = html;
                 handler.post(new Runnable() {
                     @Override
                     public void run() {
@@ -104,62 +129,119 @@ public class ReaderPostRenderer {
                     }
                 });
             }
-        }.start();
-    }
-
-    public static boolean hasTiledGallery(String text) {
-        // determine whether a tiled-gallery exists in the content
-        return Pattern.compile("tiled-gallery[\\s\"']").matcher(text).find();
+        });
     }
 
     /*
-     * scan the content for images and make sure they're correctly sized for the device
+     * renders the passed post in the background and caches the HTML without displaying it - the post is
+     * read from the database on the render thread
      */
-    private void resizeImages() {
-        ReaderHtmlUtils.HtmlScannerListener imageListener = new ReaderHtmlUtils.HtmlScannerListener() {
+    public static void preRender(@NonNull Context context, final long blogId, final long postId,
+                                 @NonNull ReaderCssProvider cssProvider) {
+        // the resource vars depend on the activity's theme so they're read here rather than in the background
+        final ReaderResourceVars resourceVars = new ReaderResourceVars(context);
+        final String cssUrl = cssProvider.getCssUrl();
+
+        RENDER_EXECUTOR.execute(new Runnable() {
             @Override
-            public void onTagFound(String imageTag, String imageUrl) {
-                // Exceptions which should keep their original tag attributes
-                if (imageUrl.contains("wpcom-smileys") || imageTag.contains("wp-story")) {
+            public void run() {
+                ReaderPost post = ReaderPostTable.getBlogPost(blogId, postId, false);
+                if (post == null) {
                     return;
                 }
-                replaceImageTag(imageTag, imageUrl);
+
+                ReaderPostRenderer renderer = new ReaderPostRenderer(post, resourceVars, cssUrl);
+                String cacheKey = renderer.getCacheKey();
+                ReaderPostRenderCache cache = ReaderPostRenderCache.getInstance();
+                if (cache.get(cacheKey) == null) {
+                    cache.put(cacheKey, renderer.renderHtml());
+                    AppLog.d(AppLog.T.READER, "reader renderer > pre-rendered post " + postId);
+                }
             }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderImageScanner scanner = new ReaderImageScanner(content, mPost.isPrivate);
-        scanner.beginScan(imageListener);
+        });
     }
 
     /*
-     * scan the content for iframes and make sure they're correctly sized for the device
+     * identifies everything the rendered HTML depends on - the post's content, the display and theme
+     * values in ReaderResourceVars, the CSS url and the locale (used in the Discover link)
      */
-    private void resizeIframes() {
-        ReaderHtmlUtils.HtmlScannerListener iframeListener = new ReaderHtmlUtils.HtmlScannerListener() {
-            @Override
-            public void onTagFound(String tag, String src) {
-                replaceIframeTag(tag, src);
-            }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderIframeScanner scanner = new ReaderIframeScanner(content);
-        scanner.beginScan(iframeListener);
+    @NonNull
+    private String getCacheKey() {
+        if (mCacheKey == null) {
+            mCacheKey = mPost.blogId + ":" + mPost.postId
+                        + ":" + getContentHash()
+                        + ":" + mResourceVars.getRenderKey()
+                        + ":" + mCssUrl
+                        + ":" + Locale.getDefault();
+        }
+        return mCacheKey;
     }
 
-    private Set<String> injectJSForSpecificEmbedSupport() {
-        final Set<String> jsToInject = new HashSet<>();
-        ReaderHtmlUtils.HtmlScannerListener embedListener = new ReaderHtmlUtils.HtmlScannerListener() {
-            @Override
-            public void onTagFound(String tag, String src) {
-                jsToInject.add(src);
-            }
-        };
-        String content = mRenderBuilder.toString();
-        ReaderEmbedScanner scanner = new ReaderEmbedScanner(content);
-        scanner.beginScan(embedListener);
-        return jsToInject;
+    /*
+     * the text is used to size images even when the excerpt is shown, so both are hashed - lengths are
+     * included to make collisions between edits of the same post less likely
+     */
+    private String getContentHash() {
+        String text = mPost.getText();
+        String excerpt = mPost.getExcerpt();
+        return text.length() + "." + text.hashCode()
+               + "." + excerpt.length() + "." + excerpt.hashCode()
+               + "." + mPost.getAttachmentsJson().hashCode()
+               + "." + mPost.getDiscoverJson().hashCode()
+               + "." + mPost.shouldShowExcerpt()
+               + "." + mPost.isPrivate;
+    }
+
+    /*
+     * builds the HTML for the post - called on a render thread
+     */
+    private String renderHtml() {
+        String content = getPostContent();
+
+        // unique CSS class assigned to the gallery elements for easy selection
+        String galleryOnlyClass = "gallery-only-class" + new Random().nextInt(1000);
+
+        // images in a tiled gallery keep their size when it's shown as a tiled gallery, which is only on
+        // wide displays - that means looking for a gallery before the content is rewritten
+        boolean resizeImages = !(mResourceVars.mIsWideDisplay && hasTiledGallery(content));
+
+        ReaderHtmlRewriter rewriter = new ReaderHtmlRewriter(galleryOnlyClass, resizeImages, mTagRewriter);
+        String rewrittenContent = rewriter.rewrite(content);
+
+        return formatPostContentForWebView(
+                rewrittenContent,
+                rewriter.getScripts(),
+                rewriter.hasTiledGallery(),
+                mResourceVars.mIsWideDisplay,
+                galleryOnlyClass);
+    }
+
+    public static boolean hasTiledGallery(String text) {
+        // determine whether a tiled-gallery exists in the content
+        return TILED_GALLERY_PATTERN.matcher(text).find();
     }
 
+    /*
+     * makes sure images and iframes are correctly sized for the device
+     */
+    private final ReaderHtmlRewriter.TagRewriter mTagRewriter = new ReaderHtmlRewriter.TagRewriter() {
+        @Nullable
+        @Override
+        public String rewriteImageTag(@NonNull String imageTag, @NonNull String imageUrl) {
+            // Exceptions which should keep their original tag attributes
+            if (imageUrl.contains("wpcom-smileys") || imageTag.contains("wp-story")) {
+                return null;
+            }
+            return makeResizedImageTag(imageTag, imageUrl);
+        }
+
+        @NonNull
+        @Override
+        public String rewriteIframeTag(@NonNull String iframeTag, @NonNull String src) {
+            return makeResizedIframeTag(iframeTag, src);
+        }
+    };
+
     /*
      * called once the content is ready to be rendered in the webView
      */
@@ -167,7 +249,7 @@ public class ReaderPostRenderer {
         mRenderedHtml = htmlContent;
 
         // make sure webView is still valid (containing fragment may have been detached)
-        ReaderWebView webView = mWeakWebView.get();
+        ReaderWebView webView = mWeakWebView != null ? mWeakWebView.get() : null;
         if (webView == null || webView.getContext() == null || webView.isDestroyed()) {
             AppLog.w(AppLog.T.READER, "reader renderer > webView invalid");
             return;
@@ -181,11 +263,10 @@ public class ReaderPostRenderer {
     }
 
     /*
-     * called when image scanner finds an image, tries to replace the image tag with one that
-     * has height & width attributes set correctly for the current display, if that fails
-     * replaces it with one that has our 'size-none' class
+     * returns an image tag to use in place of the passed one which has height & width attributes set
+     * correctly for the current display, if that fails returns one that has our 'size-none' class
      */
-    private void replaceImageTag(final String imageTag, final String imageUrl) {
+    private String makeResizedImageTag(final String imageTag, final String imageUrl) {
         ImageSize origSize = getImageSize(imageTag, imageUrl);
         boolean hasWidth = (origSize != null && origSize.width > 0);
         boolean isFullSize = hasWidth && (origSize.width >= mMinFullSizeWidthDp);
@@ -204,13 +285,7 @@ public class ReaderPostRenderer {
             newImageTag = "<img class='size-none' src='" + imageUrl + "' />";
         }
 
-        int start = mRenderBuilder.indexOf(imageTag);
-        if (start == -1) {
-            AppLog.w(AppLog.T.READER, "reader renderer > image not found in builder");
-            return;
-        }
-
-        mRenderBuilder.replace(start, start + imageTag.length(), newImageTag);
+        return newImageTag;
     }
 
     private String makeImageTag(final String imageUrl, int width, int height, final String imageClass) {
@@ -285,9 +360,9 @@ public class ReaderPostRenderer {
     }
 
     /*
-     * replace the passed iframe tag with one that's correctly sized for the device
+     * returns an iframe tag to use in place of the passed one that's correctly sized for the device
      */
-    private void replaceIframeTag(final String tag, final String src) {
+    private String makeResizedIframeTag(final String tag, final String src) {
         int width = ReaderHtmlUtils.getWidthAttrValue(tag);
         int height = ReaderHtmlUtils.getHeightAttrValue(tag);
 
@@ -302,37 +377,28 @@ public class ReaderPostRenderer {
             newHeight = mResourceVars.mVideoHeightPx;
         }
 
-        String newTag = "<iframe src='" + src + "'"
-                        + " frameborder='0' allowfullscreen='true' allowtransparency='true'"
-                        + " width='" + pxToDp(newWidth) + "'"
-                        + " height='" + pxToDp(newHeight) + "' />";
-
-        int start = mRenderBuilder.indexOf(tag);
-        if (start == -1) {
-            AppLog.w(AppLog.T.READER, "reader renderer > iframe not found in builder");
-            return;
-        }
-
-        mRenderBuilder.replace(start, start + tag.length(), newTag);
+        return "<iframe src='" + src + "'"
+               + " frameborder='0' allowfullscreen='true' allowtransparency='true'"
+               + " width='" + pxToDp(newWidth) + "'"
+               + " height='" + pxToDp(newHeight) + "' />";
     }
 
     /*
-     * returns the full content, including CSS, that will be shown in the WebView for this post
+     * returns the full content, including CSS, that will be shown in the WebView for this post - the
+     * content has already been rewritten by ReaderHtmlRewriter
      */
     private String formatPostContentForWebView(final String content, final Set<String> jsToInject,
-                                               boolean hasTiledGallery, boolean isWideDisplay) {
+                                               boolean hasTiledGallery, boolean isWideDisplay,
+                                               final String galleryOnlyClass) {
         final boolean renderAsTiledGallery = hasTiledGallery && isWideDisplay;
 
-        // unique CSS class assigned to the gallery elements for easy selection
-        final String galleryOnlyClass = "gallery-only-class" + new Random().nextInt(1000);
-
         @SuppressWarnings("StringBufferReplaceableByString")
         StringBuilder sbHtml = new StringBuilder("<!DOCTYPE html><html><head><meta charset='UTF-8' />");
 
         // title isn't necessary, but it's invalid html5 without one
         sbHtml.append("<title>Reader Post</title>")
               .append("<link rel=\"stylesheet\" type=\"text/css\"\n"
-                      + "          href=\"" + mCssProvider.getCssUrl() + "\">");
+                      + "          href=\"" + mCssUrl + "\">");
         // https://developers.google.com/chrome/mobile/docs/webview/pixelperfect
         sbHtml.append("<meta name='viewport' content='width=device-width, initial-scale=1'>")
               .append("<style type='text/css'>");
@@ -481,27 +547,12 @@ public class ReaderPostRenderer {
                 .append(" figure { display: block; margin-inline-start: 0px; margin-inline-end: 0px; }")
                 .append("</style>");
 
-        // add a custom CSS class to (any) tiled gallery elements to make them easier selectable for various rules
-        final List<String> classAmendRegexes = Arrays.asList(
-                "(tiled-gallery) ([\\s\"\'])",
-                "(gallery-row) ([\\s\"'])",
-                "(gallery-group) ([\\s\"'])",
-                "(tiled-gallery-item) ([\\s\"'])");
-        String contentCustomised = content;
-
-        // removes background-color property from original content
-        contentCustomised = contentCustomised.replaceAll("\\s*(background-color)\\s*:\\s*.+?\\s*;\\s*", "");
-
-        for (String classToAmend : classAmendRegexes) {
-            contentCustomised = contentCustomised.replaceAll(classToAmend, "$1 " + galleryOnlyClass + "$2");
-        }
-
         for (String jsUrl : jsToInject) {
             sbHtml.append("<script src=\"").append(jsUrl).append("\" type=\"text/javascript\" async></script>");
         }
 
         sbHtml.append("</head><body class=\"reader-full-post reader-full-post__story-content\">")
-              .append(contentCustomised)
+              .append(content)
               .append("</body></html>");
 
         return sbHtml.toString();
@@ -535,7 +586,8 @@ public class ReaderPostRenderer {
 
     private ImageSize getImageSizeFromAttachments(final String imageUrl) {
         if (mAttachmentSizes == null) {
-            mAttachmentSizes = new ImageSizeMap(mPost.getText(), mPost.getAttachmentsJson());
+            // the sizes parsed when the post was saved, so a gallery doesn't mean parsing its attachments json
+            mAttachmentSizes = ReaderPostTable.getAttachmentSizes(mPost);
         }
         return mAttachmentSizes.getImageSize(imageUrl);
     }
@@ -18,6 +18,7 @@ class ReaderResourceVars {
     final int mMarginMediumPx;
 
     final boolean mIsWideDisplay;
+    final int mDensityDpi;
 
     final int mFullSizeImageWidthPx;
     final int mFeaturedImageHeightPx;
@@ -38,6 +39,7 @@ class ReaderResourceVars {
         int displayWidthPx = DisplayUtils.getDisplayPixelWidth(context);
 
         mIsWideDisplay = DisplayUtils.pxToDp(context, displayWidthPx) > 640;
+        mDensityDpi = resources.getDisplayMetrics().densityDpi;
 
         int marginLargePx = resources.getDimensionPixelSize(R.dimen.margin_large);
         int detailMarginWidthPx = resources.getDimensionPixelOffset(R.dimen.reader_detail_margin);
@@ -84,4 +86,15 @@ class ReaderResourceVars {
         mVideoWidthPx = mFullSizeImageWidthPx - (marginLargePx * 2);
         mVideoHeightPx = (int) (mVideoWidthPx * 0.5625f);
     }
+
+    /*
+     * identifies the values which the rendered post HTML depends on - used in ReaderPostRenderCache keys
+     * so HTML rendered for another display width, density or theme isn't reused
+     */
+    String getRenderKey() {
+        return mFullSizeImageWidthPx + "," + mVideoWidthPx + "," + mVideoHeightPx + "," + mMarginMediumPx
+               + "," + mDensityDpi + "," + mIsWideDisplay
+               + "," + mTextColor + "," + mLinkColorStr + "," + mGreyMediumDarkStr + "," + mGreyLightStr
+               + "," + mGreyExtraLightStr + "," + mGreyDisabledStr;
+    }
 }
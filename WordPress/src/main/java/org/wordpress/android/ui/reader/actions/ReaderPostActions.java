@@ -36,6 +36,7 @@ import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
 import org.wordpress.android.ui.reader.models.ReaderSimplePost;
 import org.wordpress.android.ui.reader.models.ReaderSimplePostList;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.DateTimeUtils;
@@ -176,59 +177,71 @@ public class ReaderPostActions {
 
         final Handler handler = new Handler();
 
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
-                ReaderPost serverPost = ReaderPost.fromJson(jsonObject);
-
-                // TODO: this temporary fix was added 25-Apr-2016 as a workaround for the fact that
-                // the read/sites/{blogId}/posts/{postId} endpoint doesn't contain the feedId or
-                // feedItemId of the post. because of this, we need to copy them from the local post
-                // before calling isSamePost (since the difference in those IDs causes it to return false)
-                if (serverPost.feedId == 0 && localPost.feedId != 0) {
-                    serverPost.feedId = localPost.feedId;
-                }
+                final ReaderPost serverPost = ReaderPost.fromJson(jsonObject);
+                ReaderWorkScheduler.write(new Runnable() {
+                    @Override
+                    public void run() {
+                        saveUpdatedPost(localPost, serverPost, jsonObject, handler, resultListener);
+                    }
+                });
+            }
+        });
+    }
 
-                if (serverPost.feedItemId == 0 && localPost.feedItemId != 0) {
-                    serverPost.feedItemId = localPost.feedItemId;
-                }
+    private static void saveUpdatedPost(final ReaderPost localPost,
+                                        final ReaderPost serverPost,
+                                        final JSONObject jsonObject,
+                                        final Handler handler,
+                                        final UpdateResultListener resultListener) {
+        // TODO: this temporary fix was added 25-Apr-2016 as a workaround for the fact that
+        // the read/sites/{blogId}/posts/{postId} endpoint doesn't contain the feedId or
+        // feedItemId of the post. because of this, we need to copy them from the local post
+        // before calling isSamePost (since the difference in those IDs causes it to return false)
+        if (serverPost.feedId == 0 && localPost.feedId != 0) {
+            serverPost.feedId = localPost.feedId;
+        }
 
-                boolean hasChanges = !serverPost.isSamePost(localPost);
-
-                if (hasChanges) {
-                    AppLog.d(T.READER, "post updated");
-                    // copy changes over to the local post - this is done instead of simply overwriting
-                    // the local post with the server post because the server post was retrieved using
-                    // the read/sites/$siteId/posts/$postId endpoint which is missing some information
-                    // https://github.com/wordpress-mobile/WordPress-Android/issues/3164
-                    localPost.numReplies = serverPost.numReplies;
-                    localPost.numLikes = serverPost.numLikes;
-                    localPost.isFollowedByCurrentUser = serverPost.isFollowedByCurrentUser;
-                    localPost.isLikedByCurrentUser = serverPost.isLikedByCurrentUser;
-                    localPost.isCommentsOpen = serverPost.isCommentsOpen;
-                    localPost.useExcerpt = serverPost.useExcerpt;
-                    localPost.setTitle(serverPost.getTitle());
-                    localPost.setText(serverPost.getText());
-                    localPost.setExcerpt(serverPost.getExcerpt());
-                    ReaderPostTable.updatePost(localPost);
-                }
+        if (serverPost.feedItemId == 0 && localPost.feedItemId != 0) {
+            serverPost.feedItemId = localPost.feedItemId;
+        }
 
-                // always update liking users regardless of whether changes were detected - this
-                // ensures that the liking avatars are immediately available to post detail
-                if (handlePostLikes(serverPost, jsonObject)) {
-                    hasChanges = true;
-                }
+        boolean hasChanges = !serverPost.isSamePost(localPost);
+
+        if (hasChanges) {
+            AppLog.d(T.READER, "post updated");
+            // copy changes over to the local post - this is done instead of simply overwriting
+            // the local post with the server post because the server post was retrieved using
+            // the read/sites/$siteId/posts/$postId endpoint which is missing some information
+            // https://github.com/wordpress-mobile/WordPress-Android/issues/3164
+            localPost.numReplies = serverPost.numReplies;
+            localPost.numLikes = serverPost.numLikes;
+            localPost.isFollowedByCurrentUser = serverPost.isFollowedByCurrentUser;
+            localPost.isLikedByCurrentUser = serverPost.isLikedByCurrentUser;
+            localPost.isCommentsOpen = serverPost.isCommentsOpen;
+            localPost.useExcerpt = serverPost.useExcerpt;
+            localPost.setTitle(serverPost.getTitle());
+            localPost.setText(serverPost.getText());
+            localPost.setExcerpt(serverPost.getExcerpt());
+            ReaderPostTable.updatePost(localPost);
+        }
 
-                if (resultListener != null) {
-                    final UpdateResult result = (hasChanges ? UpdateResult.CHANGED : UpdateResult.UNCHANGED);
-                    handler.post(new Runnable() {
-                        public void run() {
-                            resultListener.onUpdateResult(result);
-                        }
-                    });
+        // always update liking users regardless of whether changes were detected - this
+        // ensures that the liking avatars are immediately available to post detail
+        if (handlePostLikes(serverPost, jsonObject)) {
+            hasChanges = true;
+        }
+
+        if (resultListener != null) {
+            final UpdateResult result = (hasChanges ? UpdateResult.CHANGED : UpdateResult.UNCHANGED);
+            handler.post(new Runnable() {
+                public void run() {
+                    resultListener.onUpdateResult(result);
                 }
-            }
-        }.start();
+            });
+        }
     }
 
     /*
@@ -428,7 +441,7 @@ public class ReaderPostActions {
             return;
         }
 
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
                 JSONArray jsonPosts = jsonObject.optJSONArray("posts");
@@ -448,7 +461,7 @@ public class ReaderPostActions {
                                                                                     globalRelatedPosts, true));
                 }
             }
-        }.start();
+        });
     }
 
     public static void addToBookmarked(@NonNull final ReaderPost post) {
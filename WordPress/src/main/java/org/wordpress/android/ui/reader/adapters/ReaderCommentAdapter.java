@@ -11,6 +11,7 @@ import android.widget.ProgressBar;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import androidx.annotation.Nullable;
 import androidx.core.graphics.ColorUtils;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -28,11 +29,13 @@ import org.wordpress.android.ui.comments.CommentUtils;
 import org.wordpress.android.ui.reader.FollowCommentsUiState;
 import org.wordpress.android.ui.reader.ReaderActivityLauncher;
 import org.wordpress.android.ui.reader.ReaderAnim;
+import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderInterfaces;
 import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.actions.ReaderCommentActions;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.ui.reader.tracker.ReaderTracker;
-import org.wordpress.android.ui.reader.utils.ReaderCommentLeveler;
+import org.wordpress.android.ui.reader.utils.ReaderCommentThread;
 import org.wordpress.android.ui.reader.utils.ReaderLinkMovementMethod;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderCommentsPostHeaderView;
@@ -89,6 +92,10 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
     }
 
     private ReaderCommentList mComments = new ReaderCommentList();
+    // the comments loaded so far threaded under their parents, and the last one loaded - used to thread
+    // comments stored after those into the existing ones, see loadMoreComments()
+    private ReaderCommentThread mCommentThread;
+    private ReaderComment mLastLoadedComment;
     private RequestReplyListener mReplyListener;
     private ReaderInterfaces.DataLoadedListener mDataLoadedListener;
     private ReaderActions.DataRequestedListener mDataRequestedListener;
@@ -197,7 +204,20 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
         if (mIsTaskRunning) {
             AppLog.w(T.READER, "reader comment adapter > Load comments task already running");
         }
-        new LoadCommentsTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new LoadCommentsTask(null).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /*
+     * loads the comments which were stored after the ones already shown (ex: after the next page of
+     * comments was requested) and threads them into the existing ones - reloads all comments instead
+     * if none have been loaded yet or comments are already being loaded
+     */
+    public void loadMoreComments() {
+        if (mCommentThread == null || mIsTaskRunning) {
+            refreshComments();
+        } else {
+            new LoadCommentsTask(mCommentThread).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        }
     }
 
     @Override
@@ -541,9 +561,21 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
 
     @SuppressLint("StaticFieldLeak")
     private class LoadCommentsTask extends AsyncTask<Void, Void, Boolean> {
+        private final ReaderCommentThread mTmpThread;
+        private final boolean mIsFullLoad;
+        private ReaderComment mTmpLastLoadedComment;
         private ReaderCommentList mTmpComments;
         private boolean mTmpMoreCommentsExist;
 
+        /*
+         * pass the thread to merge newly stored comments into, or null to load all comments
+         */
+        LoadCommentsTask(@Nullable ReaderCommentThread thread) {
+            mIsFullLoad = thread == null;
+            mTmpThread = mIsFullLoad ? new ReaderCommentThread() : thread;
+            mTmpLastLoadedComment = mIsFullLoad ? null : mLastLoadedComment;
+        }
+
         @Override
         protected void onPreExecute() {
             mIsTaskRunning = true;
@@ -567,17 +599,46 @@ public class ReaderCommentAdapter extends RecyclerView.Adapter<RecyclerView.View
             int numLocalComments = ReaderCommentTable.getNumCommentsForPost(mPost);
             mTmpMoreCommentsExist = (numServerComments > numLocalComments);
 
-            mTmpComments = ReaderCommentTable.getCommentsForPost(mPost);
+            if (mIsFullLoad) {
+                // keep all the comments on this post the next time the db is purged
+                final long blogId = mPost.blogId;
+                final long postId = mPost.postId;
+                ReaderWorkScheduler.write(new Runnable() {
+                    @Override
+                    public void run() {
+                        ReaderCommentTable.setThreadViewed(blogId, postId);
+                    }
+                });
+            }
+
+            // read the comments a page at a time, threading each page into the ones before it
+            boolean hasChanges = false;
+            ReaderCommentList page;
+            do {
+                page = ReaderCommentTable.getCommentsForPost(mPost.blogId, mPost.postId, mTmpLastLoadedComment,
+                        ReaderConstants.READER_MAX_COMMENTS_TO_LOAD);
+                if (!page.isEmpty()) {
+                    hasChanges |= mTmpThread.merge(page);
+                    mTmpLastLoadedComment = page.get(page.size() - 1);
+                }
+            } while (page.size() == ReaderConstants.READER_MAX_COMMENTS_TO_LOAD);
+
+            if (!mIsFullLoad && !hasChanges) {
+                return false;
+            }
+            mTmpComments = mTmpThread.getLevelList();
             return !mComments.isSameList(mTmpComments);
         }
 
         @Override
         protected void onPostExecute(Boolean result) {
             mMoreCommentsExist = mTmpMoreCommentsExist;
+            mCommentThread = mTmpThread;
+            mLastLoadedComment = mTmpLastLoadedComment;
 
             if (result) {
                 // assign the comments with children sorted under their parents and indent levels applied
-                mComments = new ReaderCommentLeveler(mTmpComments).createLevelList();
+                mComments = mTmpComments;
                 notifyDataSetChanged();
             }
             if (mDataLoadedListener != null) {
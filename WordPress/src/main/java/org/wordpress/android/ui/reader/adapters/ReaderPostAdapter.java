@@ -15,6 +15,8 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import org.jetbrains.annotations.NotNull;
@@ -90,6 +92,10 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     private final int mAvatarSzSmall;
 
     private boolean mCanRequestMorePosts;
+    // whether there are posts in the current tag which are stored locally but haven't been loaded yet
+    private boolean mHasMoreLocalPosts;
+    // incremented by clear() so a load which started before the posts were cleared can be ignored
+    private int mClearCount;
 
     @NonNull private final ReaderTypes.ReaderPostListType mPostListType;
     @NonNull private String mSource;
@@ -103,9 +109,11 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     private ReaderActions.DataRequestedListener mDataRequestedListener;
     private ReaderSiteHeaderView.OnBlogInfoLoadedListener mBlogInfoLoadedListener;
 
-    // the large "tbl_posts.text" column is unused here, so skip it when querying
+    // the large post text is unused here, so skip it when querying
     private static final boolean EXCLUDE_TEXT_COLUMN = true;
     private static final int MAX_ROWS = ReaderConstants.READER_MAX_POSTS_TO_DISPLAY;
+    // tagged posts are loaded a page at a time as the user scrolls, up to MAX_ROWS
+    private static final int PAGE_SIZE = ReaderConstants.READER_MAX_POSTS_TO_REQUEST;
 
     private static final int VIEW_TYPE_POST = 0;
     private static final int VIEW_TYPE_XPOST = 1;
@@ -509,12 +517,16 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     /*
-     * if we're nearing the end of the posts, fire request to load more
+     * if we're nearing the end of the posts, load the next page of local posts or, if they've all been
+     * loaded, fire request to load more
      */
     private void checkLoadMore(int position) {
-        if (mCanRequestMorePosts
-            && mDataRequestedListener != null
-            && (position >= getItemCount() - 1)) {
+        if (position < getItemCount() - 1) {
+            return;
+        }
+        if (mHasMoreLocalPosts) {
+            loadNextPage();
+        } else if (mCanRequestMorePosts && mDataRequestedListener != null) {
             mDataRequestedListener.onRequestData();
         }
     }
@@ -615,6 +627,8 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
     public void clear() {
         mGapMarkerPosition = -1;
+        mHasMoreLocalPosts = false;
+        mClearCount++;
         if (!mPosts.isEmpty()) {
             mPosts.clear();
             notifyDataSetChanged();
@@ -635,10 +649,18 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
     private void loadPosts() {
         if (mIsTaskRunning) {
-            AppLog.w(AppLog.T.READER, "reader posts task already running");
+            // load again when the running task finishes so the changes this refresh is for aren't missed
+            AppLog.d(AppLog.T.READER, "reader posts task already running, refresh queued");
+            mIsRefreshPending = true;
             return;
         }
-        new LoadPostsTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new LoadPostsTask(false).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    private void loadNextPage() {
+        if (!mIsTaskRunning) {
+            new LoadPostsTask(true).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        }
     }
 
     private ReaderPost getItem(int position) {
@@ -663,6 +685,32 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         return mPosts.get(arrayPos);
     }
 
+    /*
+     * applies the changes found by ReaderPostDiffCallback - these are positions in mPosts, so they're offset
+     * by the header
+     */
+    private final ListUpdateCallback mPostsUpdateCallback = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position + getItemPositionOffset(), count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position + getItemPositionOffset(), count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition + getItemPositionOffset(), toPosition + getItemPositionOffset());
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position + getItemPositionOffset(), count, payload);
+        }
+    };
+
     private int getItemPositionOffset() {
         return hasHeader() ? 1 : 0;
     }
@@ -744,20 +792,39 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     /*
-     * AsyncTask to load posts in the current tag
+     * AsyncTask to load posts in the current tag - tagged posts are loaded a page at a time, and a refresh
+     * only reloads the posts which were already loaded (plus a page if they were all the local posts), so
+     * the list grows as the user scrolls rather than starting at MAX_ROWS
      */
     private boolean mIsTaskRunning = false;
+    private boolean mIsRefreshPending = false;
 
     @SuppressLint("StaticFieldLeak")
     private class LoadPostsTask extends AsyncTask<Void, Void, Boolean> {
+        private final boolean mIsNextPage;
+        private final ReaderPostList mOldPosts = new ReaderPostList();
         private ReaderPostList mAllPosts;
+        private DiffUtil.DiffResult mDiffResult;
+
+        private int mOldGapMarkerPosition;
+        private boolean mHadMoreLocalPosts;
+        private int mClearCountAtStart;
 
+        private boolean mHasMoreLocalPostsTemp;
         private boolean mCanRequestMorePostsTemp;
         private int mGapMarkerPositionTemp;
 
+        LoadPostsTask(boolean isNextPage) {
+            mIsNextPage = isNextPage;
+        }
+
         @Override
         protected void onPreExecute() {
             mIsTaskRunning = true;
+            mOldPosts.addAll(mPosts);
+            mOldGapMarkerPosition = mGapMarkerPosition;
+            mHadMoreLocalPosts = mHasMoreLocalPosts;
+            mClearCountAtStart = mClearCount;
         }
 
         @Override
@@ -767,15 +834,14 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
         @Override
         protected Boolean doInBackground(Void... params) {
-            int numExisting;
             switch (getPostListType()) {
                 case TAG_PREVIEW:
                 case TAG_FOLLOWED:
                 case SEARCH_RESULTS:
-                    mAllPosts = ReaderPostTable.getPostsWithTag(mCurrentTag, MAX_ROWS, EXCLUDE_TEXT_COLUMN);
-                    numExisting = ReaderPostTable.getNumPostsWithTag(mCurrentTag);
+                    loadPostsWithTag();
                     break;
                 case BLOG_PREVIEW:
+                    int numExisting;
                     if (mCurrentFeedId != 0) {
                         mAllPosts = ReaderPostTable.getPostsInFeed(mCurrentFeedId, MAX_ROWS, EXCLUDE_TEXT_COLUMN);
                         numExisting = ReaderPostTable.getNumPostsInFeed(mCurrentFeedId);
@@ -783,25 +849,60 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
                         mAllPosts = ReaderPostTable.getPostsInBlog(mCurrentBlogId, MAX_ROWS, EXCLUDE_TEXT_COLUMN);
                         numExisting = ReaderPostTable.getNumPostsInBlog(mCurrentBlogId);
                     }
+                    mHasMoreLocalPostsTemp = false;
+                    mCanRequestMorePostsTemp = (numExisting < MAX_ROWS);
                     break;
                 default:
                     return false;
             }
 
-            if (mPosts.isSameListWithBookmark(mAllPosts)) {
+            // determine whether a gap marker exists - only applies to tagged posts
+            mGapMarkerPositionTemp = getGapMarkerPosition();
+
+            if (mOldPosts.isSameListWithBookmark(mAllPosts) && mGapMarkerPositionTemp == mOldGapMarkerPosition) {
                 return false;
             }
 
-            // if we're not already displaying the max # posts, enable requesting more when
-            // the user scrolls to the end of the list
-            mCanRequestMorePostsTemp = (numExisting < ReaderConstants.READER_MAX_POSTS_TO_DISPLAY);
-
-            // determine whether a gap marker exists - only applies to tagged posts
-            mGapMarkerPositionTemp = getGapMarkerPosition();
+            // work out which posts changed so only they're rebound - the whole list is rebound when it was or
+            // becomes empty (the tag header comes and goes with the posts) or when there's a gap marker
+            if (!mOldPosts.isEmpty()
+                && !mAllPosts.isEmpty()
+                && mOldGapMarkerPosition == -1
+                && mGapMarkerPositionTemp == -1) {
+                mDiffResult = DiffUtil.calculateDiff(new ReaderPostDiffCallback(mOldPosts, mAllPosts));
+            }
 
             return true;
         }
 
+        private void loadPostsWithTag() {
+            if (mIsNextPage) {
+                int pageSize = Math.min(PAGE_SIZE, MAX_ROWS - mOldPosts.size());
+                mAllPosts = new ReaderPostList();
+                mAllPosts.addAll(mOldPosts);
+                if (mOldPosts.isEmpty() || pageSize <= 0) {
+                    mHasMoreLocalPostsTemp = false;
+                } else {
+                    ReaderPost lastPost = mOldPosts.get(mOldPosts.size() - 1);
+                    ReaderPostList nextPage =
+                            ReaderPostTable.getPostsWithTagAfter(mCurrentTag, lastPost, pageSize, EXCLUDE_TEXT_COLUMN);
+                    mAllPosts.addAll(nextPage);
+                    mHasMoreLocalPostsTemp = (nextPage.size() == pageSize);
+                }
+            } else {
+                int numToLoad = mHadMoreLocalPosts ? mOldPosts.size() : mOldPosts.size() + PAGE_SIZE;
+                numToLoad = Math.min(Math.max(numToLoad, PAGE_SIZE), MAX_ROWS);
+                mAllPosts = ReaderPostTable.getPostsWithTag(mCurrentTag, numToLoad, EXCLUDE_TEXT_COLUMN);
+                mHasMoreLocalPostsTemp = (mAllPosts.size() == numToLoad);
+            }
+
+            mHasMoreLocalPostsTemp = mHasMoreLocalPostsTemp && mAllPosts.size() < MAX_ROWS;
+
+            // if we're not already displaying the max # posts and all the local posts are loaded, enable
+            // requesting more when the user scrolls to the end of the list
+            mCanRequestMorePostsTemp = !mHasMoreLocalPostsTemp && mAllPosts.size() < MAX_ROWS;
+        }
+
         private int getGapMarkerPosition() {
             if (!getPostListType().isTagType()) {
                 return -1;
@@ -815,11 +916,14 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             int gapMarkerPostPosition = mAllPosts.indexOfIds(gapMarkerIds);
             int gapMarkerPosition = -1;
             if (gapMarkerPostPosition > -1) {
-                // remove the gap marker if it's on the last post (edge case but
-                // it can happen following a purge)
                 if (gapMarkerPostPosition == mAllPosts.size() - 1) {
-                    AppLog.w(AppLog.T.READER, "gap marker at/after last post, removed");
-                    ReaderPostTable.removeGapMarkerForTag(mCurrentTag);
+                    // remove the gap marker if it's on the last post (edge case but it can happen following
+                    // a purge) - if there are more local posts it's only the last one loaded so far, in which
+                    // case it's shown once the next page is loaded
+                    if (!mHasMoreLocalPostsTemp) {
+                        AppLog.w(AppLog.T.READER, "gap marker at/after last post, removed");
+                        ReaderPostTable.removeGapMarkerForTag(mCurrentTag);
+                    }
                 } else {
                     // we want the gap marker to appear *below* this post
                     gapMarkerPosition = gapMarkerPostPosition + 1;
@@ -833,19 +937,40 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
         @Override
         protected void onPostExecute(Boolean result) {
-            if (result) {
-                ReaderPostAdapter.this.mGapMarkerPosition = mGapMarkerPositionTemp;
+            mIsTaskRunning = false;
+
+            // skip the results if the posts were cleared while they were loading, since they may be for
+            // a different tag or blog - the reload which followed is pending and started below
+            if (mClearCountAtStart == mClearCount) {
+                ReaderPostAdapter.this.mHasMoreLocalPosts = mHasMoreLocalPostsTemp;
                 ReaderPostAdapter.this.mCanRequestMorePosts = mCanRequestMorePostsTemp;
-                mPosts.clear();
-                mPosts.addAll(mAllPosts);
-                notifyDataSetChanged();
-            }
 
-            if (mDataLoadedListener != null) {
-                mDataLoadedListener.onDataLoaded(isEmpty());
+                if (result) {
+                    // the diff is only valid if the gap marker wasn't removed while it was being worked out
+                    boolean canDispatchDiff =
+                            mDiffResult != null && ReaderPostAdapter.this.mGapMarkerPosition == mOldGapMarkerPosition;
+                    ReaderPostAdapter.this.mGapMarkerPosition = mGapMarkerPositionTemp;
+                    mPosts.clear();
+                    mPosts.addAll(mAllPosts);
+                    if (canDispatchDiff) {
+                        mDiffResult.dispatchUpdatesTo(mPostsUpdateCallback);
+                    } else {
+                        notifyDataSetChanged();
+                    }
+                } else if (mIsNextPage && mCanRequestMorePosts && mDataRequestedListener != null) {
+                    // the user scrolled to the end and there weren't any more local posts after all
+                    mDataRequestedListener.onRequestData();
+                }
+
+                if (mDataLoadedListener != null) {
+                    mDataLoadedListener.onDataLoaded(isEmpty());
+                }
             }
 
-            mIsTaskRunning = false;
+            if (mIsRefreshPending) {
+                mIsRefreshPending = false;
+                loadPosts();
+            }
         }
     }
 }
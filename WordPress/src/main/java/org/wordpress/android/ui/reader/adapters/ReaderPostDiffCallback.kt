@@ -0,0 +1,32 @@
+package org.wordpress.android.ui.reader.adapters
+
+import androidx.recyclerview.widget.DiffUtil
+import org.wordpress.android.models.ReaderPost
+import org.wordpress.android.models.ReaderPostList
+
+/**
+ * Compares two loads of the same reader stream so ReaderPostAdapter can notify just the posts which were
+ * inserted, removed, moved or changed instead of rebinding the whole list.
+ */
+class ReaderPostDiffCallback(
+    private val oldList: List<ReaderPost>,
+    private val newList: List<ReaderPost>
+) : DiffUtil.Callback() {
+    override fun getOldListSize(): Int {
+        return oldList.size
+    }
+
+    override fun getNewListSize(): Int {
+        return newList.size
+    }
+
+    override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        val oldItem = oldList[oldItemPosition]
+        val newItem = newList[newItemPosition]
+        return oldItem.blogId == newItem.blogId && oldItem.postId == newItem.postId
+    }
+
+    override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+        return ReaderPostList.isSamePostWithBookmark(oldList[oldItemPosition], newList[newItemPosition])
+    }
+}
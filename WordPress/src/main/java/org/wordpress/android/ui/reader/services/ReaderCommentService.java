@@ -5,6 +5,9 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.IBinder;
 
+import androidx.annotation.NonNull;
+import androidx.core.util.Pair;
+
 import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
@@ -27,6 +30,9 @@ import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListene
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.JSONUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ReaderCommentService extends Service {
     private static final String ARG_POST_ID = "post_id";
     private static final String ARG_BLOG_ID = "blog_id";
@@ -167,52 +173,68 @@ public class ReaderCommentService extends Service {
             return;
         }
 
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
-                final boolean hasNewComments;
-
-                ReaderDatabase.getWritableDb().beginTransaction();
-                try {
-                    // purge existing comments if this was a request for the first page of comments
-                    if (pageNumber == 1) {
-                        ReaderCommentTable.purgeCommentsForPost(blogId, postId);
-                    }
-
-                    ReaderCommentList serverComments = new ReaderCommentList();
-                    JSONArray jsonCommentList = jsonObject.optJSONArray("comments");
-                    if (jsonCommentList != null) {
-                        for (int i = 0; i < jsonCommentList.length(); i++) {
-                            JSONObject jsonComment = jsonCommentList.optJSONObject(i);
-
-                            // extract this comment and add it to the list
-                            ReaderComment comment = ReaderComment.fromJson(jsonComment, blogId);
-                            comment.pageNumber = pageNumber;
-                            serverComments.add(comment);
-
-                            // extract and save likes for this comment
-                            JSONObject jsonLikes = JSONUtils.getJSONChild(jsonComment, "meta/data/likes");
-                            if (jsonLikes != null) {
-                                ReaderUserList likingUsers = ReaderUserList.fromJsonLikes(jsonLikes);
-                                ReaderUserTable.addOrUpdateUsers(likingUsers);
-                                ReaderLikeTable.setLikesForComment(comment, likingUsers.getUserIds());
-                            }
+                // extract the comments and the users who like them, then save them on the writer lane
+                final ReaderCommentList serverComments = new ReaderCommentList();
+                final List<Pair<ReaderComment, ReaderUserList>> commentLikes = new ArrayList<>();
+                JSONArray jsonCommentList = jsonObject.optJSONArray("comments");
+                if (jsonCommentList != null) {
+                    for (int i = 0; i < jsonCommentList.length(); i++) {
+                        JSONObject jsonComment = jsonCommentList.optJSONObject(i);
+
+                        // extract this comment and add it to the list
+                        ReaderComment comment = ReaderComment.fromJson(jsonComment, blogId);
+                        comment.pageNumber = pageNumber;
+                        serverComments.add(comment);
+
+                        // extract likes for this comment
+                        JSONObject jsonLikes = JSONUtils.getJSONChild(jsonComment, "meta/data/likes");
+                        if (jsonLikes != null) {
+                            commentLikes.add(new Pair<>(comment, ReaderUserList.fromJsonLikes(jsonLikes)));
                         }
                     }
+                }
 
-                    hasNewComments = (serverComments.size() > 0);
+                ReaderWorkScheduler.write(new Runnable() {
+                    @Override
+                    public void run() {
+                        saveComments(serverComments, commentLikes, blogId, postId, pageNumber, resultListener);
+                    }
+                });
+            }
+        });
+    }
 
-                    // save to db regardless of whether any are new so changes to likes are stored
-                    ReaderCommentTable.addOrUpdateComments(serverComments);
-                    ReaderDatabase.getWritableDb().setTransactionSuccessful();
-                } finally {
-                    ReaderDatabase.getWritableDb().endTransaction();
-                }
+    private static void saveComments(@NonNull ReaderCommentList serverComments,
+                                     @NonNull List<Pair<ReaderComment, ReaderUserList>> commentLikes,
+                                     long blogId,
+                                     long postId,
+                                     int pageNumber,
+                                     ReaderActions.UpdateResultListener resultListener) {
+        ReaderDatabase.getWritableDb().beginTransaction();
+        try {
+            // purge existing comments if this was a request for the first page of comments
+            if (pageNumber == 1) {
+                ReaderCommentTable.purgeCommentsForPost(blogId, postId);
+            }
 
-                ReaderActions.UpdateResult result =
-                        (hasNewComments ? ReaderActions.UpdateResult.HAS_NEW : ReaderActions.UpdateResult.UNCHANGED);
-                resultListener.onUpdateResult(result);
+            for (Pair<ReaderComment, ReaderUserList> likes : commentLikes) {
+                ReaderUserTable.addOrUpdateUsers(likes.second);
+                ReaderLikeTable.setLikesForComment(likes.first, likes.second.getUserIds());
             }
-        }.start();
+
+            // save to db regardless of whether any are new so changes to likes are stored
+            ReaderCommentTable.addOrUpdateComments(serverComments);
+            ReaderDatabase.getWritableDb().setTransactionSuccessful();
+        } finally {
+            ReaderDatabase.getWritableDb().endTransaction();
+        }
+
+        boolean hasNewComments = (serverComments.size() > 0);
+        ReaderActions.UpdateResult result =
+                (hasNewComments ? ReaderActions.UpdateResult.HAS_NEW : ReaderActions.UpdateResult.UNCHANGED);
+        resultListener.onUpdateResult(result);
     }
 }
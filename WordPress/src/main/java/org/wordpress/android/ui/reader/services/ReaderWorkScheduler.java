@@ -0,0 +1,249 @@
+package org.wordpress.android.ui.reader.services;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
+import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the reader's background work, which used to start a new thread for every network response. Parsing
+ * runs on a small pool of threads, and anything which writes to the reader database runs on a single writer
+ * thread - SQLite only has one writer at a time, so writes made from several threads just wait on each other.
+ * Requests to update the same stream which overlap are coalesced so the stream is only requested once, and
+ * each lane keeps queue depth and latency stats which can be logged when debugging.
+ */
+public class ReaderWorkScheduler {
+    public enum Lane {
+        PARSE,
+        WRITE
+    }
+
+    private static final int NUM_PARSE_THREADS = 2;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // a task which waits longer than this before it runs logs the stats for its lane
+    private static final long SLOW_WAIT_MILLIS = 1000;
+
+    private static final ThreadPoolExecutor PARSE_EXECUTOR = newExecutor("ReaderParse", NUM_PARSE_THREADS);
+    private static final ThreadPoolExecutor WRITE_EXECUTOR = newExecutor("ReaderWrite", 1);
+
+    private static final LaneStats PARSE_STATS = new LaneStats(Lane.PARSE);
+    private static final LaneStats WRITE_STATS = new LaneStats(Lane.WRITE);
+
+    // listeners waiting on the result of stream updates which are in flight, keyed by getUpdateKey()
+    private static final Map<String, List<UpdateResultListener>> UPDATES_IN_FLIGHT = new HashMap<>();
+
+    private ReaderWorkScheduler() {
+        throw new AssertionError();
+    }
+
+    /*
+     * creates a pool of background priority threads which stop after they've been idle for a while - the
+     * lanes use this, as do callers which need a pool of their own (ex: ReaderPostRenderer)
+     */
+    @NonNull
+    public static ThreadPoolExecutor newExecutor(@NonNull final String name, int numThreads) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, name + "-" + mCount.incrementAndGet());
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /*
+     * runs work which doesn't write to the reader database, such as parsing a network response
+     */
+    public static void parse(@NonNull Runnable task) {
+        execute(PARSE_EXECUTOR, PARSE_STATS, task);
+    }
+
+    /*
+     * runs work which writes to the reader database - these tasks run one at a time in the order they're
+     * queued, so parse first and only queue the writes here
+     */
+    public static void write(@NonNull Runnable task) {
+        execute(WRITE_EXECUTOR, WRITE_STATS, task);
+    }
+
+    private static void execute(@NonNull ThreadPoolExecutor executor,
+                                @NonNull final LaneStats stats,
+                                @NonNull final Runnable task) {
+        final long queuedAt = System.nanoTime();
+        stats.onQueued();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long startedAt = System.nanoTime();
+                long waitMillis = stats.onStarted(queuedAt, startedAt);
+                if (waitMillis >= SLOW_WAIT_MILLIS) {
+                    AppLog.w(T.READER, "reader work scheduler > task waited " + waitMillis + " ms, " + stats);
+                }
+                try {
+                    task.run();
+                } finally {
+                    stats.onFinished(startedAt, System.nanoTime());
+                }
+            }
+        });
+    }
+
+    /*
+     * returns the key used to coalesce updates of a stream - updates only coalesce when both the stream and
+     * the kind of update are the same
+     */
+    @NonNull
+    public static String getUpdateKey(@NonNull String streamKey, @NonNull String action) {
+        return streamKey + ":" + action;
+    }
+
+    /*
+     * adds a listener for the result of the stream update with the passed key - returns true if the caller
+     * should start the update, or false if it's already in flight in which case the listener is called once
+     * it completes
+     */
+    public static boolean joinUpdate(@NonNull String updateKey, @NonNull UpdateResultListener listener) {
+        synchronized (UPDATES_IN_FLIGHT) {
+            List<UpdateResultListener> listeners = UPDATES_IN_FLIGHT.get(updateKey);
+            if (listeners != null) {
+                listeners.add(listener);
+                AppLog.d(T.READER, "reader work scheduler > coalesced update " + updateKey);
+                return false;
+            }
+            listeners = new ArrayList<>();
+            listeners.add(listener);
+            UPDATES_IN_FLIGHT.put(updateKey, listeners);
+            return true;
+        }
+    }
+
+    /*
+     * passes the result of the stream update with the passed key to every listener waiting on it
+     */
+    public static void completeUpdate(@NonNull String updateKey, @NonNull UpdateResult result) {
+        List<UpdateResultListener> listeners;
+        synchronized (UPDATES_IN_FLIGHT) {
+            listeners = UPDATES_IN_FLIGHT.remove(updateKey);
+        }
+        if (listeners != null) {
+            for (UpdateResultListener listener : listeners) {
+                listener.onUpdateResult(result);
+            }
+        }
+    }
+
+    @NonNull
+    public static LaneStats getStats(@NonNull Lane lane) {
+        return lane == Lane.PARSE ? PARSE_STATS : WRITE_STATS;
+    }
+
+    /*
+     * writes the stats for both lanes to the log, ex: "write: 3 queued (max 12), 140 run, wait avg 4 ms
+     * max 210 ms, run avg 35 ms max 480 ms"
+     */
+    public static void logStats() {
+        AppLog.i(T.READER, "reader work scheduler > " + PARSE_STATS);
+        AppLog.i(T.READER, "reader work scheduler > " + WRITE_STATS);
+    }
+
+    /**
+     * Queue depth and latency of the tasks run on a lane. Wait time is from when a task is queued until it
+     * starts, and run time is how long it takes once it's started.
+     */
+    public static class LaneStats {
+        private final Lane mLane;
+        private int mQueueDepth;
+        private int mMaxQueueDepth;
+        private long mNumStarted;
+        private long mNumRun;
+        private long mTotalWaitMillis;
+        private long mMaxWaitMillis;
+        private long mTotalRunMillis;
+        private long mMaxRunMillis;
+
+        LaneStats(@NonNull Lane lane) {
+            mLane = lane;
+        }
+
+        synchronized void onQueued() {
+            mQueueDepth++;
+            mMaxQueueDepth = Math.max(mMaxQueueDepth, mQueueDepth);
+        }
+
+        synchronized long onStarted(long queuedAtNanos, long startedAtNanos) {
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(startedAtNanos - queuedAtNanos);
+            mQueueDepth--;
+            mNumStarted++;
+            mTotalWaitMillis += waitMillis;
+            mMaxWaitMillis = Math.max(mMaxWaitMillis, waitMillis);
+            return waitMillis;
+        }
+
+        synchronized void onFinished(long startedAtNanos, long finishedAtNanos) {
+            long runMillis = TimeUnit.NANOSECONDS.toMillis(finishedAtNanos - startedAtNanos);
+            mNumRun++;
+            mTotalRunMillis += runMillis;
+            mMaxRunMillis = Math.max(mMaxRunMillis, runMillis);
+        }
+
+        /*
+         * returns the number of tasks which are queued but haven't started
+         */
+        public synchronized int getQueueDepth() {
+            return mQueueDepth;
+        }
+
+        public synchronized int getMaxQueueDepth() {
+            return mMaxQueueDepth;
+        }
+
+        public synchronized long getNumRun() {
+            return mNumRun;
+        }
+
+        public synchronized long getMaxWaitMillis() {
+            return mMaxWaitMillis;
+        }
+
+        public synchronized long getMaxRunMillis() {
+            return mMaxRunMillis;
+        }
+
+        @Override
+        public synchronized String toString() {
+            long avgWaitMillis = mNumStarted > 0 ? mTotalWaitMillis / mNumStarted : 0;
+            long avgRunMillis = mNumRun > 0 ? mTotalRunMillis / mNumRun : 0;
+            return String.format(Locale.ENGLISH,
+                    "%s: %d queued (max %d), %d run, wait avg %d ms max %d ms, run avg %d ms max %d ms",
+                    mLane.name().toLowerCase(Locale.ROOT), mQueueDepth, mMaxQueueDepth, mNumRun,
+                    avgWaitMillis, mMaxWaitMillis, avgRunMillis, mMaxRunMillis);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.android.volley.VolleyError;
 import com.wordpress.rest.RestRequest;
 
 import org.greenrobot.eventbus.EventBus;
-import org.json.JSONObject;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderTagTable;
@@ -14,10 +13,12 @@ import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.models.ReaderTag;
 import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.networking.RawRestRequest;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
 import org.wordpress.android.ui.reader.services.post.ReaderPostServiceStarter.UpdateAction;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
@@ -25,6 +26,11 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.UrlUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
 public class ReaderPostLogic {
     private ServiceCompletionListener mCompletionListener;
     private Object mListenerCompanion;
@@ -50,14 +56,26 @@ public class ReaderPostLogic {
 
 
     private void updatePostsWithTag(final ReaderTag tag, final UpdateAction action) {
+        ReaderActions.UpdateResultListener listener = new ReaderActions.UpdateResultListener() {
+            @Override
+            public void onUpdateResult(ReaderActions.UpdateResult result) {
+                EventBus.getDefault().post(new ReaderEvents.UpdatePostsEnded(tag, result, action));
+                mCompletionListener.onCompleted(mListenerCompanion);
+            }
+        };
+
+        // skip the request if the same update of this tag is already in flight - the listener gets its result
+        final String updateKey = ReaderWorkScheduler.getUpdateKey(tag.getKeyString(), action.name());
+        if (!ReaderWorkScheduler.joinUpdate(updateKey, listener)) {
+            return;
+        }
         requestPostsWithTag(
                 tag,
                 action,
                 new ReaderActions.UpdateResultListener() {
                     @Override
                     public void onUpdateResult(ReaderActions.UpdateResult result) {
-                        EventBus.getDefault().post(new ReaderEvents.UpdatePostsEnded(tag, result, action));
-                        mCompletionListener.onCompleted(mListenerCompanion);
+                        ReaderWorkScheduler.completeUpdate(updateKey, result);
                     }
                 });
     }
@@ -123,14 +141,14 @@ public class ReaderPostLogic {
 
         sb.append("&meta=site,likes");
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        RawRestRequest.RawListener listener = new RawRestRequest.RawListener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
+            public void onResponse(byte[] body) {
                 // remember when this tag was updated if newer posts were requested
                 if (updateAction == UpdateAction.REQUEST_NEWER || updateAction == UpdateAction.REQUEST_REFRESH) {
                     ReaderTagTable.setTagLastUpdated(tag);
                 }
-                handleUpdatePostsResponse(tag, jsonObject, updateAction, resultListener);
+                handleUpdatePostsResponse(tag, body, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -141,7 +159,7 @@ public class ReaderPostLogic {
             }
         };
 
-        WordPress.getRestClientUtilsV1_2().get(sb.toString(), null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getRaw(sb.toString(), null, null, listener, errorListener);
     }
 
     private static void requestPostsForBlog(final long blogId,
@@ -157,10 +175,10 @@ public class ReaderPostLogic {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        RawRestRequest.RawListener listener = new RawRestRequest.RawListener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(byte[] body) {
+                handleUpdatePostsResponse(null, body, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -171,7 +189,7 @@ public class ReaderPostLogic {
             }
         };
         AppLog.d(AppLog.T.READER, "updating posts in blog " + blogId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getRaw(path, null, null, listener, errorListener);
     }
 
     private static void requestPostsForFeed(final long feedId,
@@ -185,10 +203,10 @@ public class ReaderPostLogic {
             }
         }
 
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
+        RawRestRequest.RawListener listener = new RawRestRequest.RawListener() {
             @Override
-            public void onResponse(JSONObject jsonObject) {
-                handleUpdatePostsResponse(null, jsonObject, updateAction, resultListener);
+            public void onResponse(byte[] body) {
+                handleUpdatePostsResponse(null, body, updateAction, resultListener);
             }
         };
         RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
@@ -200,25 +218,47 @@ public class ReaderPostLogic {
         };
 
         AppLog.d(AppLog.T.READER, "updating posts in feed " + feedId);
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        WordPress.getRestClientUtilsV1_2().getRaw(path, null, null, listener, errorListener);
     }
 
     /*
-     * called after requesting posts with a specific tag or in a specific blog/feed
+     * called after requesting posts with a specific tag or in a specific blog/feed - the response body is
+     * decoded with the streaming parser, so no JSONObject tree is built for the page of posts
      */
     private static void handleUpdatePostsResponse(final ReaderTag tag,
-                                                  final JSONObject jsonObject,
+                                                  final byte[] body,
                                                   final UpdateAction updateAction,
                                                   final ReaderActions.UpdateResultListener resultListener) {
-        if (jsonObject == null) {
+        if (body == null) {
             resultListener.onUpdateResult(ReaderActions.UpdateResult.FAILED);
             return;
         }
 
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
+            @Override
+            public void run() {
+                ReaderPostList serverPosts;
+                try {
+                    serverPosts = ReaderPostList.fromJson(
+                            new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+                } catch (IOException | IllegalStateException e) {
+                    // a body which isn't the expected JSON fails the same way as when the request fails
+                    AppLog.e(AppLog.T.READER, e);
+                    resultListener.onUpdateResult(ReaderActions.UpdateResult.FAILED);
+                    return;
+                }
+                savePosts(tag, serverPosts, updateAction, resultListener);
+            }
+        });
+    }
+
+    private static void savePosts(final ReaderTag tag,
+                                  final ReaderPostList serverPosts,
+                                  final UpdateAction updateAction,
+                                  final ReaderActions.UpdateResultListener resultListener) {
+        ReaderWorkScheduler.write(new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
                 ReaderActions.UpdateResult updateResult = ReaderPostTable.comparePosts(serverPosts);
                 if (updateResult.isNewOrChanged()) {
                     // gap detection - only applies to posts with a specific tag
@@ -261,12 +301,16 @@ public class ReaderPostLogic {
                                 break;
                         }
                     }
-                    ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
+                    ReaderPostTable.UpsertResult upsertResult = ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
 
                     // gap marker must be set after saving server posts
                     if (postWithGap != null) {
                         ReaderPostTable.setGapMarkerForTag(postWithGap.blogId, postWithGap.postId, tag);
                         AppLog.d(AppLog.T.READER, "added gap marker to tag " + tag.getTagNameForLog());
+                    } else if (updateResult == ReaderActions.UpdateResult.CHANGED && !upsertResult.hasChanges()) {
+                        // comparePosts() matches posts in any stream, so a change may belong to another
+                        // stream - nothing was written to this one, so there's nothing to refresh
+                        updateResult = ReaderActions.UpdateResult.UNCHANGED;
                     }
                 } else if (updateResult == ReaderActions.UpdateResult.UNCHANGED
                            && updateAction == UpdateAction.REQUEST_OLDER_THAN_GAP) {
@@ -277,7 +321,7 @@ public class ReaderPostLogic {
                 AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
                 resultListener.onUpdateResult(updateResult);
             }
-        }.start();
+        });
     }
 
     /*
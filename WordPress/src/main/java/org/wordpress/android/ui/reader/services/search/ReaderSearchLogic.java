@@ -10,6 +10,7 @@ import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.UrlUtils;
@@ -57,14 +58,19 @@ public class ReaderSearchLogic {
     }
 
     private void handleSearchResponse(final String query, final int offset, final JSONObject jsonObject) {
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
-                ReaderPostTable.addOrUpdatePosts(getTagForSearchQuery(query), serverPosts);
-                EventBus.getDefault().post(new ReaderEvents.SearchPostsEnded(query, offset, true));
-                mCompletionListener.onCompleted(mListenerCompanion);
+                final ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
+                ReaderWorkScheduler.write(new Runnable() {
+                    @Override
+                    public void run() {
+                        ReaderPostTable.addOrUpdatePosts(getTagForSearchQuery(query), serverPosts);
+                        EventBus.getDefault().post(new ReaderEvents.SearchPostsEnded(query, offset, true));
+                        mCompletionListener.onCompleted(mListenerCompanion);
+                    }
+                });
             }
-        }.start();
+        });
     }
 }
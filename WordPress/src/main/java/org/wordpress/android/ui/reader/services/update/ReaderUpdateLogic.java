@@ -11,9 +11,11 @@ import org.json.JSONObject;
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.datasets.ReaderBlogTable;
+import org.wordpress.android.datasets.ReaderHasher;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderTagTable;
 import org.wordpress.android.fluxc.store.AccountStore;
+import org.wordpress.android.models.ReaderBlog;
 import org.wordpress.android.models.ReaderBlogList;
 import org.wordpress.android.models.ReaderTag;
 import org.wordpress.android.models.ReaderTagList;
@@ -22,6 +24,7 @@ import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.ReaderEvents.InterestTagsFetchEnded;
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler;
 import org.wordpress.android.ui.reader.services.ServiceCompletionListener;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.JSONUtils;
@@ -119,36 +122,30 @@ public class ReaderUpdateLogic {
                             .get("read/menu", params, null, listener, errorListener);
     }
 
-    private boolean displayNameUpdateWasNeeded(ReaderTagList serverTopics) {
-        boolean updateDone = false;
-
+    /*
+     * the server's display names for these tags aren't localized, so they're replaced with our own
+     */
+    private void localizeDisplayNames(ReaderTagList serverTopics) {
         for (ReaderTag tag : serverTopics) {
-            String tagNameBefore = tag.getTagDisplayName();
             if (tag.isFollowedSites()) {
                 tag.setTagDisplayName(mContext.getString(R.string.reader_following_display_name));
-                if (!tagNameBefore.equals(tag.getTagDisplayName())) updateDone = true;
             } else if (tag.isDiscover()) {
                 tag.setTagDisplayName(mContext.getString(R.string.reader_discover_display_name));
-                if (!tagNameBefore.equals(tag.getTagDisplayName())) updateDone = true;
             } else if (tag.isPostsILike()) {
                 tag.setTagDisplayName(mContext.getString(R.string.reader_my_likes_display_name));
-                if (!tagNameBefore.equals(tag.getTagDisplayName())) updateDone = true;
             }
         }
-
-        return updateDone;
     }
 
     private void handleUpdateTagsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
                 // get server topics, both default & followed - but use "recommended" for logged-out
                 // reader since user won't have any followed tags
                 ReaderTagList serverTopics = new ReaderTagList();
                 serverTopics.addAll(parseTags(jsonObject, "default", ReaderTagType.DEFAULT));
-
-                boolean displayNameUpdateWasNeeded = displayNameUpdateWasNeeded(serverTopics);
+                localizeDisplayNames(serverTopics);
 
                 serverTopics.addAll(parseTags(jsonObject, "subscribed", ReaderTagType.FOLLOWED));
 
@@ -167,38 +164,59 @@ public class ReaderUpdateLogic {
                 // manually insert DISCOVER_POST_CARDS tag which is used to store posts for the discover tab
                 serverTopics.add(ReaderTag.createDiscoverPostCardsTag());
 
-                // parse topics from the response, detect whether they're different from local
-                ReaderTagList localTopics = new ReaderTagList();
-                localTopics.addAll(ReaderTagTable.getDefaultTags());
-                localTopics.addAll(ReaderTagTable.getFollowedTags());
-                localTopics.addAll(ReaderTagTable.getBookmarkTags());
-                localTopics.addAll(ReaderTagTable.getCustomListTags());
-
-                if (
-                        !localTopics.isSameList(serverTopics)
-                        || displayNameUpdateWasNeeded
-                ) {
-                    AppLog.d(AppLog.T.READER, "reader service > followed topics changed "
-                                              + "updatedDisplayNames [" + displayNameUpdateWasNeeded + "]");
-
-                    if (!mAccountStore.hasAccessToken()) {
-                        // Do not delete locally saved tags for logged out user
-                        ReaderTagTable.addOrUpdateTags(serverTopics);
-                    } else {
-                        // if any local topics have been removed from the server, make sure to delete
-                        // them locally
-                        ReaderTagTable.deleteTags(localTopics.getDeletions(serverTopics));
-                        // now replace local topics with the server topics
-                        ReaderTagTable.replaceTags(serverTopics);
+                saveTags(serverTopics);
+            }
+        });
+    }
+
+    private void saveTags(final ReaderTagList serverTopics) {
+        ReaderWorkScheduler.write(new Runnable() {
+            @Override
+            public void run() {
+                // skip the diff if these are the same topics that were saved last time, provided nothing
+                // has been added or removed locally since then
+                long serverHash = getTagsHash(serverTopics);
+                if (serverHash == AppPrefs.getReaderTagsHash()
+                    && serverTopics.size() == ReaderTagTable.getTagCount()) {
+                    AppLog.d(AppLog.T.READER, "reader service > topics unchanged");
+                } else {
+                    ReaderTagList localTopics = ReaderTagTable.getAllTags();
+                    ReaderTagList changedTopics = localTopics.getAdditionsAndChanges(serverTopics);
+                    // Do not delete locally saved tags for logged out user, otherwise delete any local
+                    // topics which have been removed from the server
+                    ReaderTagList deletedTopics = mAccountStore.hasAccessToken()
+                            ? localTopics.getDeletions(serverTopics) : new ReaderTagList();
+
+                    if (!changedTopics.isEmpty() || !deletedTopics.isEmpty()) {
+                        AppLog.d(AppLog.T.READER, "reader service > followed topics changed, "
+                                                  + changedTopics.size() + " added or changed, "
+                                                  + deletedTopics.size() + " deleted");
+                        ReaderTagTable.updateTags(changedTopics, deletedTopics);
+                        // broadcast the fact that there are changes
+                        EventBus.getDefault().post(new ReaderEvents.FollowedTagsChanged(true));
                     }
-                    // broadcast the fact that there are changes
-                    EventBus.getDefault().post(new ReaderEvents.FollowedTagsChanged(true));
+                    AppPrefs.setReaderTagsHash(serverHash);
                 }
                 AppPrefs.setReaderTagsUpdatedTimestamp(new Date().getTime());
 
                 taskCompleted(UpdateTask.TAGS);
             }
-        }.start();
+        });
+    }
+
+    /*
+     * hash of the parsed topics, including the display names set by localizeDisplayNames()
+     */
+    static long getTagsHash(ReaderTagList topics) {
+        ReaderHasher hasher = new ReaderHasher();
+        for (ReaderTag tag : topics) {
+            hasher.add(tag.tagType.toInt())
+                  .add(tag.getTagSlug())
+                  .add(tag.getTagDisplayName())
+                  .add(tag.getTagTitle())
+                  .add(tag.getEndpoint());
+        }
+        return hasher.get();
     }
 
     /*
@@ -281,7 +299,7 @@ public class ReaderUpdateLogic {
     }
 
     private void handleInterestTagsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
                 ReaderTagList interestTags = new ReaderTagList();
@@ -289,7 +307,7 @@ public class ReaderUpdateLogic {
                 EventBus.getDefault().post(new InterestTagsFetchEnded(interestTags, true));
                 taskCompleted(UpdateTask.INTEREST_TAGS);
             }
-        }.start();
+        });
     }
 
     /***
@@ -316,16 +334,37 @@ public class ReaderUpdateLogic {
     }
 
     private void handleFollowedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        ReaderWorkScheduler.parse(new Runnable() {
             @Override
             public void run() {
-                ReaderBlogList serverBlogs = ReaderBlogList.fromJson(jsonObject);
-                ReaderBlogList localBlogs = ReaderBlogTable.getFollowedBlogs();
+                saveFollowedBlogs(ReaderBlogList.fromJson(jsonObject));
+            }
+        });
+    }
+
+    private void saveFollowedBlogs(final ReaderBlogList serverBlogs) {
+        ReaderWorkScheduler.write(new Runnable() {
+            @Override
+            public void run() {
+                // skip the diff if these are the same blogs that were saved last time, provided none
+                // have been followed or unfollowed locally since then
+                long serverHash = getBlogsHash(serverBlogs);
+                if (serverHash == AppPrefs.getReaderFollowedBlogsHash()
+                    && serverBlogs.size() == ReaderBlogTable.getNumFollowedBlogs()) {
+                    AppLog.d(AppLog.T.READER, "reader blogs service > followed blogs unchanged");
+                    taskCompleted(UpdateTask.FOLLOWED_BLOGS);
+                    return;
+                }
 
-                if (!localBlogs.isSameList(serverBlogs)) {
-                    // always update the list of followed blogs if there are *any* changes between
-                    // server and local (including subscription count, description, etc.)
-                    ReaderBlogTable.setFollowedBlogs(serverBlogs);
+                ReaderBlogList localBlogs = ReaderBlogTable.getFollowedBlogs();
+                ReaderBlogList changedBlogs = localBlogs.getAdditionsAndChanges(serverBlogs);
+                ReaderBlogList unfollowedBlogs = localBlogs.getDeletions(serverBlogs);
+
+                if (!changedBlogs.isEmpty() || !unfollowedBlogs.isEmpty()) {
+                    // always update followed blogs if there are *any* changes between server and
+                    // local (including subscription count, description, etc.) - only the blogs
+                    // which changed are written
+                    ReaderBlogTable.updateFollowedBlogs(changedBlogs, unfollowedBlogs);
                     // ...but only update the follow status and alert that followed blogs have
                     // changed if the server list doesn't have the same blogs as the local list
                     // (ie: a blog has been followed/unfollowed since local was last updated)
@@ -335,9 +374,31 @@ public class ReaderUpdateLogic {
                         EventBus.getDefault().post(new ReaderEvents.FollowedBlogsChanged());
                     }
                 }
+                AppPrefs.setReaderFollowedBlogsHash(serverHash);
 
                 taskCompleted(UpdateTask.FOLLOWED_BLOGS);
             }
-        }.start();
+        });
+    }
+
+    /*
+     * hash of the fields ReaderBlog.isSameAs() compares
+     */
+    static long getBlogsHash(ReaderBlogList blogs) {
+        ReaderHasher hasher = new ReaderHasher();
+        for (ReaderBlog blog : blogs) {
+            hasher.add(blog.blogId)
+                  .add(blog.feedId)
+                  .add(blog.isFollowing)
+                  .add(blog.isPrivate)
+                  .add(blog.numSubscribers)
+                  .add(blog.numUnseenPosts)
+                  .add(blog.getName())
+                  .add(blog.getDescription())
+                  .add(blog.getUrl())
+                  .add(blog.getFeedUrl())
+                  .add(blog.getImageUrl());
+        }
+        return hasher.get();
     }
 }
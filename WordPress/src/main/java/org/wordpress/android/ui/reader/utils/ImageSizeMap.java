@@ -4,6 +4,7 @@ import android.net.Uri;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -11,18 +12,31 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.UrlUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 
 /**
  * hash map of sizes of attachments in a reader post - created from the json "attachments" section
- * of the post endpoints
+ * of the post endpoints, or from the compact encoding returned by toBytes() which is stored with
+ * each post so the json doesn't have to be parsed again
  */
 public class ImageSizeMap extends HashMap<String, ImageSizeMap.ImageSize> {
     private static final String EMPTY_JSON = "{}";
 
+    private static final int ENCODING_VERSION = 1;
+    // writeUTF() is limited to 64K bytes, so URLs longer than this (which aren't seen in practice) are skipped
+    private static final int MAX_ENCODED_URL_LENGTH = 16 * 1024;
+
+    private ImageSizeMap() {
+    }
+
     public ImageSizeMap(@NonNull String postContent, String jsonString) {
-        if (TextUtils.isEmpty(jsonString) || jsonString.equals(EMPTY_JSON)) {
+        if (!hasAttachments(jsonString)) {
             return;
         }
 
@@ -65,6 +79,75 @@ public class ImageSizeMap extends HashMap<String, ImageSizeMap.ImageSize> {
         }
     }
 
+    /*
+     * returns false if the passed attachments json is empty, in which case there are no sizes to find
+     */
+    public static boolean hasAttachments(@Nullable String jsonString) {
+        return !TextUtils.isEmpty(jsonString) && !jsonString.equals(EMPTY_JSON);
+    }
+
+    /*
+     * encodes the sizes as a version byte and count followed by the URL, width and height of each image -
+     * a fraction of the size of the attachments json, which has a dozen other fields per attachment
+     */
+    @NonNull
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            int count = 0;
+            for (String url : keySet()) {
+                if (url.length() <= MAX_ENCODED_URL_LENGTH) {
+                    count++;
+                }
+            }
+            out.writeByte(ENCODING_VERSION);
+            out.writeInt(count);
+            for (Entry<String, ImageSize> entry : entrySet()) {
+                if (entry.getKey().length() <= MAX_ENCODED_URL_LENGTH) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().width);
+                    out.writeInt(entry.getValue().height);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // can't happen when writing to a byte array
+            AppLog.e(AppLog.T.READER, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /*
+     * decodes sizes encoded by toBytes() - returns null if they're missing or were encoded by a
+     * different version, in which case they should be created from the json again
+     */
+    @Nullable
+    public static ImageSizeMap fromBytes(@Nullable byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            if (in.readByte() != ENCODING_VERSION) {
+                return null;
+            }
+            ImageSizeMap sizes = new ImageSizeMap();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String url = in.readUTF();
+                int width = in.readInt();
+                int height = in.readInt();
+                sizes.put(url, new ImageSize(width, height));
+            }
+            return sizes;
+        } catch (IOException e) {
+            AppLog.e(AppLog.T.READER, e);
+            return null;
+        }
+    }
+
     public ImageSize getImageSize(final String imageUrl) {
         if (imageUrl == null) {
             return null;
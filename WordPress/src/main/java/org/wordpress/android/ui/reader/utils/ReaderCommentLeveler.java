@@ -1,11 +1,16 @@
 package org.wordpress.android.ui.reader.utils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.wordpress.android.models.ReaderComment;
 import org.wordpress.android.models.ReaderCommentList;
 import org.wordpress.android.util.AppLog;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
 /*
  * utility class which accepts a list of comments and then creates a "level list" from it
  * which places child comments below their parents with indentation levels applied
@@ -21,76 +26,54 @@ public class ReaderCommentLeveler {
     public ReaderCommentList createLevelList() {
         ReaderCommentList result = new ReaderCommentList();
 
-        // reset all levels, and add root comments to result
+        // reset all levels, and index the replies to each comment by the ID of the comment
+        // they're replying to - root comments are indexed under a parent ID of zero
+        Map<Long, ReaderCommentList> childrenByParentId = new HashMap<>();
         for (ReaderComment comment : mComments) {
             comment.level = 0;
-            if (comment.parentId == 0) {
-                result.add(comment);
+            ReaderCommentList children = childrenByParentId.get(comment.parentId);
+            if (children == null) {
+                children = new ReaderCommentList();
+                childrenByParentId.put(comment.parentId, children);
             }
+            children.add(comment);
         }
 
-        // add children at each level
-        int level = 0;
-        while (walkCommentsAtLevel(result, level)) {
-            level++;
+        // walk the comments depth-first starting with the root comments, so each comment is
+        // followed by its replies (in the order they appear in the passed list) before its
+        // next sibling - a stack is used instead of recursion since reply chains can be deep
+        ArrayDeque<ReaderComment> stack = new ArrayDeque<>();
+        pushChildren(stack, childrenByParentId.get(0L), 0);
+        while (!stack.isEmpty()) {
+            ReaderComment comment = stack.pop();
+            result.add(comment);
+            if (comment.commentId != 0) {
+                pushChildren(stack, childrenByParentId.get(comment.commentId), comment.level + 1);
+            }
         }
 
-        // check for orphans (child comments whose parents weren't found above) and give them
-        // a non-zero level so they're indented by ReaderCommentAdapter
-        for (ReaderComment comment : result) {
-            if (comment.level == 0 && comment.parentId != 0) {
-                comment.level = 1;
-                result.add(comment);
-                AppLog.d(AppLog.T.READER, "Orphan comment encountered");
-            }
+        // orphans (child comments whose parents aren't in the list) aren't reachable from a
+        // root comment, so they aren't included in the result
+        if (result.size() < mComments.size()) {
+            AppLog.d(AppLog.T.READER, "Orphan comments encountered: " + (mComments.size() - result.size()));
         }
 
         return result;
     }
 
     /*
-     * walk comments in the passed list that have the passed level and add their children
-     * beneath them
+     * pushes the passed comments in reverse so they're popped in their original order
      */
-    private boolean walkCommentsAtLevel(@NonNull ReaderCommentList comments, int level) {
-        boolean hasChanges = false;
-        for (int index = 0; index < comments.size(); index++) {
-            ReaderComment parent = comments.get(index);
-            if (parent.level == level && hasChildren(parent.commentId)) {
-                // get children for this comment, set their level, then add them below the parent
-                ReaderCommentList children = getChildren(parent.commentId);
-                setLevel(children, level + 1);
-                comments.addAll(index + 1, children);
-                hasChanges = true;
-                // skip past the children we just added
-                index += children.size();
-            }
-        }
-        return hasChanges;
-    }
-
-    private boolean hasChildren(long commentId) {
-        for (ReaderComment comment : mComments) {
-            if (comment.parentId == commentId) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private ReaderCommentList getChildren(long commentId) {
-        ReaderCommentList children = new ReaderCommentList();
-        for (ReaderComment comment : mComments) {
-            if (comment.parentId == commentId) {
-                children.add(comment);
-            }
+    private void pushChildren(@NonNull ArrayDeque<ReaderComment> stack,
+                              @Nullable ReaderCommentList children,
+                              int level) {
+        if (children == null) {
+            return;
         }
-        return children;
-    }
-
-    private void setLevel(@NonNull ReaderCommentList comments, int level) {
-        for (ReaderComment comment : comments) {
-            comment.level = level;
+        for (int i = children.size() - 1; i >= 0; i--) {
+            ReaderComment child = children.get(i);
+            child.level = level;
+            stack.push(child);
         }
     }
 }
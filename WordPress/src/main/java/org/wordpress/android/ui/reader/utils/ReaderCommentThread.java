@@ -0,0 +1,128 @@
+package org.wordpress.android.ui.reader.utils;
+
+import androidx.annotation.NonNull;
+
+import org.wordpress.android.models.ReaderComment;
+import org.wordpress.android.models.ReaderCommentList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * threaded comments on a post which pages of comments can be merged into as they're loaded - each comment
+ * is placed under its parent when it's merged, so unlike ReaderCommentLeveler the comments loaded so far
+ * don't need to be threaded again when another page is added. The level list is the same one
+ * ReaderCommentLeveler creates for comments ordered by timestamp and comment ID, including leaving out
+ * orphans - replies whose parent hasn't been merged wait for it and are added once it is.
+ */
+
+public class ReaderCommentThread {
+    private static class Node {
+        private ReaderComment mComment;
+        private final List<Node> mChildren = new ArrayList<>();
+
+        Node(@NonNull ReaderComment comment) {
+            mComment = comment;
+        }
+    }
+
+    private final List<Node> mRoots = new ArrayList<>();
+    private final Map<Long, Node> mNodes = new HashMap<>();
+    // replies whose parent hasn't been merged yet, keyed by the ID of the parent
+    private final Map<Long, List<Node>> mWaitingForParent = new HashMap<>();
+
+    /*
+     * adds the passed comments to the thread, replacing any which were merged before - returns true if
+     * any comments were added or replaced
+     */
+    public boolean merge(@NonNull ReaderCommentList comments) {
+        for (ReaderComment comment : comments) {
+            Node node = mNodes.get(comment.commentId);
+            if (node != null) {
+                node.mComment = comment;
+                continue;
+            }
+
+            // replies waiting for this comment are adopted before it's placed, and it's placed before it's
+            // indexed, so a comment which claims to reply to itself never becomes its own child
+            node = new Node(comment);
+            List<Node> children = mWaitingForParent.remove(comment.commentId);
+            if (children != null) {
+                for (Node child : children) {
+                    insertSorted(node.mChildren, child);
+                }
+            }
+
+            if (comment.parentId == 0) {
+                insertSorted(mRoots, node);
+            } else {
+                Node parent = mNodes.get(comment.parentId);
+                if (parent != null) {
+                    insertSorted(parent.mChildren, node);
+                } else {
+                    List<Node> waiting = mWaitingForParent.get(comment.parentId);
+                    if (waiting == null) {
+                        waiting = new ArrayList<>();
+                        mWaitingForParent.put(comment.parentId, waiting);
+                    }
+                    waiting.add(node);
+                }
+            }
+            mNodes.put(comment.commentId, node);
+        }
+
+        return !comments.isEmpty();
+    }
+
+    public int size() {
+        return mNodes.size();
+    }
+
+    /*
+     * returns the merged comments with replies below their parents and indentation levels applied - this
+     * walks the thread once without searching or sorting, and returns a new list each time
+     */
+    @NonNull
+    public ReaderCommentList getLevelList() {
+        ReaderCommentList result = new ReaderCommentList();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        pushChildren(stack, mRoots, 0);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            result.add(node.mComment);
+            pushChildren(stack, node.mChildren, node.mComment.level + 1);
+        }
+
+        return result;
+    }
+
+    private void pushChildren(@NonNull ArrayDeque<Node> stack, @NonNull List<Node> children, int level) {
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Node child = children.get(i);
+            child.mComment.level = level;
+            stack.push(child);
+        }
+    }
+
+    /*
+     * siblings are ordered by timestamp then comment ID - they're usually merged in that order, so
+     * the search starts from the end
+     */
+    private static void insertSorted(@NonNull List<Node> siblings, @NonNull Node node) {
+        int index = siblings.size();
+        while (index > 0 && compare(siblings.get(index - 1).mComment, node.mComment) > 0) {
+            index--;
+        }
+        siblings.add(index, node);
+    }
+
+    private static int compare(@NonNull ReaderComment comment1, @NonNull ReaderComment comment2) {
+        if (comment1.timestamp != comment2.timestamp) {
+            return comment1.timestamp < comment2.timestamp ? -1 : 1;
+        }
+        return Long.compare(comment1.commentId, comment2.commentId);
+    }
+}
@@ -0,0 +1,188 @@
+package org.wordpress.android.ui.reader.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites post content for ReaderPostRenderer in a single pass. The content is scanned once, and the result
+ * is written to one output buffer:
+ * - image and iframe tags are replaced with the tags returned by the TagRewriter;
+ * - inline background colors are removed;
+ * - a custom class is added to tiled gallery elements.
+ * The same pass also finds tiled galleries, and embeds which need a script.
+ * <p>
+ * This replaces separate scans for images, iframes, embeds and galleries. Each of those scans replaced tags
+ * in a StringBuilder, which shifted the rest of the content on every replacement, and was followed by a chain
+ * of String.replaceAll() calls. The patterns are the same as the ones those scans used.
+ */
+public class ReaderHtmlRewriter {
+    public interface TagRewriter {
+        /*
+         * returns the tag to use in place of the passed image tag, or null to keep it
+         */
+        @Nullable String rewriteImageTag(@NonNull String imageTag, @NonNull String imageUrl);
+
+        /*
+         * returns the tag to use in place of the passed iframe tag, or null to keep it
+         */
+        @Nullable String rewriteIframeTag(@NonNull String iframeTag, @NonNull String src);
+    }
+
+    static final String INSTAGRAM_SCRIPT_URL = "https://platform.instagram.com/en_US/embeds.js";
+    static final String FACEBOOK_SCRIPT_URL = "https://connect.facebook.net/en_US/sdk.js#xfbml=1&amp;version=v2.8";
+
+    private static final int GROUP_IMAGE_TAG = 1;
+    private static final int GROUP_IMAGE_URL = 2;
+    private static final int GROUP_IFRAME_TAG = 3;
+    private static final int GROUP_IFRAME_SRC = 4;
+    private static final int GROUP_BACKGROUND_COLOR = 5;
+    private static final int GROUP_GALLERY_CLASS = 6;
+    private static final int GROUP_GALLERY_CLASS_END = 7;
+    private static final int GROUP_INSTAGRAM = 8;
+    private static final int GROUP_FACEBOOK = 9;
+    private static final int GROUP_TILED_GALLERY = 10;
+
+    // the groups of DETECT_REGEX are numbered from GROUP_INSTAGRAM in REWRITE_PATTERN but from 1 in DETECT_PATTERN
+    private static final int DETECT_GROUP_OFFSET = GROUP_INSTAGRAM - 1;
+
+    // things which are only looked for, and are left in the content as they are
+    private static final String DETECT_REGEX =
+            // embeds which need a script (ReaderEmbedScanner)
+            "(?i:(<blockquote[^<>]class=\"instagram-))"
+            + "|(?i:(<fb:post))"
+            // tiled galleries (ReaderPostRenderer.hasTiledGallery())
+            + "|(tiled-gallery)(?=[\\s\"'])";
+
+    // inline background colors, along with the whitespace around them
+    private static final String BACKGROUND_COLOR_REGEX = "\\s*background-color\\s*:\\s*.+?\\s*;\\s*";
+
+    private static final Pattern REWRITE_PATTERN = Pattern.compile(
+            // images (ReaderImageScanner)
+            "(?i:(<img[^>]* src=\"([^\"]*)\"[^>]*>))"
+            // iframes (ReaderIframeScanner)
+            + "|(?i:(<iframe[^>]* src='([^']*)'[^>]*>))"
+            + "|(" + BACKGROUND_COLOR_REGEX + ")"
+            // tiled gallery classes which get the custom class - these come before DETECT_REGEX so a
+            // tiled-gallery class gets the custom class rather than just being detected, but not when the
+            // whitespace after the class belongs to a background color which is removed
+            + "|(tiled-gallery|gallery-row|gallery-group|tiled-gallery-item)(?!" + BACKGROUND_COLOR_REGEX + ") "
+            + "([\\s\"'])"
+            + "|" + DETECT_REGEX);
+
+    // used to check text which the rewrite removes or replaces for what would otherwise have been detected
+    private static final Pattern DETECT_PATTERN = Pattern.compile(DETECT_REGEX);
+
+    private final String mGalleryClass;
+    private final boolean mRewriteImages;
+    private final TagRewriter mTagRewriter;
+
+    private boolean mHasTiledGallery;
+    private final Set<String> mScripts = new HashSet<>();
+
+    /*
+     * galleryClass is the class added to tiled gallery elements - images are left alone if rewriteImages is false
+     */
+    public ReaderHtmlRewriter(@NonNull String galleryClass, boolean rewriteImages, @NonNull TagRewriter tagRewriter) {
+        mGalleryClass = galleryClass;
+        mRewriteImages = rewriteImages;
+        mTagRewriter = tagRewriter;
+    }
+
+    @NonNull
+    public String rewrite(@NonNull String content) {
+        StringBuilder out = new StringBuilder(content.length() + content.length() / 8);
+        Matcher matcher = REWRITE_PATTERN.matcher(content);
+        Matcher detectMatcher = DETECT_PATTERN.matcher(content);
+        detectMatcher.useTransparentBounds(true);
+
+        // content before copyFrom has been written to the output, and searchFrom is where the next search starts
+        int copyFrom = 0;
+        int searchFrom = 0;
+        while (matcher.find(searchFrom)) {
+            int start = matcher.start();
+            int end = matcher.end();
+            out.append(content, copyFrom, start);
+            copyFrom = end;
+            searchFrom = end;
+
+            String newTag = null;
+            if (matcher.group(GROUP_IMAGE_TAG) != null) {
+                if (mRewriteImages) {
+                    newTag = mTagRewriter.rewriteImageTag(matcher.group(GROUP_IMAGE_TAG),
+                            matcher.group(GROUP_IMAGE_URL));
+                }
+            } else if (matcher.group(GROUP_IFRAME_TAG) != null) {
+                newTag = mTagRewriter.rewriteIframeTag(matcher.group(GROUP_IFRAME_TAG),
+                        matcher.group(GROUP_IFRAME_SRC));
+            } else if (matcher.group(GROUP_BACKGROUND_COLOR) != null) {
+                detectIn(detectMatcher, start, end, true);
+                continue;
+            } else if (matcher.group(GROUP_GALLERY_CLASS) != null) {
+                String galleryClass = matcher.group(GROUP_GALLERY_CLASS);
+                if (galleryClass.equals("tiled-gallery")) {
+                    mHasTiledGallery = true;
+                }
+                out.append(galleryClass).append(' ').append(mGalleryClass)
+                   .append(matcher.group(GROUP_GALLERY_CLASS_END));
+                continue;
+            } else {
+                onDetected(matcher, 0);
+                // left as it is, so it's copied along with the text which follows it
+                copyFrom = start;
+                continue;
+            }
+
+            if (newTag != null) {
+                out.append(newTag);
+                // a gallery would have been found in the tag before it was replaced
+                detectIn(detectMatcher, start, end, false);
+            } else {
+                // the tag is kept, so it's copied as it is but its attributes still have their background
+                // colors and gallery classes rewritten
+                copyFrom = start;
+                searchFrom = start + 1;
+            }
+        }
+        out.append(content, copyFrom, content.length());
+        return out.toString();
+    }
+
+    public boolean hasTiledGallery() {
+        return mHasTiledGallery;
+    }
+
+    /*
+     * URLs of the scripts needed by embeds in the content
+     */
+    @NonNull
+    public Set<String> getScripts() {
+        return mScripts;
+    }
+
+    /*
+     * looks for galleries, and optionally embeds, in text which was removed or replaced
+     */
+    private void detectIn(@NonNull Matcher detectMatcher, int start, int end, boolean includeEmbeds) {
+        detectMatcher.region(start, end);
+        while (detectMatcher.find()) {
+            if (includeEmbeds || detectMatcher.group(GROUP_TILED_GALLERY - DETECT_GROUP_OFFSET) != null) {
+                onDetected(detectMatcher, DETECT_GROUP_OFFSET);
+            }
+        }
+    }
+
+    private void onDetected(@NonNull Matcher matcher, int groupOffset) {
+        if (matcher.group(GROUP_INSTAGRAM - groupOffset) != null) {
+            mScripts.add(INSTAGRAM_SCRIPT_URL);
+        } else if (matcher.group(GROUP_FACEBOOK - groupOffset) != null) {
+            mScripts.add(FACEBOOK_SCRIPT_URL);
+        } else {
+            mHasTiledGallery = true;
+        }
+    }
+}
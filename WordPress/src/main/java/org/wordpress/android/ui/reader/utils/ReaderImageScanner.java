@@ -1,6 +1,7 @@
 package org.wordpress.android.ui.reader.utils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.wordpress.android.ui.reader.models.ReaderImageList;
 
@@ -88,6 +89,14 @@ public class ReaderImageScanner {
      * for an image that may be large enough to be suitable as a featured image
      */
     public String getLargestImage(int minImageWidth) {
+        return getLargestImage(minImageWidth, null);
+    }
+
+    /*
+     * same as above, but images which don't have their width set in the tag or URL are sized using the
+     * passed attachment sizes (see ReaderPostTable.getAttachmentSizes())
+     */
+    public String getLargestImage(int minImageWidth, @Nullable ImageSizeMap attachmentSizes) {
         if (!mContentContainsImages) {
             return null;
         }
@@ -103,6 +112,12 @@ public class ReaderImageScanner {
             // Primary source: check the width attribute.
             int width = Math.max(ReaderHtmlUtils.getWidthAttrValue(imageTag),
                                  ReaderHtmlUtils.getIntQueryParam(imageUrl, "w"));
+            if (width == 0 && attachmentSizes != null) {
+                ImageSizeMap.ImageSize attachmentSize = attachmentSizes.getImageSize(imageUrl);
+                if (attachmentSize != null) {
+                    width = attachmentSize.width;
+                }
+            }
             if (width > currentMaxWidth) {
                 currentImageUrl = imageUrl;
                 currentMaxWidth = width;
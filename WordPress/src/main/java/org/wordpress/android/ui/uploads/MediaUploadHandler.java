@@ -19,12 +19,10 @@ import org.wordpress.android.fluxc.store.SiteStore;
 import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
-import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.WPMediaUtils;
 import org.wordpress.android.util.analytics.AnalyticsUtils;
 import org.wordpress.android.util.config.Mp4ComposerVideoOptimizationFeatureConfig;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -34,8 +32,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
 
 public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptimizationListener {
-    private static List<MediaModel> sPendingUploads = new ArrayList<>();
-    private static List<MediaModel> sInProgressUploads = new ArrayList<>();
+    private static final MediaUploadScheduler sScheduler =
+            new MediaUploadScheduler(MediaUploadScheduler.DEFAULT_MAX_CONCURRENT_UPLOADS_PER_SITE);
     private static ConcurrentHashMap<Integer, Float> sOptimizationProgressByMediaId = new ConcurrentHashMap<>();
 
     @Inject Dispatcher mDispatcher;
@@ -57,12 +55,12 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
 
     @Override
     public boolean hasInProgressUploads() {
-        return !sInProgressUploads.isEmpty() || !sPendingUploads.isEmpty();
+        return !sScheduler.isEmpty();
     }
 
     @Override
     public void cancelInProgressUploads() {
-        for (MediaModel oneUpload : sInProgressUploads) {
+        for (MediaModel oneUpload : sScheduler.getInProgress()) {
             cancelUpload(oneUpload, false);
         }
     }
@@ -73,27 +71,26 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         uploadNextInQueue();
     }
 
-    static boolean hasInProgressMediaUploadsForPost(int postId) {
-        synchronized (sInProgressUploads) {
-            for (MediaModel queuedMedia : sInProgressUploads) {
-                if (queuedMedia.getLocalPostId() == postId) {
-                    return true;
-                }
-            }
-        }
+    /**
+     * Returns the current upload throughput of the given media, in bytes per second (0 if it's not uploading).
+     */
+    public static long getUploadThroughputForMedia(int mediaId) {
+        return sScheduler.getThroughputForMedia(mediaId);
+    }
 
-        return false;
+    /**
+     * Returns the combined throughput of all media uploads since the queue was last empty, in bytes per second.
+     */
+    public static long getAggregateUploadThroughput() {
+        return sScheduler.getAggregateThroughput();
+    }
+
+    static boolean hasInProgressMediaUploadsForPost(int postId) {
+        return sScheduler.hasInProgressForPost(postId);
     }
 
     static boolean hasPendingMediaUploadsForPost(int postId) {
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getLocalPostId() == postId) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return sScheduler.hasPendingForPost(postId);
     }
 
     static boolean hasPendingOrInProgressMediaUploadsForPost(int postId) {
@@ -120,42 +117,11 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return Collections.emptyList();
         }
 
-        List<MediaModel> mediaList = new ArrayList<>();
-        synchronized (sInProgressUploads) {
-            for (MediaModel queuedMedia : sInProgressUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    mediaList.add(queuedMedia);
-                }
-            }
-        }
-
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getLocalPostId() == postModel.getId()) {
-                    mediaList.add(queuedMedia);
-                }
-            }
-        }
-        return mediaList;
+        return sScheduler.getPendingOrInProgressForPost(postModel.getId());
     }
 
     static boolean isPendingOrInProgressMediaUpload(int mediaId) {
-        synchronized (sInProgressUploads) {
-            for (MediaModel uploadingMedia : sInProgressUploads) {
-                if (uploadingMedia.getId() == mediaId) {
-                    return true;
-                }
-            }
-        }
-
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                if (queuedMedia.getId() == mediaId) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return sScheduler.isPendingOrInProgress(mediaId);
     }
 
     /**
@@ -185,7 +151,10 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             completeUploadWithId(event.media.getId());
             uploadNextInQueue();
         } else {
-            AppLog.i(T.MEDIA, "MediaUploadHandler > " + event.media.getId() + " - progress: " + event.progress);
+            sScheduler.onProgress(event.media.getId(), event.progress);
+            AppLog.i(T.MEDIA, "MediaUploadHandler > " + event.media.getId() + " - progress: " + event.progress
+                              + " - throughput: " + sScheduler.getThroughputForMedia(event.media.getId())
+                              + " B/s, overall: " + sScheduler.getAggregateThroughput() + " B/s");
         }
     }
 
@@ -207,8 +176,11 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         uploadNextInQueue();
     }
 
+    /**
+     * Starts as many pending uploads as the per-site concurrency limit allows.
+     */
     private synchronized void uploadNextInQueue() {
-        MediaModel next = getNextMediaToUpload();
+        MediaModel next = sScheduler.startNext();
 
         if (next == null) {
             AppLog.w(T.MEDIA, "MediaUploadHandler > No more media items to upload. Skipping this request.");
@@ -216,56 +188,30 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return;
         }
 
-        prepareForUpload(next);
+        while (next != null) {
+            prepareForUpload(next);
+            next = sScheduler.startNext();
+        }
     }
 
     private synchronized void completeUploadWithId(int id) {
-        MediaModel media = getMediaFromInProgressQueueById(id);
+        MediaModel media = sScheduler.complete(id);
         if (media != null) {
-            sInProgressUploads.remove(media);
             trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_STARTED, media, null);
         }
     }
 
     private MediaModel getMediaFromInProgressQueueById(int id) {
-        for (MediaModel media : sInProgressUploads) {
-            if (media.getId() == id) {
-                return media;
-            }
-        }
-        return null;
-    }
-
-    private MediaModel getNextMediaToUpload() {
-        synchronized (sPendingUploads) {
-            if (!sPendingUploads.isEmpty()) {
-                return sPendingUploads.remove(0);
-            }
-        }
-        return null;
+        return sScheduler.getInProgress(id);
     }
 
     private void addUniqueMediaToQueue(MediaModel media) {
         if (media != null) {
-            if (mediaAlreadyQueuedOrUploading(media)) {
-                return;
-            }
-
-            synchronized (sPendingUploads) {
-                // no match found in queue
-                sPendingUploads.add(media);
-            }
-        }
-    }
-
-    private void addUniqueMediaToInProgressUploads(@NonNull MediaModel mediaToAdd) {
-        synchronized (sInProgressUploads) {
-            for (MediaModel media : sInProgressUploads) {
-                if (media.getId() == mediaToAdd.getId()) {
-                    return;
-                }
+            AppLog.i(T.MEDIA, "MediaUploadHandler > Attempting to add media with path " + media.getFilePath()
+                              + " and site id " + media.getLocalSiteId());
+            if (!sScheduler.enqueue(media)) {
+                AppLog.i(T.MEDIA, "MediaUploadHandler > Same media file already queued for this post, skipping");
             }
-            sInProgressUploads.add(mediaToAdd);
         }
     }
 
@@ -283,8 +229,6 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
 
     private void prepareForUpload(@NonNull MediaModel media) {
         if (media.isVideo() && WPMediaUtils.isVideoOptimizationEnabled()) {
-            addUniqueMediaToInProgressUploads(media);
-
             if (mMp4ComposerVideoOptimizationFeatureConfig.isEnabled()) {
                 new Mp4ComposerVideoOptimizer(media, this).start();
             } else {
@@ -301,13 +245,13 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         // somehow lost our reference to the site, complete this action
         if (site == null) {
             AppLog.w(T.MEDIA, "MediaUploadHandler > Unexpected state, site is null. Skipping this request.");
+            sScheduler.complete(media.getId());
             checkIfUploadsComplete();
             return;
         }
 
         AppLog.i(T.MEDIA, "MediaUploadHandler > Dispatching upload action for media with local id: "
                           + media.getId() + " and path: " + media.getFilePath());
-        addUniqueMediaToInProgressUploads(media);
 
         mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
         UploadMediaPayload payload = new UploadMediaPayload(site, media, AppPrefs.isStripImageLocation());
@@ -322,7 +266,7 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     }
 
     private boolean checkIfUploadsComplete() {
-        if (sPendingUploads.isEmpty() && sInProgressUploads.isEmpty()) {
+        if (sScheduler.isEmpty()) {
             AppLog.i(T.MEDIA, "MediaUploadHandler > Completed");
             return true;
         }
@@ -337,19 +281,8 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         if (event.post == null) {
             return;
         }
-        synchronized (sInProgressUploads) {
-            for (MediaModel inProgressUpload : sInProgressUploads) {
-                if (inProgressUpload.getLocalPostId() == event.post.getId()) {
-                    cancelUpload(inProgressUpload, true);
-                }
-            }
-        }
-        synchronized (sPendingUploads) {
-            for (MediaModel pendingUpload : sPendingUploads) {
-                if (pendingUpload.getLocalPostId() == event.post.getId()) {
-                    cancelUpload(pendingUpload, true);
-                }
-            }
+        for (MediaModel upload : sScheduler.getPendingOrInProgressForPost(event.post.getId())) {
+            cancelUpload(upload, true);
         }
     }
 
@@ -394,58 +327,6 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         AnalyticsTracker.track(stat, mediaProperties);
     }
 
-    private boolean mediaAlreadyQueuedOrUploading(MediaModel mediaModel) {
-        for (MediaModel queuedMedia : sInProgressUploads) {
-            AppLog.i(T.MEDIA, "MediaUploadHandler > Attempting to add media with path " + mediaModel.getFilePath()
-                              + " and site id " + mediaModel.getLocalSiteId() + ". Comparing with " + queuedMedia
-                                      .getFilePath()
-                              + ", " + queuedMedia.getLocalSiteId());
-            if (isSameMediaFileQueuedForThisPost(queuedMedia, mediaModel)) {
-                return true;
-            }
-        }
-
-        synchronized (sPendingUploads) {
-            for (MediaModel queuedMedia : sPendingUploads) {
-                AppLog.i(T.MEDIA, "MediaUploadHandler > Attempting to add media with path " + mediaModel.getFilePath()
-                                  + " and site id " + mediaModel.getLocalSiteId() + ". Comparing with " + queuedMedia
-                                          .getFilePath()
-                                  + ", " + queuedMedia.getLocalSiteId());
-                if (isSameMediaFileQueuedForThisPost(queuedMedia, mediaModel)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isSameMediaFileQueuedForThisPost(MediaModel media1, MediaModel media2) {
-        /*
-            This method used to be called "compareBySiteAndFilePath" and compared just siteId and filePath. It made
-            sense since a media file is tied to a site and can be referenced from multiple posts on that site. This
-            approach tried to prevent wasting users' data.
-
-            The issue was that when a same image was added to content of two posts only a single MediaModel was
-            enqueued. However, MediaModel references only a single post (`localPostId`). When the upload finished
-            only the first post got updated with the url. The second post got uploaded to the server with a path to
-            local image. We decided to check whether the image belongs to the same post so we can be sure the local
-            path gets replaced with the url.
-
-            More info can be found here - https://github.com/wordpress-mobile/WordPress-Android/pull/10204.
-
-            We also need to check the `markedLocallyAsFeatured` flag is equal as we might lose it otherwise. If the
-            user adds an image into the post content and they set the same image as featured image, we need to enqueue
-            both uploads. Otherwise, we could lose the information what we need to update - the featured image or post
-            content.
-
-            Issue with a proper fix - https://github.com/wordpress-mobile/WordPress-Android/issues/10210
-         */
-        return (media1.getLocalSiteId() == media2.getLocalSiteId()
-                && media1.getLocalPostId() == media2.getLocalPostId()
-                && StringUtils.equals(media1.getFilePath(), media2.getFilePath()))
-                && media1.getMarkedLocallyAsFeatured() == media2.getMarkedLocallyAsFeatured();
-    }
-
     @Override
     public void onVideoOptimizationProgress(@NonNull MediaModel media, float progress) {
         sOptimizationProgressByMediaId.put(media.getId(), progress);
@@ -458,7 +339,7 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     public void onVideoOptimizationCompleted(@NonNull MediaModel media) {
         sOptimizationProgressByMediaId.remove(media.getId());
         // make sure this media should still be uploaded (may have been cancelled during optimization)
-        if (sInProgressUploads.contains(media)) {
+        if (sScheduler.isInProgress(media.getId())) {
             dispatchUploadAction(media);
         } else {
             AppLog.d(T.MEDIA, "MediaUploadHandler > skipping upload of optimized media");
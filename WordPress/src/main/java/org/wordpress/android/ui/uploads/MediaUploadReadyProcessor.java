@@ -12,6 +12,9 @@ import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.ui.stories.SaveStoryGutenbergBlockUseCase;
 import org.wordpress.android.util.helpers.MediaFile;
 
+import java.util.Map;
+import java.util.Map.Entry;
+
 import javax.inject.Inject;
 
 
@@ -46,6 +49,23 @@ public class MediaUploadReadyProcessor implements MediaUploadReadyListener {
         return post;
     }
 
+    @Override
+    public PostModel replaceMediaFilesWithUrlsInPost(@Nullable PostModel post, Map<String, MediaFile> mediaFiles,
+                                                     @Nullable SiteModel site) {
+        if (post != null && !PostUtils.contentContainsWPStoryGutenbergBlocks(post.getContent())
+            && AppPrefs.isGutenbergEditorEnabled() && PostUtils.contentContainsGutenbergBlocks(post.getContent())) {
+            // rewrite all media blocks in a single pass instead of once per completed upload
+            String siteUrl = site != null ? site.getUrl() : "";
+            post.setContent(PostUtils.replaceMediaFilesWithUrlsInGutenbergPost(post.getContent(), mediaFiles, siteUrl));
+        } else {
+            for (Entry<String, MediaFile> entry : mediaFiles.entrySet()) {
+                post = replaceMediaFileWithUrlInPost(post, entry.getKey(), entry.getValue(), site);
+            }
+        }
+
+        return post;
+    }
+
     @Override
     public PostModel markMediaUploadFailedInPost(@Nullable PostModel post, String localMediaId,
                                                  final MediaFile mediaFile) {
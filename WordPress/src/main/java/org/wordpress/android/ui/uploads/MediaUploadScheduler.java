@@ -0,0 +1,354 @@
+package org.wordpress.android.ui.uploads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.StringUtils;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of pending and in-progress media uploads and decides which pending upload should start next.
+ *
+ * <ul>
+ * <li>At most the number of uploads given to the constructor run in parallel for the same site.</li>
+ * <li>Media marked locally as featured image jump ahead of the other pending uploads.</li>
+ * <li>The remaining pending uploads are interleaved round-robin across posts, so that one post with many media
+ * doesn't hold back the others.</li>
+ * </ul>
+ *
+ * All the lookups by media id and post id are backed by hash maps. This class is thread safe.
+ */
+class MediaUploadScheduler {
+    static final int DEFAULT_MAX_CONCURRENT_UPLOADS_PER_SITE = 3;
+
+    private final int mMaxConcurrentUploadsPerSite;
+
+    private final Map<Integer, MediaModel> mPendingById = new HashMap<>();
+    private final Map<Integer, MediaModel> mInProgressById = new LinkedHashMap<>();
+    private final Set<QueueKey> mQueueKeys = new HashSet<>();
+    private final Map<Integer, QueueKey> mQueueKeyById = new HashMap<>();
+
+    private final ArrayDeque<MediaModel> mPendingFeatured = new ArrayDeque<>();
+    private final Map<Integer, ArrayDeque<MediaModel>> mPendingByPost = new HashMap<>();
+    private final ArrayDeque<Integer> mPostRotation = new ArrayDeque<>();
+
+    private final Map<Integer, Integer> mPendingCountByPost = new HashMap<>();
+    private final Map<Integer, Integer> mInProgressCountByPost = new HashMap<>();
+    private final Map<Integer, Integer> mInProgressCountBySite = new HashMap<>();
+
+    private final Map<Integer, UploadMetrics> mMetricsById = new HashMap<>();
+    private long mSessionStartedAt;
+    private long mSessionCompletedBytes;
+
+    MediaUploadScheduler(int maxConcurrentUploadsPerSite) {
+        mMaxConcurrentUploadsPerSite = Math.max(1, maxConcurrentUploadsPerSite);
+    }
+
+    /**
+     * Adds the media to the pending queue, unless the same file is already pending or in progress for the same post
+     * (see {@link QueueKey}).
+     *
+     * @return true if the media was added
+     */
+    synchronized boolean enqueue(@NonNull MediaModel media) {
+        QueueKey queueKey = new QueueKey(media);
+        if (mPendingById.containsKey(media.getId()) || mInProgressById.containsKey(media.getId())
+            || !mQueueKeys.add(queueKey)) {
+            return false;
+        }
+        // the file path may change while the upload is in progress (e.g. video optimization), so keep the key
+        mQueueKeyById.put(media.getId(), queueKey);
+
+        mPendingById.put(media.getId(), media);
+        increment(mPendingCountByPost, media.getLocalPostId());
+
+        if (media.getMarkedLocallyAsFeatured()) {
+            mPendingFeatured.addLast(media);
+        } else {
+            ArrayDeque<MediaModel> postQueue = mPendingByPost.get(media.getLocalPostId());
+            if (postQueue == null) {
+                postQueue = new ArrayDeque<>();
+                mPendingByPost.put(media.getLocalPostId(), postQueue);
+                mPostRotation.addLast(media.getLocalPostId());
+            }
+            postQueue.addLast(media);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the next pending upload whose site has a free upload slot to the in-progress state.
+     *
+     * @return The media to upload next, or null if nothing can be started right now
+     */
+    synchronized @Nullable MediaModel startNext() {
+        Iterator<MediaModel> featured = mPendingFeatured.iterator();
+        while (featured.hasNext()) {
+            MediaModel media = featured.next();
+            if (hasFreeSlot(media.getLocalSiteId())) {
+                featured.remove();
+                return start(media);
+            }
+        }
+
+        for (int i = 0, posts = mPostRotation.size(); i < posts; i++) {
+            Integer postId = mPostRotation.pollFirst();
+            ArrayDeque<MediaModel> postQueue = mPendingByPost.get(postId);
+            MediaModel media = postQueue.peekFirst();
+            if (hasFreeSlot(media.getLocalSiteId())) {
+                postQueue.pollFirst();
+                if (postQueue.isEmpty()) {
+                    mPendingByPost.remove(postId);
+                } else {
+                    mPostRotation.addLast(postId);
+                }
+                return start(media);
+            }
+            mPostRotation.addLast(postId);
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the media from the in-progress uploads.
+     *
+     * @return The in-progress media with the given id, or null if there was none
+     */
+    synchronized @Nullable MediaModel complete(int mediaId) {
+        MediaModel media = mInProgressById.remove(mediaId);
+        if (media != null) {
+            mQueueKeys.remove(mQueueKeyById.remove(mediaId));
+            decrement(mInProgressCountByPost, media.getLocalPostId());
+            decrement(mInProgressCountBySite, media.getLocalSiteId());
+
+            UploadMetrics metrics = mMetricsById.remove(mediaId);
+            if (metrics != null) {
+                mSessionCompletedBytes += metrics.getUploadedBytes();
+            }
+            if (isEmpty()) {
+                mSessionStartedAt = 0;
+                mSessionCompletedBytes = 0;
+            }
+        }
+        return media;
+    }
+
+    synchronized boolean isEmpty() {
+        return mPendingById.isEmpty() && mInProgressById.isEmpty();
+    }
+
+    synchronized boolean isPendingOrInProgress(int mediaId) {
+        return mPendingById.containsKey(mediaId) || mInProgressById.containsKey(mediaId);
+    }
+
+    synchronized boolean isInProgress(int mediaId) {
+        return mInProgressById.containsKey(mediaId);
+    }
+
+    synchronized @Nullable MediaModel getInProgress(int mediaId) {
+        return mInProgressById.get(mediaId);
+    }
+
+    synchronized boolean hasPendingForPost(int postId) {
+        return mPendingCountByPost.containsKey(postId);
+    }
+
+    synchronized boolean hasInProgressForPost(int postId) {
+        return mInProgressCountByPost.containsKey(postId);
+    }
+
+    synchronized @NonNull List<MediaModel> getInProgress() {
+        return new ArrayList<>(mInProgressById.values());
+    }
+
+    /**
+     * @return The in-progress uploads for the post followed by its pending uploads, in the order they will start
+     */
+    synchronized @NonNull List<MediaModel> getPendingOrInProgressForPost(int postId) {
+        List<MediaModel> mediaList = new ArrayList<>();
+        if (mInProgressCountByPost.containsKey(postId)) {
+            for (MediaModel media : mInProgressById.values()) {
+                if (media.getLocalPostId() == postId) {
+                    mediaList.add(media);
+                }
+            }
+        }
+        if (mPendingCountByPost.containsKey(postId)) {
+            for (MediaModel media : mPendingFeatured) {
+                if (media.getLocalPostId() == postId) {
+                    mediaList.add(media);
+                }
+            }
+            ArrayDeque<MediaModel> postQueue = mPendingByPost.get(postId);
+            if (postQueue != null) {
+                mediaList.addAll(postQueue);
+            }
+        }
+        return mediaList;
+    }
+
+    /**
+     * Records upload progress for an in-progress media, reported as a fraction between 0 and 1.
+     */
+    synchronized void onProgress(int mediaId, float progress) {
+        UploadMetrics metrics = mMetricsById.get(mediaId);
+        if (metrics != null) {
+            metrics.mProgress = Math.max(0f, Math.min(1f, progress));
+        }
+    }
+
+    /**
+     * @return The upload throughput of an in-progress media in bytes per second, or 0 if unknown
+     */
+    synchronized long getThroughputForMedia(int mediaId) {
+        UploadMetrics metrics = mMetricsById.get(mediaId);
+        return metrics != null ? bytesPerSecond(metrics.getUploadedBytes(), metrics.mStartedAt) : 0;
+    }
+
+    /**
+     * @return The combined throughput of all the uploads since the queue was last empty, in bytes per second
+     */
+    synchronized long getAggregateThroughput() {
+        if (mSessionStartedAt == 0) {
+            return 0;
+        }
+        long uploadedBytes = mSessionCompletedBytes;
+        for (UploadMetrics metrics : mMetricsById.values()) {
+            uploadedBytes += metrics.getUploadedBytes();
+        }
+        return bytesPerSecond(uploadedBytes, mSessionStartedAt);
+    }
+
+    private MediaModel start(MediaModel media) {
+        mPendingById.remove(media.getId());
+        decrement(mPendingCountByPost, media.getLocalPostId());
+
+        mInProgressById.put(media.getId(), media);
+        increment(mInProgressCountByPost, media.getLocalPostId());
+        increment(mInProgressCountBySite, media.getLocalSiteId());
+
+        long now = System.currentTimeMillis();
+        if (mSessionStartedAt == 0) {
+            mSessionStartedAt = now;
+        }
+        mMetricsById.put(media.getId(), new UploadMetrics(now, getFileSize(media)));
+        return media;
+    }
+
+    private boolean hasFreeSlot(int siteId) {
+        Integer inProgress = mInProgressCountBySite.get(siteId);
+        return inProgress == null || inProgress < mMaxConcurrentUploadsPerSite;
+    }
+
+    private static long getFileSize(MediaModel media) {
+        String filePath = media.getFilePath();
+        return filePath != null ? new File(filePath).length() : 0;
+    }
+
+    private static long bytesPerSecond(long bytes, long startedAt) {
+        long elapsed = System.currentTimeMillis() - startedAt;
+        return elapsed > 0 ? bytes * 1000 / elapsed : 0;
+    }
+
+    private static void increment(Map<Integer, Integer> counts, int key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+
+    private static void decrement(Map<Integer, Integer> counts, int key) {
+        Integer count = counts.get(key);
+        if (count == null || count <= 1) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count - 1);
+        }
+    }
+
+    private static class UploadMetrics {
+        private final long mStartedAt;
+        private final long mTotalBytes;
+        private float mProgress;
+
+        UploadMetrics(long startedAt, long totalBytes) {
+            mStartedAt = startedAt;
+            mTotalBytes = totalBytes;
+        }
+
+        long getUploadedBytes() {
+            return (long) (mTotalBytes * mProgress);
+        }
+    }
+
+    /**
+     * Identifies the same media file queued for the same post.
+     */
+    private static class QueueKey {
+        private final int mSiteId;
+        private final int mPostId;
+        private final String mFilePath;
+        private final boolean mMarkedLocallyAsFeatured;
+
+        QueueKey(MediaModel media) {
+            mSiteId = media.getLocalSiteId();
+            mPostId = media.getLocalPostId();
+            mFilePath = media.getFilePath();
+            mMarkedLocallyAsFeatured = media.getMarkedLocallyAsFeatured();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            /*
+                MediaUploadHandler used to compare media with a method called "compareBySiteAndFilePath" which compared
+                just siteId and filePath. It made sense since a media file is tied to a site and can be referenced from
+                multiple posts on that site. This approach tried to prevent wasting users' data.
+
+                The issue was that when a same image was added to content of two posts only a single MediaModel was
+                enqueued. However, MediaModel references only a single post (`localPostId`). When the upload finished
+                only the first post got updated with the url. The second post got uploaded to the server with a path to
+                local image. We decided to check whether the image belongs to the same post so we can be sure the local
+                path gets replaced with the url.
+
+                More info can be found here - https://github.com/wordpress-mobile/WordPress-Android/pull/10204.
+
+                We also need to check the `markedLocallyAsFeatured` flag is equal as we might lose it otherwise. If the
+                user adds an image into the post content and they set the same image as featured image, we need to
+                enqueue both uploads. Otherwise, we could lose the information what we need to update - the featured
+                image or post content.
+
+                Issue with a proper fix - https://github.com/wordpress-mobile/WordPress-Android/issues/10210
+             */
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueueKey)) {
+                return false;
+            }
+            QueueKey other = (QueueKey) o;
+            return mSiteId == other.mSiteId
+                   && mPostId == other.mPostId
+                   && mMarkedLocallyAsFeatured == other.mMarkedLocallyAsFeatured
+                   && StringUtils.equals(mFilePath, other.mFilePath);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mSiteId;
+            result = 31 * result + mPostId;
+            result = 31 * result + (mFilePath != null ? mFilePath.hashCode() : 0);
+            result = 31 * result + (mMarkedLocallyAsFeatured ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -47,11 +47,14 @@ import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.util.WPMediaUtils;
+import org.wordpress.android.util.helpers.MediaFile;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -467,13 +470,15 @@ public class UploadService extends Service {
             // updates in one go and save only once
             MediaUploadReadyListener processor = new MediaUploadReadyProcessor();
             Set<MediaModel> completedMedia = sInstance.mUploadStore.getCompletedMediaForPost(post);
+            List<MediaModel> completedContentMedia = new ArrayList<>();
             for (MediaModel media : completedMedia) {
                 if (media.getMarkedLocallyAsFeatured()) {
                     post = updatePostWithNewFeaturedImg(post, media.getMediaId());
                 } else {
-                    post = updatePostWithMediaUrl(post, media, processor);
+                    completedContentMedia.add(media);
                 }
             }
+            post = updatePostWithMediaUrls(post, completedContentMedia, processor);
 
             if (completedMedia != null && !completedMedia.isEmpty()) {
                 // finally remove all completed uploads for this post, as they've been taken care of
@@ -614,17 +619,25 @@ public class UploadService extends Service {
         }
         return post;
     }
-    private static synchronized PostModel updatePostWithMediaUrl(PostModel post, MediaModel media,
-                                                                 MediaUploadReadyListener processor) {
-        if (media != null && post != null && processor != null && sInstance != null) {
+    /*
+     * Replaces the local ids and urls of all the given media with their remote counterparts in a single rewrite of
+     * the post content, so that a batch of completed uploads costs one pass over the post instead of one per item.
+     */
+    private static synchronized PostModel updatePostWithMediaUrls(PostModel post, List<MediaModel> mediaList,
+                                                                  MediaUploadReadyListener processor) {
+        if (mediaList != null && !mediaList.isEmpty() && post != null && processor != null && sInstance != null) {
             boolean changesConfirmed = post.contentHashcode() == post.getChangesConfirmedContentHashcode();
 
-            // obtain site url used to generate attachment page url
-            SiteModel site = sInstance.mSiteStore.getSiteByLocalId(media.getLocalSiteId());
+            // obtain site url used to generate attachment page url - all media of a post belong to the same site
+            SiteModel site = sInstance.mSiteStore.getSiteByLocalId(mediaList.get(0).getLocalSiteId());
+
+            Map<String, MediaFile> mediaFiles = new LinkedHashMap<>();
+            for (MediaModel media : mediaList) {
+                mediaFiles.put(String.valueOf(media.getId()), FluxCUtils.mediaFileFromMediaModel(media));
+            }
 
-            // actually replace the media ID with the media uri
-            processor.replaceMediaFileWithUrlInPost(post, String.valueOf(media.getId()),
-                    FluxCUtils.mediaFileFromMediaModel(media), site);
+            // actually replace the media IDs with the media uris
+            processor.replaceMediaFilesWithUrlsInPost(post, mediaFiles, site);
 
             // we changed the post, so let’s mark this down
             if (!post.isLocalDraft()) {
@@ -633,7 +646,7 @@ public class UploadService extends Service {
             post.setDateLocallyChanged(DateTimeUtils.iso8601UTCFromTimestamp(System.currentTimeMillis() / 1000));
             if (changesConfirmed) {
                 /*
-                 * We are replacing image local path with a url. We need to make sure to retain the confirmation
+                 * We are replacing image local paths with urls. We need to make sure to retain the confirmation
                  * state.
                  */
                 post.setChangesConfirmedContentHashcode(post.contentHashcode());
@@ -0,0 +1,74 @@
+package org.wordpress.android
+
+import android.content.Context
+import android.database.sqlite.SQLiteDatabase
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+private const val DATABASE_NAME = "wordpress"
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class WordPressDBTest {
+    private lateinit var context: Context
+
+    @Before
+    fun setUp() {
+        context = RuntimeEnvironment.application
+        WordPressDB.deleteDatabase(context)
+    }
+
+    @After
+    fun tearDown() {
+        WordPressDB.deleteDatabase(context)
+    }
+
+    @Test
+    fun `upgrading from version 67 recreates the notifications table with its indexes`() {
+        context.openOrCreateDatabase(DATABASE_NAME, 0, null).use { db ->
+            // the notifications table as it was in version 67
+            db.execSQL("CREATE TABLE tbl_notifications (id INTEGER PRIMARY KEY DEFAULT 0, note_id TEXT, "
+                    + "type TEXT, raw_note_data TEXT, timestamp INTEGER, UNIQUE (note_id) ON CONFLICT REPLACE)")
+            db.execSQL("INSERT INTO tbl_notifications (note_id, type, raw_note_data, timestamp) "
+                    + "VALUES ('1', 'like', '{}', 1)")
+            db.version = 67
+        }
+
+        val db = WordPressDB(context).database
+
+        assertThat(db.version).isEqualTo(69)
+        assertThat(getColumns(db)).contains("note_hash", "is_read", "site_id", "post_id", "comment_id")
+        assertThat(getIndexes(db)).contains(
+                "idx_notifications_timestamp",
+                "idx_notifications_read",
+                "idx_notifications_type"
+        )
+        db.close()
+    }
+
+    @Test
+    fun `a new install creates the notifications table with its indexes`() {
+        val db = WordPressDB(context).database
+
+        assertThat(getIndexes(db)).contains(
+                "idx_notifications_timestamp",
+                "idx_notifications_read",
+                "idx_notifications_type"
+        )
+        db.close()
+    }
+
+    private fun getColumns(db: SQLiteDatabase) = db.rawQuery("PRAGMA table_info(tbl_notifications)", null)
+            .use { cursor -> generateSequence { if (cursor.moveToNext()) cursor.getString(1) else null }.toList() }
+
+    private fun getIndexes(db: SQLiteDatabase) = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND tbl_name='tbl_notifications'", null
+    ).use { cursor -> generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toList() }
+}
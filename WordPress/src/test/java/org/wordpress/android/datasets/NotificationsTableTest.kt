@@ -0,0 +1,129 @@
+package org.wordpress.android.datasets
+
+import android.database.sqlite.SQLiteDatabase
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import org.wordpress.android.models.Note
+import org.wordpress.android.models.NotesFilter
+import org.wordpress.android.ui.notifications.adapters.NotesAdapter
+import kotlin.random.Random
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class NotificationsTableTest {
+    private lateinit var db: SQLiteDatabase
+
+    private val types = listOf(
+            Note.NOTE_COMMENT_TYPE,
+            Note.NOTE_LIKE_TYPE,
+            Note.NOTE_COMMENT_LIKE_TYPE,
+            Note.NOTE_FOLLOW_TYPE,
+            Note.NOTE_MATCHER_TYPE,
+            Note.NOTE_NEW_POST_TYPE
+    )
+
+    @Before
+    fun setUp() {
+        db = SQLiteDatabase.create(null)
+        NotificationsTable.createTables(db)
+        NotificationsTable.createIndexes(db)
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `stored notes are loaded with the same fields and json they were saved with`() {
+        val saved = createNotes(Random(1), 50)
+        NotificationsTable.saveNotes(db, saved, true)
+
+        val loaded = NotificationsTable.getLatestNotes(db, NotesFilter.FILTER_ALL, 50).associateBy { it.id }
+
+        assertThat(loaded).hasSize(50)
+        for (note in saved) {
+            val stored = loaded.getValue(note.id)
+            assertThat(stored.type).isEqualTo(note.type)
+            assertThat(stored.timestamp).isEqualTo(note.timestamp)
+            assertThat(stored.siteId).isEqualTo(note.siteId)
+            assertThat(stored.postId).isEqualTo(note.postId)
+            assertThat(stored.commentId).isEqualTo(note.commentId)
+            assertThat(stored.isUnread).isEqualTo(note.isUnread)
+            assertThat(stored.isCommentType).isEqualTo(note.isCommentType)
+            assertThat(stored.json.toString()).isEqualTo(note.json.toString())
+        }
+    }
+
+    @Test
+    fun `filtered queries match filtering the list`() {
+        NotificationsTable.saveNotes(db, createNotes(Random(2), 500), true)
+        val allNotes = NotificationsTable.getLatestNotes(db, NotesFilter.FILTER_ALL, 500)
+
+        for (filter in NotesFilter.values()) {
+            val expected = ArrayList<Note>()
+            NotesAdapter.buildFilteredNotesList(expected, allNotes, filter)
+
+            val actual = NotificationsTable.getLatestNotes(db, filter, 500)
+
+            assertThat(actual.map { it.id }).`as`(filter.toString()).isEqualTo(expected.map { it.id })
+        }
+    }
+
+    @Test
+    fun `filtered queries read the latest notes in index order without sorting`() {
+        NotificationsTable.saveNotes(db, createNotes(Random(3), 100), true)
+
+        for (filter in NotesFilter.values()) {
+            val sql = NotificationsTable.getLatestNotesSql(filter, NotificationsTable.NOTES_TO_RETRIEVE)
+            val plan = db.rawQuery("EXPLAIN QUERY PLAN $sql", null).use { cursor ->
+                generateSequence { if (cursor.moveToNext()) cursor.getString(3) else null }.toList()
+            }
+            assertThat(plan.joinToString()).`as`(filter.toString()).doesNotContain("TEMP B-TREE")
+        }
+    }
+
+    /*
+     * notes with random types and read states, and unique timestamps in random order so the order of the
+     * notes doesn't depend on which index a query uses
+     */
+    private fun createNotes(random: Random, numNotes: Int): List<Note> {
+        val seconds = (1..numNotes).map { it * 61 }.shuffled(random)
+        return (1..numNotes).map { id -> createNote(random, id, seconds[id - 1]) }
+    }
+
+    private fun createNote(random: Random, id: Int, seconds: Int): Note {
+        val type = types[random.nextInt(types.size)]
+        val ids = JSONObject().put("site", 100 + id % 7).put("post", 200 + id)
+        if (type != Note.NOTE_MATCHER_TYPE || random.nextBoolean()) {
+            ids.put("comment", 300 + id)
+        }
+        val json = JSONObject()
+                .put("id", id)
+                .put("type", type)
+                .put("timestamp", "2020-01-%02dT%02d:%02d:%02d+00:00".format(
+                        1 + seconds / 86400, seconds / 3600 % 24, seconds / 60 % 60, seconds % 60))
+                .put("read", random.nextInt(2))
+                .put("note_hash", "hash-$id")
+                .put("icon", "https://example.gravatar.com/avatar/$id")
+                .put("meta", JSONObject().put("ids", ids))
+                .put("subject", JSONArray().put(JSONObject()
+                        .put("text", "Someone commented on Post number $id")
+                        .put("ranges", JSONArray().put(JSONObject().put("type", "user")
+                                .put("indices", JSONArray().put(0).put(7))))))
+                .put("body", JSONArray()
+                        .put(JSONObject().put("type", "user").put("text", "Someone $id"))
+                        .put(JSONObject().put("type", "comment")
+                                .put("text", "This is the text of comment $id. ".repeat(5))))
+        return Note(id.toString(), json)
+    }
+}
@@ -0,0 +1,148 @@
+package org.wordpress.android.datasets;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build.VERSION_CODES;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+import org.wordpress.android.models.ReaderComment;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = VERSION_CODES.LOLLIPOP)
+public class ReaderCommentTableTest {
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        ReaderPostTable.createTables(mDb);
+        ReaderCommentTable.createTables(mDb);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void commentsArePagedInPageThenTimestampOrder() {
+        // page 2 holds a reply which is older than the last comment on page 1
+        insertComment(1, 1, 100, 1, 1);
+        insertComment(1, 1, 101, 1, 3);
+        insertComment(1, 1, 102, 1, 3);
+        insertComment(1, 1, 103, 2, 2);
+        insertComment(1, 1, 104, 2, 4);
+        insertComment(1, 2, 200, 1, 1);
+
+        List<Long> ids = new ArrayList<>();
+        ReaderComment after = null;
+        List<Long> page;
+        do {
+            page = getCommentIds(after, 2);
+            ids.addAll(page);
+            if (!page.isEmpty()) {
+                after = getComment(page.get(page.size() - 1));
+            }
+        } while (page.size() == 2);
+
+        assertThat(ids).containsExactly(100L, 101L, 102L, 103L, 104L);
+    }
+
+    @Test
+    public void purgeKeepsAllCommentsOnRecentlyViewedThreads() {
+        insertPost(1, 1);
+        insertPost(1, 2);
+        insertPost(1, 3);
+        insertComment(1, 1, 100, 1, 1);
+        insertComment(1, 1, 101, 2, 2);
+        insertComment(1, 2, 200, 1, 1);
+        insertComment(1, 2, 201, 2, 2);
+        insertComment(1, 3, 300, 1, 1);
+        insertComment(1, 3, 301, 2, 2);
+        insertThread(1, 1, 1000);
+        insertThread(1, 2, 3000);
+        insertThread(1, 3, 2000);
+
+        int numDeleted = ReaderCommentTable.purge(mDb, 2);
+
+        assertThat(numDeleted).isEqualTo(1);
+        assertThat(getAllCommentIds()).containsExactlyInAnyOrder(100L, 200L, 201L, 300L, 301L);
+        assertThat(SqlUtils.getRowCount(mDb, "tbl_comment_threads")).isEqualTo(2);
+    }
+
+    private List<Long> getCommentIds(ReaderComment after, int maxComments) {
+        String[] args = ReaderCommentTable.getCommentsForPostArgs(1, 1, after, maxComments);
+        return queryIds(ReaderCommentTable.COMMENTS_FOR_POST_SQL, args);
+    }
+
+    private List<Long> getAllCommentIds() {
+        return queryIds("SELECT * FROM tbl_comments", null);
+    }
+
+    private List<Long> queryIds(String sql, String[] args) {
+        List<Long> ids = new ArrayList<>();
+        Cursor c = mDb.rawQuery(sql, args);
+        try {
+            while (c.moveToNext()) {
+                ids.add(c.getLong(c.getColumnIndex("comment_id")));
+            }
+        } finally {
+            c.close();
+        }
+        return ids;
+    }
+
+    private ReaderComment getComment(long commentId) {
+        Cursor c = mDb.rawQuery("SELECT page_number, timestamp FROM tbl_comments WHERE comment_id=?",
+                new String[]{Long.toString(commentId)});
+        try {
+            c.moveToFirst();
+            ReaderComment comment = new ReaderComment();
+            comment.commentId = commentId;
+            comment.pageNumber = c.getInt(0);
+            comment.timestamp = c.getLong(1);
+            return comment;
+        } finally {
+            c.close();
+        }
+    }
+
+    private void insertComment(long blogId, long postId, long commentId, int pageNumber, long timestamp) {
+        ContentValues values = new ContentValues();
+        values.put("blog_id", blogId);
+        values.put("post_id", postId);
+        values.put("comment_id", commentId);
+        values.put("page_number", pageNumber);
+        values.put("timestamp", timestamp);
+        mDb.insert("tbl_comments", null, values);
+    }
+
+    private void insertPost(long blogId, long postId) {
+        ContentValues values = new ContentValues();
+        values.put("pseudo_id", blogId + "-" + postId);
+        values.put("blog_id", blogId);
+        values.put("post_id", postId);
+        mDb.insert("tbl_posts", null, values);
+    }
+
+    private void insertThread(long blogId, long postId, long dateViewed) {
+        ContentValues values = new ContentValues();
+        values.put("blog_id", blogId);
+        values.put("post_id", postId);
+        values.put("date_viewed", dateViewed);
+        mDb.insert("tbl_comment_threads", null, values);
+    }
+}
@@ -0,0 +1,42 @@
+package org.wordpress.android.datasets
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Test
+import org.wordpress.android.datasets.ReaderDatabaseStats.Operation.READ
+import org.wordpress.android.datasets.ReaderDatabaseStats.Operation.WRITE
+
+class ReaderDatabaseStatsTest {
+    @After
+    fun tearDown() {
+        ReaderDatabaseStats.reset()
+    }
+
+    @Test
+    fun `bucket upper bounds double from 1 ms`() {
+        assertThat(ReaderDatabaseStats.getBucketIndex(0)).isEqualTo(0)
+        assertThat(ReaderDatabaseStats.getBucketIndex(1)).isEqualTo(1)
+        assertThat(ReaderDatabaseStats.getBucketIndex(3)).isEqualTo(2)
+        assertThat(ReaderDatabaseStats.getBucketIndex(4)).isEqualTo(3)
+        assertThat(ReaderDatabaseStats.getBucketIndex(511)).isEqualTo(9)
+    }
+
+    @Test
+    fun `slow operations end up in the last bucket`() {
+        val lastBucket = ReaderDatabaseStats.NUM_BUCKETS - 1
+
+        assertThat(ReaderDatabaseStats.getBucketIndex(512)).isEqualTo(lastBucket)
+        assertThat(ReaderDatabaseStats.getBucketIndex(60_000)).isEqualTo(lastBucket)
+    }
+
+    @Test
+    fun `reads and writes are recorded per table`() {
+        ReaderDatabaseStats.record("tbl_posts", READ, ReaderDatabaseStats.start())
+        ReaderDatabaseStats.record("tbl_posts", READ, ReaderDatabaseStats.start())
+        ReaderDatabaseStats.record("tbl_comments", WRITE, ReaderDatabaseStats.start())
+
+        assertThat(ReaderDatabaseStats.getBucketCounts("tbl_posts", READ)?.sum()).isEqualTo(2)
+        assertThat(ReaderDatabaseStats.getBucketCounts("tbl_comments", WRITE)?.sum()).isEqualTo(1)
+        assertThat(ReaderDatabaseStats.getBucketCounts("tbl_posts", WRITE)).isNull()
+    }
+}
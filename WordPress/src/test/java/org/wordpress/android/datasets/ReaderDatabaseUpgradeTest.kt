@@ -0,0 +1,79 @@
+package org.wordpress.android.datasets
+
+import android.database.sqlite.SQLiteDatabase
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class ReaderDatabaseUpgradeTest {
+    private lateinit var db: SQLiteDatabase
+
+    @Before
+    fun setUp() {
+        db = SQLiteDatabase.create(null)
+        createVersion150Tables()
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun `upgrading from version 150 creates each index once`() {
+        db.execSQL("INSERT INTO tbl_posts (pseudo_id, blog_id, post_id, text) VALUES ('p1', 1, 2, 'body')")
+
+        ReaderDatabase(RuntimeEnvironment.application).onUpgrade(db, 150, 156)
+
+        assertThat(getIndexes("tbl_comments")).contains("idx_comments_post_page")
+                .doesNotContain("idx_comments_post_timestamp")
+        assertThat(getTables()).contains("tbl_post_content", "tbl_comment_threads")
+        assertThat(getColumns("tbl_post_content")).contains("scan_hash", "attachment_sizes")
+        val text = db.rawQuery("SELECT text FROM tbl_post_content WHERE pseudo_id='p1'", null).use {
+            if (it.moveToFirst()) it.getString(0) else null
+        }
+        assertThat(text).isEqualTo("body")
+    }
+
+    /*
+     * the tables and columns the upgrades from version 150 use, as they were in that version
+     */
+    private fun createVersion150Tables() {
+        db.execSQL("CREATE TABLE tbl_posts ("
+                + " post_id INTEGER DEFAULT 0, blog_id INTEGER DEFAULT 0, feed_id INTEGER DEFAULT 0,"
+                + " pseudo_id TEXT, text TEXT, attachments_json TEXT, discover_json TEXT,"
+                + " date_published TEXT, date_liked TEXT, date_tagged TEXT, score REAL DEFAULT 0,"
+                + " tag_name TEXT, tag_type INTEGER DEFAULT 0,"
+                + " PRIMARY KEY (post_id, blog_id, feed_id, tag_name, tag_type))")
+        db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)")
+        db.execSQL("CREATE INDEX idx_posts_date_tagged ON tbl_posts(date_tagged)")
+        db.execSQL("CREATE INDEX idx_posts_tag_name ON tbl_posts(tag_name)")
+        db.execSQL("CREATE TABLE tbl_comments ("
+                + " blog_id INTEGER DEFAULT 0, post_id INTEGER DEFAULT 0, comment_id INTEGER DEFAULT 0,"
+                + " parent_id INTEGER DEFAULT 0, timestamp INTEGER DEFAULT 0, page_number INTEGER DEFAULT 0,"
+                + " PRIMARY KEY (blog_id, post_id, comment_id))")
+        db.execSQL("CREATE INDEX idx_page_number ON tbl_comments(page_number)")
+    }
+
+    private fun getTables() = query("SELECT name FROM sqlite_master WHERE type='table'")
+
+    private fun getIndexes(table: String) =
+            query("SELECT name FROM sqlite_master WHERE type='index' AND tbl_name='$table'")
+
+    private fun getColumns(table: String) = db.rawQuery("PRAGMA table_info($table)", null).use { cursor ->
+        generateSequence { if (cursor.moveToNext()) cursor.getString(1) else null }.toList()
+    }
+
+    private fun query(sql: String) = db.rawQuery(sql, null).use { cursor ->
+        generateSequence { if (cursor.moveToNext()) cursor.getString(0) else null }.toList()
+    }
+}
@@ -0,0 +1,82 @@
+package org.wordpress.android.datasets
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import org.wordpress.android.models.ReaderCardType
+import org.wordpress.android.models.ReaderPost
+import org.wordpress.android.ui.reader.utils.ImageSizeMap
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class ReaderPostEnricherTest {
+    @Test
+    fun `parsing leaves the content scan for later`() {
+        val post = parsePost("""<p>text</p><img src=\"https://example.com/large.jpg\" width=\"800\" height=\"600\">""")
+
+        assertThat(post.needsContentScan()).isTrue
+        assertThat(post.hasFeaturedImage()).isFalse
+        assertThat(post.cardType).isEqualTo(ReaderCardType.DEFAULT)
+    }
+
+    @Test
+    fun `scan finds the largest image and sets the card type`() {
+        val post = parsePost("""<img src=\"https://example.com/small.jpg\" width=\"100\" height=\"100\">""" +
+                """<img src=\"https://example.com/large.jpg\" width=\"800\" height=\"600\">""")
+
+        ReaderPostEnricher.scanContent(post)
+
+        assertThat(post.featuredImage).startsWith("https://example.com/large.jpg")
+        assertThat(post.cardType).isEqualTo(ReaderCardType.PHOTO)
+    }
+
+    @Test
+    fun `scan requests keep the attachments so images without a width are sized by them`() {
+        val image = "https://example.files.wordpress.com/2020/01/image.jpg"
+        val post = parsePost("""<p>text</p><img src=\"$image\">""")
+        post.attachmentsJson = JSONObject().put("1001", JSONObject()
+                .put("URL", image)
+                .put("mime_type", "image/jpeg")
+                .put("width", 1024)
+                .put("height", 768)).toString()
+
+        val request = ReaderPostEnricher.ScanRequest(post, 0, 0)
+        val scanned = request.post
+        ReaderPostEnricher.scanContent(scanned, ImageSizeMap(scanned.text, scanned.attachmentsJson))
+
+        assertThat(scanned.attachmentsJson).isEqualTo(post.attachmentsJson)
+        assertThat(scanned.featuredImage).startsWith(image)
+        assertThat(scanned.cardType).isEqualTo(ReaderCardType.PHOTO)
+    }
+
+    @Test
+    fun `scan finds a featured video when there's no image`() {
+        val post = parsePost("""<p>video</p><iframe src='https://player.vimeo.com/video/72386905'></iframe>""")
+        assertThat(post.needsContentScan()).isTrue
+
+        ReaderPostEnricher.scanContent(post)
+
+        assertThat(post.featuredVideo).isEqualTo("https://player.vimeo.com/video/72386905")
+        assertThat(post.cardType).isEqualTo(ReaderCardType.VIDEO)
+    }
+
+    @Test
+    fun `posts with a featured image or plain text aren't scanned`() {
+        val withImage = ReaderPost.fromJson(JSONObject(
+                """{"ID":1,"pseudo_ID":"p1","content":"<img src=\"https://example.com/a.jpg\">",
+                    |"featured_image":"https://example.com/featured.jpg"}""".trimMargin()))
+        val plainText = parsePost("<p>no images here</p>")
+
+        assertThat(withImage.needsContentScan()).isFalse
+        assertThat(withImage.cardType).isEqualTo(ReaderCardType.PHOTO)
+        assertThat(plainText.needsContentScan()).isFalse
+    }
+
+    private fun parsePost(content: String) =
+            ReaderPost.fromJson(JSONObject("""{"ID":1,"pseudo_ID":"p1","excerpt":"short","content":"$content"}"""))
+}
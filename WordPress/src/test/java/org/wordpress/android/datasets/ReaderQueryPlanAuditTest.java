@@ -0,0 +1,58 @@
+package org.wordpress.android.datasets;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build.VERSION_CODES;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.wordpress.android.TestApplication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = TestApplication.class, sdk = VERSION_CODES.LOLLIPOP)
+public class ReaderQueryPlanAuditTest {
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        ReaderPostTable.createTables(mDb);
+        ReaderCommentTable.createTables(mDb);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void registeredQueriesDoNotScanWholeTables() {
+        assertThat(ReaderQueryPlanAudit.findFullTableScans(mDb)).isEmpty();
+    }
+
+    @Test
+    public void missingIndexIsReported() {
+        mDb.execSQL("DROP INDEX idx_posts_tag_date_published");
+        mDb.execSQL("DROP INDEX idx_posts_tag_date_liked");
+        mDb.execSQL("DROP INDEX idx_posts_tag_date_tagged");
+        mDb.execSQL("DROP INDEX idx_posts_tag_score");
+
+        assertThat(ReaderQueryPlanAudit.findFullTableScans(mDb))
+                .anyMatch(scan -> scan.startsWith("getPostsWithTag following:"));
+    }
+
+    @Test
+    public void fullScansAreRecognizedInBothPlanFormats() {
+        assertThat(ReaderQueryPlanAudit.isFullTableScan("SCAN TABLE tbl_posts")).isTrue();
+        assertThat(ReaderQueryPlanAudit.isFullTableScan("SCAN tbl_posts")).isTrue();
+        assertThat(ReaderQueryPlanAudit.isFullTableScan("SCAN TABLE tbl_posts USING INDEX idx_posts_blog_id"))
+                .isFalse();
+        assertThat(ReaderQueryPlanAudit.isFullTableScan(
+                "SEARCH TABLE tbl_posts USING INDEX idx_posts_tag_score (tag_name=? AND tag_type=?)")).isFalse();
+    }
+}
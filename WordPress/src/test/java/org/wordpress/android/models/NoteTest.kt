@@ -0,0 +1,150 @@
+package org.wordpress.android.models
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import org.wordpress.android.ui.notifications.adapters.NotesAdapter
+import org.wordpress.android.util.DateTimeUtils
+import org.wordpress.android.util.JSONUtils
+import java.util.Collections
+import kotlin.random.Random
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class NoteTest {
+    private val types = listOf(
+            Note.NOTE_COMMENT_TYPE,
+            Note.NOTE_LIKE_TYPE,
+            Note.NOTE_COMMENT_LIKE_TYPE,
+            Note.NOTE_FOLLOW_TYPE,
+            Note.NOTE_MATCHER_TYPE,
+            Note.NOTE_NEW_POST_TYPE
+    )
+
+    @Test
+    fun `fields are decoded from the json`() {
+        val note = Note("1", createNoteJson(1, Note.NOTE_COMMENT_TYPE, "2020-03-04T05:06:07+00:00", false))
+
+        assertThat(note.type).isEqualTo(Note.NOTE_COMMENT_TYPE)
+        assertThat(note.timestamp).isEqualTo(DateTimeUtils.timestampFromIso8601("2020-03-04T05:06:07+00:00"))
+        assertThat(note.timestampString).isEqualTo("2020-03-04T05:06:07+00:00")
+        assertThat(note.siteId).isEqualTo(101)
+        assertThat(note.postId).isEqualTo(201)
+        assertThat(note.commentId).isEqualTo(301L)
+        assertThat(note.parentCommentId).isEqualTo(401L)
+        assertThat(note.isCommentType).isTrue
+        assertThat(note.isCommentReplyType).isTrue
+        assertThat(note.isUnread).isTrue
+        assertThat(note.body.length()).isEqualTo(1)
+    }
+
+    @Test
+    fun `missing fields fall back to their defaults`() {
+        val note = Note("1", JSONObject())
+
+        assertThat(note.type).isEqualTo(Note.NOTE_UNKNOWN_TYPE)
+        assertThat(note.timestampString).isEmpty()
+        assertThat(note.siteId).isEqualTo(0)
+        assertThat(note.commentId).isEqualTo(0L)
+        assertThat(note.isCommentType).isFalse
+        assertThat(note.body.length()).isEqualTo(0)
+    }
+
+    @Test
+    fun `automattcher notes are comments only when they have a comment id`() {
+        val withComment = createNoteJson(1, Note.NOTE_MATCHER_TYPE, "2020-01-01T00:00:00+00:00", false)
+        val withoutComment = JSONObject(withComment.toString())
+        withoutComment.getJSONObject("meta").getJSONObject("ids").remove("comment")
+
+        assertThat(Note("1", withComment).isCommentType).isTrue
+        assertThat(Note("2", withoutComment).isCommentType).isFalse
+    }
+
+    @Test
+    fun `marking a note as read updates the flag and the json`() {
+        val note = Note("1", createNoteJson(1, Note.NOTE_LIKE_TYPE, "2020-01-01T00:00:00+00:00", false))
+
+        note.setRead()
+
+        assertThat(note.isUnread).isFalse
+        assertThat(note.json.getInt("read")).isEqualTo(1)
+    }
+
+    @Test
+    fun `sorting and filtering match the json`() {
+        val notes = createNotes(Random(7), 500)
+
+        val sorted = ArrayList(notes)
+        Collections.sort(sorted, Note.TimeStampComparator())
+        assertThat(sorted.map { it.id }).isEqualTo(sortByJson(notes).map { it.id })
+
+        for (filter in NotesFilter.values()) {
+            val filtered = ArrayList<Note>()
+            NotesAdapter.buildFilteredNotesList(filtered, sorted, filter)
+            assertThat(filtered.map { it.id }).`as`(filter.toString())
+                    .isEqualTo(filterByJson(sorted, filter).map { it.id })
+        }
+    }
+
+    /*
+     * how the list was sorted and filtered before the fields were decoded - each comparison and filter
+     * check queries the note's json again
+     */
+    private fun sortByJson(notes: List<Note>) = notes.sortedWith(Comparator { a, b ->
+        JSONUtils.queryJSON(b.json, "timestamp", "").compareTo(JSONUtils.queryJSON(a.json, "timestamp", ""))
+    })
+
+    private fun filterByJson(notes: List<Note>, filter: NotesFilter) = notes.filter {
+        val type = JSONUtils.queryJSON(it.json, "type", Note.NOTE_UNKNOWN_TYPE)
+        when (filter) {
+            NotesFilter.FILTER_ALL -> true
+            NotesFilter.FILTER_COMMENT -> type == Note.NOTE_COMMENT_TYPE ||
+                    (type == Note.NOTE_MATCHER_TYPE && JSONUtils.queryJSON(it.json, "meta.ids.comment", -1) != -1)
+            NotesFilter.FILTER_FOLLOW -> type == Note.NOTE_FOLLOW_TYPE
+            NotesFilter.FILTER_LIKE -> type == Note.NOTE_LIKE_TYPE || type == Note.NOTE_COMMENT_LIKE_TYPE
+            NotesFilter.FILTER_UNREAD -> JSONUtils.queryJSON(it.json, "read", 0) != 1
+        }
+    }
+
+    /*
+     * notes with random types, read states and timestamps, in random order
+     */
+    private fun createNotes(random: Random, numNotes: Int): List<Note> {
+        return (1..numNotes).map { id ->
+            val timestamp = "2020-%02d-%02dT%02d:%02d:00+00:00".format(
+                    1 + id / 1000 % 12, 1 + id / 40 % 25, id / 20 % 2 * 12 + id % 12, id % 60
+            )
+            val type = types[random.nextInt(types.size)]
+            val json = createNoteJson(id, type, timestamp, random.nextBoolean())
+            if (type == Note.NOTE_MATCHER_TYPE && random.nextBoolean()) {
+                json.getJSONObject("meta").getJSONObject("ids").remove("comment")
+            }
+            Note(id.toString(), json)
+        }.shuffled(random)
+    }
+
+    private fun createNoteJson(id: Int, type: String, timestamp: String, isRead: Boolean): JSONObject {
+        return JSONObject()
+                .put("id", id)
+                .put("type", type)
+                .put("timestamp", timestamp)
+                .put("read", if (isRead) 1 else 0)
+                .put("noticon", "")
+                .put("icon", "https://example.com/avatar-$id.png")
+                .put("url", "https://example.com/note-$id")
+                .put("title", "Note $id")
+                .put("meta", JSONObject().put("ids", JSONObject()
+                        .put("site", 100 + id)
+                        .put("post", 200 + id)
+                        .put("comment", 300 + id)
+                        .put("parent_comment", 400 + id)))
+                .put("subject", JSONArray().put(JSONObject().put("text", "Someone did something $id")))
+                .put("body", JSONArray().put(JSONObject().put("type", "user").put("text", "User $id")))
+    }
+}
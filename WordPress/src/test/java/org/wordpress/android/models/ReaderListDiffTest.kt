@@ -0,0 +1,87 @@
+package org.wordpress.android.models
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class ReaderListDiffTest {
+    @Test
+    fun `tag diff only returns tags which were added or changed`() {
+        val local = tagListOf(createTag("android"), createTag("kotlin"), createTag("java"))
+        val server = tagListOf(
+                createTag("android"),
+                createTag("kotlin", displayName = "Kotlin Lang"),
+                createTag("java"),
+                createTag("rust")
+        )
+
+        val changes = local.getAdditionsAndChanges(server)
+
+        assertThat(changes.map { it.tagSlug }).containsExactly("kotlin", "rust")
+        assertThat(local.getDeletions(server)).isEmpty()
+        assertThat(local.isSameList(server)).isFalse
+    }
+
+    @Test
+    fun `tag diff returns local tags which were removed from the server`() {
+        val local = tagListOf(createTag("android"), createTag("kotlin"), createTag("java", ReaderTagType.DEFAULT))
+        val server = tagListOf(createTag("android"), createTag("java", ReaderTagType.FOLLOWED))
+
+        assertThat(local.getDeletions(server).map { it.tagSlug }).containsExactly("kotlin", "java")
+        assertThat(local.getAdditionsAndChanges(server).map { it.tagSlug }).containsExactly("java")
+    }
+
+    @Test
+    fun `tag slugs are compared regardless of case`() {
+        val local = tagListOf(createTag("Android"))
+        val server = tagListOf(createTag("android"))
+
+        assertThat(local.getDeletions(server)).isEmpty()
+        assertThat(local.isSameList(server)).isTrue
+    }
+
+    @Test
+    fun `blog diff returns changed and unfollowed blogs`() {
+        val local = blogListOf(createBlog(1), createBlog(2), createBlog(3))
+        val server = blogListOf(createBlog(1), createBlog(2, numSubscribers = 10), createBlog(4))
+
+        assertThat(local.getAdditionsAndChanges(server).map { it.blogId }).containsExactly(2L, 4L)
+        assertThat(local.getDeletions(server).map { it.blogId }).containsExactly(3L)
+        assertThat(local.hasSameBlogs(server)).isFalse
+    }
+
+    @Test
+    fun `blog diff is empty when nothing changed`() {
+        val local = blogListOf(createBlog(1), createBlog(2))
+        val server = blogListOf(createBlog(2), createBlog(1))
+
+        assertThat(local.getAdditionsAndChanges(server)).isEmpty()
+        assertThat(local.getDeletions(server)).isEmpty()
+        assertThat(local.isSameList(server)).isTrue
+    }
+
+    private fun createTag(
+        slug: String,
+        tagType: ReaderTagType = ReaderTagType.FOLLOWED,
+        displayName: String = slug
+    ) = ReaderTag(slug, displayName, slug, "read/tags/$slug/posts", tagType)
+
+    private fun tagListOf(vararg tags: ReaderTag) = ReaderTagList().apply { addAll(tags) }
+
+    private fun createBlog(blogId: Long, numSubscribers: Int = 1) = ReaderBlog().apply {
+        this.blogId = blogId
+        this.feedId = blogId
+        this.isFollowing = true
+        this.numSubscribers = numSubscribers
+        name = "Blog $blogId"
+        url = "https://blog$blogId.example.com"
+    }
+
+    private fun blogListOf(vararg blogs: ReaderBlog) = ReaderBlogList().apply { addAll(blogs) }
+}
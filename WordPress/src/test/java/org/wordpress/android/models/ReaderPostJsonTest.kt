@@ -0,0 +1,111 @@
+package org.wordpress.android.models
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import java.io.StringReader
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class ReaderPostJsonTest {
+    @Test
+    fun `streaming parser matches JSONObject parser for read endpoint posts`() {
+        val response = createResponse(20)
+
+        val expected = ReaderPostList.fromJson(JSONObject(response))
+        val actual = ReaderPostList.fromJson(StringReader(response))
+
+        assertThat(actual).hasSize(20)
+        actual.forEachIndexed { index, post -> assertSamePost(post, expected[index]) }
+    }
+
+    @Test
+    fun `streaming parser matches JSONObject parser for sites endpoint posts`() {
+        // sites/ posts have a global_ID instead of a pseudo_ID, top-level comment fields instead of
+        // a discussion object, and no site_URL or site metadata
+        val post = """{"ID":7,"site_ID":3,"global_ID":"global-7","title":"","excerpt":"<p>Short &amp; sweet</p>",
+            |"content":"<p>text</p>","comments_open":true,"comment_count":"4","score":"1.5",
+            |"author":{"name":"Jo &amp; Co","ID":"12","has_avatar":false,"avatar_URL":"https://example.com/a.jpg",
+            |"URL":"https://author.example.com"},"featured_media":{"type":"image","uri":"https://example.com/m.jpg"},
+            |"attachments":{},"metadata":[{"key":"other","value":"1:2"},{"key":"xpost_origin","value":"11:22"}]}"""
+                .trimMargin()
+        val response = """{"found":1,"posts":[$post]}"""
+
+        val expected = ReaderPostList.fromJson(JSONObject(response))
+        val actual = ReaderPostList.fromJson(StringReader(response))
+
+        assertSamePost(actual[0], expected[0])
+        assertThat(actual[0].pseudoId).isEqualTo("global-7")
+        assertThat(actual[0].blogUrl).isEqualTo("https://author.example.com")
+        assertThat(actual[0].postAvatar).isEmpty()
+        assertThat(actual[0].hasAttachments()).isFalse
+        assertThat(actual[0].xpostBlogId).isEqualTo(11)
+        assertThat(actual[0].xpostPostId).isEqualTo(22)
+    }
+
+    @Test
+    fun `streaming parser skips unknown values and non-object posts`() {
+        val response = """{"unknown":[1,{"a":null}],"posts":[null,{"ID":1,"extra":{"b":[true]}}],"found":1}"""
+
+        val posts = ReaderPostList.fromJson(StringReader(response))
+
+        assertThat(posts).hasSize(1)
+        assertThat(posts[0].postId).isEqualTo(1)
+    }
+
+    private fun assertSamePost(actual: ReaderPost, expected: ReaderPost) {
+        assertThat(actual).isEqualToIgnoringGivenFields(expected,
+                "mAttachmentsJson", "mDiscoverJson", "mRailcarJson", "mTags", "mDiscoverData")
+        // nested objects are copied rather than re-serialized, so compare them as JSON
+        assertSameJson(actual.attachmentsJson, expected.attachmentsJson)
+        assertSameJson(actual.discoverJson, expected.discoverJson)
+        assertSameJson(actual.railcarJson, expected.railcarJson)
+    }
+
+    private fun assertSameJson(actual: String, expected: String) {
+        if (expected.isEmpty()) {
+            assertThat(actual).isEmpty()
+        } else {
+            assertThat(JSONObject(actual).toString()).isEqualTo(JSONObject(expected).toString())
+        }
+    }
+
+    /*
+     * a page of read/ endpoint posts shaped like a real response - tags are left empty since resolving them
+     * requires the reader database
+     */
+    private fun createResponse(numPosts: Int): String {
+        val paragraph = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit &amp; more.</p>\\n"
+        val posts = (1..numPosts).joinToString(",") { i ->
+            val image = """<img src=\"https://example.com/$i.jpg\" width=\"800\" height=\"600\">"""
+            // only some posts are from discover
+            val discover = if (i % 4 == 0) """{"permalink":"https://example.com/d/$i","blog_id":$i}""" else "null"
+            """{"ID":$i,"site_ID":${1000 + i},"pseudo_ID":"pseudo-$i","feed_ID":${2000 + i},"feed_item_ID":$i,
+                |"author":{"ID":$i,"login":"author$i","name":"Author &amp; $i","first_name":"First",
+                |"URL":"https://author$i.example.com","avatar_URL":"https://example.com/avatar/$i","has_avatar":true,
+                |"site_ID":${1000 + i}},"date":"2020-07-13T10:00:00+00:00","modified":"2020-07-13T10:00:00+00:00",
+                |"title":"Post &#8220;$i&#8221;","URL":"https://site$i.example.com/post-$i",
+                |"short_URL":"https://wp.me/p$i","content":"${paragraph.repeat(30)}$image",
+                |"excerpt":"<p>Excerpt for post $i</p>","site_URL":"https://site$i.example.com","site_name":"Site $i",
+                |"site_is_private":false,"site_is_atomic":false,"is_jetpack":false,"like_count":${i % 9},"i_like":false,
+                |"is_following":true,"is_external":false,"is_seen":${i % 2 == 0},"use_excerpt":false,
+                |"discussion":{"comments_open":true,"comment_status":"open","pings_open":true,"comment_count":${i % 5}},
+                |"featured_image":"","format":"standard","tags":{},"categories":{"News":{"ID":1,"name":"News"}},
+                |"attachments":{"$i":{"ID":$i,"URL":"https://example.com/$i.jpg","mime_type":"image/jpeg","width":800,
+                |"height":600,"exif":{"aperture":"2.8","focal_length":"4.15","iso":"100"}}},
+                |"metadata":[{"id":"$i","key":"geo_public","value":"0"}],
+                |"meta":{"links":{"self":"https://public-api.wordpress.com/rest/v1.2/sites/${1000 + i}/posts/$i"},
+                |"data":{"site":{"ID":${1000 + i},"name":"Site $i","URL":"https://site$i.example.com",
+                |"is_private":false,"jetpack":false,"organization_id":0,"icon":{"img":"https://example.com/icon/$i"}}}},
+                |"discover_metadata":$discover,
+                |"railcar":{"railcar":"rc$i","fetch_algo":"read:search","fetch_position":$i,"fetch_lang":"en",
+                |"rec_blog_id":${1000 + i},"rec_post_id":$i,"score":0.75}}""".trimMargin()
+        }
+        return """{"found":$numPosts,"posts":[$posts],"next_page_handle":"abc"}"""
+    }
+}
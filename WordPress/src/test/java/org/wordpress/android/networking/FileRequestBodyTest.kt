@@ -0,0 +1,74 @@
+package org.wordpress.android.networking
+
+import okio.Buffer
+import okio.Sink
+import okio.blackholeSink
+import okio.buffer
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import kotlin.random.Random
+
+private const val FILE_SIZE = 9 * 1024 * 1024 + 321
+
+class FileRequestBodyTest {
+    @Rule
+    @JvmField val temporaryFolder = TemporaryFolder()
+
+    private lateinit var file: File
+    private lateinit var fileContent: ByteArray
+
+    @Before
+    fun setUp() {
+        fileContent = Random(42).nextBytes(FILE_SIZE)
+        file = temporaryFolder.newFile("upload.bin")
+        file.writeBytes(fileContent)
+    }
+
+    @Test
+    fun `writeTo writes the whole file`() {
+        val body = FileRequestBody(file, null, null)
+        val received = Buffer()
+
+        val sink = (received as Sink).buffer()
+        body.writeTo(sink)
+        sink.flush()
+
+        assertThat(body.contentLength()).isEqualTo(FILE_SIZE.toLong())
+        assertThat(received.readByteArray()).isEqualTo(fileContent)
+    }
+
+    @Test
+    fun `writeTo reports progress at a bounded rate and always reports completion`() {
+        val progress = mutableListOf<Long>()
+        val body = FileRequestBody(file, null) { bytesWritten, contentLength ->
+            assertThat(contentLength).isEqualTo(FILE_SIZE.toLong())
+            progress.add(bytesWritten)
+        }
+
+        val sink = blackholeSink().buffer()
+        body.writeTo(sink)
+        sink.flush()
+
+        assertThat(progress).isSorted.doesNotHaveDuplicates()
+        assertThat(progress.last()).isEqualTo(FILE_SIZE.toLong())
+        assertThat(progress.size).isLessThanOrEqualTo((FILE_SIZE / FileRequestBody.REGION_SIZE + 1).toInt())
+    }
+
+    @Test
+    fun `writeTo handles an empty file`() {
+        val emptyFile = temporaryFolder.newFile("empty.bin")
+        val progress = mutableListOf<Long>()
+        val received = Buffer()
+
+        val sink = (received as Sink).buffer()
+        FileRequestBody(emptyFile, null) { bytesWritten, _ -> progress.add(bytesWritten) }.writeTo(sink)
+        sink.flush()
+
+        assertThat(received.size).isEqualTo(0)
+        assertThat(progress).containsExactly(0L)
+    }
+}
@@ -0,0 +1,99 @@
+package org.wordpress.android.networking
+
+import okio.Buffer
+import okio.ForwardingSink
+import okio.Sink
+import okio.buffer
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+import kotlin.random.Random
+
+private const val FILE_SIZE = 1024 * 1024 + 123
+
+class StreamingRequestTest {
+    @Rule
+    @JvmField val temporaryFolder = TemporaryFolder()
+
+    private lateinit var file: File
+    private lateinit var fileContent: ByteArray
+
+    @Before
+    fun setUp() {
+        fileContent = Random(42).nextBytes(FILE_SIZE)
+        file = temporaryFolder.newFile("upload.bin")
+        file.writeBytes(fileContent)
+    }
+
+    @Test
+    fun `writeTo streams the whole file in growing chunks`() {
+        val received = Buffer()
+        var writes = 0
+        val countingSink = object : ForwardingSink(received) {
+            override fun write(source: Buffer, byteCount: Long) {
+                writes++
+                super.write(source, byteCount)
+            }
+        }
+        val request = StreamingRequest(file)
+
+        val sink = countingSink.buffer()
+        request.writeTo(sink)
+        sink.flush()
+
+        assertThat(request.contentLength()).isEqualTo(FILE_SIZE.toLong())
+        assertThat(received.readByteArray()).isEqualTo(fileContent)
+        // chunks grow, so a 1 MB file needs far fewer than FILE_SIZE / CHUNK_SIZE writes
+        assertThat(writes).isLessThan(FILE_SIZE / StreamingRequest.CHUNK_SIZE / 4)
+    }
+
+    @Test
+    fun `writeTo handles an empty file`() {
+        val emptyFile = temporaryFolder.newFile("empty.bin")
+        val received = Buffer()
+
+        val sink = (received as Sink).buffer()
+        StreamingRequest(emptyFile).writeTo(sink)
+        sink.flush()
+
+        assertThat(received.size).isEqualTo(0)
+    }
+
+    @Test
+    fun `writeTo sends at most the byte count from the offset`() {
+        val offset = 300_000L
+        val byteCount = 100_000L
+        val request = StreamingRequest(file, offset, byteCount, ResumableMediaUpload.OFFSET_OCTET_STREAM)
+        val received = Buffer()
+
+        val sink = (received as Sink).buffer()
+        request.writeTo(sink)
+        sink.flush()
+
+        assertThat(request.contentLength()).isEqualTo(byteCount)
+        assertThat(received.readByteArray())
+                .isEqualTo(fileContent.copyOfRange(offset.toInt(), (offset + byteCount).toInt()))
+    }
+
+    @Test
+    fun `a file which shrinks while it's being sent ends the body`() {
+        val received = Buffer()
+        val truncatingSink = object : ForwardingSink(received) {
+            override fun write(source: Buffer, byteCount: Long) {
+                super.write(source, byteCount)
+                RandomAccessFile(file, "rw").use { it.setLength(FILE_SIZE / 2L) }
+            }
+        }
+
+        val sink = truncatingSink.buffer()
+        StreamingRequest(file).writeTo(sink)
+        sink.flush()
+
+        assertThat(received.size).isLessThan(FILE_SIZE.toLong())
+        assertThat(received.readByteArray()).isEqualTo(fileContent.copyOf(FILE_SIZE / 2))
+    }
+}
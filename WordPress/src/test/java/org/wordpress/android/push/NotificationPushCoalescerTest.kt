@@ -0,0 +1,65 @@
+package org.wordpress.android.push
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class NotificationPushCoalescerTest {
+    private val coalescer = NotificationPushCoalescer<String>()
+
+    @Test
+    fun `a lone push is shown right away`() {
+        assertThat(coalescer.add("1", "like 1")).isTrue
+
+        // nothing was held back for the end of the window, which then closes
+        assertThat(coalescer.endWindow()).isEmpty()
+        assertThat(coalescer.add("2", "comment 2")).isTrue
+    }
+
+    @Test
+    fun `pushes which follow the first are held until the window ends`() {
+        assertThat(coalescer.add("1", "like 1")).isTrue
+        assertThat(coalescer.add("2", "comment 2")).isFalse
+        assertThat(coalescer.add("3", "comment 3")).isFalse
+
+        assertThat(coalescer.endWindow().keys).containsExactly("2", "3")
+    }
+
+    @Test
+    fun `pushes for the same note are deduplicated keeping the latest`() {
+        coalescer.add("0", "comment 0")
+        coalescer.add("1", "like 1")
+        coalescer.add("2", "comment 2")
+        coalescer.add("1", "like 1 again")
+
+        val batch = coalescer.endWindow()
+
+        assertThat(batch.keys).containsExactly("2", "1")
+        assertThat(batch["1"]).isEqualTo("like 1 again")
+    }
+
+    @Test
+    fun `the window stays open while batches are shown`() {
+        coalescer.add("1", "like 1")
+        coalescer.add("2", "comment 2")
+        coalescer.endWindow()
+
+        // a push which arrives while the batch is shown waits for the next one
+        assertThat(coalescer.add("3", "comment 3")).isFalse
+        assertThat(coalescer.endWindow().keys).containsExactly("3")
+        assertThat(coalescer.endWindow()).isEmpty()
+        assertThat(coalescer.batchesDrained).isEqualTo(2)
+    }
+
+    @Test
+    fun `a burst of pushes is shown as the first push and a single batch`() {
+        // likes on a popular post share a note id, comments on it each have their own
+        repeat(40) { coalescer.add("like", "like $it") }
+        repeat(10) { coalescer.add("comment-$it", "comment $it") }
+
+        val batch = coalescer.endWindow()
+
+        assertThat(batch).hasSize(11)
+        assertThat(coalescer.pushesReceived).isEqualTo(50)
+        assertThat(coalescer.batchesDrained).isEqualTo(1)
+    }
+}
@@ -0,0 +1,170 @@
+package org.wordpress.android.ui.notifications.services
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import org.wordpress.android.datasets.NotificationsTable.NoteSyncState
+import org.wordpress.android.ui.notifications.services.NotificationsUpdateLogic.NotesDelta
+
+private const val NUM_NOTES = 200
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class NotificationsUpdateLogicTest {
+    @Test
+    fun `nothing is requested or written when the stored notes are up to date`() {
+        val remote = createRemoteNotes(NUM_NOTES)
+
+        val delta = NotesDelta.fromSyncStates(createSyncStatesResponse(remote), storedStatesOf(remote))
+
+        assertThat(delta.mChangedNoteIds).isEmpty()
+        assertThat(delta.mReadNoteIds).isEmpty()
+        assertThat(delta.mDeletedNoteIds).isEmpty()
+    }
+
+    @Test
+    fun `new and changed notes are requested`() {
+        val stored = storedStatesOf(createRemoteNotes(NUM_NOTES))
+        val remote = createRemoteNotes(NUM_NOTES + 3).onEach {
+            if (it.id == 10) {
+                it.hash = "changed"
+            }
+        }
+
+        val delta = NotesDelta.fromSyncStates(createSyncStatesResponse(remote), stored)
+
+        assertThat(delta.mChangedNoteIds).containsExactlyInAnyOrder("10", "201", "202", "203")
+        assertThat(delta.mDeletedNoteIds).isEmpty()
+    }
+
+    @Test
+    fun `notes read elsewhere are marked read without being requested`() {
+        val stored = storedStatesOf(createRemoteNotes(NUM_NOTES))
+        val remote = createRemoteNotes(NUM_NOTES).onEach {
+            if (it.id <= 5) {
+                it.isRead = !it.isRead
+            }
+        }
+
+        val delta = NotesDelta.fromSyncStates(createSyncStatesResponse(remote), stored)
+
+        // notes which were read are marked read locally, notes which were marked unread have to be requested
+        assertThat(delta.mReadNoteIds).containsExactlyInAnyOrder("1", "3", "5")
+        assertThat(delta.mChangedNoteIds).containsExactlyInAnyOrder("2", "4")
+    }
+
+    @Test
+    fun `notes which are no longer among the latest are deleted`() {
+        val stored = storedStatesOf(createRemoteNotes(NUM_NOTES))
+        val remote = createRemoteNotes(NUM_NOTES + 2).dropLast(2)
+
+        val delta = NotesDelta.fromSyncStates(createSyncStatesResponse(remote), stored)
+
+        assertThat(delta.mChangedNoteIds).containsExactlyInAnyOrder("201", "202")
+        assertThat(delta.mDeletedNoteIds).containsExactlyInAnyOrder("1", "2")
+    }
+
+    @Test
+    fun `notes without a hash are always requested`() {
+        val remote = createRemoteNotes(NUM_NOTES)
+        val stored = storedStatesOf(remote).toMutableMap()
+        stored["7"] = NoteSyncState("", false)
+
+        val delta = NotesDelta.fromSyncStates(createSyncStatesResponse(remote), stored)
+
+        assertThat(delta.mChangedNoteIds).containsExactly("7")
+    }
+
+    @Test
+    fun `delta syncs receive fewer bytes than a full sync and write only the changed rows`() {
+        val stored = storedStatesOf(createRemoteNotes(NUM_NOTES))
+
+        val fullBytes = createNotesResponse(createRemoteNotes(NUM_NOTES)).toString().length
+
+        for (numNew in listOf(0, 1, 10)) {
+            val remote = createRemoteNotes(NUM_NOTES + numNew).dropLast(numNew)
+            val syncStates = createSyncStatesResponse(remote)
+            val delta = NotesDelta.fromSyncStates(syncStates, stored)
+            val changed = remote.filter { delta.mChangedNoteIds.contains(it.id.toString()) }
+
+            var bytes = syncStates.toString().length
+            if (changed.isNotEmpty()) {
+                bytes += createNotesResponse(changed).toString().length
+            }
+            val rows = delta.mChangedNoteIds.size + delta.mReadNoteIds.size + delta.mDeletedNoteIds.size
+
+            assertThat(bytes).isLessThan(fullBytes)
+            assertThat(rows).isEqualTo(numNew * 2)
+        }
+    }
+
+    private class RemoteNote(val id: Int, var hash: String, var isRead: Boolean)
+
+    private fun createRemoteNotes(numNotes: Int) = (numNotes downTo 1).map {
+        RemoteNote(it, "hash-$it", it % 2 == 0)
+    }
+
+    private fun storedStatesOf(notes: List<RemoteNote>) = notes.associate {
+        it.id.toString() to NoteSyncState(it.hash, it.isRead)
+    }
+
+    private fun createSyncStatesResponse(notes: List<RemoteNote>): JSONObject {
+        val jsonNotes = JSONArray()
+        notes.forEach {
+            jsonNotes.put(JSONObject()
+                    .put("id", it.id)
+                    .put("read", if (it.isRead) 1 else 0)
+                    .put("note_hash", it.hash))
+        }
+        return JSONObject().put("notes", jsonNotes)
+    }
+
+    /*
+     * notes with the fields a full sync requests - a comment notification with a subject and a body
+     * holding the commenter and the comment, which is typical of what the endpoint returns
+     */
+    private fun createNotesResponse(notes: List<RemoteNote>): JSONObject {
+        val jsonNotes = JSONArray()
+        notes.forEach {
+            val ranges = JSONArray()
+                    .put(JSONObject().put("type", "user").put("indices", JSONArray().put(0).put(10))
+                            .put("url", "https://example.wordpress.com").put("site_id", 1000 + it.id)
+                            .put("id", 2000 + it.id))
+                    .put(JSONObject().put("type", "post").put("indices", JSONArray().put(27).put(40))
+                            .put("url", "https://example.com/2020/01/01/post-${it.id}/").put("site_id", 100)
+                            .put("id", 3000 + it.id))
+            val user = JSONObject()
+                    .put("type", "user")
+                    .put("text", "Commenter ${it.id}")
+                    .put("media", JSONArray().put(JSONObject().put("type", "image").put("height", 256)
+                            .put("width", 256).put("url", "https://example.gravatar.com/avatar/${it.id}")))
+                    .put("meta", JSONObject().put("links", JSONObject().put("home", "https://example.com")))
+            val comment = JSONObject()
+                    .put("type", "comment")
+                    .put("text", "This is comment ${it.id}, which is about as long as a typical comment is. "
+                            .repeat(3))
+                    .put("meta", JSONObject().put("ids", JSONObject().put("comment", 4000 + it.id)))
+                    .put("actions", JSONObject().put("replyto-comment", true).put("approve-comment", true)
+                            .put("spam-comment", false).put("like-comment", false))
+            jsonNotes.put(JSONObject()
+                    .put("id", it.id)
+                    .put("type", "comment")
+                    .put("read", if (it.isRead) 1 else 0)
+                    .put("note_hash", it.hash)
+                    .put("timestamp", "2020-01-01T00:00:00+00:00")
+                    .put("subject", JSONArray().put(JSONObject()
+                            .put("text", "Commenter ${it.id} commented on Post number ${it.id}")
+                            .put("ranges", ranges)))
+                    .put("body", JSONArray().put(user).put(comment))
+                    .put("meta", JSONObject().put("ids", JSONObject().put("site", 100).put("post", 3000 + it.id)
+                            .put("comment", 4000 + it.id))))
+        }
+        return JSONObject().put("notes", jsonNotes)
+    }
+}
@@ -0,0 +1,121 @@
+package org.wordpress.android.ui.notifications.utils
+
+import android.content.Context
+import android.content.res.Configuration
+import android.graphics.Typeface
+import android.os.Build.VERSION_CODES
+import android.text.SpannableStringBuilder
+import android.text.Spanned
+import android.text.style.StyleSpan
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+import org.wordpress.android.models.Note
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class NotificationsSpanCacheTest {
+    private val notificationsUtilsWrapper: NotificationsUtilsWrapper = mock()
+    private lateinit var context: Context
+    private lateinit var spanCache: NotificationsSpanCache
+
+    @Before
+    fun setUp() {
+        context = RuntimeEnvironment.application
+        whenever(notificationsUtilsWrapper.getSpannableContentForRanges(any<JSONObject>())).thenAnswer {
+            formatSubject(it.getArgument(0))
+        }
+        spanCache = NotificationsSpanCache(notificationsUtilsWrapper)
+    }
+
+    @Test
+    fun `the subject is formatted once and trimmed`() {
+        val note = createNote(1, "hash-1")
+
+        val first = spanCache.getFormattedSubject(note, context)
+        val second = spanCache.getFormattedSubject(note, context)
+
+        assertThat(second).isSameAs(first)
+        assertThat(first.toString()).isEqualTo("Someone commented on Post number 1")
+        assertThat(first.getSpans(0, first.length, StyleSpan::class.java)).hasSize(1)
+        verify(notificationsUtilsWrapper, times(1)).getSpannableContentForRanges(any<JSONObject>())
+        assertThat(spanCache.hitCount()).isEqualTo(1)
+        assertThat(spanCache.missCount()).isEqualTo(1)
+    }
+
+    @Test
+    fun `a note which changed is formatted again`() {
+        spanCache.getFormattedSubject(createNote(1, "hash-1"), context)
+
+        spanCache.getFormattedSubject(createNote(1, "hash-2"), context)
+        spanCache.getFormattedSubject(createNote(1, "hash-2", "2020-01-02T00:00:00+00:00"), context)
+
+        verify(notificationsUtilsWrapper, times(3)).getSpannableContentForRanges(any<JSONObject>())
+    }
+
+    @Test
+    fun `subjects are formatted again for another font scale`() {
+        val note = createNote(1, "hash-1")
+        val configuration = Configuration(context.resources.configuration)
+        configuration.fontScale = 1.3f
+        val scaledContext = context.createConfigurationContext(configuration)
+
+        spanCache.getFormattedSubject(note, context)
+        spanCache.getFormattedSubject(note, scaledContext)
+        spanCache.getFormattedSubject(note, scaledContext)
+
+        verify(notificationsUtilsWrapper, times(2)).getSpannableContentForRanges(any<JSONObject>())
+    }
+
+    @Test
+    fun `preloading formats only the first notes`() {
+        val notes = (1..50).map { createNote(it, "hash-$it") }
+
+        spanCache.preloadFormattedSubjects(notes, context, 15)
+        notes.take(15).forEach { spanCache.getFormattedSubject(it, context) }
+
+        verify(notificationsUtilsWrapper, times(15)).getSpannableContentForRanges(any<JSONObject>())
+        assertThat(spanCache.hitCount()).isEqualTo(15)
+    }
+
+    /*
+     * stands in for NotificationsUtils, which maps the subject's json to formattable content and each of its
+     * ranges to a span, and leaves the trailing newlines added by Html.fromHtml()
+     */
+    private fun formatSubject(subject: JSONObject): SpannableStringBuilder {
+        val content = JSONObject(subject.toString())
+        val builder = SpannableStringBuilder(content.optString("text") + "\n\n")
+        val ranges = content.optJSONArray("ranges") ?: JSONArray()
+        for (i in 0 until ranges.length()) {
+            val indices = ranges.getJSONObject(i).getJSONArray("indices")
+            builder.setSpan(StyleSpan(Typeface.BOLD), indices.getInt(0), indices.getInt(1),
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE)
+        }
+        return builder
+    }
+
+    private fun createNote(id: Int, hash: String, timestamp: String = "2020-01-01T00:00:00+00:00"): Note {
+        val json = JSONObject()
+                .put("id", id)
+                .put("type", Note.NOTE_COMMENT_TYPE)
+                .put("timestamp", timestamp)
+                .put("note_hash", hash)
+                .put("subject", JSONArray().put(JSONObject()
+                        .put("text", "Someone commented on Post number $id")
+                        .put("ranges", JSONArray().put(JSONObject().put("type", "user")
+                                .put("indices", JSONArray().put(0).put(7))))))
+        return Note(id.toString(), json)
+    }
+}
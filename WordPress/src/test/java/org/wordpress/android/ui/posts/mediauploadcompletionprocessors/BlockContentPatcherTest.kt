@@ -0,0 +1,150 @@
+package org.wordpress.android.ui.posts.mediauploadcompletionprocessors
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions
+import org.jsoup.Jsoup
+import org.jsoup.nodes.Document
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.junit.MockitoJUnitRunner
+import org.wordpress.android.ui.posts.mediauploadcompletionprocessors.MediaUploadCompletionProcessorPatterns.PATTERN_BLOCK_CAPTURES
+import org.wordpress.android.util.helpers.MediaFile
+
+@RunWith(MockitoJUnitRunner::class)
+class BlockContentPatcherTest {
+    private val mediaFile: MediaFile = mock()
+
+    @Test
+    fun `parse accepts the html content of editor generated media blocks`() {
+        listOf(
+                TestContent.oldImageBlock,
+                TestContent.oldVideoBlock,
+                TestContent.oldMediaTextBlock,
+                TestContent.oldFileBlock,
+                TestContent.oldAudioBlock
+        ).forEach { block ->
+            Assertions.assertThat(BlockContentPatcher.parse(htmlContentOf(block))).isNotNull
+        }
+    }
+
+    @Test
+    fun `parse rejects content that Jsoup would normalize or restructure`() {
+        listOf(
+                " <figure><img src=\"a\"></figure>",
+                "<figure><img src=\"a&amp;b\"></figure>",
+                "<figure><img src='a'></figure>",
+                "<figure><img  src=\"a\"></figure>",
+                "<figure><IMG src=\"a\"></figure>",
+                "<figure><img src=\"a\"/></figure>",
+                "<figure><img src=\"a\" src=\"b\"></figure>",
+                "<figure><video muted=\"\" src=\"a\"></video></figure>",
+                "<figure><img src=\"a\">",
+                "<figure><img src=\"a\"></img></figure>",
+                "<p><figure><img src=\"a\"></figure></p>",
+                "<a href=\"a\"><a href=\"b\">b</a></a>",
+                "<table><tr><td><img src=\"a\"></td></tr></table>",
+                "<figure><figcaption>1 > 0</figcaption></figure>",
+                "<figure><figcaption>a < b</figcaption></figure>"
+        ).forEach { content ->
+            Assertions.assertThat(BlockContentPatcher.parse(content)).describedAs(content).isNull()
+        }
+    }
+
+    @Test
+    fun `html returns the original content when nothing was patched`() {
+        val content = htmlContentOf(TestContent.oldMediaTextBlock)
+        Assertions.assertThat(BlockContentPatcher.parse(content)!!.html()).isSameAs(content)
+    }
+
+    @Test
+    fun `attribute and class patches match Jsoup output`() {
+        val contents = listOf(
+                htmlContentOf(TestContent.oldImageBlock),
+                htmlContentOf(TestContent.oldMediaTextBlock),
+                "<figure class=\"wp-block-image\"><img src=\"a\" alt=\"\" class=\" x  wp-image-112 y \"></figure>\n",
+                "<figure class=\"wp-block-image\"><img src=\"a\" alt=\"a > b\"></figure>\n",
+                "<figure class=\"wp-block-video\"><video controls src=\"a\"></video></figure>\n"
+        )
+        val remoteUrl = "https://example.com/a.jpg?w=1024&h=768"
+
+        contents.forEach { content ->
+            val patcher = BlockContentPatcher.parse(content)!!
+            patcher.firstTag("img")?.apply {
+                attr("src", remoteUrl)
+                removeClass("wp-image-112")
+                addClass("wp-image-97629")
+            }
+            patcher.firstTag("video")?.attr("src", remoteUrl)
+
+            val document = parseWithJsoup(content)
+            document.select("img").first()?.apply {
+                attr("src", remoteUrl)
+                removeClass("wp-image-112")
+                addClass("wp-image-97629")
+            }
+            document.select("video").first()?.attr("src", remoteUrl)
+
+            Assertions.assertThat(patcher.html()).isEqualTo(document.body().html())
+        }
+    }
+
+    @Test
+    fun `patching all tags matches Jsoup output for file and audio blocks`() {
+        listOf(TestContent.oldFileBlock to "a", TestContent.oldAudioBlock to "audio").forEach { (block, tagName) ->
+            val content = htmlContentOf(block)
+            val attribute = if (tagName == "a") "href" else "src"
+
+            val patcher = BlockContentPatcher.parse(content)!!
+            patcher.tags(tagName).forEach { it.attr(attribute, TestContent.remoteImageUrl) }
+
+            val document = parseWithJsoup(content)
+            document.select(tagName).forEach { it.attr(attribute, TestContent.remoteImageUrl) }
+
+            Assertions.assertThat(patcher.html()).isEqualTo(document.body().html())
+        }
+    }
+
+    @Test
+    fun `processors produce the same blocks with and without the patcher`() {
+        whenever(mediaFile.mediaId).thenReturn(TestContent.remoteMediaId)
+        whenever(mediaFile.fileURL).thenReturn(TestContent.remoteImageUrl)
+        val imageProcessor = ImageBlockProcessor(TestContent.localMediaId, mediaFile)
+        val jsoupImageProcessor = object : ImageBlockProcessor(TestContent.localMediaId, mediaFile) {
+            override fun supportsBlockContentPatcher() = false
+        }
+        val videoProcessor = VideoBlockProcessor(TestContent.localMediaId, mediaFile)
+        val jsoupVideoProcessor = object : VideoBlockProcessor(TestContent.localMediaId, mediaFile) {
+            override fun supportsBlockContentPatcher() = false
+        }
+        val mediaTextProcessor = MediaTextBlockProcessor(TestContent.localMediaId, mediaFile)
+        val jsoupMediaTextProcessor = object : MediaTextBlockProcessor(TestContent.localMediaId, mediaFile) {
+            override fun supportsBlockContentPatcher() = false
+        }
+
+        listOf(TestContent.oldImageBlock, TestContent.oldImageBlockIdNotFirst).forEach { block ->
+            Assertions.assertThat(imageProcessor.processBlock(block))
+                    .isEqualTo(jsoupImageProcessor.processBlock(block))
+        }
+        listOf(TestContent.oldVideoBlock, TestContent.oldVideoBlockIdNotFirst).forEach { block ->
+            Assertions.assertThat(videoProcessor.processBlock(block))
+                    .isEqualTo(jsoupVideoProcessor.processBlock(block))
+        }
+        listOf(TestContent.oldMediaTextBlock, TestContent.oldMediaTextBlockIdNotFirst).forEach { block ->
+            Assertions.assertThat(mediaTextProcessor.processBlock(block))
+                    .isEqualTo(jsoupMediaTextProcessor.processBlock(block))
+        }
+    }
+
+    private fun htmlContentOf(block: String): String {
+        val captures = PATTERN_BLOCK_CAPTURES.matcher(block)
+        Assertions.assertThat(captures.find()).isTrue()
+        return captures.group(3)
+    }
+
+    private fun parseWithJsoup(content: String): Document {
+        val document = Jsoup.parse(content)
+        document.outputSettings(BlockProcessor.OUTPUT_SETTINGS)
+        return document
+    }
+}
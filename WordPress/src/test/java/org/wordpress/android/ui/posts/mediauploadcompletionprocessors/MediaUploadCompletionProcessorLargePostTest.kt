@@ -0,0 +1,113 @@
+package org.wordpress.android.ui.posts.mediauploadcompletionprocessors
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.junit.MockitoJUnitRunner
+import org.wordpress.android.util.helpers.MediaFile
+import java.util.regex.Pattern
+
+/**
+ * Checks the single-pass [MediaUploadCompletionProcessor.processContent] against the previous recursive
+ * implementation on a synthetic ~1 MB post.
+ */
+@RunWith(MockitoJUnitRunner::class)
+class MediaUploadCompletionProcessorLargePostTest {
+    private val mediaFile: MediaFile = mock()
+    private lateinit var processor: MediaUploadCompletionProcessor
+    private lateinit var legacyBlockProcessorFactory: BlockProcessorFactory
+
+    @Before
+    fun before() {
+        whenever(mediaFile.mediaId).thenReturn(TestContent.remoteMediaId)
+        whenever(mediaFile.fileURL).thenReturn(TestContent.remoteImageUrl)
+        whenever(mediaFile.getAttachmentPageURL(any())).thenReturn(TestContent.attachmentPageUrl)
+        processor = MediaUploadCompletionProcessor(TestContent.localMediaId, mediaFile, TestContent.siteUrl)
+        legacyBlockProcessorFactory = BlockProcessorFactory(processor)
+                .init(TestContent.localMediaId, mediaFile, TestContent.siteUrl)
+    }
+
+    @Test
+    fun `processContent matches the recursive implementation on a 1 MB post`() {
+        val oldPost = buildSyntheticPost(TestContent.oldImageBlock)
+        val expected = buildSyntheticPost(TestContent.newImageBlock)
+
+        val result = processor.processContent(oldPost)
+
+        Assertions.assertThat(result).isEqualTo(expected)
+        Assertions.assertThat(result).isEqualTo(legacyProcessContent(oldPost))
+    }
+
+    @Test
+    fun `processContent returns a post without media blocks unchanged`() {
+        val post = buildString {
+            while (length < TARGET_POST_LENGTH) {
+                append(TestContent.paragraphBlock)
+            }
+        }
+
+        Assertions.assertThat(processor.processContent(post)).isSameAs(post)
+    }
+
+    /**
+     * Builds a post of roughly [TARGET_POST_LENGTH] characters made of already-uploaded media blocks, with the given
+     * image block placed near the end so that every block has to be walked before the match is found.
+     */
+    private fun buildSyntheticPost(imageBlock: String) = buildString {
+        val filler = TestContent.paragraphBlock + TestContent.newImageBlock + TestContent.newVideoBlock +
+                TestContent.newMediaTextBlock + TestContent.newGalleryBlock
+        while (length < TARGET_POST_LENGTH) {
+            append(filler)
+        }
+        append(imageBlock)
+        append(TestContent.paragraphBlock)
+    }
+
+    /**
+     * The recursive implementation that [MediaUploadCompletionProcessor.processContent] replaced, kept here as the
+     * reference for its output.
+     */
+    private fun legacyProcessContent(content: String): String {
+        val headerMatcher = MediaUploadCompletionProcessorPatterns.PATTERN_BLOCK_HEADER.matcher(content)
+        var positionBlockEnd = content.length
+
+        if (!headerMatcher.find()) {
+            return content
+        }
+
+        val positionBlockStart = headerMatcher.start()
+        val blockType = headerMatcher.group(1)
+        val blockBoundaryMatcher = Pattern.compile(
+                String.format(MediaUploadCompletionProcessorPatterns.PATTERN_TEMPLATE_BLOCK_BOUNDARY, blockType),
+                Pattern.DOTALL
+        ).matcher(content.substring(headerMatcher.end()))
+
+        var nestLevel = 1
+        while (0 < nestLevel && blockBoundaryMatcher.find()) {
+            if (blockBoundaryMatcher.group(1) == "/") {
+                positionBlockEnd = headerMatcher.end() + blockBoundaryMatcher.end()
+                nestLevel--
+            } else {
+                nestLevel++
+            }
+        }
+
+        return content.substring(0, positionBlockStart) +
+                legacyProcessBlock(content.substring(positionBlockStart, positionBlockEnd)) +
+                legacyProcessContent(content.substring(positionBlockEnd))
+    }
+
+    private fun legacyProcessBlock(block: String): String {
+        val blockProcessor = legacyBlockProcessorFactory
+                .getProcessorForMediaBlockType(MediaBlockType.detectBlockType(block))
+        return blockProcessor?.processBlock(block) ?: block
+    }
+
+    companion object {
+        private const val TARGET_POST_LENGTH = 1024 * 1024
+    }
+}
@@ -94,4 +94,21 @@ class MediaUploadCompletionProcessorTest {
         val processedContent = processor.processContent(TestContent.oldPostWithGalleryJsonNullId)
         Assertions.assertThat(processedContent).isEqualTo(TestContent.newPostWithGalleryJsonNullId)
     }
+
+    @Test
+    fun `processPost splices ids and urls for several completed uploads in one pass`() {
+        val mediaFile2: MediaFile = mock()
+        whenever(mediaFile2.mediaId).thenReturn(TestContent.remoteMediaId2)
+        whenever(mediaFile2.fileURL).thenReturn(TestContent.remoteImageUrl2)
+        processor = MediaUploadCompletionProcessor(
+                mapOf(TestContent.localMediaId to mediaFile, TestContent.localMediaId2 to mediaFile2),
+                TestContent.siteUrl
+        )
+        val processedContent = processor.processContent(
+                TestContent.oldPostImage + TestContent.oldCoverBlockWithNestedCoverBlockOuter
+        )
+        val expectedCover = TestContent.newCoverBlockWithNestedCoverBlockOuter
+                .replace(TestContent.oldCoverBlock, TestContent.newCoverBlock)
+        Assertions.assertThat(processedContent).isEqualTo(TestContent.newPostImage + expectedCover)
+    }
 }
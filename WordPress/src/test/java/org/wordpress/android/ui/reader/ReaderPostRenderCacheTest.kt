@@ -0,0 +1,79 @@
+package org.wordpress.android.ui.reader
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.util.concurrent.Executor
+
+class ReaderPostRenderCacheTest {
+    @get:Rule val tempFolder = TemporaryFolder()
+
+    private val directExecutor = Executor { it.run() }
+
+    @Test
+    fun `memory cache evicts least recently used html once over its byte limit`() {
+        // each entry is (key + html) * 2 bytes = 200 bytes
+        val cache = ReaderPostRenderCache(500, null, 0, directExecutor)
+        cache.put("key1", "a".repeat(96))
+        cache.put("key2", "b".repeat(96))
+        cache.getFromMemory("key1")
+        cache.put("key3", "c".repeat(96))
+
+        assertThat(cache.getFromMemory("key1")).isNotNull
+        assertThat(cache.getFromMemory("key2")).isNull()
+        assertThat(cache.getFromMemory("key3")).isNotNull
+    }
+
+    @Test
+    fun `html is read back from disk when it's no longer in memory`() {
+        val diskDir = tempFolder.newFolder()
+        ReaderPostRenderCache(1024, diskDir, 1024 * 1024, directExecutor).put("1:2:content", "<html>post ü</html>")
+
+        val cache = ReaderPostRenderCache(1024, diskDir, 1024 * 1024, directExecutor)
+
+        assertThat(cache.getFromMemory("1:2:content")).isNull()
+        assertThat(cache.get("1:2:content")).isEqualTo("<html>post ü</html>")
+        assertThat(cache.getFromMemory("1:2:content")).isEqualTo("<html>post ü</html>")
+    }
+
+    @Test
+    fun `disk cache is trimmed to its byte limit`() {
+        val diskDir = tempFolder.newFolder()
+        val cache = ReaderPostRenderCache(1, diskDir, 2048, directExecutor)
+        for (i in 1..10) {
+            cache.put("key$i", "x".repeat(500))
+        }
+
+        assertThat(diskDir.listFiles()!!.sumBy { it.length().toInt() }).isLessThanOrEqualTo(2048)
+    }
+
+    @Test
+    fun `clear removes html from memory and disk`() {
+        val diskDir = tempFolder.newFolder()
+        val cache = ReaderPostRenderCache(1024, diskDir, 1024 * 1024, directExecutor)
+        cache.put("key", "<html></html>")
+
+        cache.clear()
+
+        assertThat(cache.get("key")).isNull()
+        assertThat(diskDir.listFiles()).isEmpty()
+    }
+
+    @Test
+    fun `clear evicts memory right away and leaves deleting the disk cache to the executor`() {
+        val diskDir = tempFolder.newFolder()
+        val pendingTasks = mutableListOf<Runnable>()
+        val cache = ReaderPostRenderCache(1024, diskDir, 1024 * 1024, Executor { pendingTasks.add(it) })
+        cache.put("key", "<html></html>")
+
+        cache.clear()
+
+        assertThat(cache.getFromMemory("key")).isNull()
+        assertThat(diskDir.listFiles()).isNotEmpty
+
+        pendingTasks.forEach { it.run() }
+
+        assertThat(diskDir.listFiles()).isEmpty()
+    }
+}
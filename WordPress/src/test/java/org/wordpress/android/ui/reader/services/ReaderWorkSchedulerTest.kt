@@ -0,0 +1,75 @@
+package org.wordpress.android.ui.reader.services
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult
+import org.wordpress.android.ui.reader.services.ReaderWorkScheduler.Lane
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+private const val NUM_TASKS = 50
+
+class ReaderWorkSchedulerTest {
+    @Test
+    fun `overlapping updates of the same stream are coalesced`() {
+        val key = ReaderWorkScheduler.getUpdateKey("tag-coalesced", "REQUEST_NEWER")
+        val results = mutableListOf<UpdateResult>()
+
+        assertThat(ReaderWorkScheduler.joinUpdate(key) { results.add(it) }).isTrue
+        assertThat(ReaderWorkScheduler.joinUpdate(key) { results.add(it) }).isFalse
+
+        ReaderWorkScheduler.completeUpdate(key, UpdateResult.HAS_NEW)
+
+        assertThat(results).containsExactly(UpdateResult.HAS_NEW, UpdateResult.HAS_NEW)
+        // once it's completed the next update of the stream starts a new request
+        assertThat(ReaderWorkScheduler.joinUpdate(key) { }).isTrue
+        ReaderWorkScheduler.completeUpdate(key, UpdateResult.UNCHANGED)
+    }
+
+    @Test
+    fun `different updates of the same stream aren't coalesced`() {
+        val newerKey = ReaderWorkScheduler.getUpdateKey("tag-different", "REQUEST_NEWER")
+        val olderKey = ReaderWorkScheduler.getUpdateKey("tag-different", "REQUEST_OLDER")
+
+        assertThat(ReaderWorkScheduler.joinUpdate(newerKey) { }).isTrue
+        assertThat(ReaderWorkScheduler.joinUpdate(olderKey) { }).isTrue
+
+        ReaderWorkScheduler.completeUpdate(newerKey, UpdateResult.UNCHANGED)
+        ReaderWorkScheduler.completeUpdate(olderKey, UpdateResult.UNCHANGED)
+    }
+
+    @Test
+    fun `writes run one at a time in the order they're queued`() {
+        val order = Collections.synchronizedList(mutableListOf<Int>())
+        val running = AtomicInteger()
+        val maxRunning = AtomicInteger()
+        val latch = CountDownLatch(NUM_TASKS)
+        val numRunBefore = ReaderWorkScheduler.getStats(Lane.WRITE).numRun
+
+        for (i in 0 until NUM_TASKS) {
+            ReaderWorkScheduler.write {
+                maxRunning.accumulateAndGet(running.incrementAndGet()) { a, b -> maxOf(a, b) }
+                order.add(i)
+                running.decrementAndGet()
+                latch.countDown()
+            }
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue
+        assertThat(order).isEqualTo((0 until NUM_TASKS).toList())
+        assertThat(maxRunning.get()).isEqualTo(1)
+        assertThat(ReaderWorkScheduler.getStats(Lane.WRITE).maxQueueDepth).isGreaterThan(0)
+        // the latch is counted down before the task finishes, so wait for the stats of the last task
+        waitFor { ReaderWorkScheduler.getStats(Lane.WRITE).numRun >= numRunBefore + NUM_TASKS }
+    }
+
+    private fun waitFor(condition: () -> Boolean) {
+        val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10)
+        while (!condition() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        assertThat(condition()).isTrue
+    }
+}
@@ -0,0 +1,90 @@
+package org.wordpress.android.ui.reader.utils
+
+import android.os.Build.VERSION_CODES
+import org.assertj.core.api.Assertions.assertThat
+import org.json.JSONObject
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.wordpress.android.TestApplication
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApplication::class, sdk = [VERSION_CODES.LOLLIPOP])
+class ImageSizeMapTest {
+    @Test
+    fun `sizes survive encoding`() {
+        val sizes = ImageSizeMap(createContent(20), createAttachmentsJson(20))
+
+        val decoded = ImageSizeMap.fromBytes(sizes.toBytes())
+
+        assertThat(sizes).hasSize(20)
+        assertThat(decoded).isNotNull
+        assertThat(decoded!!.keys).isEqualTo(sizes.keys)
+        for ((url, size) in sizes) {
+            assertThat(decoded.getImageSize(url)?.width).isEqualTo(size.width)
+            assertThat(decoded.getImageSize(url)?.height).isEqualTo(size.height)
+        }
+    }
+
+    @Test
+    fun `images which aren't in the content are left out`() {
+        val sizes = ImageSizeMap(createContent(2), createAttachmentsJson(5))
+
+        assertThat(sizes).hasSize(2)
+        assertThat(ImageSizeMap.fromBytes(sizes.toBytes())).hasSize(2)
+    }
+
+    @Test
+    fun `missing or unknown encodings are rejected`() {
+        assertThat(ImageSizeMap.fromBytes(null)).isNull()
+        assertThat(ImageSizeMap.fromBytes(ByteArray(0))).isNull()
+        assertThat(ImageSizeMap.fromBytes(byteArrayOf(99, 0, 0, 0, 0))).isNull()
+        // truncated
+        assertThat(ImageSizeMap.fromBytes(byteArrayOf(1, 0, 0, 0, 1))).isNull()
+    }
+
+    @Test
+    fun `the largest image is found using attachment sizes when the tag has no width`() {
+        val content = """<img src="https://example.files.wordpress.com/2020/01/image-1.jpg">""" +
+                """<img src="https://example.files.wordpress.com/2020/01/image-2.jpg" width="300">"""
+        val sizes = ImageSizeMap(content, createAttachmentsJson(2))
+        val scanner = ReaderImageScanner(content, false)
+
+        assertThat(scanner.getLargestImage(640)).isNull()
+        assertThat(scanner.getLargestImage(640, sizes))
+                .isEqualTo("https://example.files.wordpress.com/2020/01/image-1.jpg")
+    }
+
+    private fun createContent(numImages: Int) = (1..numImages).joinToString("") {
+        """<img src="https://example.files.wordpress.com/2020/01/image-$it.jpg?w=300">"""
+    }
+
+    /*
+     * the attachments section of the post endpoints, which has several fields besides the size
+     */
+    private fun createAttachmentsJson(numImages: Int): String {
+        val json = JSONObject()
+        for (i in 1..numImages) {
+            json.put(
+                    (1000 + i).toString(), JSONObject()
+                    .put("ID", 1000 + i)
+                    .put("URL", "https://example.files.wordpress.com/2020/01/image-$i.jpg")
+                    .put("guid", "http://example.files.wordpress.com/2020/01/image-$i.jpg")
+                    .put("date", "2020-01-01T00:00:00+00:00")
+                    .put("post_ID", 1)
+                    .put("author_ID", 1)
+                    .put("file", "image-$i.jpg")
+                    .put("mime_type", "image/jpeg")
+                    .put("extension", "jpg")
+                    .put("title", "Image $i")
+                    .put("caption", "")
+                    .put("description", "")
+                    .put("alt", "")
+                    .put("height", 600 + i)
+                    .put("width", 800 + i)
+            )
+        }
+        return json.toString()
+    }
+}
@@ -0,0 +1,125 @@
+package org.wordpress.android.ui.reader.utils
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.wordpress.android.models.ReaderComment
+import org.wordpress.android.models.ReaderCommentList
+import kotlin.random.Random
+
+class ReaderCommentLevelerTest {
+    @Test
+    fun `replies are placed below their parents in depth-first order`() {
+        val comments = commentListOf(
+                createComment(1, 0),
+                createComment(2, 0),
+                createComment(3, 1),
+                createComment(4, 3),
+                createComment(5, 1),
+                createComment(6, 2)
+        )
+
+        val result = ReaderCommentLeveler(comments).createLevelList()
+
+        assertThat(result.map { it.commentId }).containsExactly(1L, 3L, 4L, 5L, 2L, 6L)
+        assertThat(result.map { it.level }).containsExactly(0, 1, 2, 1, 0, 1)
+    }
+
+    @Test
+    fun `orphans and their replies are left out`() {
+        val comments = commentListOf(
+                createComment(1, 0),
+                createComment(2, 99),
+                createComment(3, 2)
+        )
+
+        val result = ReaderCommentLeveler(comments).createLevelList()
+
+        assertThat(result.map { it.commentId }).containsExactly(1L)
+        assertThat(comments.map { it.level }).containsExactly(0, 0, 0)
+    }
+
+    @Test
+    fun `deep reply chains don't overflow the stack`() {
+        val comments = ReaderCommentList()
+        for (id in 1L..20_000L) {
+            comments.add(createComment(id, id - 1))
+        }
+
+        val result = ReaderCommentLeveler(comments).createLevelList()
+
+        assertThat(result).hasSize(20_000)
+        assertThat(result.last().level).isEqualTo(19_999)
+    }
+
+    @Test
+    fun `matches the level-by-level leveler for random threads`() {
+        val random = Random(42)
+        repeat(50) {
+            val comments = createRandomThread(random, random.nextInt(1, 300))
+
+            val expected = levelByLevel(comments).map { it.commentId to it.level }
+            val actual = ReaderCommentLeveler(comments).createLevelList().map { it.commentId to it.level }
+
+            assertThat(actual).isEqualTo(expected)
+        }
+    }
+
+    /*
+     * each comment replies to a random earlier comment, or is a root comment, with a few orphans
+     */
+    private fun createRandomThread(random: Random, numComments: Int): ReaderCommentList {
+        val comments = ReaderCommentList()
+        for (id in 1L..numComments) {
+            val parentId = when (random.nextInt(10)) {
+                0, 1, 2 -> 0L
+                3 -> id + numComments
+                else -> if (id > 1) random.nextLong(1, id) else 0L
+            }
+            comments.add(createComment(id, parentId))
+        }
+        comments.shuffle(random)
+        return comments
+    }
+
+    /*
+     * the leveler this replaced, which inserts the replies to each level of comments below their
+     * parents until there are none left - its orphan check only looked at comments which had
+     * already been placed, so it never matched and orphans were left out
+     */
+    private fun levelByLevel(comments: ReaderCommentList): ReaderCommentList {
+        val result = ReaderCommentList()
+        for (comment in comments) {
+            comment.level = 0
+            if (comment.parentId == 0L) {
+                result.add(comment)
+            }
+        }
+
+        var level = 0
+        do {
+            var hasChanges = false
+            var index = 0
+            while (index < result.size) {
+                val parent = result[index]
+                if (parent.level == level) {
+                    val children = comments.filter { it.parentId == parent.commentId }
+                    children.forEach { it.level = level + 1 }
+                    result.addAll(index + 1, children)
+                    hasChanges = hasChanges || children.isNotEmpty()
+                    index += children.size
+                }
+                index++
+            }
+            level++
+        } while (hasChanges)
+
+        return result
+    }
+
+    private fun createComment(commentId: Long, parentId: Long) = ReaderComment().apply {
+        this.commentId = commentId
+        this.parentId = parentId
+    }
+
+    private fun commentListOf(vararg comments: ReaderComment) = ReaderCommentList().apply { addAll(comments) }
+}
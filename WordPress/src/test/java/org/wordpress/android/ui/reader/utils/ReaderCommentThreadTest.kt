@@ -0,0 +1,101 @@
+package org.wordpress.android.ui.reader.utils
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.wordpress.android.models.ReaderComment
+import org.wordpress.android.models.ReaderCommentList
+import kotlin.random.Random
+
+class ReaderCommentThreadTest {
+    @Test
+    fun `replies merged in later pages are threaded under their parents`() {
+        val thread = ReaderCommentThread()
+
+        thread.merge(commentListOf(createComment(1, 0, 10), createComment(2, 0, 20)))
+        thread.merge(commentListOf(createComment(3, 1, 30), createComment(4, 3, 40)))
+
+        val result = thread.levelList
+        assertThat(result.map { it.commentId }).containsExactly(1L, 3L, 4L, 2L)
+        assertThat(result.map { it.level }).containsExactly(0, 1, 2, 0)
+    }
+
+    @Test
+    fun `replies wait for their parent to be merged`() {
+        val thread = ReaderCommentThread()
+
+        thread.merge(commentListOf(createComment(1, 0, 10), createComment(3, 2, 30)))
+        assertThat(thread.levelList.map { it.commentId }).containsExactly(1L)
+
+        thread.merge(commentListOf(createComment(2, 1, 20)))
+        assertThat(thread.levelList.map { it.commentId }).containsExactly(1L, 2L, 3L)
+    }
+
+    @Test
+    fun `merging a comment again replaces it`() {
+        val thread = ReaderCommentThread()
+        thread.merge(commentListOf(createComment(1, 0, 10)))
+
+        val updated = createComment(1, 0, 10).apply { numLikes = 5 }
+        assertThat(thread.merge(commentListOf(updated))).isTrue
+
+        assertThat(thread.size()).isEqualTo(1)
+        assertThat(thread.levelList.single().numLikes).isEqualTo(5)
+        assertThat(thread.merge(ReaderCommentList())).isFalse
+    }
+
+    @Test
+    fun `a comment which replies to itself is left out`() {
+        val thread = ReaderCommentThread()
+
+        thread.merge(commentListOf(createComment(1, 0, 10), createComment(2, 2, 20)))
+
+        assertThat(thread.levelList.map { it.commentId }).containsExactly(1L)
+    }
+
+    @Test
+    fun `matches the leveler whichever order the pages are merged in`() {
+        val random = Random(42)
+        repeat(50) {
+            val comments = createRandomThread(random, random.nextInt(1, 300))
+
+            val sorted = ReaderCommentList().apply {
+                addAll(comments.sortedWith(compareBy({ it.timestamp }, { it.commentId })))
+            }
+            val expected = ReaderCommentLeveler(sorted).createLevelList().map { it.commentId to it.level }
+
+            val thread = ReaderCommentThread()
+            comments.chunked(random.nextInt(1, 50)).forEach { page ->
+                thread.merge(ReaderCommentList().apply { addAll(page) })
+            }
+            val actual = thread.levelList.map { it.commentId to it.level }
+
+            assertThat(actual).isEqualTo(expected)
+        }
+    }
+
+    /*
+     * each comment replies to a random earlier comment, or is a root comment, with a few orphans - the
+     * comments are shuffled and some share a timestamp so they're ordered by ID
+     */
+    private fun createRandomThread(random: Random, numComments: Int): ReaderCommentList {
+        val comments = ReaderCommentList()
+        for (id in 1L..numComments) {
+            val parentId = when (random.nextInt(10)) {
+                0, 1, 2 -> 0L
+                3 -> id + numComments
+                else -> if (id > 1) random.nextLong(1, id) else 0L
+            }
+            comments.add(createComment(id, parentId, id / 3))
+        }
+        comments.shuffle(random)
+        return comments
+    }
+
+    private fun createComment(commentId: Long, parentId: Long, timestamp: Long) = ReaderComment().apply {
+        this.commentId = commentId
+        this.parentId = parentId
+        this.timestamp = timestamp
+    }
+
+    private fun commentListOf(vararg comments: ReaderComment) = ReaderCommentList().apply { addAll(comments) }
+}
@@ -0,0 +1,150 @@
+package org.wordpress.android.ui.reader.utils
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import java.util.regex.Pattern
+
+private const val GALLERY_CLASS = "gallery-only-class123"
+
+/**
+ * Compares ReaderHtmlRewriter with the multi-pass rewrite ReaderPostRenderer used before it, which is kept
+ * here as the reference implementation.
+ */
+class ReaderHtmlRewriterTest {
+    private val tagRewriter = object : ReaderHtmlRewriter.TagRewriter {
+        override fun rewriteImageTag(imageTag: String, imageUrl: String): String? {
+            if (imageUrl.contains("wpcom-smileys") || imageTag.contains("wp-story")) {
+                return null
+            }
+            return "<img class='size-full' src='$imageUrl?w=600' width='300' height='200' />"
+        }
+
+        override fun rewriteIframeTag(iframeTag: String, src: String): String {
+            return "<iframe src='$src' frameborder='0' width='300' height='169' />"
+        }
+    }
+
+    @Test
+    fun `images are resized and iframes replaced`() {
+        assertSameAsLegacy("""<p>Intro</p><img src="https://example.com/a.jpg" width="800" height="600">
+            |<p>text</p><IMG class="aligncenter" SRC="https://example.com/b.jpg">
+            |<img src="https://example.com/a.jpg" width="800" height="600">
+            |<iframe width='560' height='315' src='https://www.youtube.com/embed/abc' allowfullscreen></iframe>
+            |<iframe src="https://example.com/double-quoted"></iframe>""".trimMargin())
+    }
+
+    @Test
+    fun `kept images still have their background colors removed`() {
+        assertSameAsLegacy("""<p>Smile <img src="https://s0.wp.com/wp-content/mu-plugins/wpcom-smileys/smile.svg"
+            | style="height: 1em; background-color: none; " alt=":)"> and a story
+            |<img class="wp-story" src="https://example.com/story.jpg"
+            | style="background-color: #000;"></p>""".trimMargin())
+    }
+
+    @Test
+    fun `background colors are removed`() {
+        assertSameAsLegacy("""<p style="background-color: #ffffff; color: #333;">one</p>
+            |<span style="background-color:#ffff00">highlighted&nbsp;text</span>
+            |<p>background-color : red ;   after</p>""".trimMargin())
+    }
+
+    @Test
+    fun `gallery classes are amended on narrow and wide displays`() {
+        val gallery = """<div class="tiled-gallery  type-rectangular" data-original-width="600">
+            |<div class="gallery-row "><div class="gallery-group 'images-1"><div class='tiled-gallery-item "large'>
+            |<img src="https://example.com/g1.jpg" width="600" height="400" data-orig-size="1200,800"></div></div></div>
+            |<div class="tiled-gallery-caption">caption</div></div>""".trimMargin()
+
+        assertSameAsLegacy(gallery, isWideDisplay = false)
+        assertSameAsLegacy(gallery, isWideDisplay = true)
+    }
+
+    @Test
+    fun `a gallery class followed by a background color is not amended`() {
+        assertSameAsLegacy("""<div class="gallery-row  background-color: red;">
+            |tiled-gallery background-color:#fff;</div>""".trimMargin())
+    }
+
+    @Test
+    fun `a gallery is detected without a class to amend`() {
+        assertSameAsLegacy("""<div class="tiled-gallery"><img src="https://example.com/g.jpg"></div>""",
+                isWideDisplay = true)
+    }
+
+    @Test
+    fun `embeds which need a script are found`() {
+        assertSameAsLegacy("""<blockquote class="instagram-media" data-instgrm-version="12"><p>photo</p></blockquote>
+            |<fb:post href="https://www.facebook.com/post/1"></fb:post>""".trimMargin())
+    }
+
+    @Test
+    fun `content without anything to rewrite is unchanged`() {
+        val content = "<p>Just some text &amp; a <a href=\"https://example.com\">link</a>.</p>"
+        assertSameAsLegacy(content)
+        assertThat(ReaderHtmlRewriter(GALLERY_CLASS, true, tagRewriter).rewrite(content)).isEqualTo(content)
+    }
+
+    @Test
+    fun `an image-heavy post is rewritten the same as the legacy rewrite`() {
+        val content = (1..500).joinToString("\n") {
+            """<p style="background-color: #fafafa;">Paragraph $it</p>
+                |<img src="https://example.com/$it.jpg" width="1024" height="768">""".trimMargin()
+        }
+        assertSameAsLegacy(content)
+    }
+
+    private fun assertSameAsLegacy(content: String, isWideDisplay: Boolean = false) {
+        val expected = legacyRewrite(content, isWideDisplay)
+
+        val resizeImages = !(isWideDisplay && TILED_GALLERY_PATTERN.matcher(content).find())
+        val rewriter = ReaderHtmlRewriter(GALLERY_CLASS, resizeImages, tagRewriter)
+        val html = rewriter.rewrite(content)
+
+        assertThat(html).isEqualTo(expected.html)
+        assertThat(rewriter.hasTiledGallery()).isEqualTo(expected.hasTiledGallery)
+        assertThat(rewriter.scripts.toList()).isEqualTo(expected.scripts.toList())
+    }
+
+    private class Result(val html: String, val hasTiledGallery: Boolean, val scripts: Set<String>)
+
+    /*
+     * the rewrite done by ReaderPostRenderer before ReaderHtmlRewriter
+     */
+    private fun legacyRewrite(content: String, isWideDisplay: Boolean): Result {
+        val builder = StringBuilder(content)
+        val hasTiledGallery = TILED_GALLERY_PATTERN.matcher(builder.toString()).find()
+
+        if (!(hasTiledGallery && isWideDisplay)) {
+            ReaderImageScanner(builder.toString(), false).beginScan { tag, url ->
+                tagRewriter.rewriteImageTag(tag, url)?.let { replaceTag(builder, tag, it) }
+            }
+        }
+        ReaderIframeScanner(builder.toString()).beginScan { tag, src ->
+            replaceTag(builder, tag, tagRewriter.rewriteIframeTag(tag, src))
+        }
+        val scripts = HashSet<String>()
+        ReaderEmbedScanner(builder.toString()).beginScan { _, src -> scripts.add(src) }
+
+        var html = builder.toString().replace(Regex("\\s*(background-color)\\s*:\\s*.+?\\s*;\\s*"), "")
+        for (classToAmend in CLASS_AMEND_REGEXES) {
+            html = html.replace(Regex(classToAmend), "$1 $GALLERY_CLASS$2")
+        }
+        return Result(html, hasTiledGallery, scripts)
+    }
+
+    private fun replaceTag(builder: StringBuilder, tag: String, newTag: String) {
+        val start = builder.indexOf(tag)
+        if (start != -1) {
+            builder.replace(start, start + tag.length, newTag)
+        }
+    }
+
+    companion object {
+        private val TILED_GALLERY_PATTERN = Pattern.compile("tiled-gallery[\\s\"']")
+        private val CLASS_AMEND_REGEXES = listOf(
+                "(tiled-gallery) ([\\s\"'])",
+                "(gallery-row) ([\\s\"'])",
+                "(gallery-group) ([\\s\"'])",
+                "(tiled-gallery-item) ([\\s\"'])")
+    }
+}
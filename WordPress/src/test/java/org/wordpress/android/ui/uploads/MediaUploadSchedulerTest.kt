@@ -0,0 +1,125 @@
+package org.wordpress.android.ui.uploads
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.wordpress.android.fluxc.model.MediaModel
+
+class MediaUploadSchedulerTest {
+    private lateinit var scheduler: MediaUploadScheduler
+
+    @Before
+    fun setUp() {
+        scheduler = MediaUploadScheduler(2)
+    }
+
+    @Test
+    fun `startNext respects the per-site concurrency limit`() {
+        (1..4).forEach { scheduler.enqueue(createMedia(id = it, postId = 1)) }
+
+        assertThat(scheduler.startNext()?.id).isEqualTo(1)
+        assertThat(scheduler.startNext()?.id).isEqualTo(2)
+        assertThat(scheduler.startNext()).isNull()
+
+        scheduler.complete(1)
+
+        assertThat(scheduler.startNext()?.id).isEqualTo(3)
+    }
+
+    @Test
+    fun `the concurrency limit applies to each site separately`() {
+        scheduler.enqueue(createMedia(id = 1, postId = 1, siteId = 1))
+        scheduler.enqueue(createMedia(id = 2, postId = 1, siteId = 1))
+        scheduler.enqueue(createMedia(id = 3, postId = 1, siteId = 1))
+        scheduler.enqueue(createMedia(id = 4, postId = 2, siteId = 2))
+
+        val started = generateSequence { scheduler.startNext() }.map { it.id }.toList()
+
+        assertThat(started).containsExactly(1, 4, 2)
+    }
+
+    @Test
+    fun `featured images jump ahead of other pending uploads`() {
+        scheduler.enqueue(createMedia(id = 1, postId = 1))
+        scheduler.enqueue(createMedia(id = 2, postId = 1))
+        scheduler.enqueue(createMedia(id = 3, postId = 2, featured = true))
+
+        assertThat(scheduler.startNext()?.id).isEqualTo(3)
+    }
+
+    @Test
+    fun `pending uploads are interleaved across posts`() {
+        scheduler = MediaUploadScheduler(10)
+        scheduler.enqueue(createMedia(id = 1, postId = 1))
+        scheduler.enqueue(createMedia(id = 2, postId = 1))
+        scheduler.enqueue(createMedia(id = 3, postId = 1))
+        scheduler.enqueue(createMedia(id = 4, postId = 2))
+        scheduler.enqueue(createMedia(id = 5, postId = 2))
+
+        val started = generateSequence { scheduler.startNext() }.map { it.id }.toList()
+
+        assertThat(started).containsExactly(1, 4, 2, 5, 3)
+    }
+
+    @Test
+    fun `the same file is not enqueued twice for the same post`() {
+        assertThat(scheduler.enqueue(createMedia(id = 1, postId = 1, filePath = "/a.jpg"))).isTrue()
+        assertThat(scheduler.enqueue(createMedia(id = 2, postId = 1, filePath = "/a.jpg"))).isFalse()
+        assertThat(scheduler.enqueue(createMedia(id = 3, postId = 2, filePath = "/a.jpg"))).isTrue()
+        assertThat(scheduler.enqueue(createMedia(id = 4, postId = 1, filePath = "/a.jpg", featured = true))).isTrue()
+    }
+
+    @Test
+    fun `a completed file can be enqueued again`() {
+        scheduler.enqueue(createMedia(id = 1, postId = 1, filePath = "/a.jpg"))
+        scheduler.startNext()?.filePath = "/optimized.jpg"
+        scheduler.complete(1)
+
+        assertThat(scheduler.enqueue(createMedia(id = 2, postId = 1, filePath = "/a.jpg"))).isTrue()
+    }
+
+    @Test
+    fun `post lookups reflect pending and in-progress state`() {
+        scheduler.enqueue(createMedia(id = 1, postId = 1))
+        scheduler.enqueue(createMedia(id = 2, postId = 1))
+
+        assertThat(scheduler.hasPendingForPost(1)).isTrue()
+        assertThat(scheduler.hasInProgressForPost(1)).isFalse()
+
+        scheduler.startNext()
+
+        assertThat(scheduler.hasPendingForPost(1)).isTrue()
+        assertThat(scheduler.hasInProgressForPost(1)).isTrue()
+        assertThat(scheduler.getPendingOrInProgressForPost(1).map { it.id }).containsExactly(1, 2)
+        assertThat(scheduler.isInProgress(1)).isTrue()
+        assertThat(scheduler.isPendingOrInProgress(2)).isTrue()
+
+        scheduler.startNext()
+        scheduler.complete(1)
+        scheduler.complete(2)
+
+        assertThat(scheduler.hasPendingForPost(1)).isFalse()
+        assertThat(scheduler.hasInProgressForPost(1)).isFalse()
+        assertThat(scheduler.isEmpty).isTrue()
+    }
+
+    @Test
+    fun `throughput is zero for media that is not uploading`() {
+        assertThat(scheduler.getThroughputForMedia(1)).isEqualTo(0)
+        assertThat(scheduler.aggregateThroughput).isEqualTo(0)
+    }
+
+    private fun createMedia(
+        id: Int,
+        postId: Int,
+        siteId: Int = 1,
+        filePath: String = "/media-$id.jpg",
+        featured: Boolean = false
+    ) = MediaModel().apply {
+        this.id = id
+        this.localPostId = postId
+        this.localSiteId = siteId
+        this.filePath = filePath
+        this.markedLocallyAsFeatured = featured
+    }
+}
@@ -0,0 +1,42 @@
+package org.wordpress.android.networking;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request.Method;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.wordpress.rest.RestRequest;
+
+import org.json.JSONObject;
+
+/**
+ * A GET request to the REST API which hands the response body to its listener as it was received, rather than
+ * building a JSONObject from it first, so large responses can be read with a streaming parser.
+ */
+public class RawRestRequest extends RestRequest {
+    public interface RawListener {
+        void onResponse(byte[] body);
+    }
+
+    private final RawListener mRawListener;
+    private byte[] mBody;
+
+    public RawRestRequest(String url, RawListener listener, ErrorListener errorListener) {
+        super(Method.GET, url, null, null, errorListener);
+        mRawListener = listener;
+        // the body is held until it's delivered, so don't let a cached response and a refreshed one overlap
+        setShouldCache(false);
+    }
+
+    @Override
+    protected Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
+        mBody = response.data;
+        return Response.success(null, HttpHeaderParser.parseCacheHeaders(response));
+    }
+
+    @Override
+    protected void deliverResponse(JSONObject response) {
+        if (mRawListener != null) {
+            mRawListener.onResponse(mBody);
+        }
+    }
+}
@@ -248,6 +248,24 @@ public class RestClientUtils {
      */
     public Request<JSONObject> get(String path, Map<String, String> params, RetryPolicy retryPolicy, Listener listener,
                     ErrorListener errorListener) {
+        RestRequest request = mRestClient.makeRequest(Method.GET, getAbsoluteGetUrl(path, params), null, listener,
+                errorListener);
+        sendGet(request, retryPolicy, errorListener);
+        return request;
+    }
+
+    /**
+     * Make GET request with params whose response body is passed to the listener without being parsed
+     */
+    public Request<JSONObject> getRaw(String path, Map<String, String> params, RetryPolicy retryPolicy,
+                                      RawRestRequest.RawListener listener, ErrorListener errorListener) {
+        RawRestRequest request = new RawRestRequest(getAbsoluteGetUrl(path, params), listener, errorListener);
+        request.setUserAgent(sUserAgent);
+        sendGet(request, retryPolicy, errorListener);
+        return request;
+    }
+
+    private String getAbsoluteGetUrl(String path, Map<String, String> params) {
         // turn params into query string
         HashMap<String, String> paramsWithLocale = getRestLocaleParams(mContext);
         if (params != null) {
@@ -260,16 +278,16 @@ public class RestClientUtils {
         }
         paramsWithLocale.putAll(getSanitizedParameters(path));
 
-        RestRequest request = mRestClient.makeRequest(Method.GET, mRestClient
-                        .getAbsoluteURL(realPath, paramsWithLocale), null, listener, errorListener);
+        return mRestClient.getAbsoluteURL(realPath, paramsWithLocale);
+    }
 
+    private void sendGet(RestRequest request, RetryPolicy retryPolicy, ErrorListener errorListener) {
         if (retryPolicy == null) {
             retryPolicy = new DefaultRetryPolicy(REST_TIMEOUT_MS, REST_MAX_RETRIES_GET, REST_BACKOFF_MULT);
         }
         request.setRetryPolicy(retryPolicy);
         AuthenticatorRequest authCheck = new AuthenticatorRequest(request, errorListener, mRestClient, mAuthenticator);
         authCheck.send();
-        return request;
     }
 
     /**